@@ -16,10 +16,15 @@
 
 package io.github.alttpj.memeforcehunt.app.cli;
 
+import io.github.alttpj.memeforcehunt.app.cli.commands.DedupeSkins;
 import io.github.alttpj.memeforcehunt.app.cli.commands.ListSkins;
+import io.github.alttpj.memeforcehunt.app.cli.commands.PatchBatch;
+import io.github.alttpj.memeforcehunt.app.cli.commands.SearchSkins;
 import io.github.alttpj.memeforcehunt.app.cli.commands.SetSkin;
 import io.github.alttpj.memeforcehunt.app.cli.commands.StartGui;
+import io.github.alttpj.memeforcehunt.app.cli.commands.VerifySkins;
 import io.github.alttpj.memeforcehunt.app.cli.internal.SuppressForbidden;
+import io.github.alttpj.memeforcehunt.common.sprites.DefaultSpritemapWithSkins;
 
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
@@ -28,15 +33,22 @@ import java.awt.GraphicsEnvironment;
 import java.util.concurrent.Callable;
 
 @Command(subcommands = {
+    DedupeSkins.class,
     ListSkins.class,
+    PatchBatch.class,
+    SearchSkins.class,
     SetSkin.class,
-    StartGui.class
+    StartGui.class,
+    VerifySkins.class
 })
 public class MemeforceHuntApp implements Callable<Integer> {
 
   private static CommandLine commandLine;
 
   public static void main(final String[] args) {
+    // parse the shipped skins while picocli and the gui start up, commands wait for them only when needed.
+    DefaultSpritemapWithSkins.loadAsync();
+
     final MemeforceHuntApp memeforceHuntApp = new MemeforceHuntApp();
     commandLine = new CommandLine(memeforceHuntApp);
     commandLine.execute(args);
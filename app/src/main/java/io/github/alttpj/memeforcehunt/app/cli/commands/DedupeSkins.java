@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.app.cli.commands;
+
+import io.github.alttpj.memeforcehunt.app.config.YamlConfigurator;
+import io.github.alttpj.memeforcehunt.common.sprites.DefaultSpritemapWithSkins;
+import io.github.alttpj.memeforcehunt.common.sprites.SpritemapIndex;
+import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.lib.DuplicateSkinFinder;
+import io.github.alttpj.memeforcehunt.lib.LibrarySpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.lib.SpriteLibrary;
+
+import picocli.CommandLine.Command;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Command(name = "dedupe", description = "Lists shipped and library skins which have identical tiles and palette.")
+public class DedupeSkins implements Callable<Integer> {
+
+  private static final Logger STDOUT = Logger.getLogger("STDOUT");
+
+  @Override
+  public Integer call() throws Exception {
+    final CompletableFuture<SpritemapIndex> shippedSkins = DefaultSpritemapWithSkins.loadAsync();
+    final List<LibrarySpritemapWithSkin> librarySkins;
+
+    try (final SpriteLibrary spriteLibrary = new YamlConfigurator().createSpriteLibrary()) {
+      spriteLibrary.scan();
+      librarySkins = spriteLibrary.values();
+    }
+
+    final List<SpritemapWithSkin> skins = new ArrayList<>(shippedSkins.join().values());
+    skins.addAll(librarySkins);
+
+    final List<DuplicateSkinFinder.DuplicateGroup> duplicates = DuplicateSkinFinder.find(skins);
+    for (final DuplicateSkinFinder.DuplicateGroup duplicate : duplicates) {
+      STDOUT.log(Level.INFO, () -> String.format(Locale.ENGLISH,
+          "Content [%s] is shared by [%d] skins:", duplicate.contentHash(), duplicate.skins().size()));
+      duplicate.skins().forEach(ListSkins::printSkin);
+    }
+
+    final int redundant = duplicates.stream().mapToInt(duplicate -> duplicate.skins().size() - 1).sum();
+    STDOUT.log(Level.INFO, () -> String.format(Locale.ENGLISH,
+        "Checked [%d] skins, found [%d] distinct contents with duplicates and [%d] redundant skins.",
+        skins.size(), duplicates.size(), redundant));
+
+    return 0;
+  }
+}
@@ -17,8 +17,10 @@
 package io.github.alttpj.memeforcehunt.app.cli.commands;
 
 import io.github.alttpj.memeforcehunt.app.cli.internal.SuppressForbidden;
+import io.github.alttpj.memeforcehunt.app.config.YamlConfigurator;
 import io.github.alttpj.memeforcehunt.common.sprites.DefaultSpritemapWithSkins;
 import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.lib.SpriteLibrary;
 
 import picocli.CommandLine.Command;
 
@@ -26,7 +28,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.Callable;
 
-@Command(name = "list", aliases = {"ls"}, description = "List available (shipped) skins.")
+@Command(name = "list", aliases = {"ls"}, description = "List available skins, shipped ones first, then those from the sprite library.")
 public class ListSkins implements Callable<Integer> {
 
   @Override
@@ -35,11 +37,16 @@ public class ListSkins implements Callable<Integer> {
 
     values.forEach(ListSkins::printSkin);
 
+    try (final SpriteLibrary spriteLibrary = new YamlConfigurator().createSpriteLibrary()) {
+      spriteLibrary.scan();
+      spriteLibrary.values().forEach(ListSkins::printSkin);
+    }
+
     return 0;
   }
 
   @SuppressForbidden
-  private static void printSkin(final SpritemapWithSkin spritemapWithSkin) {
+  static void printSkin(final SpritemapWithSkin spritemapWithSkin) {
     final String format = String.format(Locale.ENGLISH,
         "[%26S] %-16s by %-16s - %-32s",
         spritemapWithSkin.getId().toString(),
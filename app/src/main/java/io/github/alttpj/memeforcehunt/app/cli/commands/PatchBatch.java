@@ -0,0 +1,252 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.app.cli.commands;
+
+import io.github.alttpj.memeforcehunt.app.cli.ToLogPrintStream;
+import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.lib.AlttpRomPatcher;
+import io.github.alttpj.memeforcehunt.lib.PatchJob;
+import io.github.alttpj.memeforcehunt.lib.PatchResult;
+import io.github.alttpj.memeforcehunt.lib.compress.CompressionMode;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Command(name = "patch-batch", description = "Patches many ROMs concurrently.")
+public class PatchBatch implements Callable<Integer> {
+
+  private static final Logger LOGGER = Logger.getLogger(PatchBatch.class.getCanonicalName());
+  private static final Logger STDOUT = Logger.getLogger("STDOUT");
+  private static final Logger STDERR = Logger.getLogger("STDERR");
+
+  private static final String GLOB_CHARACTERS = "*?[{";
+
+  @CommandLine.Parameters(
+      paramLabel = "ROM",
+      description = "ROM files (\"*.sfc\") or glob patterns (e.g. \"seeds/**.sfc\") to patch with the skin given by -s.")
+  private List<String> roms = new ArrayList<>();
+
+  @CommandLine.Option(names = {"-s", "--skin"}, description = "The Skin ULID or name to patch into the ROMs given as parameters.")
+  private String skin;
+
+  @CommandLine.Option(
+      names = {"-m", "--manifest"},
+      description = "A file with one \"<skin> <rom>\" pair per line. Empty lines and lines starting with # are ignored.")
+  private File manifest;
+
+  @CommandLine.Option(
+      names = {"-j", "--threads"},
+      description = "The number of ROMs to patch at the same time. Defaults to the number of processors.")
+  private int threads = Runtime.getRuntime().availableProcessors();
+
+  @CommandLine.Mixin
+  private PatchOffsetOption patchOffsetOption;
+
+  @CommandLine.Option(
+      names = {"--compression"},
+      description = "Compression mode, one of ${COMPLETION-CANDIDATES}. Defaults to ${DEFAULT-VALUE}. "
+          + "FAST falls back to OPTIMAL for sprites which would not fit otherwise.",
+      defaultValue = "FAST")
+  private CompressionMode compressionMode;
+
+  private final SkinLookup skinLookup = new SkinLookup();
+
+  @Override
+  public Integer call() throws IOException, InterruptedException {
+    if (this.manifest == null && this.roms.isEmpty()) {
+      STDERR.log(Level.SEVERE, "You must either specify ROMs or a manifest (-m).");
+      CommandLine.usage(this, new ToLogPrintStream(STDERR, Level.SEVERE));
+      return 1;
+    }
+
+    if (!this.roms.isEmpty() && this.skin == null) {
+      STDERR.log(Level.SEVERE, "You must specify a skin (-s) for the ROMs given as parameters.");
+      CommandLine.usage(this, new ToLogPrintStream(STDERR, Level.SEVERE));
+      return 1;
+    }
+
+    final List<PatchJob> patchJobs = new ArrayList<>();
+    int invalidEntries = addRomParameters(patchJobs);
+    if (this.manifest != null) {
+      invalidEntries += addManifestEntries(patchJobs);
+    }
+
+    final AlttpRomPatcher alttpRomPatcher = createPatcher();
+    STDOUT.log(Level.INFO, () -> String.format(Locale.ENGLISH, "Patching [%d] ROMs using [%d] threads.", patchJobs.size(), this.threads));
+
+    final List<PatchResult> results;
+    try {
+      results = alttpRomPatcher.patchAll(patchJobs, this.threads, PatchBatch::reportResult);
+    } catch (final IllegalArgumentException illegalArgumentException) {
+      STDERR.log(Level.SEVERE, illegalArgumentException.getMessage());
+      return 1;
+    }
+
+    final long failed = results.stream().filter(result -> !result.isSuccessful()).count();
+    STDOUT.log(Level.INFO, () -> String.format(Locale.ENGLISH,
+        "Patched [%d] ROMs, [%d] failed.", results.size() - failed, failed));
+    LOGGER.log(Level.FINE, () -> "Spritemap cache: " + alttpRomPatcher.getSpritemapCache());
+
+    return failed == 0 && invalidEntries == 0 ? 0 : 1;
+  }
+
+  private AlttpRomPatcher createPatcher() {
+    final AlttpRomPatcher alttpRomPatcher = new AlttpRomPatcher();
+    alttpRomPatcher.setCompressionMode(this.compressionMode);
+    this.patchOffsetOption.applyTo(alttpRomPatcher);
+
+    return alttpRomPatcher;
+  }
+
+  private int addRomParameters(final List<PatchJob> patchJobs) throws IOException {
+    if (this.roms.isEmpty()) {
+      return 0;
+    }
+
+    final Optional<SpritemapWithSkin> skinToPatch = this.skinLookup.findByIdOrName(this.skin);
+    if (skinToPatch.isEmpty()) {
+      STDERR.log(Level.SEVERE, "You must select a valid skin ID or name. [" + this.skin + "] was not found.");
+      return this.roms.size();
+    }
+
+    int invalidEntries = 0;
+    for (final String rom : this.roms) {
+      final List<Path> romPaths = expandGlob(rom);
+      if (romPaths.isEmpty()) {
+        STDERR.log(Level.SEVERE, "No ROM matches [" + rom + "].");
+        invalidEntries++;
+        continue;
+      }
+
+      for (final Path romPath : romPaths) {
+        patchJobs.add(new PatchJob(romPath.toAbsolutePath().normalize().toString(), skinToPatch.orElseThrow()));
+      }
+    }
+
+    return invalidEntries;
+  }
+
+  @SuppressFBWarnings(
+      value = "PATH_TRAVERSAL_IN",
+      justification = "reading user supplied manifest file"
+  )
+  private int addManifestEntries(final List<PatchJob> patchJobs) throws IOException {
+    final Path manifestDirectory = this.manifest.getAbsoluteFile().toPath().getParent();
+    final List<String> lines = Files.readAllLines(this.manifest.toPath(), StandardCharsets.UTF_8);
+    int invalidEntries = 0;
+
+    for (int lineNumber = 1; lineNumber <= lines.size(); lineNumber++) {
+      final String line = lines.get(lineNumber - 1).strip();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+
+      final String[] skinAndRom = line.split("\\s+", 2);
+      final Optional<SpritemapWithSkin> skinToPatch = this.skinLookup.findByIdOrName(skinAndRom[0]);
+      if (skinAndRom.length != 2 || skinToPatch.isEmpty()) {
+        STDERR.log(Level.SEVERE, "Invalid manifest entry in line [" + lineNumber + "]: [" + line + "].");
+        invalidEntries++;
+        continue;
+      }
+
+      final Path romPath = manifestDirectory.resolve(skinAndRom[1]);
+      patchJobs.add(new PatchJob(romPath.toAbsolutePath().normalize().toString(), skinToPatch.orElseThrow()));
+    }
+
+    return invalidEntries;
+  }
+
+  /**
+   * Expands a glob pattern like {@code seeds/*.sfc}. Anything which is not a glob pattern is returned as is.
+   *
+   * <p>The directory tree is only walked starting from the last path element without glob characters.</p>
+   *
+   * @param rom a path or glob pattern.
+   * @return the matching paths, sorted.
+   * @throws IOException error walking the file tree.
+   */
+  @SuppressFBWarnings(
+      value = "PATH_TRAVERSAL_IN",
+      justification = "expanding user supplied glob pattern"
+  )
+  private static List<Path> expandGlob(final String rom) throws IOException {
+    final String separatorsUnified = rom.replace(File.separatorChar, '/');
+    final int firstGlobChar = indexOfGlobCharacter(separatorsUnified);
+    if (firstGlobChar == -1) {
+      return List.of(Paths.get(rom));
+    }
+
+    final int lastSeparator = separatorsUnified.lastIndexOf('/', firstGlobChar);
+    final Path baseDirectory = lastSeparator == -1 ? Paths.get("") : Paths.get(separatorsUnified.substring(0, lastSeparator + 1));
+    final PathMatcher pathMatcher = FileSystems.getDefault()
+        .getPathMatcher("glob:" + separatorsUnified.substring(lastSeparator + 1));
+
+    try (final Stream<Path> candidates = Files.walk(baseDirectory.toAbsolutePath())) {
+      final Path absoluteBase = baseDirectory.toAbsolutePath();
+
+      return candidates
+          .filter(Files::isRegularFile)
+          .filter(candidate -> pathMatcher.matches(absoluteBase.relativize(candidate)))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static int indexOfGlobCharacter(final String rom) {
+    for (int charIndex = 0; charIndex < rom.length(); charIndex++) {
+      if (GLOB_CHARACTERS.indexOf(rom.charAt(charIndex)) != -1) {
+        return charIndex;
+      }
+    }
+
+    return -1;
+  }
+
+  private static void reportResult(final PatchResult patchResult) {
+    final String romTarget = patchResult.patchJob().romTarget();
+    final String skinName = patchResult.patchJob().spritemapWithSkin().getSpriteName();
+
+    if (patchResult.isSuccessful()) {
+      STDOUT.log(Level.INFO, () -> String.format(Locale.ENGLISH,
+          "Patched [%s] with skin [%s] in [%d] ms.", romTarget, skinName, patchResult.duration().toMillis()));
+      return;
+    }
+
+    LOGGER.log(Level.FINE, patchResult.failure(), () -> "Unable to patch file [" + romTarget + "].");
+    STDERR.log(Level.SEVERE, () -> String.format(Locale.ENGLISH,
+        "Unable to patch [%s] with skin [%s]: %s", romTarget, skinName, patchResult.failure().getMessage()));
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.app.cli.commands;
+
+import io.github.alttpj.memeforcehunt.app.config.YamlConfigurator;
+import io.github.alttpj.memeforcehunt.lib.AlttpRomPatcher;
+
+import picocli.CommandLine;
+
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The {@code --offset} option shared by all commands which patch or verify ROMs.
+ *
+ * <p>Use it as {@code @CommandLine.Mixin} and call {@link #applyTo(AlttpRomPatcher)} on the patcher.
+ * An offset given on the command line wins over the custom offset from the yaml configuration.</p>
+ */
+public class PatchOffsetOption {
+
+  private static final Logger STDOUT = Logger.getLogger("STDOUT");
+
+  /**
+   * Offset not set.
+   */
+  private static final int NO_PATCHOFFSET_OPTION_SET = -1;
+
+  @CommandLine.Option(
+      names = {"--offset"},
+      converter = HexStringConverter.class,
+      description = "Patch offset. Do not touch this setting unless you know what you do!",
+      defaultValue = "-1",
+      required = false)
+  private int patchOffset;
+
+  /**
+   * Sets the patch offset from the command line or, if not given, from the yaml configuration.
+   *
+   * @param alttpRomPatcher the patcher to configure.
+   */
+  public void applyTo(final AlttpRomPatcher alttpRomPatcher) {
+    if (this.patchOffset != NO_PATCHOFFSET_OPTION_SET) {
+      setOffset(alttpRomPatcher, this.patchOffset);
+      return;
+    }
+
+    final YamlConfigurator yamlConfigurator = new YamlConfigurator();
+    final int yamlConfigOffset = yamlConfigurator.getCustomOffsetAddress();
+    if (yamlConfigurator.useCustomPatchOffset() && yamlConfigOffset >= 0) {
+      setOffset(alttpRomPatcher, yamlConfigOffset);
+    }
+  }
+
+  private static void setOffset(final AlttpRomPatcher alttpRomPatcher, final int offset) {
+    STDOUT.log(Level.INFO, () -> String.format(Locale.ENGLISH, "Setting memory address to [0x%06X].", offset));
+    alttpRomPatcher.setOffset(offset);
+  }
+
+  static class HexStringConverter implements CommandLine.ITypeConverter<Integer> {
+
+    @Override
+    public Integer convert(final String value) {
+      return Integer.decode(value);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.app.cli.commands;
+
+import io.github.alttpj.memeforcehunt.app.config.YamlConfigurator;
+import io.github.alttpj.memeforcehunt.common.sprites.DefaultSpritemapWithSkins;
+import io.github.alttpj.memeforcehunt.common.sprites.SpritemapIndex;
+import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.lib.LibrarySpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.lib.SkinSearchIndex;
+import io.github.alttpj.memeforcehunt.lib.SpriteLibrary;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Command(name = "search", description = "Searches shipped and library skins by name, author, description and tags.")
+public class SearchSkins implements Callable<Integer> {
+
+  private static final Logger STDERR = Logger.getLogger("STDERR");
+
+  @CommandLine.Parameters(
+      paramLabel = "WORD",
+      arity = "1..*",
+      description = "The words to search for. Each word may also be the beginning of a word, or contain a typo.")
+  private List<String> words = new ArrayList<>();
+
+  @CommandLine.Option(
+      names = {"-n", "--limit"},
+      description = "The maximum number of skins to list. Defaults to ${DEFAULT-VALUE}.",
+      defaultValue = "20")
+  private int limit;
+
+  @Override
+  public Integer call() throws Exception {
+    final CompletableFuture<SpritemapIndex> shippedSkins = DefaultSpritemapWithSkins.loadAsync();
+    final List<LibrarySpritemapWithSkin> librarySkins;
+
+    try (final SpriteLibrary spriteLibrary = new YamlConfigurator().createSpriteLibrary()) {
+      spriteLibrary.scan();
+      librarySkins = spriteLibrary.values();
+    }
+
+    final SkinSearchIndex searchIndex = new SkinSearchIndex(shippedSkins.join().values());
+    searchIndex.addAll(librarySkins);
+
+    final String query = String.join(" ", this.words);
+    final List<SpritemapWithSkin> results = searchIndex.search(query, this.limit);
+    if (results.isEmpty()) {
+      STDERR.log(Level.WARNING, "No skins found for [" + query + "].");
+      return 1;
+    }
+
+    results.forEach(ListSkins::printSkin);
+
+    return 0;
+  }
+}
@@ -17,16 +17,19 @@
 package io.github.alttpj.memeforcehunt.app.cli.commands;
 
 import io.github.alttpj.memeforcehunt.app.cli.ToLogPrintStream;
-import io.github.alttpj.memeforcehunt.app.config.YamlConfigurator;
-import io.github.alttpj.memeforcehunt.common.sprites.DefaultSpritemapWithSkins;
 import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
 import io.github.alttpj.memeforcehunt.lib.AlttpRomPatcher;
+import io.github.alttpj.memeforcehunt.lib.DeltaPatchFormat;
+import io.github.alttpj.memeforcehunt.lib.PatchMode;
+import io.github.alttpj.memeforcehunt.lib.compress.CompressionMode;
 
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.concurrent.Callable;
@@ -41,28 +44,39 @@ public class SetSkin implements Callable<Integer> {
   private static final Logger STDERR = Logger.getLogger("STDERR");
   private static final ToLogPrintStream ERRORLOG_PRINTSTREAM = new ToLogPrintStream(STDERR, Level.SEVERE);
 
-  /**
-   * Offset not set.
-   */
-  private static final int NO_PATCHOFFSET_OPTION_SET = -1;
-
   @CommandLine.Option(names = {"-r", "--rom"}, description = "the ROM file (\"*.sfc\") to patch.",
       required = true)
   private File romFileToPatch;
 
-  @CommandLine.Option(names = {"-s", "--skin"}, description = "The Skin ULID or name to patch into the rom.")
+  @CommandLine.Option(
+      names = {"-s", "--skin"},
+      description = "The Skin ULID or name to patch into the rom, shipped or from the sprite library.")
   private String skin;
 
   @CommandLine.Option(names = {"-c", "--custom"}, description = "Patch from this custom spritemap file.")
   private File customSpritemapFile;
 
+  @CommandLine.Mixin
+  private PatchOffsetOption patchOffsetOption;
+
+  @CommandLine.Option(
+      names = {"--compression"},
+      description = "Compression mode, one of ${COMPLETION-CANDIDATES}. Defaults to ${DEFAULT-VALUE}. "
+          + "Use FAST for speed or OPTIMAL for the smallest spritemap.",
+      defaultValue = "OPTIMAL")
+  private CompressionMode compressionMode;
+
   @CommandLine.Option(
-      names = {"--offset"},
-      converter = HexStringConverter.class,
-      description = "Patch offset. Do not touch this setting unless you know what you do!",
-      defaultValue = "-1",
-      required = false)
-  private int patchOffset;
+      names = {"--in-place"},
+      description = "Patch the ROM in place by mapping only the spritemap into memory instead of rewriting the whole file.")
+  private boolean inPlace;
+
+  @CommandLine.Option(
+      names = {"--emit-patch"},
+      paramLabel = "PATCHFILE",
+      description = "Do not modify the ROM, but write a delta patch to this file instead. "
+          + "Creates a BPS patch for \"*.bps\" files, an IPS patch otherwise.")
+  private File patchFile;
 
   @Override
   public Integer call() {
@@ -77,7 +91,7 @@ public class SetSkin implements Callable<Integer> {
     }
 
     if (this.skin != null) {
-      return patchDefaultSkin();
+      return patchSkin();
     }
 
     if (this.customSpritemapFile != null) {
@@ -89,10 +103,14 @@ public class SetSkin implements Callable<Integer> {
     return 1;
   }
 
-  private Integer patchDefaultSkin() {
-    final Optional<SpritemapWithSkin> skinToPatchOpt = DefaultSpritemapWithSkins.values().stream()
-        .filter(this::defaultSkinIdOrNameMatches)
-        .findAny();
+  private Integer patchSkin() {
+    final Optional<SpritemapWithSkin> skinToPatchOpt;
+    try {
+      skinToPatchOpt = new SkinLookup().findByIdOrName(this.skin);
+    } catch (final IOException ioException) {
+      LOGGER.log(Level.SEVERE, ioException, () -> "Unable to scan the sprite library for skin [" + this.skin + "].");
+      return 1;
+    }
 
     if (skinToPatchOpt.isEmpty()) {
       STDERR.log(Level.SEVERE, "You must select a valid skin ID or name. [" + this.skin + "] was not found.");
@@ -103,20 +121,19 @@ public class SetSkin implements Callable<Integer> {
     final SpritemapWithSkin skinToPatch = skinToPatchOpt.orElseThrow();
 
     final AlttpRomPatcher alttpRomPatcher = new AlttpRomPatcher();
-
-    final YamlConfigurator yamlConfigurator = new YamlConfigurator();
-    final int yamlConfigOffset = yamlConfigurator.getCustomOffsetAddress();
-    if (yamlConfigurator.useCustomPatchOffset() && this.patchOffset == NO_PATCHOFFSET_OPTION_SET && yamlConfigOffset >= 0) {
-      STDOUT.log(Level.INFO, () -> String.format(Locale.ENGLISH, "Setting memory address to [0x%06X].", 0x000000));
-      alttpRomPatcher.setOffset(yamlConfigOffset);
+    alttpRomPatcher.setCompressionMode(this.compressionMode);
+    if (this.inPlace) {
+      alttpRomPatcher.setPatchMode(PatchMode.MEMORY_MAPPED);
     }
 
-    if (this.patchOffset != NO_PATCHOFFSET_OPTION_SET) {
-      STDOUT.log(Level.INFO, () -> String.format(Locale.ENGLISH, "Setting memory address to [0x%06X].", this.patchOffset));
-      alttpRomPatcher.setOffset(this.patchOffset);
-    }
+    this.patchOffsetOption.applyTo(alttpRomPatcher);
 
     try {
+      if (this.patchFile != null) {
+        emitPatch(alttpRomPatcher, skinToPatch);
+        return 0;
+      }
+
       alttpRomPatcher.patchROM(this.romFileToPatch.getAbsolutePath(), skinToPatch);
       STDOUT.log(Level.INFO, "Patched successfully.");
     } catch (final IOException ioException) {
@@ -131,8 +148,17 @@ public class SetSkin implements Callable<Integer> {
     return 0;
   }
 
-  private boolean defaultSkinIdOrNameMatches(final SpritemapWithSkin defaultSkin) {
-    return defaultSkin.getId().toString().equals(this.skin) || defaultSkin.getSpriteName().equals(this.skin);
+  @SuppressFBWarnings(
+      value = "PATH_TRAVERSAL_OUT",
+      justification = "writing user supplied patch file"
+  )
+  private void emitPatch(final AlttpRomPatcher alttpRomPatcher, final SpritemapWithSkin skinToPatch) throws IOException {
+    final DeltaPatchFormat format = DeltaPatchFormat.fromFileName(this.patchFile.getName());
+    final byte[] deltaPatch = alttpRomPatcher.createDeltaPatch(this.romFileToPatch.getAbsolutePath(), skinToPatch, format);
+
+    Files.write(this.patchFile.toPath(), deltaPatch);
+    STDOUT.log(Level.INFO, () -> String.format(Locale.ENGLISH,
+        "Wrote %s patch [%s] of [%d] bytes.", format, this.patchFile.getAbsolutePath(), deltaPatch.length));
   }
 
   private boolean hasFileAccess() {
@@ -141,7 +167,7 @@ public class SetSkin implements Callable<Integer> {
       return false;
     }
 
-    if (!this.romFileToPatch.canWrite()) {
+    if (this.patchFile == null && !this.romFileToPatch.canWrite()) {
       STDERR.log(Level.SEVERE, "File [" + this.romFileToPatch.getAbsolutePath() + "] is not writeable.");
       return false;
     }
@@ -163,12 +189,4 @@ public class SetSkin implements Callable<Integer> {
   public void setSkin(final String skin) {
     this.skin = skin;
   }
-
-  static class HexStringConverter implements CommandLine.ITypeConverter<Integer> {
-
-    @Override
-    public Integer convert(final String value) {
-      return Integer.decode(value);
-    }
-  }
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.app.cli.commands;
+
+import io.github.alttpj.memeforcehunt.app.config.YamlConfigurator;
+import io.github.alttpj.memeforcehunt.common.sprites.DefaultSpritemapWithSkins;
+import io.github.alttpj.memeforcehunt.common.sprites.SpritemapIndex;
+import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.lib.SpriteLibrary;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Finds the skins given on the command line among the shipped skins and those from the sprite library, so every
+ * skin printed by {@code list} or {@code search} can be patched.
+ *
+ * <p>Shipped skins win. The sprite library is only scanned for the first skin which is not shipped.</p>
+ */
+class SkinLookup {
+
+  private /* Nullable */ SpritemapIndex librarySkins;
+
+  /**
+   * Finds a skin by its ULID string or, if there is none, by its sprite name.
+   *
+   * @param skinIdOrName a ULID string or a sprite name.
+   * @return the skin, or empty if neither a shipped nor a library skin matches.
+   * @throws IOException error scanning the sprite library.
+   */
+  Optional<SpritemapWithSkin> findByIdOrName(final String skinIdOrName) throws IOException {
+    final Optional<SpritemapWithSkin> shippedSkin = DefaultSpritemapWithSkins.findByIdOrName(skinIdOrName);
+    if (shippedSkin.isPresent()) {
+      return shippedSkin;
+    }
+
+    return getLibrarySkins().findByIdOrName(skinIdOrName);
+  }
+
+  private SpritemapIndex getLibrarySkins() throws IOException {
+    if (this.librarySkins == null) {
+      try (final SpriteLibrary spriteLibrary = new YamlConfigurator().createSpriteLibrary()) {
+        spriteLibrary.scan();
+        this.librarySkins = SpritemapIndex.of(spriteLibrary.values());
+      }
+    }
+
+    return this.librarySkins;
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.app.cli.commands;
+
+import io.github.alttpj.memeforcehunt.common.sprites.DefaultSpritemapWithSkins;
+import io.github.alttpj.memeforcehunt.lib.AlttpRomPatcher;
+import io.github.alttpj.memeforcehunt.lib.VerifyResult;
+import io.github.alttpj.memeforcehunt.lib.compress.CompressionMode;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Command(name = "verify", description = "Checks whether every shipped skin still fits into the given ROM, without patching it.")
+public class VerifySkins implements Callable<Integer> {
+
+  private static final Logger LOGGER = Logger.getLogger(VerifySkins.class.getCanonicalName());
+  private static final Logger STDOUT = Logger.getLogger("STDOUT");
+  private static final Logger STDERR = Logger.getLogger("STDERR");
+
+  @CommandLine.Option(names = {"-r", "--rom"}, description = "the base ROM file (\"*.sfc\") to verify the skins against.",
+      required = true)
+  private File baseRom;
+
+  @CommandLine.Option(
+      names = {"-j", "--threads"},
+      description = "The number of skins to verify at the same time. Defaults to the number of processors.")
+  private int threads = Runtime.getRuntime().availableProcessors();
+
+  @CommandLine.Mixin
+  private PatchOffsetOption patchOffsetOption;
+
+  @CommandLine.Option(
+      names = {"--compression"},
+      description = "Compression mode, one of ${COMPLETION-CANDIDATES}. Defaults to ${DEFAULT-VALUE}. "
+          + "FAST falls back to OPTIMAL for sprites which would not fit otherwise.",
+      defaultValue = "FAST")
+  private CompressionMode compressionMode;
+
+  @Override
+  public Integer call() throws InterruptedException {
+    final AlttpRomPatcher alttpRomPatcher = createPatcher();
+    final long start = System.nanoTime();
+
+    final List<VerifyResult> results;
+    try {
+      results = alttpRomPatcher.verifyAll(this.baseRom.getAbsolutePath(), DefaultSpritemapWithSkins.values(), this.threads);
+    } catch (final IOException | IllegalArgumentException verifyException) {
+      LOGGER.log(Level.FINE, verifyException, () -> "Unable to verify skins against [" + this.baseRom + "].");
+      STDERR.log(Level.SEVERE, "Unable to verify skins against [" + this.baseRom + "]: " + verifyException.getMessage());
+      return 1;
+    }
+    final long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+
+    results.forEach(VerifySkins::reportResult);
+
+    final long tooLarge = results.stream().filter(VerifyResult::isSuccessful).filter(result -> !result.fits()).count();
+    final long failed = results.stream().filter(result -> !result.isSuccessful()).count();
+    STDOUT.log(Level.INFO, () -> String.format(Locale.ENGLISH,
+        "Verified [%d] skins in [%d] ms using [%d] threads: [%d] too large, [%d] failed.",
+        results.size(), elapsedMillis, this.threads, tooLarge, failed));
+    results.stream()
+        .filter(VerifyResult::isSuccessful)
+        .max(Comparator.comparingInt(VerifyResult::compressedSize))
+        .ifPresent(tightest -> STDOUT.log(Level.INFO, () -> String.format(Locale.ENGLISH,
+            "Least headroom: [%s] with [%d] bytes.", tightest.spritemapWithSkin().getSpriteName(), tightest.getHeadroom().orElseThrow())));
+    LOGGER.log(Level.FINE, () -> "Spritemap cache: " + alttpRomPatcher.getSpritemapCache());
+
+    return tooLarge == 0 && failed == 0 ? 0 : 1;
+  }
+
+  private AlttpRomPatcher createPatcher() {
+    final AlttpRomPatcher alttpRomPatcher = new AlttpRomPatcher();
+    alttpRomPatcher.setCompressionMode(this.compressionMode);
+    this.patchOffsetOption.applyTo(alttpRomPatcher);
+
+    return alttpRomPatcher;
+  }
+
+  private static void reportResult(final VerifyResult verifyResult) {
+    final String skinName = verifyResult.spritemapWithSkin().getSpriteName();
+
+    if (!verifyResult.isSuccessful()) {
+      LOGGER.log(Level.FINE, verifyResult.failure(), () -> "Unable to verify skin [" + skinName + "].");
+      STDERR.log(Level.SEVERE, () -> String.format(Locale.ENGLISH,
+          "Unable to verify skin [%s]: %s", skinName, verifyResult.failure().getMessage()));
+      return;
+    }
+
+    final Logger target = verifyResult.fits() ? STDOUT : STDERR;
+    final Level level = verifyResult.fits() ? Level.INFO : Level.SEVERE;
+    target.log(level, () -> String.format(Locale.ENGLISH,
+        "[%-5s] %-16s size [%4d] bytes, headroom [%5d] bytes, [%3d] ms.",
+        verifyResult.fits() ? "OK" : "LARGE",
+        skinName,
+        verifyResult.compressedSize(),
+        verifyResult.getHeadroom().orElseThrow(),
+        verifyResult.duration().toMillis()));
+  }
+}
@@ -16,6 +16,8 @@
 
 package io.github.alttpj.memeforcehunt.app.config;
 
+import io.github.alttpj.memeforcehunt.lib.SpriteLibrary;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
@@ -29,11 +31,13 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 public class YamlConfigurator extends AbstractOsConfigurationFile {
 
@@ -46,6 +50,8 @@ public class YamlConfigurator extends AbstractOsConfigurationFile {
    */
   private static final int NO_PATCHOFFSET_OPTION_SET = -1;
 
+  private static final String LIBRARY_INDEX_FILE_NAME = "library-index.yaml";
+
   public YamlConfigurator() {
     super();
   }
@@ -153,4 +159,44 @@ public class YamlConfigurator extends AbstractOsConfigurationFile {
   public void setCustomOffsetAddress(final String offsetAddressAsHex) {
     writeField("offset", offsetAddressAsHex);
   }
+
+  /**
+   * The directories which contain user sprites ({@code *.zspr.yaml}), see {@link #createSpriteLibrary()}.
+   *
+   * @return the configured directories, or an empty list.
+   */
+  @SuppressFBWarnings(
+      value = "PATH_TRAVERSAL_IN",
+      justification = "user configured library directories"
+  )
+  public List<Path> getLibraryDirectories() {
+    if (!isUsable()) {
+      return List.of();
+    }
+
+    final List<String> libraryDirectories = readFromYaml("libraryDirectories", List.of());
+    if (libraryDirectories == null) {
+      return List.of();
+    }
+
+    return libraryDirectories.stream()
+        .map(Paths::get)
+        .collect(Collectors.toUnmodifiableList());
+  }
+
+  public void setLibraryDirectories(final List<Path> libraryDirectories) {
+    writeField("libraryDirectories", libraryDirectories.stream()
+        .map(directory -> directory.toAbsolutePath().toString())
+        .collect(Collectors.toList()));
+  }
+
+  /**
+   * Creates a library of the configured {@link #getLibraryDirectories() library directories}, whose index is kept
+   * next to the config file. The library is not scanned yet.
+   *
+   * @return a new, empty library.
+   */
+  public SpriteLibrary createSpriteLibrary() {
+    return new SpriteLibrary(getLibraryDirectories(), getConfigFilePath().resolveSibling(LIBRARY_INDEX_FILE_NAME));
+  }
 }
@@ -113,6 +113,13 @@ public class MainWindow extends BorderPane implements Initializable {
     Platform.exit();
   }
 
+  /**
+   * Releases what the tabs keep open in the background, e.g. the watched sprite library directories.
+   */
+  public void close() {
+    this.mainPane.getDefaultSpriteTab().close();
+  }
+
   @FXML
   public void onFileMenuOpenRom(final ActionEvent actionEvent) {
     final FileChooser fileChooser = new FileChooser();
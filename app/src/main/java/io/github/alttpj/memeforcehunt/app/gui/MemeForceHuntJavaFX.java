@@ -31,6 +31,8 @@ public class MemeForceHuntJavaFX extends Application {
 
   private static final String LIB_VERSION = AlttpRomPatcher.getVersion();
 
+  private MainWindow root;
+
   public static void main(final String[] args) {
     launch(args);
   }
@@ -38,6 +40,7 @@ public class MemeForceHuntJavaFX extends Application {
   @Override
   public void start(final Stage primaryStage) throws IOException {
     final MainWindow root = new MainWindow();
+    this.root = root;
     root.setHostServices(this.getHostServices());
 
     final JMetro jMetro = new JMetro(Style.DARK);
@@ -49,4 +52,12 @@ public class MemeForceHuntJavaFX extends Application {
     primaryStage.setScene(scene);
     primaryStage.show();
   }
+
+  @Override
+  public void stop() {
+    // called after the last window was closed or on Platform.exit().
+    if (this.root != null) {
+      this.root.close();
+    }
+  }
 }
@@ -17,10 +17,11 @@
 package io.github.alttpj.memeforcehunt.app.gui.actions;
 
 import io.github.alttpj.memeforcehunt.app.config.YamlConfigurator;
+import io.github.alttpj.memeforcehunt.common.value.ItemPalette;
 import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.common.value.TileSheet;
 import io.github.alttpj.memeforcehunt.lib.AlttpRomPatcher;
 
-import io.github.alttpj.library.image.TiledSprite;
 import javafx.application.HostServices;
 import javafx.scene.control.Alert;
 
@@ -50,7 +51,7 @@ public final class StaticGuiActions {
     alttpRomPatcher.patchROM(romToPatch.getAbsolutePath(), selectedItem);
   }
 
-  public static void patch(final File romToPatch, final TiledSprite tiledSprite) throws IOException {
+  public static void patch(final File romToPatch, final TileSheet tiles, final ItemPalette itemPalette) throws IOException {
     final YamlConfigurator yamlConfigurator = new YamlConfigurator();
     final int customOffset = yamlConfigurator.getCustomOffsetAddress();
     final AlttpRomPatcher alttpRomPatcher = new AlttpRomPatcher();
@@ -59,7 +60,7 @@ public final class StaticGuiActions {
       alttpRomPatcher.setOffset(customOffset);
     }
 
-    alttpRomPatcher.patchROM(romToPatch.getAbsolutePath(), tiledSprite);
+    alttpRomPatcher.patchROM(romToPatch.getAbsolutePath(), tiles, itemPalette);
   }
 
   public static void tryOpenAboutPage(final HostServices hostServices) {
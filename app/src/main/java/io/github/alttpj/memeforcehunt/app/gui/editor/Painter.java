@@ -16,29 +16,53 @@
 
 package io.github.alttpj.memeforcehunt.app.gui.editor;
 
-import io.github.alttpj.library.image.SnesTileUnpacker;
-import io.github.alttpj.library.image.Tile;
+import io.github.alttpj.memeforcehunt.common.value.TileSheet;
+import io.github.alttpj.memeforcehunt.lib.Snes3bppTileCodec;
 
 import java.util.List;
 
 public class Painter {
 
-  private final SnesTileUnpacker unpacker = new SnesTileUnpacker();
+  /**
+   * The editor shows four 8x8 tiles as one 16x16 grid.
+   */
+  static final int SPRITE_SIZE = 2 * Snes3bppTileCodec.TILE_SIZE;
 
-  public void paint(final PaintableGrid paintableGrid, final Tile[] tiles,
+  static final int TILE_COUNT = 4;
+
+  private final byte[] packedTiles = new byte[TILE_COUNT * TileSheet.BYTES_PER_TILE];
+
+  private final byte[] pixels = new byte[SPRITE_SIZE * SPRITE_SIZE];
+
+  /**
+   * The offset of the top left pixel of a tile within the 16x16 grid.
+   *
+   * @param tileIndex top left, top right, bottom left, bottom right.
+   * @return the offset in a row-major 16x16 pixel array.
+   */
+  static int gridOffset(final int tileIndex) {
+    final int tileRow = tileIndex / 2;
+    final int tileColumn = tileIndex % 2;
+
+    return tileRow * Snes3bppTileCodec.TILE_SIZE * SPRITE_SIZE + tileColumn * Snes3bppTileCodec.TILE_SIZE;
+  }
+
+  public void paint(final PaintableGrid paintableGrid, final TileSheet tiles,
                     final ColorSelector colorSelector) {
-    if (tiles.length != 4) {
-      throw new IllegalArgumentException("Only four tiles allowed at the moment, got " + tiles.length + " instead.");
+    if (tiles.getTileCount() != TILE_COUNT) {
+      throw new IllegalArgumentException("Only four tiles allowed at the moment, got " + tiles.getTileCount() + " instead.");
     }
 
     final List<ColorSelectorCell> colorSelectorCells = colorSelector.getColorSelectorCells();
+    tiles.copyTo(this.packedTiles, 0);
+
+    for (int tileIndex = 0; tileIndex < TILE_COUNT; tileIndex++) {
+      Snes3bppTileCodec.decodeTile(this.packedTiles, tileIndex * TileSheet.BYTES_PER_TILE, this.pixels, gridOffset(tileIndex), SPRITE_SIZE);
+    }
 
-    for (final Tile tile : tiles) {
-      final byte[] tileBytes = this.unpacker.unpack3bppTiles(tile.getBytes());
-      for (int byteIndex = 0; byteIndex < tileBytes.length; byteIndex++) {
-        final int row = byteIndex / 8;
-        final int column = byteIndex % 8;
-        paintableGrid.getCell(row, column).paint(colorSelectorCells.get(tileBytes[byteIndex]));
+    for (int row = 0; row < SPRITE_SIZE; row++) {
+      for (int column = 0; column < SPRITE_SIZE; column++) {
+        paintableGrid.getCell(column, row).paint(colorSelectorCells.get(this.pixels[row * SPRITE_SIZE + column]));
       }
     }
   }
@@ -18,14 +18,14 @@ package io.github.alttpj.memeforcehunt.app.gui.editor;
 
 import io.github.alttpj.memeforcehunt.app.gui.actions.StaticGuiActions;
 import io.github.alttpj.memeforcehunt.app.gui.properties.SelectedFileProperty;
+import io.github.alttpj.memeforcehunt.common.value.ItemPalette;
+import io.github.alttpj.memeforcehunt.common.value.TileSheet;
 import io.github.alttpj.memeforcehunt.common.value.ULID;
+import io.github.alttpj.memeforcehunt.lib.Snes3bppTileCodec;
 import io.github.alttpj.memeforcehunt.lib.SpriteFileFormat;
 import io.github.alttpj.memeforcehunt.lib.SpriteFileFormatFactory;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import io.github.alttpj.library.image.SnesTilePacker;
-import io.github.alttpj.library.image.Tile;
-import io.github.alttpj.library.image.TiledSprite;
 import io.github.alttpj.library.image.palette.Palette;
 import io.github.alttpj.library.image.palette.Palette3bpp;
 import javafx.beans.property.ListProperty;
@@ -49,7 +49,6 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.ResourceBundle;
@@ -162,24 +161,11 @@ public class RollYourOwnSpriteTab extends HBox implements Initializable {
   @FXML
   public void doPatchRom(final ActionEvent actionEvent) {
     final Palette selectedPalette = this.paletteSelector.getSelectedPalette();
-    final byte[][] tileBytes = packTilesArray();
-    final Tile[] tiles = Arrays.stream(tileBytes)
-        .map(tileByte -> (Tile) () -> tileByte)
-        .toArray(Tile[]::new);
-
-    final TiledSprite tiledSprite = new TiledSprite() {
-      @Override
-      public Tile[] getTiles() {
-        return tiles;
-      }
-
-      @Override
-      public Palette getPalette() {
-        return selectedPalette;
-      }
-    };
+    final ItemPalette itemPalette = ItemPalette.valueOf(selectedPalette.getName());
+    final TileSheet tiles = TileSheet.of(packTiles());
+
     try {
-      StaticGuiActions.patch(this.selectedFile.get().orElseThrow(), tiledSprite);
+      StaticGuiActions.patch(this.selectedFile.get().orElseThrow(), tiles, itemPalette);
       final Alert alert = new Alert(Alert.AlertType.INFORMATION);
       alert.setTitle("Rom file patched successfully.");
       alert.setHeaderText("Custom sprite");
@@ -263,12 +249,7 @@ public class RollYourOwnSpriteTab extends HBox implements Initializable {
         paintableGrid.paletteSwap(Palette3bpp.GREEN);
     }
 
-    final Tile[] tiles = new Tile[] {
-        () -> Arrays.copyOfRange(spriteFileFormat.data(), 0, 24),
-        () -> Arrays.copyOfRange(spriteFileFormat.data(), 24, 48),
-        () -> Arrays.copyOfRange(spriteFileFormat.data(), 48, 72),
-        () -> Arrays.copyOfRange(spriteFileFormat.data(), 72, 96)
-    };
+    final TileSheet tiles = TileSheet.of(spriteFileFormat.data());
 
     new Painter().paint(paintableGrid, tiles, this.colorSelector);
 
@@ -376,48 +357,20 @@ public class RollYourOwnSpriteTab extends HBox implements Initializable {
   }
 
   private byte[] packTiles() {
-    final byte[] unpackedTiles = getTileBytes();
-
-    return new SnesTilePacker().pack3bppTiles(unpackedTiles);
-  }
-
-  private byte[][] packTilesArray() {
-    final byte[] unpackedTiles = getTileBytes();
-
-    return new SnesTilePacker().pack3bppTilesIntoTiles(unpackedTiles);
-  }
-
-  private byte[] getTileBytes() {
     final List<ColourableCell> cells = this.spriteGridCanvas.getPaintableGrid().getCells();
-    final Byte[] unpackedBytes1616 = cells.stream().map(ColourableCell::getSnesPaletteIndex).toArray(Byte[]::new);
-    // the bytes are arranged in a 16x16 grid. Instead, we need 4 8x8 grids.
-    final byte[] unpackedTiles = new byte[unpackedBytes1616.length];
-
-    for (int index = 0; index < unpackedBytes1616.length; index++) {
-      final int inputRownum = index / 16;
-      final int indexInTile = (index % 8 + 8 * inputRownum) % 64;
-
-      if (index < unpackedBytes1616.length / 2 && (index / 8) % 2 == 0) {
-        // 1st  tile
-        unpackedTiles[indexInTile] = unpackedBytes1616[index];
-      }
-
-      if (index < unpackedBytes1616.length / 2 && (index / 8) % 2 != 0) {
-        // 2nd  tile
-        unpackedTiles[indexInTile + 64] = unpackedBytes1616[index];
-      }
-
-      if (index >= unpackedBytes1616.length / 2 && (index / 8) % 2 == 0) {
-        // 3rd  tile
-        unpackedTiles[indexInTile + 128] = unpackedBytes1616[index];
-      }
-
-      if (index >= unpackedBytes1616.length / 2 && (index / 8) % 2 != 0) {
-        // 3rd  tile
-        unpackedTiles[indexInTile + 192] = unpackedBytes1616[index];
-      }
+    // the cells are arranged in a 16x16 grid, row by row.
+    final byte[] pixels = new byte[cells.size()];
+    for (int index = 0; index < pixels.length; index++) {
+      pixels[index] = cells.get(index).getSnesPaletteIndex();
     }
-    return unpackedTiles;
+
+    final byte[] packedTiles = new byte[Painter.TILE_COUNT * TileSheet.BYTES_PER_TILE];
+    for (int tileIndex = 0; tileIndex < Painter.TILE_COUNT; tileIndex++) {
+      Snes3bppTileCodec.encodeTile(pixels, Painter.gridOffset(tileIndex), Painter.SPRITE_SIZE,
+          packedTiles, tileIndex * TileSheet.BYTES_PER_TILE);
+    }
+
+    return packedTiles;
   }
 
   @Override
@@ -16,24 +16,30 @@
 
 package io.github.alttpj.memeforcehunt.app.gui.main;
 
+import io.github.alttpj.memeforcehunt.app.config.YamlConfigurator;
 import io.github.alttpj.memeforcehunt.app.gui.actions.StaticGuiActions;
 import io.github.alttpj.memeforcehunt.app.gui.properties.SelectedFileProperty;
 import io.github.alttpj.memeforcehunt.common.sprites.DefaultSpritemapWithSkins;
+import io.github.alttpj.memeforcehunt.common.value.PreviewImageCache;
 import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.lib.SpriteLibrary;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import javafx.collections.ObservableList;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.TextField;
 import javafx.scene.layout.HBox;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.random.RandomGenerator;
@@ -46,6 +52,9 @@ public class DefaultSpriteTab extends HBox implements Initializable {
 
   private final RandomGenerator random = RandomGeneratorFactory.getDefault().create();
 
+  @FXML
+  private TextField searchField;
+
   @FXML
   private ItemSkinList defaultSpritesItemSkinList;
 
@@ -56,6 +65,18 @@ public class DefaultSpriteTab extends HBox implements Initializable {
   private Button randomButton;
   private final SelectedFileProperty selectedFileProperty = new SelectedFileProperty();
 
+  private final Object spriteLibraryLock = new Object();
+
+  /**
+   * The library whose directories are watched, set on the loader thread. Guarded by {@link #spriteLibraryLock}.
+   */
+  private /* Nullable */ SpriteLibrary spriteLibrary;
+
+  /**
+   * Guarded by {@link #spriteLibraryLock}.
+   */
+  private boolean closed;
+
   @SuppressFBWarnings(value = "CT_CONSTRUCTOR_THROW", justification = "fxml")
   public DefaultSpriteTab() {
     // fmxl
@@ -73,7 +94,19 @@ public class DefaultSpriteTab extends HBox implements Initializable {
 
   @Override
   public void initialize(final URL location, final ResourceBundle resources) {
-    DefaultSpritemapWithSkins.values().forEach(this.defaultSpritesItemSkinList::addSkin);
+    // waiting for the catalog happens off the FX thread, so the window shows up before all skins are loaded.
+    this.defaultSpritesItemSkinList.addSkinsAsync(skinConsumer -> {
+      try {
+        DefaultSpritemapWithSkins.forEach(skinConsumer);
+      } catch (final InterruptedException interruptedException) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      // the list renders the previews it shows itself, so warming up only has to wait until all skins are known.
+      PreviewImageCache.getDefault().warmUp(DefaultSpritemapWithSkins.values());
+      addSpriteLibrary(skinConsumer);
+    });
+    this.searchField.textProperty().addListener((source, old, newValue) -> this.defaultSpritesItemSkinList.setFilter(newValue));
     this.selectedFileProperty.addListener((source, old, newValue) -> {
       if (newValue.isEmpty()) {
         getPatchButton().setDisable(true);
@@ -86,6 +119,57 @@ public class DefaultSpriteTab extends HBox implements Initializable {
     });
   }
 
+  /**
+   * Appends the sprites from the user's library directories and keeps the list current while their files change.
+   */
+  private void addSpriteLibrary(final Consumer<SpritemapWithSkin> skinConsumer) {
+    final SpriteLibrary newSpriteLibrary = new YamlConfigurator().createSpriteLibrary();
+
+    try {
+      newSpriteLibrary.scan();
+      newSpriteLibrary.values().forEach(skinConsumer);
+
+      newSpriteLibrary.addListener(change -> Platform.runLater(() -> getDefaultSpritesItemSkinList().applyChange(change)));
+      newSpriteLibrary.watch();
+    } catch (final IOException ioException) {
+      LOGGER.log(Level.WARNING, ioException, () -> "Unable to load the sprite library " + newSpriteLibrary.getDirectories() + ".");
+    }
+
+    synchronized (this.spriteLibraryLock) {
+      if (!this.closed) {
+        this.spriteLibrary = newSpriteLibrary;
+        return;
+      }
+    }
+
+    // the window was closed while the library was being scanned.
+    closeSpriteLibrary(newSpriteLibrary);
+  }
+
+  /**
+   * Stops watching the sprite library directories. Call this when the window is closed.
+   */
+  public void close() {
+    final SpriteLibrary openSpriteLibrary;
+    synchronized (this.spriteLibraryLock) {
+      this.closed = true;
+      openSpriteLibrary = this.spriteLibrary;
+      this.spriteLibrary = null;
+    }
+
+    if (openSpriteLibrary != null) {
+      closeSpriteLibrary(openSpriteLibrary);
+    }
+  }
+
+  private static void closeSpriteLibrary(final SpriteLibrary spriteLibrary) {
+    try {
+      spriteLibrary.close();
+    } catch (final IOException ioException) {
+      LOGGER.log(Level.WARNING, ioException, () -> "Unable to close the sprite library " + spriteLibrary.getDirectories() + ".");
+    }
+  }
+
   public ItemSkinList getDefaultSpritesItemSkinList() {
     return this.defaultSpritesItemSkinList;
   }
@@ -137,8 +221,13 @@ public class DefaultSpriteTab extends HBox implements Initializable {
 
   @FXML
   public void doPatchRandom(final ActionEvent actionEvent) {
-    final ObservableList<SpritemapWithSkin> availableItems = getDefaultSpritesItemSkinList().getItems();
+    final List<SpritemapWithSkin> availableItems = getDefaultSpritesItemSkinList().getSkins();
     final int max = availableItems.size();
+    if (max == 0) {
+      // skins are still loading.
+      return;
+    }
+
     final int randomItemNumber = this.random.nextInt(max);
     final SpritemapWithSkin selectedItem = availableItems.get(randomItemNumber);
 
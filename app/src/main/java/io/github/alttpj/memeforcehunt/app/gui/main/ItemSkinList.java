@@ -17,20 +17,168 @@
 package io.github.alttpj.memeforcehunt.app.gui.main;
 
 import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.lib.SkinSearchIndex;
+import io.github.alttpj.memeforcehunt.lib.SpriteLibrary;
 
+import javafx.animation.AnimationTimer;
+import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.scene.control.ListView;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
 public class ItemSkinList extends ListView<SpritemapWithSkin> {
 
+  /**
+   * At most this many skins are appended per pulse, so the list stays responsive while filling.
+   */
+  private static final int SKINS_PER_PULSE = 32;
+
+  /**
+   * All skins, while {@link #getItems()} only contains those matching the {@link #setFilter(String) filter}.
+   */
+  private final ObservableList<SpritemapWithSkin> skins = FXCollections.observableArrayList();
+
+  /**
+   * The skins matching the filter, as a view on {@link #skins}. The list view keeps its selection while these change.
+   */
+  private final FilteredList<SpritemapWithSkin> matchingSkins = new FilteredList<>(this.skins);
+
+  /**
+   * The matching skins, best match first.
+   */
+  private final SortedList<SpritemapWithSkin> rankedSkins = new SortedList<>(this.matchingSkins);
+
+  private final SkinSearchIndex searchIndex = new SkinSearchIndex();
+
+  private String filter = "";
+
   public ItemSkinList() {
     this.setCellFactory(listView -> new SkinListCell());
+    this.setItems(this.rankedSkins);
   }
 
-
   public void addSkin(final SpritemapWithSkin skin) {
-    final ObservableList<SpritemapWithSkin> items = getItems();
-    items.add(skin);
+    addSkins(List.of(skin));
+  }
+
+  public void addSkins(final Collection<? extends SpritemapWithSkin> newSkins) {
+    this.skins.addAll(newSkins);
+    this.searchIndex.addAll(newSkins);
+    refilter();
+  }
+
+  public void removeSkins(final Collection<? extends SpritemapWithSkin> oldSkins) {
+    this.skins.removeAll(oldSkins);
+    this.searchIndex.removeAll(oldSkins);
+    refilter();
+  }
+
+  /**
+   * Applies a change of a {@link SpriteLibrary}, e.g. from a {@link SpriteLibrary#addListener(Consumer) listener}.
+   *
+   * @param change the removed and added library sprites.
+   */
+  public void applyChange(final SpriteLibrary.Change change) {
+    this.skins.removeAll(change.removed());
+    this.skins.addAll(change.added());
+    this.searchIndex.apply(change);
+    refilter();
+  }
+
+  /**
+   * Shows only the skins matching the given search words, best match first.
+   *
+   * @param query the search words. A blank query shows all skins in their original order.
+   */
+  public void setFilter(final String query) {
+    this.filter = query == null ? "" : query;
+    refilter();
+  }
+
+  private void refilter() {
+    final SpritemapWithSkin selectedSkin = getSelectionModel().getSelectedItem();
+
+    if (this.filter.isBlank()) {
+      this.matchingSkins.setPredicate(null);
+      this.rankedSkins.setComparator(null);
+    } else {
+      final Map<SpritemapWithSkin, Integer> ranks = new HashMap<>();
+      for (final SpritemapWithSkin match : this.searchIndex.search(this.filter)) {
+        ranks.put(match, ranks.size());
+      }
+
+      this.matchingSkins.setPredicate(ranks::containsKey);
+      this.rankedSkins.setComparator(Comparator.comparingInt(ranks::get));
+    }
+
+    // re-sorting may move the selected skin, so select it again where it ended up.
+    if (selectedSkin != null && this.rankedSkins.contains(selectedSkin)) {
+      getSelectionModel().select(selectedSkin);
+    }
+  }
+
+  /**
+   * All skins, regardless of the filter.
+   *
+   * @return an unmodifiable view.
+   */
+  public List<SpritemapWithSkin> getSkins() {
+    return Collections.unmodifiableList(this.skins);
+  }
+
+  /**
+   * Loads skins on a background thread and appends them in batches, once per pulse of the FX thread.
+   *
+   * @param skinSource passes each skin to the given consumer as soon as it is loaded. Runs on the background thread.
+   */
+  public void addSkinsAsync(final Consumer<Consumer<SpritemapWithSkin>> skinSource) {
+    final Queue<SpritemapWithSkin> loadedSkins = new ConcurrentLinkedQueue<>();
+    final AtomicBoolean loadingDone = new AtomicBoolean();
+
+    final AnimationTimer appender = new AnimationTimer() {
+      @Override
+      public void handle(final long now) {
+        // read the flag first, so no skin added before it was set can be missed.
+        final boolean done = loadingDone.get();
+        final List<SpritemapWithSkin> batch = new ArrayList<>(SKINS_PER_PULSE);
+        SpritemapWithSkin skin;
+        while (batch.size() < SKINS_PER_PULSE && (skin = loadedSkins.poll()) != null) {
+          batch.add(skin);
+        }
+
+        if (!batch.isEmpty()) {
+          addSkins(batch);
+        }
+
+        if (done && loadedSkins.isEmpty()) {
+          stop();
+        }
+      }
+    };
+    appender.start();
+
+    final Thread loaderThread = new Thread(() -> {
+      try {
+        skinSource.accept(loadedSkins::add);
+      } finally {
+        loadingDone.set(true);
+      }
+    }, "skin-loader");
+    loaderThread.setDaemon(true);
+    loaderThread.start();
   }
 
 }
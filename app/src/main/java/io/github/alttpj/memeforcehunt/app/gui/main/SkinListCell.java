@@ -24,14 +24,13 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
+import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.scene.image.WritableImage;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
 
-import java.awt.image.BufferedImage;
 import java.net.URL;
 
 @SuppressFBWarnings("EI_EXPOSE_REP")
@@ -71,14 +70,10 @@ public class SkinListCell extends ListCell<SpritemapWithSkin> {
     }
 
     private void draw() {
-      // left: draw item
-      final BufferedImage bufferedImage = this.item.getImage();
-      final WritableImage fxImage = SwingFXUtils.toFXImage(bufferedImage, null);
+      // left: draw item, already scaled to 32x32 and converted once by the preview cache.
+      final Image fxImage = this.item.getPreviewImages().getScaled32As(Image.class, scaled32 -> SwingFXUtils.toFXImage(scaled32, null));
       final ImageView drawnItem = new ImageView(fxImage);
-      drawnItem.setPreserveRatio(true);
       drawnItem.setSmooth(false);
-      drawnItem.setFitWidth(32.0);
-      drawnItem.setFitHeight(32.0);
       getChildren().add(drawnItem);
 
       // right: Multi-Line text
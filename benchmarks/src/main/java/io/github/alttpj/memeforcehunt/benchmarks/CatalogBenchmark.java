@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.benchmarks;
+
+import io.github.alttpj.memeforcehunt.common.sprites.DefaultSpritemapWithSkins;
+import io.github.alttpj.memeforcehunt.common.sprites.impl.SpriteLoader;
+import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.lib.SpriteFileFormat;
+import io.github.alttpj.memeforcehunt.lib.SpriteFileFormatFactory;
+import io.github.alttpj.memeforcehunt.lib.TileFactory;
+
+import io.github.alttpj.library.image.palette.Palette3bpp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the shipped catalog ({@code sprites.yaml}) and reading/writing a single custom sprite file.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CatalogBenchmark {
+
+  private static final String SPRITE_FILE = "/sprites/sprites.yaml";
+
+  private byte[] spritesYaml;
+
+  private SpriteFileFormat spriteFileFormat;
+
+  private Path spriteFile;
+
+  @Setup
+  public void setUp() throws IOException {
+    try (final InputStream spriteYmlIS = DefaultSpritemapWithSkins.class.getResourceAsStream(SPRITE_FILE)) {
+      this.spritesYaml = spriteYmlIS.readAllBytes();
+    }
+
+    final SpritemapWithSkin benana = DefaultSpritemapWithSkins.getByName("benana");
+    final byte[] data = TileFactory.fromSpritemapWithSkin(benana).toByteArray();
+
+    this.spriteFileFormat = SpriteFileFormatFactory.create(benana.getDisplayName(), benana.getAuthor(), data, Palette3bpp.GREEN);
+    this.spriteFile = Files.createTempFile("benchmark", ".yaml");
+    SpriteFileFormatFactory.saveFile(this.spriteFileFormat, this.spriteFile.toFile());
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(this.spriteFile);
+  }
+
+  @Benchmark
+  public List<SpritemapWithSkin> spriteLoaderLoad() throws IOException {
+    return new SpriteLoader(new ByteArrayInputStream(this.spritesYaml)).load();
+  }
+
+  @Benchmark
+  public SpriteFileFormat spriteFileFormatFromFile() throws IOException {
+    return SpriteFileFormatFactory.fromFile(this.spriteFile.toFile());
+  }
+
+  @Benchmark
+  public void spriteFileFormatSave() throws IOException {
+    SpriteFileFormatFactory.save(this.spriteFileFormat, Writer.nullWriter());
+  }
+}
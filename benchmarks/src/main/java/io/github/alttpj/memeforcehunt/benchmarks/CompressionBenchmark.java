@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.benchmarks;
+
+import io.github.alttpj.memeforcehunt.lib.compress.CompressionMode;
+import io.github.alttpj.memeforcehunt.lib.compress.Lz2Compressor;
+
+import io.github.alttpj.library.compress.SnesCompressor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compresses every shipped spritemap once per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CompressionBenchmark {
+
+  private byte[][] decompressed;
+
+  @Setup
+  public void setUp() throws IOException {
+    this.decompressed = ShippedSpritemaps.decompressed(ShippedSpritemaps.compressed());
+  }
+
+  @Benchmark
+  public void lz2CompressorFast(final Blackhole blackhole) {
+    for (final byte[] spritemap : this.decompressed) {
+      blackhole.consume(Lz2Compressor.compress(spritemap, CompressionMode.FAST));
+    }
+  }
+
+  @Benchmark
+  public void lz2CompressorOptimal(final Blackhole blackhole) {
+    for (final byte[] spritemap : this.decompressed) {
+      blackhole.consume(Lz2Compressor.compress(spritemap, CompressionMode.OPTIMAL));
+    }
+  }
+
+  @Benchmark
+  public void snesCompressor(final Blackhole blackhole) throws IOException {
+    for (final byte[] spritemap : this.decompressed) {
+      try (final SnesCompressor snesCompressor = new SnesCompressor(new ByteArrayInputStream(spritemap))) {
+        blackhole.consume(snesCompressor.getCompressed().toByteArray());
+      }
+    }
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.benchmarks;
+
+import io.github.alttpj.memeforcehunt.lib.TileFactory;
+import io.github.alttpj.memeforcehunt.lib.compress.Lz2Decompressor;
+
+import io.github.alttpj.library.compress.SnesDecompressor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decompresses every shipped spritemap once per operation.
+ *
+ * <p>{@link #snesDecompressor(Blackhole)} is the path the patcher used before {@link Lz2Decompressor} existed
+ * and serves as the baseline.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DecompressionBenchmark {
+
+  private byte[][] compressed;
+
+  private byte[] target;
+
+  @Setup
+  public void setUp() throws IOException {
+    this.compressed = ShippedSpritemaps.compressed();
+
+    int maxSize = 0;
+    for (final byte[] decompressed : ShippedSpritemaps.decompressed(this.compressed)) {
+      maxSize = Math.max(maxSize, decompressed.length);
+    }
+    this.target = new byte[maxSize];
+  }
+
+  @Benchmark
+  public void lz2Decompressor(final Blackhole blackhole) throws IOException {
+    for (final byte[] spritemap : this.compressed) {
+      blackhole.consume(Lz2Decompressor.decompress(spritemap, 0, spritemap.length, this.target, 0, Lz2Decompressor.NO_LIMIT));
+    }
+  }
+
+  @Benchmark
+  public void lz2DecompressorNewArray(final Blackhole blackhole) throws IOException {
+    for (final byte[] spritemap : this.compressed) {
+      blackhole.consume(Lz2Decompressor.decompress(spritemap));
+    }
+  }
+
+  @Benchmark
+  public void snesDecompressor(final Blackhole blackhole) throws IOException {
+    for (final byte[] spritemap : this.compressed) {
+      blackhole.consume(new SnesDecompressor(new ByteArrayInputStream(spritemap)).getDecompressed());
+    }
+  }
+
+  @Benchmark
+  public void tileFactoryFromCompressedSpritemap(final Blackhole blackhole) throws IOException {
+    for (final byte[] spritemap : this.compressed) {
+      blackhole.consume(TileFactory.fromCompressedSpritemap(spritemap));
+    }
+  }
+}
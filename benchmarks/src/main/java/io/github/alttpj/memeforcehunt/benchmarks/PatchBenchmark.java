@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.benchmarks;
+
+import io.github.alttpj.memeforcehunt.common.sprites.DefaultSpritemapWithSkins;
+import io.github.alttpj.memeforcehunt.common.value.ItemSprite;
+import io.github.alttpj.memeforcehunt.common.value.ItemSpriteFactory;
+import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.lib.AlttpRomPatcher;
+import io.github.alttpj.memeforcehunt.lib.SyntheticRomFactory;
+import io.github.alttpj.memeforcehunt.lib.TileFactory;
+import io.github.alttpj.memeforcehunt.lib.compress.CompressionMode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the four item tiles of a skin into a ROM image, i.e. decompress, splice, recompress and copy.
+ *
+ * <p>The ROM image is created by {@link SyntheticRomFactory}.
+ * Each invocation first copies the spritemap window and the palette bytes back from the base ROM, so every invocation
+ * patches the same spritemap. The copy is part of the measurement, but it is only about a kilobyte.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PatchBenchmark {
+
+  private static final long ROM_SEED = 0x5EED;
+
+  /**
+   * Larger than any compressed spritemap which fits into the ROM.
+   */
+  private static final int SPRITEMAP_WINDOW = 1024;
+
+  @Param({"1up", "benana", "E404"})
+  String skin;
+
+  @Param({"FAST", "OPTIMAL"})
+  CompressionMode compressionMode;
+
+  /**
+   * Only 2 MiB by default, the patch path does not depend on it. Run with {@code -p romSize=1048576,4194304} to compare.
+   */
+  @Param({"2097152"})
+  int romSize;
+
+  private final BenchmarkPatcher patcher = new BenchmarkPatcher();
+
+  private byte[] baseRom;
+
+  private byte[] rom;
+
+  private ItemSprite itemSprite;
+
+  @Setup
+  public void setUp() throws IOException {
+    final SyntheticRomFactory syntheticRomFactory = new SyntheticRomFactory(this.romSize);
+    this.patcher.setOffset(syntheticRomFactory.getSpritemapOffset());
+    this.patcher.setPaletteLocationChest(syntheticRomFactory.getPaletteLocationChest());
+    this.patcher.setPaletteLocationOverworld(syntheticRomFactory.getPaletteLocationOverworld());
+    this.patcher.setCompressionMode(this.compressionMode);
+
+    this.baseRom = syntheticRomFactory.create(ROM_SEED).data();
+    this.rom = this.baseRom.clone();
+
+    final SpritemapWithSkin spritemapWithSkin = DefaultSpritemapWithSkins.getByName(this.skin);
+    this.itemSprite = ItemSpriteFactory.fromSpritemapWithSkin(spritemapWithSkin, TileFactory.fromSpritemapWithSkin(spritemapWithSkin));
+  }
+
+  @Benchmark
+  public byte[] writeItemSprite() throws IOException {
+    // not a @Setup(Level.Invocation): its timestamps would dominate invocations of well below a millisecond.
+    resetRom();
+    this.patcher.writeItemSprite(this.rom, this.itemSprite);
+
+    return this.rom;
+  }
+
+  private void resetRom() {
+    final int offset = this.patcher.getOffset();
+    System.arraycopy(this.baseRom, offset, this.rom, offset, SPRITEMAP_WINDOW);
+    this.rom[this.patcher.getPaletteLocationChest()] = this.baseRom[this.patcher.getPaletteLocationChest()];
+    this.rom[this.patcher.getPaletteLocationOverworld()] = this.baseRom[this.patcher.getPaletteLocationOverworld()];
+  }
+
+  /**
+   * Only exists to make the protected {@link AlttpRomPatcher#writeItemSprite(byte[], ItemSprite)} accessible.
+   */
+  static final class BenchmarkPatcher extends AlttpRomPatcher {
+
+    @Override
+    protected void writeItemSprite(final byte[] romStream, final ItemSprite itemSprite) throws IOException {
+      super.writeItemSprite(romStream, itemSprite);
+    }
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.benchmarks;
+
+import io.github.alttpj.memeforcehunt.common.sprites.DefaultSpritemapWithSkins;
+import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.lib.compress.Lz2Decompressor;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Loads the spritemaps shipped with the application, i.e. every {@code /gfx/*} file referenced by the catalog.
+ */
+final class ShippedSpritemaps {
+
+  private ShippedSpritemaps() {
+    // util
+  }
+
+  static byte[][] compressed() throws IOException {
+    final List<SpritemapWithSkin> skins = DefaultSpritemapWithSkins.values();
+    final byte[][] compressed = new byte[skins.size()][];
+
+    for (int skinIndex = 0; skinIndex < compressed.length; skinIndex++) {
+      compressed[skinIndex] = skins.get(skinIndex).getData();
+    }
+
+    return compressed;
+  }
+
+  static byte[][] decompressed(final byte[][] compressed) throws IOException {
+    final byte[][] decompressed = new byte[compressed.length][];
+
+    for (int skinIndex = 0; skinIndex < compressed.length; skinIndex++) {
+      decompressed[skinIndex] = Lz2Decompressor.decompress(compressed[skinIndex]);
+    }
+
+    return decompressed;
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.benchmarks;
+
+import io.github.alttpj.memeforcehunt.lib.Snes3bppTileCodec;
+import io.github.alttpj.memeforcehunt.lib.SpritemapPixelDecoder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes every shipped spritemap (all tiles) into an indexed pixel image once per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SpritemapDecodingBenchmark {
+
+  private byte[][] decompressed;
+
+  private byte[] pixels;
+
+  @Setup
+  public void setUp() throws IOException {
+    this.decompressed = ShippedSpritemaps.decompressed(ShippedSpritemaps.compressed());
+
+    int maxTiles = 0;
+    for (final byte[] spritemap : this.decompressed) {
+      maxTiles = Math.max(maxTiles, spritemap.length / Snes3bppTileCodec.BYTES_PER_TILE);
+    }
+    this.pixels = new byte[SpritemapPixelDecoder.DEFAULT_TILES_PER_ROW * Snes3bppTileCodec.TILE_SIZE
+        * SpritemapPixelDecoder.getHeight(maxTiles, SpritemapPixelDecoder.DEFAULT_TILES_PER_ROW)];
+  }
+
+  @Benchmark
+  public void decodeAllSpritemaps(final Blackhole blackhole) {
+    for (final byte[] spritemap : this.decompressed) {
+      final int tileCount = spritemap.length / Snes3bppTileCodec.BYTES_PER_TILE;
+      SpritemapPixelDecoder.decode(spritemap, 0, tileCount, SpritemapPixelDecoder.DEFAULT_TILES_PER_ROW, this.pixels);
+      blackhole.consume(this.pixels);
+    }
+  }
+}
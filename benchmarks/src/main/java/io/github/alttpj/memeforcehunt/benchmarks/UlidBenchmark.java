@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.benchmarks;
+
+import io.github.alttpj.memeforcehunt.common.value.ULID;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and formatting ULIDs, as done for every skin when loading catalogs and sprite files.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class UlidBenchmark {
+
+  /**
+   * Power of two, so the index can be masked.
+   */
+  private static final int ULID_COUNT = 128;
+
+  private final ULID ulid = new ULID();
+
+  private final String[] ulidStrings = new String[ULID_COUNT];
+
+  private final ULID.Value[] ulidValues = new ULID.Value[ULID_COUNT];
+
+  private final byte[][] ulidAscii = new byte[ULID_COUNT][];
+
+  private final char[] formatBuffer = new char[ULID.STRING_LENGTH];
+
+  private final ULID.MonotonicGenerator monotonicGenerator = new ULID.MonotonicGenerator();
+
+  private int index;
+
+  @Setup
+  public void setUp() {
+    for (int ulidIndex = 0; ulidIndex < ULID_COUNT; ulidIndex++) {
+      this.ulidValues[ulidIndex] = this.ulid.nextValue();
+      this.ulidStrings[ulidIndex] = this.ulidValues[ulidIndex].toString();
+      this.ulidAscii[ulidIndex] = this.ulidStrings[ulidIndex].getBytes(StandardCharsets.US_ASCII);
+    }
+  }
+
+  @Benchmark
+  public ULID.Value parse() {
+    return ULID.parseULID(this.ulidStrings[nextIndex()]);
+  }
+
+  @Benchmark
+  public ULID.Value parseAscii() {
+    return ULID.parseULID(this.ulidAscii[nextIndex()], 0, ULID.STRING_LENGTH);
+  }
+
+  @Benchmark
+  public String format() {
+    return this.ulidValues[nextIndex()].toString();
+  }
+
+  @Benchmark
+  public char formatToBuffer() {
+    this.ulidValues[nextIndex()].formatTo(this.formatBuffer, 0);
+
+    // the last char depends on every bit of the least significant half.
+    return this.formatBuffer[ULID.STRING_LENGTH - 1];
+  }
+
+  @Benchmark
+  public ULID.Value nextValue() {
+    return this.ulid.nextValue();
+  }
+
+  @Benchmark
+  public ULID.Value nextMonotonicValue() {
+    return this.monotonicGenerator.nextValue();
+  }
+
+  private int nextIndex() {
+    this.index = (this.index + 1) & (ULID_COUNT - 1);
+
+    return this.index;
+  }
+}
@@ -16,9 +16,8 @@
 
 package io.github.alttpj.memeforcehunt.common.sprites;
 
-import static java.util.Collections.unmodifiableList;
-
 import io.github.alttpj.memeforcehunt.common.sprites.impl.SpriteLoader;
+import io.github.alttpj.memeforcehunt.common.sprites.impl.SpritePack;
 import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
 
 import java.io.IOException;
@@ -26,45 +25,214 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * The catalog of shipped skins.
+ *
+ * <p>The catalog is loaded on a background thread, which is started by {@link #loadAsync()} or by the first method
+ * needing the skins. Applications should call {@link #loadAsync()} early at launch, so loading overlaps with the
+ * rest of the startup, and only wait for it where the skins are actually needed. {@link #forEach(Consumer)} passes
+ * on each skin as soon as it has been loaded, e.g. to show the first skins while the rest are still loading.</p>
+ */
 public final class DefaultSpritemapWithSkins {
 
   private static final Logger LOG = Logger.getLogger(DefaultSpritemapWithSkins.class.getCanonicalName());
 
   private static final String SPRITE_FILE = "/sprites/sprites.yaml";
 
-  private static final List<SpritemapWithSkin> DEFAULT_SPRITEMAPS = loadDefaultSpritemaps();
+  private static final Object LOAD_LOCK = new Object();
+
+  private static volatile CatalogLoad catalogLoad;
 
   private DefaultSpritemapWithSkins() {
     // util.
   }
 
-  private static List<SpritemapWithSkin> loadDefaultSpritemaps() {
-    final List<SpritemapWithSkin> sprites = new ArrayList<>();
+  /**
+   * Starts loading the shipped skins on a daemon thread, unless they are already loading or loaded.
+   *
+   * @return a future which completes with the index over all shipped skins. Each call returns a new future, so
+   *     completing or cancelling it does not affect other callers. If loading fails, the future completes
+   *     exceptionally and the next call starts loading again.
+   */
+  public static CompletableFuture<SpritemapIndex> loadAsync() {
+    return getCatalogLoad().index.copy();
+  }
+
+  /**
+   * Passes on each shipped skin as soon as it has been loaded, without waiting for the whole catalog.
+   *
+   * <p>Starts loading unless the skins are already loading or loaded. Skins loaded before this call are passed on
+   * right away.</p>
+   *
+   * @param onSkin receives the skins in catalog order, on the calling thread.
+   * @throws InterruptedException if the calling thread is interrupted while waiting for the next skin.
+   * @throws java.util.concurrent.CompletionException if loading failed. Skins loaded before the error have already
+   *     been passed on.
+   */
+  public static void forEach(final Consumer<? super SpritemapWithSkin> onSkin) throws InterruptedException {
+    getCatalogLoad().forEach(onSkin);
+  }
+
+  private static CatalogLoad getCatalogLoad() {
+    final CatalogLoad loading = catalogLoad;
+    if (loading != null) {
+      return loading;
+    }
+
+    synchronized (LOAD_LOCK) {
+      if (catalogLoad != null) {
+        return catalogLoad;
+      }
+
+      final CatalogLoad newLoad = new CatalogLoad();
+      catalogLoad = newLoad;
+      newLoad.index.whenComplete((index, loadException) -> {
+        if (loadException != null) {
+          forgetFailedLoad(newLoad, loadException);
+        }
+      });
+      startLoader(newLoad::run);
+
+      return newLoad;
+    }
+  }
+
+  /**
+   * Logs the failure and drops the failed load, so the next caller tries again instead of failing forever.
+   */
+  private static void forgetFailedLoad(final CatalogLoad failedLoad, final Throwable loadException) {
+    LOG.log(Level.SEVERE, loadException, () -> "Unable to load the shipped skins, will retry on next access.");
 
+    synchronized (LOAD_LOCK) {
+      if (catalogLoad == failedLoad) {
+        catalogLoad = null;
+      }
+    }
+  }
+
+  private static void startLoader(final Runnable loader) {
+    final Thread loaderThread = new Thread(loader, "sprite-catalog-loader");
+    loaderThread.setDaemon(true);
+    loaderThread.start();
+  }
+
+  private static void loadDefaultSpritemaps(final Consumer<SpritemapWithSkin> onSkin) {
+    try {
+      final Optional<SpritePack> spritePack = SpritePack.loadShipped();
+      if (spritePack.isPresent()) {
+        spritePack.orElseThrow().forEach(onSkin);
+        return;
+      }
+    } catch (final IOException ioEx) {
+      LOG.log(Level.WARNING, ioEx, () -> "Unable to read the sprite pack, falling back to [" + SPRITE_FILE + "].");
+    }
+
+    loadDefaultSpritemapsFromYaml(onSkin);
+  }
+
+  private static void loadDefaultSpritemapsFromYaml(final Consumer<SpritemapWithSkin> onSkin) {
     try (final InputStream spriteYmlIS = DefaultSpritemapWithSkins.class.getResourceAsStream(SPRITE_FILE)) {
       final SpriteLoader loader = new SpriteLoader(spriteYmlIS);
-      sprites.addAll(loader.load());
+      loader.load(onSkin);
     } catch (final IOException ioEx) {
-      LOG.log(Level.SEVERE, "Unable to load default spritemaps!");
-      // just show an empty pane.
+      LOG.log(Level.SEVERE, ioEx, () -> "Unable to load default spritemaps!");
+      // just show the skins read so far, or an empty pane.
     }
-
-    return unmodifiableList(sprites);
   }
 
   /**
    * @throws NoSuchElementException if spriteName could not be found.
    */
   public static SpritemapWithSkin getByName(final String spriteName) {
-    return DEFAULT_SPRITEMAPS.stream()
-        .filter(spr -> spr.getSpriteName().equals(spriteName))
-        .findAny().orElseThrow(NoSuchElementException::new);
+    return getIndex().findByName(spriteName).orElseThrow(NoSuchElementException::new);
+  }
+
+  /**
+   * Finds a shipped skin by its ULID string or, if there is none, by its sprite name.
+   *
+   * @param spriteIdOrName a ULID string or a sprite name, e.g. from the command line.
+   * @return the skin, or empty if neither matches.
+   */
+  public static Optional<SpritemapWithSkin> findByIdOrName(final String spriteIdOrName) {
+    return getIndex().findByIdOrName(spriteIdOrName);
+  }
+
+  /**
+   * The index over all shipped skins, built only once. Waits for {@link #loadAsync() loading} to finish.
+   */
+  public static SpritemapIndex getIndex() {
+    return getCatalogLoad().index.join();
   }
 
   public static List<SpritemapWithSkin> values() {
-    return unmodifiableList(DEFAULT_SPRITEMAPS);
+    return getIndex().values();
+  }
+
+  /**
+   * One attempt at loading the catalog. Keeps the skins loaded so far, so callers arriving late still get all of
+   * them.
+   */
+  private static final class CatalogLoad {
+
+    private final CompletableFuture<SpritemapIndex> index = new CompletableFuture<>();
+
+    /** Guarded by {@code this}. */
+    private final List<SpritemapWithSkin> loaded = new ArrayList<>();
+
+    /** Guarded by {@code this}. */
+    private boolean done;
+
+    private void run() {
+      try {
+        loadDefaultSpritemaps(this::add);
+        this.index.complete(SpritemapIndex.of(loadedSoFar()));
+      } catch (final RuntimeException | Error loadException) {
+        this.index.completeExceptionally(loadException);
+      } finally {
+        synchronized (this) {
+          this.done = true;
+          notifyAll();
+        }
+      }
+    }
+
+    private synchronized void add(final SpritemapWithSkin skin) {
+      this.loaded.add(skin);
+      notifyAll();
+    }
+
+    private synchronized List<SpritemapWithSkin> loadedSoFar() {
+      return List.copyOf(this.loaded);
+    }
+
+    private void forEach(final Consumer<? super SpritemapWithSkin> onSkin) throws InterruptedException {
+      int next = 0;
+      boolean finished = false;
+
+      while (!finished) {
+        final List<SpritemapWithSkin> newSkins;
+        synchronized (this) {
+          while (next == this.loaded.size() && !this.done) {
+            wait();
+          }
+
+          newSkins = List.copyOf(this.loaded.subList(next, this.loaded.size()));
+          finished = this.done;
+        }
+
+        // call the consumer outside the lock, so it never holds up the loader.
+        newSkins.forEach(onSkin);
+        next += newSkins.size();
+      }
+
+      // rethrows if loading failed.
+      this.index.join();
+    }
   }
 }
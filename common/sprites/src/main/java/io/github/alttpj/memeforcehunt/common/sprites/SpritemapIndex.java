@@ -0,0 +1,260 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.common.sprites;
+
+import static java.util.Collections.unmodifiableList;
+
+import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.common.value.ULID;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An immutable lookup table of skins by ULID and by sprite name.
+ *
+ * <p>Both tables use open addressing with linear probing over plain arrays. The id table stores the two
+ * {@code long} halves of each ULID, so looking up an id neither formats nor allocates anything; the name table
+ * relies on the hash code cached by {@link String}. If two skins share an id or a name, the first one wins.</p>
+ */
+public final class SpritemapIndex {
+
+  /**
+   * Keeps the load factor at or below 50 %, so probe sequences stay short.
+   */
+  private static final int MIN_CAPACITY_FACTOR = 2;
+
+  /**
+   * Marks an empty slot. Slots store the index of the skin plus one.
+   */
+  private static final int EMPTY = 0;
+
+  private final List<SpritemapWithSkin> spritemaps;
+
+  private final SpritemapWithSkin[] entries;
+
+  private final int mask;
+
+  private final long[] idMostSignificantBits;
+
+  private final long[] idLeastSignificantBits;
+
+  private final int[] idSlots;
+
+  private final int[] nameSlots;
+
+  private SpritemapIndex(final List<SpritemapWithSkin> spritemaps) {
+    this.spritemaps = unmodifiableList(spritemaps);
+    this.entries = spritemaps.toArray(new SpritemapWithSkin[0]);
+
+    final int capacity = tableCapacity(this.entries.length);
+    this.mask = capacity - 1;
+    this.idMostSignificantBits = new long[capacity];
+    this.idLeastSignificantBits = new long[capacity];
+    this.idSlots = new int[capacity];
+    this.nameSlots = new int[capacity];
+
+    for (int entryIndex = 0; entryIndex < this.entries.length; entryIndex++) {
+      insertId(entryIndex);
+      insertName(entryIndex);
+    }
+  }
+
+  /**
+   * Creates an index over the given skins.
+   *
+   * @param spritemaps the skins to index, in display order. Must not contain {@code null}.
+   * @return an index which keeps a copy of the given collection.
+   */
+  public static SpritemapIndex of(final Collection<? extends SpritemapWithSkin> spritemaps) {
+    Objects.requireNonNull(spritemaps, "spritemaps");
+    final List<SpritemapWithSkin> copy = new ArrayList<>(spritemaps);
+    copy.forEach(spritemap -> Objects.requireNonNull(spritemap, "spritemap"));
+
+    return new SpritemapIndex(copy);
+  }
+
+  /**
+   * Looks up a skin by its ULID.
+   *
+   * @param id the id of the skin.
+   * @return the skin or empty if there is no skin with this id.
+   */
+  public Optional<SpritemapWithSkin> findById(final ULID.Value id) {
+    Objects.requireNonNull(id, "id");
+
+    return Optional.ofNullable(getById(id.getMostSignificantBits(), id.getLeastSignificantBits()));
+  }
+
+  /**
+   * Looks up a skin by its sprite name.
+   *
+   * @param spriteName the sprite name, as used on the command line.
+   * @return the skin or empty if there is no skin with this name.
+   */
+  public Optional<SpritemapWithSkin> findByName(final String spriteName) {
+    Objects.requireNonNull(spriteName, "spriteName");
+
+    return Optional.ofNullable(getByName(spriteName));
+  }
+
+  /**
+   * Looks up a skin by its ULID string first, then by its sprite name.
+   *
+   * @param idOrName a ULID string or a sprite name, as given by the user.
+   * @return the skin or empty if neither matches.
+   */
+  public Optional<SpritemapWithSkin> findByIdOrName(final String idOrName) {
+    Objects.requireNonNull(idOrName, "idOrName");
+
+    if (idOrName.length() == ULID.STRING_LENGTH) {
+      final SpritemapWithSkin byId = getByIdString(idOrName);
+      if (byId != null) {
+        return Optional.of(byId);
+      }
+    }
+
+    return findByName(idOrName);
+  }
+
+  public int size() {
+    return this.entries.length;
+  }
+
+  /**
+   * All indexed skins.
+   *
+   * @return the skins in the order they were given to {@link #of(Collection)}.
+   */
+  public List<SpritemapWithSkin> values() {
+    return this.spritemaps;
+  }
+
+  private SpritemapWithSkin getById(final long mostSignificantBits, final long leastSignificantBits) {
+    for (int slot = idHash(mostSignificantBits, leastSignificantBits) & this.mask; ; slot = (slot + 1) & this.mask) {
+      final int entry = this.idSlots[slot];
+      if (entry == EMPTY) {
+        return null;
+      }
+
+      if (this.idMostSignificantBits[slot] == mostSignificantBits && this.idLeastSignificantBits[slot] == leastSignificantBits) {
+        return this.entries[entry - 1];
+      }
+    }
+  }
+
+  private SpritemapWithSkin getByIdString(final String idString) {
+    final ULID.Value id;
+    try {
+      id = ULID.parseULID(idString);
+    } catch (final IllegalArgumentException notAnId) {
+      // e.g. a sprite name which happens to be 26 chars long.
+      return null;
+    }
+
+    return getById(id.getMostSignificantBits(), id.getLeastSignificantBits());
+  }
+
+  private SpritemapWithSkin getByName(final String spriteName) {
+    for (int slot = nameHash(spriteName) & this.mask; ; slot = (slot + 1) & this.mask) {
+      final int entry = this.nameSlots[slot];
+      if (entry == EMPTY) {
+        return null;
+      }
+
+      final SpritemapWithSkin candidate = this.entries[entry - 1];
+      if (spriteName.equals(candidate.getSpriteName())) {
+        return candidate;
+      }
+    }
+  }
+
+  private void insertId(final int entryIndex) {
+    final ULID.Value id = this.entries[entryIndex].getId();
+    final long mostSignificantBits = id.getMostSignificantBits();
+    final long leastSignificantBits = id.getLeastSignificantBits();
+
+    for (int slot = idHash(mostSignificantBits, leastSignificantBits) & this.mask; ; slot = (slot + 1) & this.mask) {
+      if (this.idSlots[slot] == EMPTY) {
+        this.idMostSignificantBits[slot] = mostSignificantBits;
+        this.idLeastSignificantBits[slot] = leastSignificantBits;
+        this.idSlots[slot] = entryIndex + 1;
+        return;
+      }
+
+      if (this.idMostSignificantBits[slot] == mostSignificantBits && this.idLeastSignificantBits[slot] == leastSignificantBits) {
+        // duplicate id, keep the first skin.
+        return;
+      }
+    }
+  }
+
+  private void insertName(final int entryIndex) {
+    final String spriteName = this.entries[entryIndex].getSpriteName();
+    if (spriteName == null) {
+      return;
+    }
+
+    for (int slot = nameHash(spriteName) & this.mask; ; slot = (slot + 1) & this.mask) {
+      final int entry = this.nameSlots[slot];
+      if (entry == EMPTY) {
+        this.nameSlots[slot] = entryIndex + 1;
+        return;
+      }
+
+      if (spriteName.equals(this.entries[entry - 1].getSpriteName())) {
+        // duplicate name, keep the first skin.
+        return;
+      }
+    }
+  }
+
+  private static int tableCapacity(final int entryCount) {
+    final int minCapacity = Math.max(2, entryCount * MIN_CAPACITY_FACTOR);
+
+    return Integer.highestOneBit(minCapacity - 1) << 1;
+  }
+
+  /**
+   * The low bits of a ULID are random, but mixing also spreads ids minted in the same millisecond by a
+   * monotonic generator, which only differ in their last bits.
+   */
+  private static int idHash(final long mostSignificantBits, final long leastSignificantBits) {
+    return mix(mostSignificantBits * 31 + leastSignificantBits);
+  }
+
+  private static int nameHash(final String spriteName) {
+    return mix(spriteName.hashCode());
+  }
+
+  /**
+   * The finalizer of MurmurHash3 (fmix64).
+   */
+  private static int mix(final long value) {
+    long mixed = value;
+    mixed ^= mixed >>> 33;
+    mixed *= 0xFF51AFD7ED558CCDL;
+    mixed ^= mixed >>> 33;
+    mixed *= 0xC4CEB9FE1A85EC53L;
+    mixed ^= mixed >>> 33;
+
+    return (int) mixed;
+  }
+}
@@ -58,7 +58,7 @@ abstract class AbstractJsonShippedSpritemapWithSkin {
 
   //  preview: "/previews/1up.png"
   @JsonProperty("preview")
-  public abstract URI getPreview();
+  public abstract Optional<URI> getPreview();
 
   //  description: You have an extra life! ...If only.
   @JsonProperty("description")
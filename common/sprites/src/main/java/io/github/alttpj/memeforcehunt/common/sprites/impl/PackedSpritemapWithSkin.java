@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.alttpj.memeforcehunt.common.sprites.impl;
+
+import io.github.alttpj.memeforcehunt.common.value.AbstractSpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.common.value.ItemPalette;
+import io.github.alttpj.memeforcehunt.common.value.PreviewImages;
+import io.github.alttpj.memeforcehunt.common.value.ULID;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * A shipped skin whose spritemap and preview are slices of the {@link SpritePack}.
+ */
+public final class PackedSpritemapWithSkin extends AbstractSpritemapWithSkin {
+
+  private final ByteBuffer spritemap;
+  private final /* Nullable */ ByteBuffer uncompressedSpritemap;
+  private final /* Nullable */ ByteBuffer previewPng;
+
+  PackedSpritemapWithSkin(final ULID.Value spriteId,
+                          final String spriteName,
+                          final String displayName,
+                          final String description,
+                          final String author,
+                          final ItemPalette palette,
+                          final ByteBuffer spritemap,
+                          final ByteBuffer uncompressedSpritemap,
+                          final ByteBuffer previewPng) {
+    super(spriteId, spriteName, displayName, description, author, palette);
+    this.spritemap = spritemap;
+    this.uncompressedSpritemap = uncompressedSpritemap;
+    this.previewPng = previewPng;
+  }
+
+  /**
+   * Returns a view of the pack, so there is nothing to cache.
+   */
+  @Override
+  public ByteBuffer getDataBuffer() {
+    return this.spritemap.duplicate();
+  }
+
+  /**
+   * The uncompressed spritemap, if one is shipped for this skin.
+   *
+   * @return a read-only view of the uncompressed spritemap.
+   */
+  public Optional<ByteBuffer> getUncompressedDataBuffer() {
+    return Optional.ofNullable(this.uncompressedSpritemap).map(ByteBuffer::duplicate);
+  }
+
+  @Override
+  protected InputStream getSpritemapInputStream() {
+    return new ByteArrayInputStream(toByteArray(this.spritemap));
+  }
+
+  /**
+   * Returns the decoded preview, which is shared with the {@link #getPreviewImages() preview cache}.
+   */
+  @Override
+  public BufferedImage getImage() {
+    return getPreviewImages().getSource();
+  }
+
+  @Override
+  public PreviewImages getPreviewImages() {
+    return getPreviewImageCache().get(getId(), () -> readPreviewImage(this::getPreviewInputStream));
+  }
+
+  private /* Nullable */ InputStream getPreviewInputStream() {
+    if (this.previewPng == null) {
+      return null;
+    }
+
+    return new ByteArrayInputStream(toByteArray(this.previewPng));
+  }
+
+  private static byte[] toByteArray(final ByteBuffer blob) {
+    final ByteBuffer view = blob.duplicate();
+    final byte[] bytes = new byte[view.remaining()];
+    view.get(bytes);
+
+    return bytes;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", "PackedSpritemapWithSkin{", "}")
+        .add("id=" + getId())
+        .add("spriteName='" + getSpriteName() + "'")
+        .add("spritemapLength=" + this.spritemap.remaining())
+        .add("hasPreview=" + (this.previewPng != null))
+        .toString();
+  }
+}
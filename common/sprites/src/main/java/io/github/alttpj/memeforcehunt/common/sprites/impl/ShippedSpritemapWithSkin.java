@@ -18,17 +18,16 @@ package io.github.alttpj.memeforcehunt.common.sprites.impl;
 
 import io.github.alttpj.memeforcehunt.common.value.AbstractSpritemapWithSkin;
 import io.github.alttpj.memeforcehunt.common.value.ItemPalette;
+import io.github.alttpj.memeforcehunt.common.value.PreviewImages;
 
 import java.awt.image.BufferedImage;
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.StringJoiner;
-import javax.imageio.ImageIO;
 
 public final class ShippedSpritemapWithSkin extends AbstractSpritemapWithSkin {
 
   private final String skinResourceName;
-  private final String skinPreviewPath;
+  private final /* Nullable */ String skinPreviewPath;
 
   public ShippedSpritemapWithSkin(final String spriteId,
                                   final String spriteName,
@@ -43,16 +42,25 @@ public final class ShippedSpritemapWithSkin extends AbstractSpritemapWithSkin {
     this.skinPreviewPath = skinPreviewPath;
   }
 
+  /**
+   * Returns the decoded preview, which is shared with the {@link #getPreviewImages() preview cache}.
+   */
   @Override
   public BufferedImage getImage() {
-    BufferedImage itemp;
-    try (final InputStream inputStream = this.getClass().getResourceAsStream(getSkinPreviewPath())) {
-      itemp = ImageIO.read(inputStream);
-    } catch (final IOException imageReadEx) {
-      itemp = new BufferedImage(16, 16, BufferedImage.TYPE_4BYTE_ABGR);
+    return getPreviewImages().getSource();
+  }
+
+  @Override
+  public PreviewImages getPreviewImages() {
+    return getPreviewImageCache().get(getId(), () -> readPreviewImage(this::getPreviewInputStream));
+  }
+
+  private /* Nullable */ InputStream getPreviewInputStream() {
+    if (getSkinPreviewPath() == null) {
+      return null;
     }
 
-    return itemp;
+    return this.getClass().getResourceAsStream(getSkinPreviewPath());
   }
 
   @Override
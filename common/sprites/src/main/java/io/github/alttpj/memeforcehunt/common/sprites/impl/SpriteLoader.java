@@ -18,13 +18,17 @@ package io.github.alttpj.memeforcehunt.common.sprites.impl;
 
 import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Arrays;
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 public class SpriteLoader {
 
@@ -38,22 +42,44 @@ public class SpriteLoader {
     this.is = is;
   }
 
-  public List<SpritemapWithSkin> load() {
+  public List<SpritemapWithSkin> load() throws IOException {
+    final List<SpritemapWithSkin> sprites = new ArrayList<>();
+    load(sprites::add);
+
+    return List.copyOf(sprites);
+  }
+
+  /**
+   * Parses the sprites one at a time and passes each one on as soon as it has been read.
+   *
+   * <p>Callers can show the first sprites while the rest of the file is still being parsed.</p>
+   *
+   * @param onSprite receives the sprites in file order, on the calling thread.
+   * @throws IOException if the file cannot be read or is not a list of sprites. Sprites read before the error have
+   *     already been passed on.
+   */
+  public void load(final Consumer<? super SpritemapWithSkin> onSprite) throws IOException {
     if (this.isAlreadyLoaded.get()) {
-      return List.copyOf(this.loaded);
+      this.loaded.forEach(onSprite);
+      return;
     }
 
-    try {
-      final AbstractJsonShippedSpritemapWithSkin[] sprites = YAML.readValue(this.is, AbstractJsonShippedSpritemapWithSkin[].class);
+    final List<SpritemapWithSkin> sprites = new ArrayList<>();
 
-      this.loaded = Arrays.stream(sprites)
-          .map(this::toSpriteMapWithSkin)
-          .toList();
+    try (final JsonParser parser = YAML.createParser(this.is)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new IOException("Expected a list of sprites, but got [" + parser.currentToken() + "].");
+      }
 
-      return List.copyOf(this.loaded);
-    } catch (final IOException ioException) {
-      throw new UnsupportedOperationException("not yet implemented: [${CLASS_NAME}::${METHOD_NAME}].", ioException);
+      while (parser.nextToken() == JsonToken.START_OBJECT) {
+        final SpritemapWithSkin sprite = toSpriteMapWithSkin(YAML.readValue(parser, AbstractJsonShippedSpritemapWithSkin.class));
+        sprites.add(sprite);
+        onSprite.accept(sprite);
+      }
     }
+
+    this.loaded = List.copyOf(sprites);
+    this.isAlreadyLoaded.set(true);
   }
 
   private SpritemapWithSkin toSpriteMapWithSkin(final AbstractJsonShippedSpritemapWithSkin sprite) {
@@ -66,7 +92,7 @@ public class SpriteLoader {
         sprite.getDescription().or(sprite::getDisplayName).orElse(spriteName),
         sprite.getAuthor().orElse("unknown"),
         sprite.getUri().toString(),
-        sprite.getPreview().toString(),
+        sprite.getPreview().map(URI::toString).orElse(null),
         sprite.getItemPalette()
     );
   }
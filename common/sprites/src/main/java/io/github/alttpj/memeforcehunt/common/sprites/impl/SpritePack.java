@@ -0,0 +1,227 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.alttpj.memeforcehunt.common.sprites.impl;
+
+import io.github.alttpj.memeforcehunt.common.value.ItemPalette;
+import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.common.value.ULID;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Reads the shipped sprites from a {@link SpritePackFormat sprite pack} written at build time.
+ *
+ * <p>The pack is memory-mapped if it is a plain file, e.g. when running from {@code target/classes}, and read once
+ * into a direct buffer if it is inside a jar. Spritemaps and previews are read-only slices of that buffer, so no
+ * YAML is parsed and no further resources are opened at runtime.</p>
+ */
+public final class SpritePack {
+
+  public static final String PACK_RESOURCE = "/sprites/sprites.pack";
+
+  private static final ItemPalette[] PALETTES = ItemPalette.values();
+
+  private final ByteBuffer pack;
+
+  private final int entryCount;
+
+  private final int entryTableOffset;
+
+  private SpritePack(final ByteBuffer pack) throws IOException {
+    this.pack = pack.asReadOnlyBuffer().order(ByteOrder.BIG_ENDIAN);
+
+    if (this.pack.limit() < SpritePackFormat.HEADER_SIZE || this.pack.getInt(SpritePackFormat.HEADER_MAGIC) != SpritePackFormat.MAGIC) {
+      throw new IOException("Not a sprite pack.");
+    }
+
+    final int version = this.pack.getInt(SpritePackFormat.HEADER_VERSION);
+    if (version != SpritePackFormat.VERSION) {
+      throw new IOException("Unsupported sprite pack version [" + version + "], expected [" + SpritePackFormat.VERSION + "].");
+    }
+
+    final int packLength = this.pack.getInt(SpritePackFormat.HEADER_PACK_LENGTH);
+    if (packLength != this.pack.limit()) {
+      throw new IOException("Sprite pack truncated: expected [" + packLength + "] bytes, got [" + this.pack.limit() + "].");
+    }
+
+    this.entryCount = this.pack.getInt(SpritePackFormat.HEADER_ENTRY_COUNT);
+    this.entryTableOffset = this.pack.getInt(SpritePackFormat.HEADER_ENTRY_TABLE);
+  }
+
+  /**
+   * Reads a pack from a buffer.
+   *
+   * @param pack the whole pack, from position {@code 0} to its limit. It is not copied.
+   * @return the pack.
+   * @throws IOException if the buffer does not contain a valid pack.
+   */
+  public static SpritePack of(final ByteBuffer pack) throws IOException {
+    return new SpritePack(pack);
+  }
+
+  /**
+   * Loads the pack which is shipped with this module.
+   *
+   * @return the pack or empty if this module was built without one, e.g. in an IDE.
+   * @throws IOException if the pack cannot be read or is invalid.
+   */
+  public static Optional<SpritePack> loadShipped() throws IOException {
+    final URL packUrl = SpritePack.class.getResource(PACK_RESOURCE);
+    if (packUrl == null) {
+      return Optional.empty();
+    }
+
+    if ("file".equals(packUrl.getProtocol())) {
+      try (final FileChannel packChannel = FileChannel.open(Path.of(packUrl.toURI()), StandardOpenOption.READ)) {
+        return Optional.of(of(packChannel.map(FileChannel.MapMode.READ_ONLY, 0, packChannel.size())));
+      } catch (final URISyntaxException uriSyntaxException) {
+        throw new IOException("Cannot map sprite pack [" + packUrl + "].", uriSyntaxException);
+      }
+    }
+
+    try (final InputStream packInput = packUrl.openStream()) {
+      final byte[] packBytes = packInput.readAllBytes();
+      final ByteBuffer direct = ByteBuffer.allocateDirect(packBytes.length).put(packBytes).flip();
+
+      return Optional.of(of(direct));
+    }
+  }
+
+  public int size() {
+    return this.entryCount;
+  }
+
+  /**
+   * Creates the skins of all sprites.
+   *
+   * @return the skins in the order of {@code sprites.yaml}.
+   */
+  public List<SpritemapWithSkin> toSpritemaps() {
+    final List<SpritemapWithSkin> spritemaps = new ArrayList<>(this.entryCount);
+    forEach(spritemaps::add);
+
+    return List.copyOf(spritemaps);
+  }
+
+  /**
+   * Creates the skins one at a time and passes each one on right away, so callers can use the first skins before
+   * the others have been created.
+   *
+   * @param onSpritemap receives the skins in the order of {@code sprites.yaml}, on the calling thread.
+   */
+  public void forEach(final Consumer<? super SpritemapWithSkin> onSpritemap) {
+    // the entries are sorted by id, so look up where each position of the display order is stored first.
+    final int[] entryOffsetsInDisplayOrder = new int[this.entryCount];
+    for (int entryIndex = 0; entryIndex < this.entryCount; entryIndex++) {
+      final int entryOffset = entryOffset(entryIndex);
+      entryOffsetsInDisplayOrder[this.pack.getInt(entryOffset + SpritePackFormat.ENTRY_DISPLAY_ORDER)] = entryOffset;
+    }
+
+    for (final int entryOffset : entryOffsetsInDisplayOrder) {
+      onSpritemap.accept(createSpritemap(entryOffset));
+    }
+  }
+
+  /**
+   * Finds a single sprite by a binary search over the entry table, without creating the other skins.
+   *
+   * @param id the ULID of the sprite.
+   * @return the skin or empty if the pack does not contain it.
+   */
+  public Optional<SpritemapWithSkin> findById(final ULID.Value id) {
+    int low = 0;
+    int high = this.entryCount - 1;
+
+    while (low <= high) {
+      final int middle = (low + high) >>> 1;
+      final int comparison = idAt(entryOffset(middle)).compareTo(id);
+
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return Optional.of(createSpritemap(entryOffset(middle)));
+      }
+    }
+
+    return Optional.empty();
+  }
+
+  private int entryOffset(final int entryIndex) {
+    return this.entryTableOffset + entryIndex * SpritePackFormat.ENTRY_SIZE;
+  }
+
+  private ULID.Value idAt(final int entryOffset) {
+    return new ULID.Value(
+        this.pack.getLong(entryOffset + SpritePackFormat.ENTRY_ULID_MSB),
+        this.pack.getLong(entryOffset + SpritePackFormat.ENTRY_ULID_LSB));
+  }
+
+  private SpritemapWithSkin createSpritemap(final int entryOffset) {
+    final String spriteName = stringAt(entryOffset + SpritePackFormat.ENTRY_SPRITE_NAME);
+    final String displayName = Optional.ofNullable(stringAt(entryOffset + SpritePackFormat.ENTRY_DISPLAY_NAME)).orElse(spriteName);
+    final String description = Optional.ofNullable(stringAt(entryOffset + SpritePackFormat.ENTRY_DESCRIPTION)).orElse(displayName);
+    final String author = Optional.ofNullable(stringAt(entryOffset + SpritePackFormat.ENTRY_AUTHOR)).orElse("unknown");
+
+    return new PackedSpritemapWithSkin(
+        idAt(entryOffset),
+        spriteName,
+        displayName,
+        description,
+        author,
+        PALETTES[this.pack.getInt(entryOffset + SpritePackFormat.ENTRY_PALETTE)],
+        blobAt(entryOffset + SpritePackFormat.ENTRY_GFX),
+        blobAt(entryOffset + SpritePackFormat.ENTRY_UNCOMPRESSED),
+        blobAt(entryOffset + SpritePackFormat.ENTRY_PREVIEW));
+  }
+
+  private /* Nullable */ String stringAt(final int referenceOffset) {
+    final int stringOffset = this.pack.getInt(referenceOffset);
+    if (stringOffset == SpritePackFormat.NO_STRING) {
+      return null;
+    }
+
+    final int length = this.pack.getShort(stringOffset) & SpritePackFormat.MAX_STRING_LENGTH;
+    final byte[] utf8 = new byte[length];
+    this.pack.get(stringOffset + Short.BYTES, utf8);
+
+    return new String(utf8, StandardCharsets.UTF_8);
+  }
+
+  private /* Nullable */ ByteBuffer blobAt(final int referenceOffset) {
+    final int blobOffset = this.pack.getInt(referenceOffset);
+    final int blobLength = this.pack.getInt(referenceOffset + SpritePackFormat.BLOB_LENGTH);
+    if (blobLength == 0) {
+      return null;
+    }
+
+    return this.pack.slice(blobOffset, blobLength);
+  }
+}
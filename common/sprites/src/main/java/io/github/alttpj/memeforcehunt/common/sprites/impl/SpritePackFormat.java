@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.alttpj.memeforcehunt.common.sprites.impl;
+
+/**
+ * Layout of the binary sprite pack written by {@link SpritePackWriter} and read by {@link SpritePack}.
+ *
+ * <p>All numbers are big endian. A pack consists of:</p>
+ * <ol>
+ *   <li>a header of {@value #HEADER_SIZE} bytes: magic, version, entry count and the offsets of the sections,</li>
+ *   <li>the entry table, {@value #ENTRY_SIZE} bytes per sprite, sorted by ULID,</li>
+ *   <li>the string table, each string as an unsigned 16 bit length followed by its UTF-8 bytes,</li>
+ *   <li>the blobs: compressed spritemaps, uncompressed spritemaps and preview PNGs.</li>
+ * </ol>
+ *
+ * <p>Entries reference strings and blobs by their absolute offset within the pack.
+ * An absent string has the offset {@value #NO_STRING}, an absent blob the length {@code 0}. Several entries may
+ * reference the same blob.</p>
+ *
+ * <p>Shared blobs did not change the {@link #VERSION}: a reader only slices each blob by its offset and length,
+ * so it never assumes that blobs are distinct or stored in entry order.</p>
+ */
+final class SpritePackFormat {
+
+  /**
+   * {@code MFHP}.
+   */
+  static final int MAGIC = 0x4D464850;
+
+  static final int VERSION = 1;
+
+  static final int HEADER_SIZE = 32;
+  static final int HEADER_MAGIC = 0;
+  static final int HEADER_VERSION = 4;
+  static final int HEADER_ENTRY_COUNT = 8;
+  static final int HEADER_ENTRY_TABLE = 12;
+  static final int HEADER_STRING_TABLE = 16;
+  static final int HEADER_BLOBS = 20;
+  static final int HEADER_PACK_LENGTH = 24;
+
+  static final int ENTRY_SIZE = 64;
+  static final int ENTRY_ULID_MSB = 0;
+  static final int ENTRY_ULID_LSB = 8;
+  static final int ENTRY_SPRITE_NAME = 16;
+  static final int ENTRY_DISPLAY_NAME = 20;
+  static final int ENTRY_DESCRIPTION = 24;
+  static final int ENTRY_AUTHOR = 28;
+  static final int ENTRY_PALETTE = 32;
+  static final int ENTRY_DISPLAY_ORDER = 36;
+  static final int ENTRY_GFX = 40;
+  static final int ENTRY_UNCOMPRESSED = 48;
+  static final int ENTRY_PREVIEW = 56;
+
+  /**
+   * A blob reference is an offset followed by a length.
+   */
+  static final int BLOB_LENGTH = 4;
+
+  static final int NO_STRING = -1;
+
+  static final int MAX_STRING_LENGTH = 0xFFFF;
+
+  private SpritePackFormat() {
+    // constants
+  }
+}
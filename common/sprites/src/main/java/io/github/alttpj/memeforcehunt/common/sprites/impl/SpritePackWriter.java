@@ -0,0 +1,274 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.common.sprites.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Compiles {@code sprites.yaml} and the {@code gfx/}, {@code uncompressed/} and {@code previews/} resources into
+ * a single {@link SpritePackFormat sprite pack}.
+ *
+ * <p>Runs during the build, so the application neither parses YAML nor opens one resource per sprite at runtime.
+ * Usage: {@code SpritePackWriter <resource directory> <pack file>}.</p>
+ */
+public final class SpritePackWriter {
+
+  private static final ObjectMapper YAML = YamlMapper.getObjectMapper();
+
+  private static final String SPRITE_FILE = "sprites/sprites.yaml";
+
+  private static final String UNCOMPRESSED_DIRECTORY = "uncompressed";
+
+  private static final String UNCOMPRESSED_PREFIX = "u_";
+
+  private static final String UNCOMPRESSED_SUFFIX = ".bin";
+
+  private final Path resourceDirectory;
+
+  public SpritePackWriter(final Path resourceDirectory) {
+    this.resourceDirectory = resourceDirectory;
+  }
+
+  public static void main(final String[] args) throws IOException {
+    if (args.length != 2) {
+      throw new IllegalArgumentException("Usage: SpritePackWriter <resource directory> <pack file>");
+    }
+
+    final Path packFile = Path.of(args[1]);
+    Files.createDirectories(packFile.toAbsolutePath().getParent());
+
+    try (final OutputStream packOutput = Files.newOutputStream(packFile)) {
+      new SpritePackWriter(Path.of(args[0])).write(packOutput);
+    }
+  }
+
+  /**
+   * Writes the pack.
+   *
+   * @param packOutput receives the pack.
+   * @throws IOException if a resource cannot be read or the pack cannot be written.
+   */
+  public void write(final OutputStream packOutput) throws IOException {
+    final List<AbstractJsonShippedSpritemapWithSkin> sprites =
+        Arrays.asList(YAML.readValue(this.resourceDirectory.resolve(SPRITE_FILE).toFile(), AbstractJsonShippedSpritemapWithSkin[].class));
+
+    final List<PackEntry> entries = new ArrayList<>();
+    for (int displayOrder = 0; displayOrder < sprites.size(); displayOrder++) {
+      entries.add(new PackEntry(sprites.get(displayOrder), displayOrder));
+    }
+    entries.sort(Comparator.comparing((PackEntry entry) -> entry.sprite.getUlid()));
+
+    final int entryTableOffset = SpritePackFormat.HEADER_SIZE;
+    final int stringTableOffset = entryTableOffset + entries.size() * SpritePackFormat.ENTRY_SIZE;
+
+    final StringTable strings = new StringTable(stringTableOffset);
+    for (final PackEntry entry : entries) {
+      entry.addStrings(strings);
+    }
+
+    final int blobOffset = stringTableOffset + strings.size();
+    final ByteArrayOutputStream blobs = new ByteArrayOutputStream();
+    // identical files, e.g. a spritemap shipped under two names, are stored once per pack.
+    final Map<ByteBuffer, Integer> blobOffsets = new HashMap<>();
+    for (final PackEntry entry : entries) {
+      entry.addBlobs(blobOffset, blobs, blobOffsets);
+    }
+
+    final int packLength = blobOffset + blobs.size();
+    final ByteBuffer headerAndEntries = ByteBuffer.allocate(stringTableOffset);
+    headerAndEntries.putInt(SpritePackFormat.HEADER_MAGIC, SpritePackFormat.MAGIC)
+        .putInt(SpritePackFormat.HEADER_VERSION, SpritePackFormat.VERSION)
+        .putInt(SpritePackFormat.HEADER_ENTRY_COUNT, entries.size())
+        .putInt(SpritePackFormat.HEADER_ENTRY_TABLE, entryTableOffset)
+        .putInt(SpritePackFormat.HEADER_STRING_TABLE, stringTableOffset)
+        .putInt(SpritePackFormat.HEADER_BLOBS, blobOffset)
+        .putInt(SpritePackFormat.HEADER_PACK_LENGTH, packLength);
+
+    for (int entryIndex = 0; entryIndex < entries.size(); entryIndex++) {
+      entries.get(entryIndex).writeTo(headerAndEntries, entryTableOffset + entryIndex * SpritePackFormat.ENTRY_SIZE);
+    }
+
+    packOutput.write(headerAndEntries.array());
+    strings.writeTo(packOutput);
+    blobs.writeTo(packOutput);
+  }
+
+  private Optional<byte[]> readResource(final URI resourcePath) throws IOException {
+    final Path resource = this.resourceDirectory.resolve(resourcePath.getPath().replaceFirst("^/", ""));
+
+    return readFile(resource);
+  }
+
+  private Optional<byte[]> readUncompressed(final URI spritemapPath) throws IOException {
+    final String fileName = Path.of(spritemapPath.getPath()).getFileName().toString();
+    final String baseName = fileName.replaceFirst("\\.[^.]*$", "");
+
+    return readFile(this.resourceDirectory.resolve(UNCOMPRESSED_DIRECTORY).resolve(UNCOMPRESSED_PREFIX + baseName + UNCOMPRESSED_SUFFIX));
+  }
+
+  private static Optional<byte[]> readFile(final Path file) throws IOException {
+    if (!Files.isRegularFile(file)) {
+      return Optional.empty();
+    }
+
+    return Optional.of(Files.readAllBytes(file));
+  }
+
+  private final class PackEntry {
+
+    private final AbstractJsonShippedSpritemapWithSkin sprite;
+    private final int displayOrder;
+
+    private int spriteName;
+    private int displayName;
+    private int description;
+    private int author;
+
+    private final int[] gfx = new int[2];
+    private final int[] uncompressed = new int[2];
+    private final int[] preview = new int[2];
+
+    private PackEntry(final AbstractJsonShippedSpritemapWithSkin sprite, final int displayOrder) {
+      this.sprite = sprite;
+      this.displayOrder = displayOrder;
+    }
+
+    private void addStrings(final StringTable strings) {
+      this.spriteName = strings.add(this.sprite.getSpriteName());
+      this.displayName = strings.add(this.sprite.getDisplayName().orElse(null));
+      this.description = strings.add(this.sprite.getDescription().orElse(null));
+      this.author = strings.add(this.sprite.getAuthor().orElse(null));
+    }
+
+    private void addBlobs(final int blobOffset,
+                          final ByteArrayOutputStream blobs,
+                          final Map<ByteBuffer, Integer> blobOffsets) throws IOException {
+      final byte[] spritemap = readResource(this.sprite.getUri())
+          .orElseThrow(() -> new IOException(
+              "Spritemap [" + this.sprite.getUri() + "] of [" + this.sprite.getSpriteName() + "] not found."));
+      addBlob(spritemap, this.gfx, blobOffset, blobs, blobOffsets);
+
+      final Optional<byte[]> uncompressedSpritemap = readUncompressed(this.sprite.getUri());
+      if (uncompressedSpritemap.isPresent()) {
+        addBlob(uncompressedSpritemap.orElseThrow(), this.uncompressed, blobOffset, blobs, blobOffsets);
+      }
+
+      final Optional<URI> previewPath = this.sprite.getPreview();
+      if (previewPath.isPresent()) {
+        final Optional<byte[]> previewImage = readResource(previewPath.orElseThrow());
+        if (previewImage.isPresent()) {
+          addBlob(previewImage.orElseThrow(), this.preview, blobOffset, blobs, blobOffsets);
+        }
+      }
+    }
+
+    private void addBlob(final byte[] blob,
+                         final int[] reference,
+                         final int blobOffset,
+                         final ByteArrayOutputStream blobs,
+                         final Map<ByteBuffer, Integer> blobOffsets) {
+      final Integer existing = blobOffsets.putIfAbsent(ByteBuffer.wrap(blob), blobOffset + blobs.size());
+      reference[0] = existing != null ? existing : blobOffset + blobs.size();
+      reference[1] = blob.length;
+
+      if (existing == null) {
+        blobs.writeBytes(blob);
+      }
+    }
+
+    private void writeTo(final ByteBuffer entryTable, final int entryOffset) {
+      entryTable.putLong(entryOffset + SpritePackFormat.ENTRY_ULID_MSB, this.sprite.getUlid().getMostSignificantBits())
+          .putLong(entryOffset + SpritePackFormat.ENTRY_ULID_LSB, this.sprite.getUlid().getLeastSignificantBits())
+          .putInt(entryOffset + SpritePackFormat.ENTRY_SPRITE_NAME, this.spriteName)
+          .putInt(entryOffset + SpritePackFormat.ENTRY_DISPLAY_NAME, this.displayName)
+          .putInt(entryOffset + SpritePackFormat.ENTRY_DESCRIPTION, this.description)
+          .putInt(entryOffset + SpritePackFormat.ENTRY_AUTHOR, this.author)
+          .putInt(entryOffset + SpritePackFormat.ENTRY_PALETTE, this.sprite.getItemPalette().ordinal())
+          .putInt(entryOffset + SpritePackFormat.ENTRY_DISPLAY_ORDER, this.displayOrder);
+      putBlob(entryTable, entryOffset + SpritePackFormat.ENTRY_GFX, this.gfx);
+      putBlob(entryTable, entryOffset + SpritePackFormat.ENTRY_UNCOMPRESSED, this.uncompressed);
+      putBlob(entryTable, entryOffset + SpritePackFormat.ENTRY_PREVIEW, this.preview);
+    }
+
+    private void putBlob(final ByteBuffer entryTable, final int referenceOffset, final int[] reference) {
+      entryTable.putInt(referenceOffset, reference[0])
+          .putInt(referenceOffset + SpritePackFormat.BLOB_LENGTH, reference[1]);
+    }
+  }
+
+  /**
+   * Stores every distinct string once, e.g. author names.
+   */
+  private static final class StringTable {
+
+    private final int tableOffset;
+    private final Map<String, Integer> offsets = new HashMap<>();
+    private final ByteArrayOutputStream table = new ByteArrayOutputStream();
+
+    private StringTable(final int tableOffset) {
+      this.tableOffset = tableOffset;
+    }
+
+    private int add(final String value) {
+      if (value == null) {
+        return SpritePackFormat.NO_STRING;
+      }
+
+      final Integer existing = this.offsets.get(value);
+      if (existing != null) {
+        return existing;
+      }
+
+      final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+      if (utf8.length > SpritePackFormat.MAX_STRING_LENGTH) {
+        throw new IllegalArgumentException("String too long for a sprite pack: [" + value + "].");
+      }
+
+      final int offset = this.tableOffset + this.table.size();
+      this.table.write(utf8.length >>> 8);
+      this.table.write(utf8.length);
+      this.table.writeBytes(utf8);
+      this.offsets.put(value, offset);
+
+      return offset;
+    }
+
+    private int size() {
+      return this.table.size();
+    }
+
+    private void writeTo(final OutputStream output) throws IOException {
+      this.table.writeTo(output);
+    }
+  }
+}
@@ -18,6 +18,8 @@ package io.github.alttpj.memeforcehunt.common.sprites;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import io.github.alttpj.memeforcehunt.common.sprites.impl.ShippedSpritemapWithSkin;
 import io.github.alttpj.memeforcehunt.common.value.ItemPalette;
@@ -29,7 +31,12 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class DefaultSpritemapWithSkinsTest {
 
@@ -61,6 +68,33 @@ public class DefaultSpritemapWithSkinsTest {
 
   }
 
+  @Test
+  public void testLoadAsyncLoadsCatalogOnce() throws InterruptedException, ExecutionException, TimeoutException {
+    // given
+    final CompletableFuture<SpritemapIndex> first = DefaultSpritemapWithSkins.loadAsync();
+    final CompletableFuture<SpritemapIndex> second = DefaultSpritemapWithSkins.loadAsync();
+
+    // when
+    second.cancel(false);
+
+    // then
+    assertNotSame(first, second);
+    assertSame(DefaultSpritemapWithSkins.getIndex(), first.get(10L, TimeUnit.SECONDS));
+    assertFalse(first.get().values().isEmpty());
+  }
+
+  @Test
+  public void testForEachStreamsCatalogInOrder() throws InterruptedException {
+    // given
+    final List<SpritemapWithSkin> streamed = new ArrayList<>();
+
+    // when
+    DefaultSpritemapWithSkins.forEach(streamed::add);
+
+    // then
+    assertEquals(DefaultSpritemapWithSkins.values(), streamed);
+  }
+
   @Test
   public void testDisplayNameDefaultsToSpriteName() {
     // given
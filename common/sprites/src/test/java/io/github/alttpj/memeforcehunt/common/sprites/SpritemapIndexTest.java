@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.common.sprites;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.alttpj.memeforcehunt.common.sprites.impl.ShippedSpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.common.value.ItemPalette;
+import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.common.value.ULID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SpritemapIndexTest {
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 2, 3, 1000})
+  public void shouldFindEverySkinByIdAndName(final int skinCount) {
+    // given monotonic ids, which only differ in their lowest bits
+    final ULID.MonotonicGenerator ulids = new ULID.MonotonicGenerator(() -> 1_000L);
+    final List<SpritemapWithSkin> skins = new ArrayList<>();
+    for (int skinIndex = 0; skinIndex < skinCount; skinIndex++) {
+      skins.add(skin(ulids.nextULID(), "skin" + skinIndex));
+    }
+
+    // when
+    final SpritemapIndex index = SpritemapIndex.of(skins);
+
+    // then
+    assertEquals(skinCount, index.size());
+    assertEquals(skins, index.values());
+    for (final SpritemapWithSkin skin : skins) {
+      assertAll(
+          () -> assertSame(skin, index.findById(skin.getId()).orElseThrow()),
+          () -> assertSame(skin, index.findByName(skin.getSpriteName()).orElseThrow()),
+          () -> assertSame(skin, index.findByIdOrName(skin.getId().toString()).orElseThrow()),
+          () -> assertSame(skin, index.findByIdOrName(skin.getSpriteName()).orElseThrow())
+      );
+    }
+    assertAll(
+        () -> assertTrue(index.findById(ulids.nextValue()).isEmpty()),
+        () -> assertTrue(index.findByName("skin" + skinCount).isEmpty()),
+        () -> assertTrue(index.findByIdOrName(ulids.nextULID()).isEmpty())
+    );
+  }
+
+  @Test
+  public void firstSkinShouldWinOnDuplicates() {
+    // given
+    final String id = new ULID().nextULID();
+    final SpritemapWithSkin first = skin(id, "benana");
+    final SpritemapWithSkin sameId = skin(id, "other");
+    final SpritemapWithSkin sameName = skin(new ULID().nextULID(), "benana");
+
+    // when
+    final SpritemapIndex index = SpritemapIndex.of(List.of(first, sameId, sameName));
+
+    // then
+    assertAll(
+        () -> assertEquals(3, index.size()),
+        () -> assertSame(first, index.findById(first.getId()).orElseThrow()),
+        () -> assertSame(first, index.findByName("benana").orElseThrow()),
+        () -> assertSame(sameId, index.findByName("other").orElseThrow()),
+        () -> assertSame(sameName, index.findById(sameName.getId()).orElseThrow())
+    );
+  }
+
+  @Test
+  public void nameWithUlidLengthShouldNotBeParsedAsId() {
+    // given
+    final SpritemapWithSkin skin = skin(new ULID().nextULID(), "a-sprite-name-of-26-chars!");
+    final SpritemapIndex index = SpritemapIndex.of(List.of(skin));
+
+    // when / then
+    assertSame(skin, index.findByIdOrName("a-sprite-name-of-26-chars!").orElseThrow());
+  }
+
+  @Test
+  public void shippedSkinsShouldBeIndexed() {
+    for (final SpritemapWithSkin shipped : DefaultSpritemapWithSkins.values()) {
+      assertAll(
+          () -> assertSame(shipped, DefaultSpritemapWithSkins.getByName(shipped.getSpriteName())),
+          () -> assertSame(shipped, DefaultSpritemapWithSkins.findByIdOrName(shipped.getId().toString()).orElseThrow()),
+          () -> assertSame(shipped, DefaultSpritemapWithSkins.getIndex().findById(shipped.getId()).orElseThrow())
+      );
+    }
+  }
+
+  private static SpritemapWithSkin skin(final String id, final String spriteName) {
+    return new ShippedSpritemapWithSkin(id, spriteName, null, "desc", "author", "/res", "/prev", ItemPalette.GREEN);
+  }
+}
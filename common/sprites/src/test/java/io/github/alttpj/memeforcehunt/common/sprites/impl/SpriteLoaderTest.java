@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.alttpj.memeforcehunt.common.sprites.impl;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SpriteLoaderTest {
+
+  private static final String TWO_SPRITES = String.join("\n",
+      "---",
+      "- ulid: 01E6F3YXSW5A3AB0X4A1ACX0FN",
+      "  author: kan",
+      "  spriteName: 1up",
+      "  uri: \"/gfx/1up.bin\"",
+      "  palette: 'GREEN'",
+      "- ulid: 01E6F3YXSW5A3AB0X4A1ACX0FP",
+      "  spriteName: second",
+      "  displayName: The Second",
+      "  uri: \"/gfx/second.bin\"",
+      "  preview: \"/previews/second.png\"",
+      "  palette: 'RED'",
+      "");
+
+  @Test
+  public void shouldStreamSpritesInFileOrder() throws IOException {
+    // given
+    final List<SpritemapWithSkin> streamed = new ArrayList<>();
+
+    // when
+    new SpriteLoader(yaml()).load(streamed::add);
+
+    // then
+    assertAll(
+        () -> assertEquals(2, streamed.size()),
+        () -> assertEquals("1up", streamed.get(0).getSpriteName()),
+        () -> assertEquals("kan", streamed.get(0).getAuthor()),
+        () -> assertEquals("The Second", streamed.get(1).getDisplayName()),
+        () -> assertEquals("unknown", streamed.get(1).getAuthor())
+    );
+  }
+
+  @Test
+  public void loadShouldReturnTheStreamedSprites() throws IOException {
+    // given
+    final SpriteLoader spriteLoader = new SpriteLoader(yaml());
+
+    // when
+    final List<SpritemapWithSkin> loaded = spriteLoader.load();
+    final List<SpritemapWithSkin> streamedAgain = new ArrayList<>();
+    spriteLoader.load(streamedAgain::add);
+
+    // then the input is only parsed once
+    assertEquals(loaded, streamedAgain);
+  }
+
+  @Test
+  public void loadShouldThrowIoExceptionIfTheFileIsNoList() {
+    // given
+    final SpriteLoader spriteLoader = new SpriteLoader(yaml("spriteName: 1up\n"));
+
+    // then
+    assertThrows(IOException.class, spriteLoader::load);
+  }
+
+  private static InputStream yaml() {
+    return yaml(TWO_SPRITES);
+  }
+
+  private static InputStream yaml(final String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
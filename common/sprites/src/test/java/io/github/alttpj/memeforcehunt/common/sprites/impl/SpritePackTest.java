@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.alttpj.memeforcehunt.common.sprites.impl;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.common.value.ULID;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class SpritePackTest {
+
+  private static final Path RESOURCES = Path.of("src", "main", "resources");
+
+  private static List<SpritemapWithSkin> fromYaml;
+
+  private static SpritePack spritePack;
+
+  @BeforeAll
+  public static void writePack() throws IOException {
+    try (final InputStream spritesYaml = SpritePackTest.class.getResourceAsStream("/sprites/sprites.yaml")) {
+      fromYaml = new SpriteLoader(spritesYaml).load();
+    }
+
+    final ByteArrayOutputStream packOutput = new ByteArrayOutputStream();
+    new SpritePackWriter(RESOURCES).write(packOutput);
+    spritePack = SpritePack.of(ByteBuffer.wrap(packOutput.toByteArray()));
+  }
+
+  @Test
+  public void packShouldContainSameSpritesInSameOrderAsYaml() throws IOException {
+    // when
+    final List<SpritemapWithSkin> fromPack = spritePack.toSpritemaps();
+
+    // then
+    assertEquals(fromYaml.size(), fromPack.size());
+    for (int spriteIndex = 0; spriteIndex < fromYaml.size(); spriteIndex++) {
+      final SpritemapWithSkin expected = fromYaml.get(spriteIndex);
+      final SpritemapWithSkin actual = fromPack.get(spriteIndex);
+
+      assertAll(
+          () -> assertEquals(expected.getId(), actual.getId()),
+          () -> assertEquals(expected.getSpriteName(), actual.getSpriteName()),
+          () -> assertEquals(expected.getDisplayName(), actual.getDisplayName()),
+          () -> assertEquals(expected.getDescription(), actual.getDescription()),
+          () -> assertEquals(expected.getAuthor(), actual.getAuthor()),
+          () -> assertEquals(expected.getItemPalette(), actual.getItemPalette()),
+          () -> assertEquals(expected.getPaletteOW(), actual.getPaletteOW()),
+          () -> assertArrayEquals(expected.getData(), actual.getData()),
+          () -> assertTrue(actual.getDataBuffer().isReadOnly())
+      );
+    }
+  }
+
+  @Test
+  public void shouldFindEverySpriteById() {
+    for (final SpritemapWithSkin expected : fromYaml) {
+      assertEquals(expected.getSpriteName(), spritePack.findById(expected.getId()).orElseThrow().getSpriteName());
+    }
+
+    assertTrue(spritePack.findById(new ULID().nextValue()).isEmpty());
+  }
+
+  @Test
+  public void identicalSpritemapsShouldShareOneBlob(@TempDir final Path resourceDirectory) throws IOException {
+    // given
+    final byte[] spritemap = Files.readAllBytes(RESOURCES.resolve("gfx").resolve("1up.bin"));
+    Files.createDirectories(resourceDirectory.resolve("gfx"));
+    Files.createDirectories(resourceDirectory.resolve("sprites"));
+    Files.write(resourceDirectory.resolve("gfx").resolve("oneup.bin"), spritemap);
+    Files.write(resourceDirectory.resolve("gfx").resolve("extralife.bin"), spritemap);
+    Files.writeString(resourceDirectory.resolve("sprites").resolve("sprites.yaml"), String.join("\n",
+        "- ulid: 01E6F3YXSW5A3AB0X4A1ACX0FN",
+        "  spriteName: oneup",
+        "  uri: \"/gfx/oneup.bin\"",
+        "  palette: 'GREEN'",
+        "- ulid: 01E6F3YXT1SFAWKQBEYG77VYBQ",
+        "  spriteName: extralife",
+        "  uri: \"/gfx/extralife.bin\"",
+        "  palette: 'RED'",
+        ""));
+    final SpritePackWriter spritePackWriter = new SpritePackWriter(resourceDirectory);
+
+    // when
+    final byte[] firstPack = write(spritePackWriter);
+    final byte[] secondPack = write(spritePackWriter);
+
+    // then
+    final ByteBuffer packBuffer = ByteBuffer.wrap(firstPack);
+    final List<SpritemapWithSkin> fromPack = SpritePack.of(packBuffer).toSpritemaps();
+    assertAll(
+        () -> assertArrayEquals(firstPack, secondPack),
+        () -> assertEquals(spritemap.length, firstPack.length - packBuffer.getInt(SpritePackFormat.HEADER_BLOBS)),
+        () -> assertEquals(2, fromPack.size()),
+        () -> assertEquals("oneup", fromPack.get(0).getSpriteName()),
+        () -> assertEquals("extralife", fromPack.get(1).getSpriteName()),
+        () -> assertArrayEquals(fromPack.get(0).getData(), fromPack.get(1).getData())
+    );
+  }
+
+  @Test
+  public void shouldRejectInvalidPack() {
+    final ByteBuffer notAPack = ByteBuffer.allocate(SpritePackFormat.HEADER_SIZE);
+
+    assertThrows(IOException.class, () -> SpritePack.of(notAPack));
+  }
+
+  private static byte[] write(final SpritePackWriter spritePackWriter) throws IOException {
+    final ByteArrayOutputStream packOutput = new ByteArrayOutputStream();
+    spritePackWriter.write(packOutput);
+
+    return packOutput.toByteArray();
+  }
+}
@@ -16,16 +16,27 @@
 
 package io.github.alttpj.memeforcehunt.common.value;
 
-import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Optional;
+import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 
 public abstract class AbstractSpritemapWithSkin implements SpritemapWithSkin {
 
+  /**
+   * If set to {@code true}, previews are always rendered from the spritemap instead of reading the preview PNGs.
+   *
+   * <p>Most rendered previews are identical to the shipped PNGs. A few PNGs were edited by hand or show an older
+   * spritemap, so their rendered previews differ slightly, but show exactly what ends up in the ROM.</p>
+   */
+  public static final String RENDER_PREVIEWS_PROPERTY = "memeforcehunt.previews.render";
+
+  private static final boolean RENDER_PREVIEWS = Boolean.getBoolean(RENDER_PREVIEWS_PROPERTY);
+
   private static final int BUFFER_SIZE = 512;
   private final ULID.Value id;
   private final String spriteName;
@@ -74,6 +85,20 @@ public abstract class AbstractSpritemapWithSkin implements SpritemapWithSkin {
     this.palette = palette;
   }
 
+  public AbstractSpritemapWithSkin(final ULID.Value spriteId,
+                                   final String spriteName,
+                                   final String displayName,
+                                   final String description,
+                                   final String author,
+                                   final ItemPalette palette) {
+    this.id = spriteId;
+    this.spriteName = spriteName;
+    this.displayName = displayName;
+    this.description = description;
+    this.author = author;
+    this.palette = palette;
+  }
+
   @Override
   public ULID.Value getId() {
     return this.id;
@@ -102,21 +127,67 @@ public abstract class AbstractSpritemapWithSkin implements SpritemapWithSkin {
 
   @Override
   public ImageIcon getImageIcon() {
-    return createImageIcon(getImage());
+    return new ImageIcon(getPreviewImages().getScaled32());
   }
 
   @Override
   public abstract BufferedImage getImage();
 
-  protected static ImageIcon createImageIcon(final BufferedImage itemp) {
-    final BufferedImage imageIconImage = new BufferedImage(32, 32, BufferedImage.TYPE_4BYTE_ABGR);
-    final Graphics2D graphics2D = imageIconImage.createGraphics();
+  @Override
+  public PreviewImages getPreviewImages() {
+    return getPreviewImageCache().get(getId(), this::getImage);
+  }
 
-    graphics2D.scale(2, 2);
-    graphics2D.drawImage(itemp, 0, 0, null);
-    graphics2D.dispose();
+  /**
+   * Renders the preview from the tiles of the spritemap, e.g. for skins which do not ship a preview image.
+   *
+   * @return the rendered preview, or an empty 16x16 image if there is no {@link SkinPreviewRenderer} or the
+   *     spritemap cannot be decoded.
+   */
+  protected BufferedImage renderPreview() {
+    final Optional<SkinPreviewRenderer> renderer = SkinPreviewRenderer.find();
+    if (renderer.isPresent()) {
+      try {
+        return renderer.orElseThrow().render(this);
+      } catch (final IOException | RuntimeException renderException) {
+        // fall through to the empty image, just like a broken preview image.
+      }
+    }
 
-    return new ImageIcon(imageIconImage);
+    return new BufferedImage(PreviewImages.SOURCE_SIZE, PreviewImages.SOURCE_SIZE, BufferedImage.TYPE_4BYTE_ABGR);
+  }
+
+  /**
+   * Reads the preview PNG of this skin, falling back to {@link #renderPreview()}.
+   *
+   * <p>The preview is rendered instead if {@link #RENDER_PREVIEWS_PROPERTY} is set, or if there is no PNG or it
+   * cannot be decoded.</p>
+   *
+   * @param previewPng opens the PNG, or returns {@code null} if there is none.
+   * @return the preview, never {@code null}.
+   */
+  protected BufferedImage readPreviewImage(final PreviewPngSource previewPng) {
+    if (RENDER_PREVIEWS) {
+      return renderPreview();
+    }
+
+    BufferedImage previewImage;
+    try (final InputStream pngInput = previewPng.open()) {
+      previewImage = pngInput == null ? null : ImageIO.read(pngInput);
+    } catch (final IOException imageReadEx) {
+      previewImage = null;
+    }
+
+    return previewImage != null ? previewImage : renderPreview();
+  }
+
+  /**
+   * The cache which holds the previews of this skin.
+   *
+   * @return the shared {@link PreviewImageCache#getDefault() default cache}.
+   */
+  protected PreviewImageCache getPreviewImageCache() {
+    return PreviewImageCache.getDefault();
   }
 
   @Override
@@ -129,8 +200,33 @@ public abstract class AbstractSpritemapWithSkin implements SpritemapWithSkin {
     return this.palette.getPaletteIdOverworld();
   }
 
+  /**
+   * Returns a copy of the spritemap, which is read at most once while it stays in the {@link #getDataCache() cache}.
+   */
   @Override
   public byte[] getData() throws IOException {
+    final ByteBuffer data = getDataBuffer();
+    final byte[] copy = new byte[data.remaining()];
+    data.get(copy);
+
+    return copy;
+  }
+
+  @Override
+  public ByteBuffer getDataBuffer() throws IOException {
+    return getDataCache().get(this, this::readSpritemap);
+  }
+
+  /**
+   * The cache which holds the spritemap of this skin.
+   *
+   * @return the shared {@link SpritemapDataCache#getDefault() default cache}.
+   */
+  protected SpritemapDataCache getDataCache() {
+    return SpritemapDataCache.getDefault();
+  }
+
+  private byte[] readSpritemap() throws IOException {
     try (final InputStream spritemapInput = getSpritemapInputStream();
          final ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
       final byte[] buffer = new byte[BUFFER_SIZE];
@@ -145,4 +241,13 @@ public abstract class AbstractSpritemapWithSkin implements SpritemapWithSkin {
   }
 
   protected abstract InputStream getSpritemapInputStream();
+
+  /**
+   * Opens the preview PNG of a skin, see {@link #readPreviewImage(PreviewPngSource)}.
+   */
+  @FunctionalInterface
+  protected interface PreviewPngSource {
+
+    /* Nullable */ InputStream open() throws IOException;
+  }
 }
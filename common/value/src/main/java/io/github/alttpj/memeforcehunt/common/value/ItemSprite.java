@@ -16,8 +16,6 @@
 
 package io.github.alttpj.memeforcehunt.common.value;
 
-import io.github.alttpj.library.image.Tile;
-
 /**
  * An item sprite is a composition of multiple tiles.
  */
@@ -48,7 +46,12 @@ public interface ItemSprite {
 
   String getAuthor();
 
-  Tile[] getTiles();
+  /**
+   * The packed tiles of this sprite, one per {@link #getTilePositions() tile position}.
+   *
+   * @return the tiles.
+   */
+  TileSheet getTileSheet();
 
   /**
    * The tile numbers in the spritemap for the tiles.
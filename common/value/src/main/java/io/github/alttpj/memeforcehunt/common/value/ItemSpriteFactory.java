@@ -18,8 +18,6 @@ package io.github.alttpj.memeforcehunt.common.value;
 
 import io.github.alttpj.memeforcehunt.common.value.impl.ItemSpriteRecord;
 
-import io.github.alttpj.library.image.Tile;
-
 import java.util.Arrays;
 import java.util.Objects;
 
@@ -29,7 +27,7 @@ public final class ItemSpriteFactory {
     // util
   }
 
-  public static ItemSprite fromSpritemapWithSkin(final SpritemapWithSkin spritemapWithSkin, final Tile[] tiles) {
+  public static ItemSprite fromSpritemapWithSkin(final SpritemapWithSkin spritemapWithSkin, final TileSheet tiles) {
     Objects.requireNonNull(spritemapWithSkin, "spritemapWithSkin may not be null");
     Objects.requireNonNull(tiles, "tiles may not be null");
 
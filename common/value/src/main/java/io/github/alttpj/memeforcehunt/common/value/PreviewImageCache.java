@@ -0,0 +1,184 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.common.value;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A bounded LRU cache of decoded and pre-scaled skin previews, keyed by the ULID of the skin.
+ *
+ * <p>Decoding a preview PNG and scaling it is far more expensive than drawing it, and list cells ask for the preview
+ * every time they are scrolled into view. The cache can also be warmed up on a background thread, so the first
+ * scroll through the skin list does not decode anything either.</p>
+ *
+ * <p>This class is thread-safe.</p>
+ */
+public final class PreviewImageCache {
+
+  public static final int DEFAULT_CAPACITY = 512;
+
+  private static final PreviewImageCache DEFAULT_CACHE = new PreviewImageCache(DEFAULT_CAPACITY);
+
+  private final int capacity;
+  private final Map<ULID.Value, PreviewImages> entries;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public PreviewImageCache(final int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be at least 1, but was [" + capacity + "].");
+    }
+
+    this.capacity = capacity;
+    this.entries = createLruMap(capacity);
+  }
+
+  private static Map<ULID.Value, PreviewImages> createLruMap(final int capacity) {
+    return new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<ULID.Value, PreviewImages> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * The cache used by {@link AbstractSpritemapWithSkin} unless a subclass uses its own.
+   *
+   * @return the default cache.
+   */
+  public static PreviewImageCache getDefault() {
+    return DEFAULT_CACHE;
+  }
+
+  /**
+   * Returns the previews of a skin, decoding and scaling the source image only on a cache miss.
+   *
+   * @param spriteId     the id of the skin.
+   * @param sourceLoader decodes the 16x16 source image of the skin.
+   * @return the shared previews.
+   */
+  public PreviewImages get(final ULID.Value spriteId, final Supplier<BufferedImage> sourceLoader) {
+    Objects.requireNonNull(spriteId, "spriteId");
+
+    synchronized (this.entries) {
+      final PreviewImages cached = this.entries.get(spriteId);
+      if (cached != null) {
+        this.hits.increment();
+        return cached;
+      }
+    }
+
+    this.misses.increment();
+    final PreviewImages loaded = PreviewImages.of(sourceLoader.get());
+
+    synchronized (this.entries) {
+      this.entries.put(spriteId, loaded);
+    }
+
+    return loaded;
+  }
+
+  /**
+   * Loads the previews of the given skins on a background thread, via {@link SpritemapWithSkin#getPreviewImages()}.
+   *
+   * <p>Only the first {@link #getCapacity()} skins are loaded, as later ones would evict the earlier ones again.</p>
+   *
+   * @param skins the skins to load, usually in display order.
+   * @return a future which completes when all previews are loaded.
+   */
+  public CompletableFuture<Void> warmUp(final Collection<? extends SpritemapWithSkin> skins) {
+    final List<SpritemapWithSkin> toLoad = new ArrayList<SpritemapWithSkin>(skins).subList(0, Math.min(skins.size(), this.capacity));
+
+    final CompletableFuture<Void> warmedUp = new CompletableFuture<>();
+    final Thread warmUpThread = new Thread(() -> {
+      try {
+        toLoad.forEach(SpritemapWithSkin::getPreviewImages);
+        warmedUp.complete(null);
+      } catch (final RuntimeException loadException) {
+        warmedUp.completeExceptionally(loadException);
+      }
+    }, "preview-warm-up");
+    warmUpThread.setDaemon(true);
+    warmUpThread.setPriority(Thread.MIN_PRIORITY);
+    warmUpThread.start();
+
+    return warmedUp;
+  }
+
+  /**
+   * Removes the previews of a skin, e.g. after its file has changed.
+   *
+   * @param spriteId the id of the skin to remove.
+   */
+  public void invalidate(final ULID.Value spriteId) {
+    synchronized (this.entries) {
+      this.entries.remove(spriteId);
+    }
+  }
+
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  public long getMisses() {
+    return this.misses.sum();
+  }
+
+  public int size() {
+    synchronized (this.entries) {
+      return this.entries.size();
+    }
+  }
+
+  public int getCapacity() {
+    return this.capacity;
+  }
+
+  /**
+   * Removes all entries and resets the hit and miss counters.
+   */
+  public void clear() {
+    synchronized (this.entries) {
+      this.entries.clear();
+      this.hits.reset();
+      this.misses.reset();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", "PreviewImageCache{", "}")
+        .add("capacity=" + this.capacity)
+        .add("size=" + size())
+        .add("hits=" + getHits())
+        .add("misses=" + getMisses())
+        .toString();
+  }
+}
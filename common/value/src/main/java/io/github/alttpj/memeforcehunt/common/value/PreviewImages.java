@@ -0,0 +1,102 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.common.value;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The 16x16 preview of a skin together with its 32x32 and 64x64 variants, scaled without smoothing.
+ *
+ * <p>The images are shared by everyone who asks for the preview of a skin and must not be modified. The same goes
+ * for {@link #getScaled32As(Class, Function) converted} variants, e.g. JavaFX images, which are kept here so they
+ * are evicted and invalidated together with the images they were converted from.</p>
+ */
+public final class PreviewImages {
+
+  public static final int SOURCE_SIZE = 16;
+
+  private final BufferedImage source;
+  private final BufferedImage scaled32;
+  private final BufferedImage scaled64;
+  private final Map<Class<?>, Object> convertedScaled32 = new ConcurrentHashMap<>();
+
+  private PreviewImages(final BufferedImage source, final BufferedImage scaled32, final BufferedImage scaled64) {
+    this.source = source;
+    this.scaled32 = scaled32;
+    this.scaled64 = scaled64;
+  }
+
+  /**
+   * Creates the scaled variants of a preview.
+   *
+   * @param source the decoded preview, usually 16x16.
+   * @return the source and its scaled variants.
+   */
+  public static PreviewImages of(final BufferedImage source) {
+    Objects.requireNonNull(source, "source");
+
+    return new PreviewImages(source, scale(source, 2), scale(source, 4));
+  }
+
+  private static BufferedImage scale(final BufferedImage source, final int factor) {
+    final BufferedImage scaled = new BufferedImage(SOURCE_SIZE * factor, SOURCE_SIZE * factor, BufferedImage.TYPE_4BYTE_ABGR);
+    final Graphics2D graphics2D = scaled.createGraphics();
+
+    graphics2D.scale(factor, factor);
+    graphics2D.drawImage(source, 0, 0, null);
+    graphics2D.dispose();
+
+    return scaled;
+  }
+
+  public BufferedImage getSource() {
+    return this.source;
+  }
+
+  public BufferedImage getScaled32() {
+    return this.scaled32;
+  }
+
+  public BufferedImage getScaled64() {
+    return this.scaled64;
+  }
+
+  /**
+   * Returns the 32x32 preview converted into another image type, converting it only on the first call per type.
+   *
+   * @param type      the type of the converted image, e.g. {@code javafx.scene.image.Image}.
+   * @param converter converts the 32x32 preview, e.g. using {@code SwingFXUtils.toFXImage}.
+   * @param <T>       the type of the converted image.
+   * @return the shared converted image.
+   */
+  public <T> T getScaled32As(final Class<T> type, final Function<BufferedImage, ? extends T> converter) {
+    return type.cast(this.convertedScaled32.computeIfAbsent(type, key -> converter.apply(this.scaled32)));
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", "PreviewImages{", "}")
+        .add("source=" + this.source.getWidth() + "x" + this.source.getHeight())
+        .toString();
+  }
+}
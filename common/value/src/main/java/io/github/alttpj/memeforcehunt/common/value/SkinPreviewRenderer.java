@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.alttpj.memeforcehunt.common.value;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.ServiceLoader;
+
+/**
+ * Renders the preview of a skin from its spritemap, for skins without a preview image.
+ *
+ * <p>Implementations are found with the {@link ServiceLoader}, so this module does not need to depend on the
+ * module which decodes spritemaps.</p>
+ */
+public interface SkinPreviewRenderer {
+
+  /**
+   * Renders the 16x16 preview of a skin.
+   *
+   * @param spritemapWithSkin the skin to render.
+   * @return the preview.
+   * @throws IOException if the spritemap cannot be read or decoded.
+   */
+  BufferedImage render(SpritemapWithSkin spritemapWithSkin) throws IOException;
+
+  /**
+   * The first renderer on the module or class path.
+   *
+   * @return the renderer or empty if there is none.
+   */
+  static Optional<SkinPreviewRenderer> find() {
+    return SkinPreviewRendererHolder.RENDERER;
+  }
+}
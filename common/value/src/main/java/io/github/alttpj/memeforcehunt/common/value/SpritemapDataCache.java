@@ -0,0 +1,184 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.common.value;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A LRU cache of the compressed spritemap bytes of skins, bounded by the total number of cached bytes.
+ *
+ * <p>Loading a spritemap means opening a resource or a file, so skins which are patched or previewed repeatedly
+ * keep their bytes here. Entries are keyed by the skin instance. Callers get read-only views sharing the cached
+ * bytes, so a hit neither reads nor copies anything. A spritemap larger than the whole budget is not cached.</p>
+ *
+ * <p>The budget of the default cache can be set with the system property {@value #MAX_BYTES_PROPERTY}.</p>
+ *
+ * <p>This class is thread-safe.</p>
+ */
+public final class SpritemapDataCache {
+
+  public static final String MAX_BYTES_PROPERTY = "memeforcehunt.spritemapDataCache.maxBytes";
+
+  /**
+   * Large enough for all shipped skins, which are about 1.5 KiB each.
+   */
+  public static final long DEFAULT_MAX_BYTES = 1024L * 1024L;
+
+  private static final SpritemapDataCache DEFAULT_CACHE = new SpritemapDataCache(Long.getLong(MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES));
+
+  private final long maxBytes;
+  private final Map<SpritemapWithSkin, ByteBuffer> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private long cachedBytes;
+
+  public SpritemapDataCache(final long maxBytes) {
+    if (maxBytes < 0) {
+      throw new IllegalArgumentException("maxBytes must not be negative, but was [" + maxBytes + "].");
+    }
+
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * The cache used by {@link AbstractSpritemapWithSkin} unless a subclass uses its own.
+   *
+   * @return the default cache.
+   */
+  public static SpritemapDataCache getDefault() {
+    return DEFAULT_CACHE;
+  }
+
+  /**
+   * Returns the spritemap of the given skin, loading it only on a cache miss.
+   *
+   * @param spritemapWithSkin the skin, used as the key.
+   * @param loader            reads the spritemap of this skin.
+   * @return a read-only view of the spritemap, positioned at its first byte.
+   * @throws IOException if the loader fails.
+   */
+  public ByteBuffer get(final SpritemapWithSkin spritemapWithSkin, final Loader loader) throws IOException {
+    Objects.requireNonNull(spritemapWithSkin, "spritemapWithSkin");
+
+    synchronized (this.entries) {
+      final ByteBuffer cached = this.entries.get(spritemapWithSkin);
+      if (cached != null) {
+        this.hits.increment();
+        return cached.duplicate();
+      }
+    }
+
+    this.misses.increment();
+    final ByteBuffer loaded = ByteBuffer.wrap(loader.load()).asReadOnlyBuffer();
+
+    if (loaded.capacity() <= this.maxBytes) {
+      synchronized (this.entries) {
+        final ByteBuffer replaced = this.entries.put(spritemapWithSkin, loaded);
+        this.cachedBytes += loaded.capacity() - (replaced == null ? 0 : replaced.capacity());
+        evict();
+      }
+    }
+
+    return loaded.duplicate();
+  }
+
+  private void evict() {
+    final Iterator<ByteBuffer> eldestFirst = this.entries.values().iterator();
+
+    while (this.cachedBytes > this.maxBytes && eldestFirst.hasNext()) {
+      this.cachedBytes -= eldestFirst.next().capacity();
+      eldestFirst.remove();
+    }
+  }
+
+  /**
+   * Removes the spritemap of a skin, e.g. after its file has changed.
+   *
+   * @param spritemapWithSkin the skin to remove.
+   */
+  public void invalidate(final SpritemapWithSkin spritemapWithSkin) {
+    synchronized (this.entries) {
+      final ByteBuffer removed = this.entries.remove(spritemapWithSkin);
+      if (removed != null) {
+        this.cachedBytes -= removed.capacity();
+      }
+    }
+  }
+
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  public long getMisses() {
+    return this.misses.sum();
+  }
+
+  public int size() {
+    synchronized (this.entries) {
+      return this.entries.size();
+    }
+  }
+
+  public long getCachedBytes() {
+    synchronized (this.entries) {
+      return this.cachedBytes;
+    }
+  }
+
+  public long getMaxBytes() {
+    return this.maxBytes;
+  }
+
+  /**
+   * Removes all entries and resets the hit and miss counters.
+   */
+  public void clear() {
+    synchronized (this.entries) {
+      this.entries.clear();
+      this.cachedBytes = 0;
+      this.hits.reset();
+      this.misses.reset();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", "SpritemapDataCache{", "}")
+        .add("maxBytes=" + this.maxBytes)
+        .add("cachedBytes=" + getCachedBytes())
+        .add("size=" + size())
+        .add("hits=" + getHits())
+        .add("misses=" + getMisses())
+        .toString();
+  }
+
+  /**
+   * Reads the spritemap of a skin on a cache miss.
+   */
+  @FunctionalInterface
+  public interface Loader {
+
+    byte[] load() throws IOException;
+  }
+}
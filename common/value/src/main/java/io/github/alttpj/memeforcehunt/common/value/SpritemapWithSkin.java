@@ -18,6 +18,8 @@ package io.github.alttpj.memeforcehunt.common.value;
 
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
 import javax.swing.ImageIcon;
 
 /**
@@ -53,8 +55,26 @@ public interface SpritemapWithSkin {
 
   String getAuthor();
 
+  /**
+   * Optional tags for searching, e.g. {@code running shoes} for pegasus boots.
+   *
+   * @return the tags, empty by default.
+   */
+  default List<String> getTags() {
+    return List.of();
+  }
+
   BufferedImage getImage();
 
+  /**
+   * Returns the preview image together with its pre-scaled variants.
+   *
+   * @return the previews, which must not be modified.
+   */
+  default PreviewImages getPreviewImages() {
+    return PreviewImages.of(getImage());
+  }
+
   /**
    * Returns a 32x32 image icon.
    *
@@ -64,6 +84,17 @@ public interface SpritemapWithSkin {
 
   byte[] getData() throws IOException;
 
+  /**
+   * Returns the compressed spritemap as a read-only view. Implementations may share the underlying bytes between
+   * calls, so repeated calls do not need to read the spritemap again.
+   *
+   * @return a read-only buffer positioned at the first byte of the spritemap.
+   * @throws IOException if the spritemap cannot be read.
+   */
+  default ByteBuffer getDataBuffer() throws IOException {
+    return ByteBuffer.wrap(getData()).asReadOnlyBuffer();
+  }
+
   byte getItemPalette();
 
   byte getPaletteOW();
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.common.value;
+
+import io.github.alttpj.library.image.Tile;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * An immutable sequence of packed 8x8 3bpp tiles, stored in a single contiguous byte array.
+ *
+ * <p>Tiles can be read through read-only views ({@link #getTile(int)}) or copied in bulk into a decompressed
+ * spritemap ({@link #copyTo(byte[], int)}, {@link #copyTo(byte[], int[])}) without allocating per tile.
+ * Two sheets are equal if they contain the same bytes.</p>
+ */
+public final class TileSheet {
+
+  /**
+   * 24 bytes per 8 x 8 x 3bpp tile. It is uncompressed, but still packed.
+   */
+  public static final int BYTES_PER_TILE = 24;
+
+  private final byte[] data;
+
+  private TileSheet(final byte[] data) {
+    this.data = data;
+  }
+
+  /**
+   * Creates a tile sheet from packed tiles.
+   *
+   * @param data the packed tiles, which will be copied. Must be a multiple of {@link #BYTES_PER_TILE} long.
+   * @return a new tile sheet.
+   * @throws IllegalArgumentException if the length is not a multiple of {@link #BYTES_PER_TILE}.
+   */
+  public static TileSheet of(final byte[] data) {
+    Objects.requireNonNull(data, "data may not be null");
+
+    if (data.length % BYTES_PER_TILE != 0) {
+      throw new IllegalArgumentException("Expected a multiple of [" + BYTES_PER_TILE + "] bytes, but got [" + data.length + "].");
+    }
+
+    return new TileSheet(data.clone());
+  }
+
+  /**
+   * Creates a tile sheet from consecutive packed tiles.
+   *
+   * @param source    the packed tiles, which will be copied.
+   * @param offset    where the first tile starts in {@code source}.
+   * @param tileCount the number of tiles to copy.
+   * @return a new tile sheet.
+   * @throws IllegalArgumentException if {@code source} does not contain {@code tileCount} tiles from {@code offset}.
+   */
+  public static TileSheet copyOf(final byte[] source, final int offset, final int tileCount) {
+    Objects.requireNonNull(source, "source may not be null");
+    final int length = tileCount * BYTES_PER_TILE;
+
+    if (offset < 0 || tileCount < 0 || source.length - offset < length) {
+      throw new IllegalArgumentException("Expected [" + tileCount + "] tiles of [" + BYTES_PER_TILE + "] bytes "
+          + "at offset [" + offset + "], but the source is only [" + source.length + "] bytes long.");
+    }
+
+    return new TileSheet(Arrays.copyOfRange(source, offset, offset + length));
+  }
+
+  /**
+   * Gathers the tiles at the given tile positions of a decompressed spritemap.
+   *
+   * @param decompressedSpritemap the decompressed spritemap.
+   * @param tilePositions         the tile numbers within the spritemap, e.g. 44, 45, 60, 61.
+   * @return a new tile sheet with one tile per position.
+   * @throws IllegalArgumentException if a tile position lies outside the spritemap.
+   */
+  public static TileSheet fromSpritemap(final byte[] decompressedSpritemap, final int[] tilePositions) {
+    final byte[] data = new byte[tilePositions.length * BYTES_PER_TILE];
+
+    for (int tileIndex = 0; tileIndex < tilePositions.length; tileIndex++) {
+      final int spritemapOffset = tilePositions[tileIndex] * BYTES_PER_TILE;
+      if (spritemapOffset < 0 || spritemapOffset + BYTES_PER_TILE > decompressedSpritemap.length) {
+        throw new IllegalArgumentException("Tile position [" + tilePositions[tileIndex] + "] is outside of the spritemap "
+            + "of [" + decompressedSpritemap.length + "] bytes.");
+      }
+
+      System.arraycopy(decompressedSpritemap, spritemapOffset, data, tileIndex * BYTES_PER_TILE, BYTES_PER_TILE);
+    }
+
+    return new TileSheet(data);
+  }
+
+  /**
+   * Creates a tile sheet from library tiles, e.g. from a {@code TiledSprite}.
+   *
+   * @param tiles the tiles, each must be exactly {@link #BYTES_PER_TILE} long.
+   * @return a new tile sheet.
+   * @throws IllegalArgumentException if a tile does not have {@link #BYTES_PER_TILE} bytes.
+   */
+  public static TileSheet fromTiles(final Tile[] tiles) {
+    Objects.requireNonNull(tiles, "tiles may not be null");
+    final byte[] data = new byte[tiles.length * BYTES_PER_TILE];
+
+    for (int tileIndex = 0; tileIndex < tiles.length; tileIndex++) {
+      final byte[] tileBytes = tiles[tileIndex].getBytes();
+      if (tileBytes.length != BYTES_PER_TILE) {
+        throw new IllegalArgumentException(
+            "Tile no. [" + tileIndex + "] has length of [" + tileBytes.length + "] bytes, "
+                + "but expected are exactly [" + BYTES_PER_TILE + "] bytes.");
+      }
+
+      System.arraycopy(tileBytes, 0, data, tileIndex * BYTES_PER_TILE, BYTES_PER_TILE);
+    }
+
+    return new TileSheet(data);
+  }
+
+  public int getTileCount() {
+    return this.data.length / BYTES_PER_TILE;
+  }
+
+  /**
+   * The size of all tiles in bytes.
+   *
+   * @return {@link #getTileCount()} * {@link #BYTES_PER_TILE}.
+   */
+  public int size() {
+    return this.data.length;
+  }
+
+  /**
+   * A read-only view of a single tile. Does not copy.
+   *
+   * @param tileIndex the index of the tile in this sheet.
+   * @return a read-only buffer of {@link #BYTES_PER_TILE} bytes, positioned at 0.
+   */
+  public ByteBuffer getTile(final int tileIndex) {
+    Objects.checkIndex(tileIndex, getTileCount());
+
+    return ByteBuffer.wrap(this.data, tileIndex * BYTES_PER_TILE, BYTES_PER_TILE).slice().asReadOnlyBuffer();
+  }
+
+  /**
+   * A read-only view of all tiles. Does not copy.
+   *
+   * @return a read-only buffer of {@link #size()} bytes.
+   */
+  public ByteBuffer asByteBuffer() {
+    return ByteBuffer.wrap(this.data).asReadOnlyBuffer();
+  }
+
+  public byte getByte(final int tileIndex, final int byteIndex) {
+    Objects.checkIndex(tileIndex, getTileCount());
+    Objects.checkIndex(byteIndex, BYTES_PER_TILE);
+
+    return this.data[tileIndex * BYTES_PER_TILE + byteIndex];
+  }
+
+  /**
+   * Copies all tiles consecutively into {@code destination}.
+   *
+   * @param destination e.g. a decompressed spritemap.
+   * @param offset      the offset of the first tile in {@code destination}.
+   */
+  public void copyTo(final byte[] destination, final int offset) {
+    System.arraycopy(this.data, 0, destination, offset, this.data.length);
+  }
+
+  /**
+   * Copies each tile to its own offset in {@code destination}.
+   *
+   * @param destination e.g. a decompressed spritemap.
+   * @param offsets     one byte offset per tile.
+   * @throws IllegalArgumentException if there is not exactly one offset per tile.
+   */
+  public void copyTo(final byte[] destination, final int[] offsets) {
+    if (offsets.length != getTileCount()) {
+      throw new IllegalArgumentException("Expected [" + getTileCount() + "] offsets, but got [" + offsets.length + "].");
+    }
+
+    for (int tileIndex = 0; tileIndex < offsets.length; tileIndex++) {
+      System.arraycopy(this.data, tileIndex * BYTES_PER_TILE, destination, offsets[tileIndex], BYTES_PER_TILE);
+    }
+  }
+
+  /**
+   * Converts this sheet into library tiles, e.g. for a {@code TiledSprite}. Each tile returns a copy of its bytes.
+   *
+   * @return one tile per tile in this sheet.
+   */
+  public Tile[] toTiles() {
+    final Tile[] tiles = new Tile[getTileCount()];
+
+    for (int tileIndex = 0; tileIndex < tiles.length; tileIndex++) {
+      final int from = tileIndex * BYTES_PER_TILE;
+      tiles[tileIndex] = () -> Arrays.copyOfRange(this.data, from, from + BYTES_PER_TILE);
+    }
+
+    return tiles;
+  }
+
+  /**
+   * Copies all tiles into a new array.
+   *
+   * @return a copy of the packed tiles.
+   */
+  public byte[] toByteArray() {
+    return this.data.clone();
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (this == other) {
+      return true;
+    }
+
+    if (!(other instanceof TileSheet)) {
+      return false;
+    }
+
+    final TileSheet tileSheet = (TileSheet) other;
+
+    return Arrays.equals(this.data, tileSheet.data);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(this.data);
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", "TileSheet{", "}")
+        .add("tileCount=" + getTileCount())
+        .toString();
+  }
+}
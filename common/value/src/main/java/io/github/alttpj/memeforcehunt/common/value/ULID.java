@@ -35,12 +35,16 @@
 
 package io.github.alttpj.memeforcehunt.common.value;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.security.SecureRandom;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Random;
 import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
 import java.util.random.RandomGenerator;
 import java.util.random.RandomGeneratorFactory;
 
@@ -49,6 +53,11 @@ import java.util.random.RandomGeneratorFactory;
  */
 @SuppressWarnings("PMD.ShortClassName")
 public final class ULID {
+  /**
+   * The number of chars of a formatted ULID.
+   */
+  public static final int STRING_LENGTH = 26;
+
   private static final char[] ENCODING_CHARS = {
       '0', '1', '2', '3', '4', '5', '6', '7', '8', '9',
       'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'J', 'K',
@@ -185,25 +194,48 @@ public final class ULID {
     return Optional.of(result);
   }
 
-  public static Value parseULID(final String ulidString) {
+  /**
+   * Parses the 26 chars of a ULID string without creating substrings.
+   *
+   * @param ulidString the ULID, e.g. a {@link String} or a {@link java.nio.CharBuffer} view of a larger buffer.
+   * @return the parsed value.
+   * @throws IllegalArgumentException if the input is not exactly 26 valid chars or exceeds the largest ULID.
+   */
+  public static Value parseULID(final CharSequence ulidString) {
     Objects.requireNonNull(ulidString, "ulidString must not be null!");
-    if (ulidString.length() != 26) {
+    if (ulidString.length() != STRING_LENGTH) {
       throw new IllegalArgumentException("ulidString must be exactly 26 chars long.");
     }
 
-    final String timeString = ulidString.substring(0, 10);
-    final long time = internalParseCrockford(timeString);
-    if ((time & TIMESTAMP_OVERFLOW_MASK) != 0) {
-      throw new IllegalArgumentException("ulidString must not exceed '7ZZZZZZZZZZZZZZZZZZZZZZZZZ'!");
+    final long time = internalParseCrockford(ulidString, 0, 10);
+    final long part1 = internalParseCrockford(ulidString, 10, 8);
+    final long part2 = internalParseCrockford(ulidString, 18, 8);
+
+    return internalParsedValue(time, part1, part2);
+  }
+
+  /**
+   * Parses a ULID from US-ASCII bytes, e.g. directly from a file or network buffer.
+   *
+   * @param ascii  the buffer containing the ULID.
+   * @param offset the offset of the first char in {@code ascii}.
+   * @param length the number of bytes, must be exactly 26.
+   * @return the parsed value.
+   * @throws IllegalArgumentException  if the bytes are not exactly 26 valid chars or exceed the largest ULID.
+   * @throws IndexOutOfBoundsException if the range is outside of {@code ascii}.
+   */
+  public static Value parseULID(final byte[] ascii, final int offset, final int length) {
+    Objects.requireNonNull(ascii, "ascii must not be null!");
+    Objects.checkFromIndexSize(offset, length, ascii.length);
+    if (length != STRING_LENGTH) {
+      throw new IllegalArgumentException("ascii must be exactly 26 bytes long.");
     }
-    final String part1String = ulidString.substring(10, 18);
-    final String part2String = ulidString.substring(18);
-    final long part1 = internalParseCrockford(part1String);
-    final long part2 = internalParseCrockford(part2String);
 
-    final long most = (time << 16) | (part1 >>> 24);
-    final long least = part2 | (part1 << 40);
-    return new Value(most, least);
+    final long time = internalParseCrockford(ascii, offset, 10);
+    final long part1 = internalParseCrockford(ascii, offset + 10, 8);
+    final long part2 = internalParseCrockford(ascii, offset + 18, 8);
+
+    return internalParsedValue(time, part1, part2);
   }
 
   public static Value fromBytes(final byte[] data) {
@@ -320,19 +352,140 @@ public final class ULID {
                       0))));
     }
 
+    /**
+     * Writes the 26 chars of this ULID into a caller-provided buffer.
+     *
+     * @param buffer receives the chars.
+     * @param offset the offset of the first char in {@code buffer}.
+     * @return the offset after the last char written.
+     * @throws IndexOutOfBoundsException if {@code buffer} is too small.
+     */
+    public int formatTo(final char[] buffer, final int offset) {
+      Objects.requireNonNull(buffer, "buffer must not be null!");
+      Objects.checkFromIndexSize(offset, STRING_LENGTH, buffer.length);
+
+      internalWriteCrockford(buffer, timestamp(), 10, offset);
+      internalWriteCrockford(buffer, middleBits(), 8, offset + 10);
+      internalWriteCrockford(buffer, this.leastSignificantBits, 8, offset + 18);
+
+      return offset + STRING_LENGTH;
+    }
+
+    /**
+     * Writes the 26 chars of this ULID as US-ASCII bytes into a caller-provided buffer.
+     *
+     * @param ascii  receives the bytes.
+     * @param offset the offset of the first byte in {@code ascii}.
+     * @return the offset after the last byte written.
+     * @throws IndexOutOfBoundsException if {@code ascii} is too small.
+     */
+    public int formatTo(final byte[] ascii, final int offset) {
+      Objects.requireNonNull(ascii, "ascii must not be null!");
+      Objects.checkFromIndexSize(offset, STRING_LENGTH, ascii.length);
+
+      internalWriteCrockford(ascii, timestamp(), 10, offset);
+      internalWriteCrockford(ascii, middleBits(), 8, offset + 10);
+      internalWriteCrockford(ascii, this.leastSignificantBits, 8, offset + 18);
+
+      return offset + STRING_LENGTH;
+    }
+
+    /**
+     * Appends the 26 chars of this ULID one by one, without creating an intermediate {@link String}.
+     *
+     * @param appendable e.g. a {@link StringBuilder} or a {@link java.io.Writer}.
+     * @param <A>        the type of the appendable.
+     * @return the given {@code appendable}.
+     * @throws IOException if the appendable throws.
+     */
+    public <A extends Appendable> A formatTo(final A appendable) throws IOException {
+      Objects.requireNonNull(appendable, "appendable must not be null!");
+
+      internalAppendCrockford(appendable, timestamp(), 10);
+      internalAppendCrockford(appendable, middleBits(), 8);
+      internalAppendCrockford(appendable, this.leastSignificantBits, 8);
+
+      return appendable;
+    }
+
     @Override
     public String toString() {
-      final char[] buffer = new char[26];
-
-      internalWriteCrockford(buffer, timestamp(), 10, 0);
-      long value = ((this.mostSignificantBits & 0xFFFFL) << 24);
-      final long interim = (this.leastSignificantBits >>> 40);
-      value = value | interim;
-      internalWriteCrockford(buffer, value, 8, 10);
-      internalWriteCrockford(buffer, this.leastSignificantBits, 8, 18);
+      final char[] buffer = new char[STRING_LENGTH];
+      formatTo(buffer, 0);
 
       return new String(buffer);
     }
+
+    /*
+     * The 40 bits encoded by chars 10 to 17: the random part of the msb and the top 24 bits of the lsb.
+     */
+    private long middleBits() {
+      return ((this.mostSignificantBits & RANDOM_MSB_MASK) << 24) | (this.leastSignificantBits >>> 40);
+    }
+  }
+
+  /**
+   * A thread-safe generator of strictly increasing ULID values.
+   *
+   * <p>The last value is kept in an {@link AtomicReference} and replaced by compare-and-set, so concurrent
+   * callers never block. Within the same millisecond (or if the clock goes backwards) the last value is
+   * incremented. If its random part overflows, the generator moves on to the next millisecond instead of
+   * wrapping around. Random bits are taken from {@link ThreadLocalRandom}, so threads do not share
+   * a random generator either.</p>
+   */
+  public static final class MonotonicGenerator {
+
+    private final LongSupplier clock;
+
+    private final AtomicReference<Value> lastValue = new AtomicReference<>();
+
+    public MonotonicGenerator() {
+      this(System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a generator with a custom clock, e.g. for reproducible tests.
+     *
+     * @param clock returns the current time in milliseconds since the epoch.
+     */
+    public MonotonicGenerator(final LongSupplier clock) {
+      this.clock = Objects.requireNonNull(clock, "clock must not be null!");
+    }
+
+    /**
+     * Returns a value which is greater than every value returned before by this generator.
+     *
+     * @return the next value.
+     * @throws IllegalArgumentException if the timestamp would exceed the largest ULID timestamp.
+     */
+    public Value nextValue() {
+      while (true) {
+        final Value previous = this.lastValue.get();
+        final Value next = nextValueAfter(previous, this.clock.getAsLong());
+
+        if (this.lastValue.compareAndSet(previous, next)) {
+          return next;
+        }
+      }
+    }
+
+    public String nextULID() {
+      return nextValue().toString();
+    }
+
+    static Value nextValueAfter(final Value previous, final long timestamp) {
+      if (previous == null || timestamp > previous.timestamp()) {
+        return internalNextValue(timestamp, ThreadLocalRandom.current());
+      }
+
+      if (previous.leastSignificantBits != 0xFFFF_FFFF_FFFF_FFFFL
+          || (previous.mostSignificantBits & RANDOM_MSB_MASK) != RANDOM_MSB_MASK) {
+        return previous.increment();
+      }
+
+      // random part exhausted: borrow the next millisecond.
+      return internalNextValue(previous.timestamp() + 1, ThreadLocalRandom.current());
+    }
   }
 
   /*
@@ -345,6 +498,13 @@ public final class ULID {
     }
   }
 
+  static void internalAppendCrockford(final Appendable appendable, final long value, final int count) throws IOException {
+    for (int i = count - 1; i >= 0; i--) {
+      final int index = (int) ((value >>> (i * MASK_BITS)) & MASK);
+      appendable.append(ENCODING_CHARS[index]);
+    }
+  }
+
   static long internalParseCrockford(final String input) {
     Objects.requireNonNull(input, "input must not be null!");
     final int length = input.length();
@@ -367,6 +527,43 @@ public final class ULID {
     return result;
   }
 
+  static long internalParseCrockford(final CharSequence input, final int offset, final int count) {
+    long result = 0;
+    for (int i = 0; i < count; i++) {
+      result = (result << MASK_BITS) | internalDecodeChar(input.charAt(offset + i));
+    }
+    return result;
+  }
+
+  static long internalParseCrockford(final byte[] ascii, final int offset, final int count) {
+    long result = 0;
+    for (int i = 0; i < count; i++) {
+      result = (result << MASK_BITS) | internalDecodeChar((char) (ascii[offset + i] & 0xFF));
+    }
+    return result;
+  }
+
+  private static long internalDecodeChar(final char current) {
+    byte value = -1;
+    if (current < DECODING_CHARS.length) {
+      value = DECODING_CHARS[current];
+    }
+    if (value < 0) {
+      throw new IllegalArgumentException("Illegal character '" + current + "'!");
+    }
+    return value;
+  }
+
+  private static Value internalParsedValue(final long time, final long part1, final long part2) {
+    if ((time & TIMESTAMP_OVERFLOW_MASK) != 0) {
+      throw new IllegalArgumentException("ulidString must not exceed '7ZZZZZZZZZZZZZZZZZZZZZZZZZ'!");
+    }
+
+    final long most = (time << 16) | (part1 >>> 24);
+    final long least = part2 | (part1 << 40);
+    return new Value(most, least);
+  }
+
   /*
    * http://crockford.com/wrmg/base32.html
    */
@@ -377,6 +574,13 @@ public final class ULID {
     }
   }
 
+  static void internalWriteCrockford(final byte[] ascii, final long value, final int count, final int offset) {
+    for (int i = 0; i < count; i++) {
+      final int index = (int) ((value >>> ((count - i - 1) * MASK_BITS)) & MASK);
+      ascii[offset + i] = (byte) ENCODING_CHARS[index];
+    }
+  }
+
   static String internalUIDString(final long timestamp, final SplittableRandom random) {
     checkTimestamp(timestamp);
 
@@ -399,7 +603,7 @@ public final class ULID {
     internalAppendCrockford(builder, random.nextLong(), 8);
   }
 
-  static Value internalNextValue(final long timestamp, final SplittableRandom random) {
+  static Value internalNextValue(final long timestamp, final RandomGenerator random) {
     checkTimestamp(timestamp);
     // could use nextBytes(byte[] bytes) instead
     long mostSignificantBits = random.nextLong();
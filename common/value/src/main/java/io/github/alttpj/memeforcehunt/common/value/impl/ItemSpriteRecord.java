@@ -18,10 +18,9 @@ package io.github.alttpj.memeforcehunt.common.value.impl;
 
 import io.github.alttpj.memeforcehunt.common.value.ItemPalette;
 import io.github.alttpj.memeforcehunt.common.value.ItemSprite;
+import io.github.alttpj.memeforcehunt.common.value.TileSheet;
 import io.github.alttpj.memeforcehunt.common.value.ULID;
 
-import io.github.alttpj.library.image.Tile;
-
 import java.util.Arrays;
 import java.util.Objects;
 
@@ -31,27 +30,25 @@ public record ItemSpriteRecord(
     String displayName,
     String description,
     String author,
-    Tile[] tiles,
+    TileSheet tileSheet,
     ItemPalette palette
 )
     implements ItemSprite {
 
   private static final int[] TRIFORCE_TILE_POSITIONS = {44, 45, 60, 61};
 
-  private static final int BYTES_PER_TILE = 24;
-
   public ItemSpriteRecord(
       final ULID.Value spriteId,
       final String spriteName,
       final String displayName,
       final String description,
       final String author,
-      final Tile[] tiles,
+      final TileSheet tileSheet,
       final ItemPalette palette) {
-    Objects.requireNonNull(tiles, "tiles may not be null!");
+    Objects.requireNonNull(tileSheet, "tiles may not be null!");
 
-    if (tiles.length == 0) {
-      throw new IllegalArgumentException("No tiles supplied (tiles.length == 0).");
+    if (tileSheet.getTileCount() == 0) {
+      throw new IllegalArgumentException("No tiles supplied (tileSheet.getTileCount() == 0).");
     }
 
     if (spriteId == null) {
@@ -62,30 +59,17 @@ public record ItemSpriteRecord(
       throw new NullPointerException("spriteName may not be null!");
     }
 
-    if (tiles.length != getTilePositions().length) {
+    if (tileSheet.getTileCount() != TRIFORCE_TILE_POSITIONS.length) {
       throw new IllegalArgumentException("sprite tiles must have the same length as tile positions!");
     }
 
-    if (ItemSprite.getTileOffsets(getTilePositions(), palette).length != getTilePositions().length) {
-      throw new IllegalArgumentException("sprite tile offsets must have the same length as tile positions!");
-    }
-
-    for (int tileNum = 0, tiles1Length = tiles.length; tileNum < tiles1Length; tileNum++) {
-      final Tile tile = tiles[tileNum];
-
-      if (tile.getBytes().length != BYTES_PER_TILE) {
-        throw new IllegalArgumentException(
-            "Tile no. [" + tileNum + "] has length of [" + tile.getBytes().length + "] bytes, "
-                + "but expected are exactly [" + BYTES_PER_TILE + "] bytes.");
-      }
-    }
-
     this.spriteId = spriteId;
     this.spriteName = spriteName;
     this.displayName = displayName;
     this.description = description;
     this.author = author;
-    this.tiles = Arrays.copyOf(tiles, tiles.length);
+    // immutable, no need to copy.
+    this.tileSheet = tileSheet;
     this.palette = palette;
   }
 
@@ -115,12 +99,8 @@ public record ItemSpriteRecord(
   }
 
   @Override
-  public Tile[] getTiles() {
-    return Arrays.copyOf(this.tiles, this.tiles.length);
-  }
-
-  public Tile[] tiles() {
-    return Arrays.copyOf(this.tiles, this.tiles.length);
+  public TileSheet getTileSheet() {
+    return this.tileSheet;
   }
 
   @Override
@@ -3,4 +3,6 @@ module memeforcehunt.common.value {
   requires alttpj.library;
   
   exports io.github.alttpj.memeforcehunt.common.value;
+
+  uses io.github.alttpj.memeforcehunt.common.value.SkinPreviewRenderer;
 }
@@ -19,10 +19,10 @@ package io.github.alttpj.memeforcehunt.common.value;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
 
-import io.github.alttpj.library.image.Tile;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -85,19 +85,16 @@ public class ItemSpriteFactoryTest {
             return null;
           }
         };
-    final Tile[] tiles = {
-        () -> new byte[24],
-        () -> new byte[24],
-        () -> new byte[24],
-        () -> new byte[24]
-    };
+    final TileSheet tiles = TileSheet.of(new byte[TileSheet.BYTES_PER_TILE * 4]);
 
     // when
     final ItemSprite itemSprite = ItemSpriteFactory.fromSpritemapWithSkin(spritemap, tiles);
 
     // then
     assertAll(
-        () -> assertEquals(spritemap.getId(), itemSprite.getSpriteId())
+        () -> assertEquals(spritemap.getId(), itemSprite.getSpriteId()),
+        () -> assertEquals(tiles, itemSprite.getTileSheet()),
+        () -> assertArrayEquals(new int[] {1056, 1080, 1440, 1464}, itemSprite.getTileOffsets())
     );
   }
 }
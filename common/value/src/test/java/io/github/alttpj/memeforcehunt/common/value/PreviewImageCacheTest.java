@@ -0,0 +1,179 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.common.value;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PreviewImageCacheTest {
+
+  @Test
+  public void shouldDecodePreviewOnlyOnce() {
+    // given
+    final PreviewImageCache previewCache = new PreviewImageCache(2);
+    final CountingSpritemapWithSkin skin = new CountingSpritemapWithSkin(previewCache);
+
+    // when
+    final PreviewImages first = skin.getPreviewImages();
+    final PreviewImages second = skin.getPreviewImages();
+    skin.getImageIcon();
+
+    // then
+    assertAll(
+        () -> assertSame(first, second),
+        () -> assertEquals(1, skin.decodes.get()),
+        () -> assertEquals(2, previewCache.getHits()),
+        () -> assertEquals(1, previewCache.getMisses())
+    );
+  }
+
+  @Test
+  public void shouldScaleWithoutSmoothing() {
+    // given
+    final PreviewImageCache previewCache = new PreviewImageCache(2);
+    final CountingSpritemapWithSkin skin = new CountingSpritemapWithSkin(previewCache);
+
+    // when
+    final PreviewImages previews = skin.getPreviewImages();
+
+    // then pixel (1, 0) of the source covers (2..3, 0..1) at 32 px and (4..7, 0..3) at 64 px
+    final int expected = previews.getSource().getRGB(1, 0);
+    assertAll(
+        () -> assertEquals(32, previews.getScaled32().getWidth()),
+        () -> assertEquals(64, previews.getScaled64().getHeight()),
+        () -> assertEquals(expected, previews.getScaled32().getRGB(2, 0)),
+        () -> assertEquals(expected, previews.getScaled32().getRGB(3, 1)),
+        () -> assertEquals(expected, previews.getScaled64().getRGB(4, 0)),
+        () -> assertEquals(expected, previews.getScaled64().getRGB(7, 3))
+    );
+  }
+
+  @Test
+  public void shouldConvertOnceUntilInvalidated() {
+    // given
+    final PreviewImageCache previewCache = new PreviewImageCache(2);
+    final CountingSpritemapWithSkin skin = new CountingSpritemapWithSkin(previewCache);
+    final AtomicInteger conversions = new AtomicInteger();
+
+    // when
+    final int[] first = skin.getPreviewImages().getScaled32As(int[].class, image -> convert(image, conversions));
+    final int[] second = skin.getPreviewImages().getScaled32As(int[].class, image -> convert(image, conversions));
+    previewCache.invalidate(skin.getId());
+    final int[] afterInvalidation = skin.getPreviewImages().getScaled32As(int[].class, image -> convert(image, conversions));
+
+    // then
+    assertAll(
+        () -> assertSame(first, second),
+        () -> assertNotSame(first, afterInvalidation),
+        () -> assertEquals(2, conversions.get()),
+        () -> assertEquals(2, skin.decodes.get()),
+        () -> assertEquals(32 * 32, first.length)
+    );
+  }
+
+  private static int[] convert(final BufferedImage image, final AtomicInteger conversions) {
+    conversions.incrementAndGet();
+
+    return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsed() {
+    // given
+    final PreviewImageCache previewCache = new PreviewImageCache(2);
+    final CountingSpritemapWithSkin first = new CountingSpritemapWithSkin(previewCache);
+    final CountingSpritemapWithSkin second = new CountingSpritemapWithSkin(previewCache);
+    final CountingSpritemapWithSkin third = new CountingSpritemapWithSkin(previewCache);
+
+    // when
+    first.getPreviewImages();
+    second.getPreviewImages();
+    first.getPreviewImages();
+    third.getPreviewImages();
+    first.getPreviewImages();
+    second.getPreviewImages();
+
+    // then
+    assertAll(
+        () -> assertEquals(1, first.decodes.get()),
+        () -> assertEquals(2, second.decodes.get()),
+        () -> assertEquals(1, third.decodes.get()),
+        () -> assertEquals(2, previewCache.size())
+    );
+  }
+
+  @Test
+  public void shouldWarmUpInBackground() throws Exception {
+    // given
+    final PreviewImageCache previewCache = new PreviewImageCache(2);
+    final CountingSpritemapWithSkin first = new CountingSpritemapWithSkin(previewCache);
+    final CountingSpritemapWithSkin second = new CountingSpritemapWithSkin(previewCache);
+    final CountingSpritemapWithSkin third = new CountingSpritemapWithSkin(previewCache);
+
+    // when
+    previewCache.warmUp(List.of(first, second, third)).get(10, TimeUnit.SECONDS);
+    first.getPreviewImages();
+    second.getPreviewImages();
+
+    // then only as many skins as fit were loaded
+    assertAll(
+        () -> assertEquals(1, first.decodes.get()),
+        () -> assertEquals(1, second.decodes.get()),
+        () -> assertEquals(0, third.decodes.get())
+    );
+  }
+
+  private static final class CountingSpritemapWithSkin extends AbstractSpritemapWithSkin {
+
+    private final PreviewImageCache previewCache;
+    private final AtomicInteger decodes = new AtomicInteger();
+
+    private CountingSpritemapWithSkin(final PreviewImageCache previewCache) {
+      super(new ULID().nextULID(), "test", "test desc", "me", ItemPalette.GREEN);
+      this.previewCache = previewCache;
+    }
+
+    @Override
+    public BufferedImage getImage() {
+      this.decodes.incrementAndGet();
+      final BufferedImage image = new BufferedImage(16, 16, BufferedImage.TYPE_4BYTE_ABGR);
+      image.setRGB(1, 0, 0xFF123456);
+
+      return image;
+    }
+
+    @Override
+    protected PreviewImageCache getPreviewImageCache() {
+      return this.previewCache;
+    }
+
+    @Override
+    protected InputStream getSpritemapInputStream() {
+      return InputStream.nullInputStream();
+    }
+  }
+}
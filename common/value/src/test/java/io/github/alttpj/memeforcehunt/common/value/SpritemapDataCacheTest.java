@@ -0,0 +1,172 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.common.value;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SpritemapDataCacheTest {
+
+  @Test
+  public void shouldReadSpritemapOnlyOnce() throws IOException {
+    // given
+    final SpritemapDataCache dataCache = new SpritemapDataCache(1024);
+    final CountingSpritemapWithSkin skin = new CountingSpritemapWithSkin(dataCache, 100);
+
+    // when
+    final byte[] first = skin.getData();
+    final byte[] second = skin.getData();
+    final ByteBuffer third = skin.getDataBuffer();
+
+    // then
+    assertAll(
+        () -> assertArrayEquals(skin.spritemap, first),
+        () -> assertArrayEquals(skin.spritemap, second),
+        () -> assertEquals(skin.spritemap.length, third.remaining()),
+        () -> assertEquals(1, skin.reads.get()),
+        () -> assertEquals(2, dataCache.getHits()),
+        () -> assertEquals(1, dataCache.getMisses())
+    );
+  }
+
+  @Test
+  public void shouldReturnReadOnlyViews() throws IOException {
+    // given
+    final SpritemapDataCache dataCache = new SpritemapDataCache(1024);
+    final CountingSpritemapWithSkin skin = new CountingSpritemapWithSkin(dataCache, 100);
+
+    // when consuming one view and modifying a copy
+    final ByteBuffer first = skin.getDataBuffer();
+    first.position(first.limit());
+    Arrays.fill(skin.getData(), (byte) 0x7F);
+    final ByteBuffer second = skin.getDataBuffer();
+
+    // then
+    assertAll(
+        () -> assertTrue(second.isReadOnly()),
+        () -> assertThrows(ReadOnlyBufferException.class, () -> second.put(0, (byte) 0x7F)),
+        () -> assertEquals(0, second.position()),
+        () -> assertEquals(skin.spritemap[0], second.get(0))
+    );
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedWhenOverBudget() throws IOException {
+    // given a budget for two spritemaps
+    final SpritemapDataCache dataCache = new SpritemapDataCache(200);
+    final CountingSpritemapWithSkin first = new CountingSpritemapWithSkin(dataCache, 100);
+    final CountingSpritemapWithSkin second = new CountingSpritemapWithSkin(dataCache, 100);
+    final CountingSpritemapWithSkin third = new CountingSpritemapWithSkin(dataCache, 100);
+
+    // when
+    first.getDataBuffer();
+    second.getDataBuffer();
+    first.getDataBuffer();
+    third.getDataBuffer();
+    first.getDataBuffer();
+    second.getDataBuffer();
+
+    // then second was evicted by third
+    assertAll(
+        () -> assertEquals(1, first.reads.get()),
+        () -> assertEquals(2, second.reads.get()),
+        () -> assertEquals(1, third.reads.get()),
+        () -> assertEquals(2, dataCache.size()),
+        () -> assertEquals(200, dataCache.getCachedBytes())
+    );
+  }
+
+  @Test
+  public void shouldNotCacheSpritemapLargerThanBudget() throws IOException {
+    // given
+    final SpritemapDataCache dataCache = new SpritemapDataCache(50);
+    final CountingSpritemapWithSkin skin = new CountingSpritemapWithSkin(dataCache, 100);
+
+    // when
+    skin.getDataBuffer();
+    skin.getDataBuffer();
+
+    // then
+    assertAll(
+        () -> assertEquals(2, skin.reads.get()),
+        () -> assertEquals(0, dataCache.size()),
+        () -> assertEquals(0, dataCache.getCachedBytes())
+    );
+  }
+
+  @Test
+  public void shouldReadAgainAfterInvalidate() throws IOException {
+    // given
+    final SpritemapDataCache dataCache = new SpritemapDataCache(1024);
+    final CountingSpritemapWithSkin skin = new CountingSpritemapWithSkin(dataCache, 100);
+    skin.getDataBuffer();
+
+    // when
+    dataCache.invalidate(skin);
+    skin.getDataBuffer();
+
+    // then
+    assertEquals(2, skin.reads.get());
+    assertEquals(100, dataCache.getCachedBytes());
+  }
+
+  private static final class CountingSpritemapWithSkin extends AbstractSpritemapWithSkin {
+
+    private final SpritemapDataCache dataCache;
+    private final byte[] spritemap;
+    private final AtomicInteger reads = new AtomicInteger();
+
+    private CountingSpritemapWithSkin(final SpritemapDataCache dataCache, final int size) {
+      super(new ULID().nextULID(), "test", "test desc", "me", ItemPalette.GREEN);
+      this.dataCache = dataCache;
+      this.spritemap = new byte[size];
+      for (int index = 0; index < size; index++) {
+        this.spritemap[index] = (byte) index;
+      }
+    }
+
+    @Override
+    public BufferedImage getImage() {
+      return null;
+    }
+
+    @Override
+    protected SpritemapDataCache getDataCache() {
+      return this.dataCache;
+    }
+
+    @Override
+    protected InputStream getSpritemapInputStream() {
+      this.reads.incrementAndGet();
+      return new ByteArrayInputStream(this.spritemap);
+    }
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.common.value;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.alttpj.library.image.Tile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+
+public class TileSheetTest {
+
+  @Test
+  public void ofShouldRejectIncompleteTiles() {
+    assertThrows(IllegalArgumentException.class, () -> TileSheet.of(new byte[TileSheet.BYTES_PER_TILE + 1]));
+  }
+
+  @Test
+  public void ofShouldCopyInput() {
+    // given
+    final byte[] data = createTiles(2);
+    final TileSheet tileSheet = TileSheet.of(data);
+
+    // when
+    data[0] = (byte) 0x7F;
+
+    // then
+    assertEquals(1, tileSheet.getByte(0, 0));
+  }
+
+  @Test
+  public void copyOfShouldRejectShortSource() {
+    final byte[] source = createTiles(2);
+
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class, () -> TileSheet.copyOf(source, 1, 2)),
+        () -> assertThrows(IllegalArgumentException.class, () -> TileSheet.copyOf(source, -1, 1)),
+        () -> assertEquals(TileSheet.of(Arrays.copyOfRange(source, 24, 48)), TileSheet.copyOf(source, 24, 1))
+    );
+  }
+
+  @Test
+  public void fromSpritemapShouldGatherTiles() {
+    // given
+    final byte[] spritemap = createTiles(64);
+
+    // when
+    final TileSheet tileSheet = TileSheet.fromSpritemap(spritemap, new int[] {44, 45, 60, 61});
+
+    // then
+    assertAll(
+        () -> assertEquals(4, tileSheet.getTileCount()),
+        () -> assertEquals(45, tileSheet.getByte(0, 0)),
+        () -> assertEquals(46, tileSheet.getByte(1, 23)),
+        () -> assertEquals(61, tileSheet.getByte(2, 0)),
+        () -> assertEquals(62, tileSheet.getByte(3, 12)),
+        () -> assertThrows(IllegalArgumentException.class, () -> TileSheet.fromSpritemap(spritemap, new int[] {64}))
+    );
+  }
+
+  @Test
+  public void getTileShouldBeReadOnlyView() {
+    // given
+    final TileSheet tileSheet = TileSheet.of(createTiles(3));
+
+    // when
+    final ByteBuffer tile = tileSheet.getTile(1);
+
+    // then
+    assertAll(
+        () -> assertTrue(tile.isReadOnly()),
+        () -> assertEquals(0, tile.position()),
+        () -> assertEquals(TileSheet.BYTES_PER_TILE, tile.remaining()),
+        () -> assertEquals(2, tile.get(TileSheet.BYTES_PER_TILE - 1)),
+        () -> assertThrows(ReadOnlyBufferException.class, () -> tile.put(0, (byte) 0)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> tileSheet.getTile(3))
+    );
+  }
+
+  @Test
+  public void copyToShouldScatterTiles() {
+    // given
+    final TileSheet tileSheet = TileSheet.of(createTiles(2));
+    final byte[] destination = new byte[TileSheet.BYTES_PER_TILE * 4];
+
+    // when
+    tileSheet.copyTo(destination, new int[] {TileSheet.BYTES_PER_TILE * 3, 0});
+
+    // then
+    assertAll(
+        () -> assertEquals(2, destination[0]),
+        () -> assertEquals(0, destination[TileSheet.BYTES_PER_TILE]),
+        () -> assertEquals(1, destination[TileSheet.BYTES_PER_TILE * 3]),
+        () -> assertThrows(IllegalArgumentException.class, () -> tileSheet.copyTo(destination, new int[] {0}))
+    );
+  }
+
+  @Test
+  public void copyToShouldWriteConsecutively() {
+    // given
+    final TileSheet tileSheet = TileSheet.of(createTiles(2));
+    final byte[] destination = new byte[TileSheet.BYTES_PER_TILE * 3];
+
+    // when
+    tileSheet.copyTo(destination, TileSheet.BYTES_PER_TILE);
+
+    // then
+    assertArrayEquals(tileSheet.toByteArray(), Arrays.copyOfRange(destination, TileSheet.BYTES_PER_TILE, destination.length));
+  }
+
+  @Test
+  public void tilesShouldRoundTrip() {
+    // given
+    final TileSheet tileSheet = TileSheet.of(createTiles(4));
+
+    // when
+    final Tile[] tiles = tileSheet.toTiles();
+    tiles[0].getBytes()[0] = (byte) 0x7F;
+
+    // then
+    assertAll(
+        () -> assertEquals(4, tiles.length),
+        () -> assertEquals(tileSheet, TileSheet.fromTiles(tiles)),
+        () -> assertEquals(tileSheet.hashCode(), TileSheet.fromTiles(tiles).hashCode()),
+        () -> assertThrows(IllegalArgumentException.class, () -> TileSheet.fromTiles(new Tile[] {() -> new byte[16]}))
+    );
+  }
+
+  @Test
+  public void sheetsWithDifferentBytesShouldNotBeEqual() {
+    final byte[] data = createTiles(1);
+    final TileSheet tileSheet = TileSheet.of(data);
+    data[5] = (byte) 0x7F;
+
+    assertNotEquals(tileSheet, TileSheet.of(data));
+  }
+
+  /**
+   * Creates tiles where every byte of tile n is n + 1.
+   */
+  private static byte[] createTiles(final int tileCount) {
+    final byte[] data = new byte[tileCount * TileSheet.BYTES_PER_TILE];
+
+    for (int tileIndex = 0; tileIndex < tileCount; tileIndex++) {
+      Arrays.fill(data, tileIndex * TileSheet.BYTES_PER_TILE, (tileIndex + 1) * TileSheet.BYTES_PER_TILE, (byte) (tileIndex + 1));
+    }
+
+    return data;
+  }
+}
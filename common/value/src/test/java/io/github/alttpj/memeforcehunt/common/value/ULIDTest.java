@@ -0,0 +1,179 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.common.value;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ULIDTest {
+
+  private static final String MAX_ULID = "7ZZZZZZZZZZZZZZZZZZZZZZZZZ";
+
+  @Test
+  public void parsedValuesShouldMatchStringParser() {
+    final ULID ulid = new ULID(new SplittableRandom(26L));
+
+    for (int iteration = 0; iteration < 500; iteration++) {
+      final ULID.Value value = ulid.nextValue();
+      final String ulidString = value.toString();
+      final byte[] ascii = ("  " + ulidString + " ").getBytes(StandardCharsets.US_ASCII);
+
+      assertAll(
+          () -> assertEquals(value, ULID.parseULID(ulidString)),
+          () -> assertEquals(value, ULID.parseULID(CharBuffer.wrap("xx" + ulidString.toLowerCase() + "x", 2, 28))),
+          () -> assertEquals(value, ULID.parseULID(ascii, 2, ULID.STRING_LENGTH))
+      );
+    }
+  }
+
+  @Test
+  public void formatShouldWriteIntoBuffers() throws IOException {
+    // given
+    final ULID.Value value = ULID.parseULID("01ARZ3NDEKTSV4RRFFQ69G5FAV");
+    final char[] chars = new char[ULID.STRING_LENGTH + 3];
+    final byte[] ascii = new byte[ULID.STRING_LENGTH + 3];
+
+    // when
+    final int charEnd = value.formatTo(chars, 2);
+    final int asciiEnd = value.formatTo(ascii, 1);
+    final StringBuilder builder = value.formatTo(new StringBuilder("id="));
+
+    // then
+    assertAll(
+        () -> assertEquals(ULID.STRING_LENGTH + 2, charEnd),
+        () -> assertEquals("01ARZ3NDEKTSV4RRFFQ69G5FAV", new String(chars, 2, ULID.STRING_LENGTH)),
+        () -> assertEquals(ULID.STRING_LENGTH + 1, asciiEnd),
+        () -> assertEquals("01ARZ3NDEKTSV4RRFFQ69G5FAV", new String(ascii, 1, ULID.STRING_LENGTH, StandardCharsets.US_ASCII)),
+        () -> assertEquals("id=01ARZ3NDEKTSV4RRFFQ69G5FAV", builder.toString()),
+        () -> assertEquals(MAX_ULID, ULID.parseULID(MAX_ULID).toString())
+    );
+  }
+
+  @Test
+  public void shouldRejectInvalidInput() {
+    final byte[] ascii = MAX_ULID.getBytes(StandardCharsets.US_ASCII);
+
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class, () -> ULID.parseULID("8ZZZZZZZZZZZZZZZZZZZZZZZZZ")),
+        () -> assertThrows(IllegalArgumentException.class, () -> ULID.parseULID("01ARZ3NDEKTSV4RRFFQ69G5FA")),
+        () -> assertThrows(IllegalArgumentException.class, () -> ULID.parseULID("01ARZ3NDEKTSV4RRFFQ69G5FAU")),
+        () -> assertThrows(IllegalArgumentException.class, () -> ULID.parseULID("01ARZ3NDEKTSV4RRFFQ69G5FAé")),
+        () -> assertThrows(IllegalArgumentException.class, () -> ULID.parseULID(ascii, 0, 25)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> ULID.parseULID(ascii, 1, ULID.STRING_LENGTH)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> ULID.parseULID(MAX_ULID).formatTo(new char[30], 5))
+    );
+  }
+
+  @Test
+  public void monotonicGeneratorShouldIncrementWithinMillisecond() {
+    // given
+    final AtomicLong clock = new AtomicLong(1_000L);
+    final ULID.MonotonicGenerator generator = new ULID.MonotonicGenerator(clock::get);
+
+    // when
+    final ULID.Value first = generator.nextValue();
+    final ULID.Value second = generator.nextValue();
+    clock.set(999L);
+    final ULID.Value backwards = generator.nextValue();
+    clock.set(1_001L);
+    final ULID.Value later = generator.nextValue();
+
+    // then
+    assertAll(
+        () -> assertEquals(1_000L, first.timestamp()),
+        () -> assertEquals(first.increment(), second),
+        () -> assertEquals(second.increment(), backwards),
+        () -> assertEquals(1_001L, later.timestamp()),
+        () -> assertEquals(later.increment().toString(), generator.nextULID())
+    );
+  }
+
+  @Test
+  public void monotonicGeneratorShouldMoveToNextMillisecondOnOverflow() {
+    // given
+    final ULID.Value exhausted = new ULID.Value((1_000L << 16) | 0xFFFFL, 0xFFFF_FFFF_FFFF_FFFFL);
+
+    // when
+    final ULID.Value next = ULID.MonotonicGenerator.nextValueAfter(exhausted, 1_000L);
+
+    // then
+    assertAll(
+        () -> assertEquals(1_001L, next.timestamp()),
+        () -> assertTrue(next.compareTo(exhausted) > 0)
+    );
+  }
+
+  @Test
+  public void monotonicGeneratorShouldBeThreadSafe() throws Exception {
+    // given
+    final ULID.MonotonicGenerator generator = new ULID.MonotonicGenerator(() -> 1_000L);
+    final int threads = 4;
+    final int perThread = 10_000;
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+    // when
+    final List<ULID.Value> values = new ArrayList<>(threads * perThread);
+    try {
+      final List<Callable<List<ULID.Value>>> tasks = new ArrayList<>();
+      for (int thread = 0; thread < threads; thread++) {
+        tasks.add(() -> {
+          final List<ULID.Value> generated = new ArrayList<>(perThread);
+          ULID.Value previous = null;
+          for (int index = 0; index < perThread; index++) {
+            final ULID.Value next = generator.nextValue();
+            assertTrue(previous == null || next.compareTo(previous) > 0);
+            generated.add(next);
+            previous = next;
+          }
+          return generated;
+        });
+      }
+      for (final Future<List<ULID.Value>> future : executor.invokeAll(tasks)) {
+        values.addAll(future.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // then
+    Collections.sort(values);
+    final ULID.Value first = values.get(0);
+    final ULID.Value last = values.get(values.size() - 1);
+    assertAll(
+        () -> assertEquals(threads * perThread, values.stream().distinct().count()),
+        () -> assertEquals(1_000L, last.timestamp()),
+        () -> assertEquals(threads * perThread - 1L, last.getLeastSignificantBits() - first.getLeastSignificantBits())
+    );
+  }
+}
@@ -20,20 +20,42 @@ import io.github.alttpj.memeforcehunt.common.value.ItemPalette;
 import io.github.alttpj.memeforcehunt.common.value.ItemSprite;
 import io.github.alttpj.memeforcehunt.common.value.ItemSpriteFactory;
 import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.common.value.TileSheet;
+import io.github.alttpj.memeforcehunt.lib.compress.CompressionMode;
+import io.github.alttpj.memeforcehunt.lib.compress.Lz2Compressor;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import io.github.alttpj.library.compress.SnesCompressor;
-import io.github.alttpj.library.compress.SnesDecompressor;
-import io.github.alttpj.library.image.Tile;
 import io.github.alttpj.library.image.TiledSprite;
 
-import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 public class AlttpRomPatcher {
 
@@ -45,11 +67,17 @@ public class AlttpRomPatcher {
   private int offset;
   private int paletteLocationChest;
   private int paletteLocationOverworld;
+  private PatchMode patchMode;
+  private SpritemapCache spritemapCache;
+  private CompressionMode compressionMode;
 
   public AlttpRomPatcher() {
     this.offset = DEFAULT_SPRITEMAP_OFFSET;
     this.paletteLocationChest = PAL_LOC;
     this.paletteLocationOverworld = PAL_OW;
+    this.patchMode = PatchMode.REWRITE;
+    this.spritemapCache = SpritemapCache.getDefault();
+    this.compressionMode = CompressionMode.OPTIMAL;
   }
 
   @SuppressFBWarnings(
@@ -57,6 +85,13 @@ public class AlttpRomPatcher {
       justification = "patching user supplied ROM file"
   )
   public void patchROM(final String romTarget, final SpritemapWithSkin spritemapWithSkin) throws IOException {
+    if (this.patchMode == PatchMode.MEMORY_MAPPED) {
+      final TileSheet tiles = TileFactory.fromSpritemapWithSkin(spritemapWithSkin);
+      final ItemSprite itemSprite = ItemSpriteFactory.fromSpritemapWithSkin(spritemapWithSkin, tiles);
+      patchMemoryMapped(romTarget, itemSprite.getTileSheet(), itemSprite.getTileOffsets(), itemSprite.getPalette());
+      return;
+    }
+
     final byte[] romStream = readRom(romTarget);
 
     writeSkin(romStream, spritemapWithSkin);
@@ -64,18 +99,285 @@ public class AlttpRomPatcher {
     writeRom(romTarget, romStream);
   }
 
+  public void patchROM(final String romTarget, final TiledSprite itemSprite) throws IOException {
+    final ItemPalette itemPalette = ItemPalette.valueOf(itemSprite.getPalette().getName());
+
+    patchROM(romTarget, TileSheet.fromTiles(itemSprite.getTiles()), itemPalette);
+  }
+
+  /**
+   * Patches the four item tiles into the spritemap of the given ROM, like {@link #patchROM(String, TiledSprite)}.
+   *
+   * @param romTarget   the ROM file to patch.
+   * @param tiles       the four packed item tiles.
+   * @param itemPalette the palette to write.
+   * @throws IOException if the ROM cannot be read or written, or the skin does not fit.
+   */
   @SuppressFBWarnings(
       value = "PATH_TRAVERSAL_IN,PATH_TRAVERSAL_OUT",
       justification = "patching user supplied ROM file"
   )
-  public void patchROM(final String romTarget, final TiledSprite itemSprite) throws IOException {
+  public void patchROM(final String romTarget, final TileSheet tiles, final ItemPalette itemPalette) throws IOException {
+    if (this.patchMode == PatchMode.MEMORY_MAPPED) {
+      patchMemoryMapped(romTarget, tiles, TileFactory.getDefaultOffsets(), itemPalette);
+      return;
+    }
+
     final byte[] romStream = readRom(romTarget);
+    final byte[] baseSpritemapRegion = extractSpritemapRegion(romStream);
 
-    writeTiledSprite(romStream, itemSprite);
+    createPatchPlan(baseSpritemapRegion, tiles, TileFactory.getDefaultOffsets(), itemPalette).applyTo(romStream);
 
     writeRom(romTarget, romStream);
   }
 
+  /**
+   * Patches many ROMs concurrently, using the offset and palette locations of this patcher.
+   *
+   * <p>Each job is executed on a bounded worker pool of at most {@code parallelism} threads. A failing job
+   * does not stop the other jobs, instead its exception is recorded in its {@link PatchResult}.</p>
+   *
+   * <p>ROMs are patched in place using a {@link PatchPlan} per {@link ContentHash skin content} and base spritemap
+   * region, so the spritemap is only recompressed once per skin and kind of base ROM, even if the jobs mix ROMs of
+   * different versions. Different skins with identical tiles and palette share their plans. Each distinct skin is
+   * hashed only once, before the jobs are dispatched.</p>
+   *
+   * @param patchJobs      the ROMs and skins to patch. Each ROM may only appear once.
+   * @param parallelism    the maximum number of ROMs to patch at the same time.
+   * @param resultConsumer called once for every finished job, from the worker thread which executed it.
+   * @return the results, in the same order as {@code patchJobs}.
+   * @throws InterruptedException if interrupted while waiting for the workers.
+   * @throws IllegalArgumentException if a ROM appears more than once or parallelism is less than one.
+   */
+  public List<PatchResult> patchAll(final List<PatchJob> patchJobs,
+                                    final int parallelism,
+                                    final Consumer<PatchResult> resultConsumer) throws InterruptedException {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be at least 1, but was [" + parallelism + "].");
+    }
+    checkUniqueRomTargets(patchJobs);
+
+    if (patchJobs.isEmpty()) {
+      return List.of();
+    }
+
+    final ExecutorService workers = Executors.newFixedThreadPool(Math.min(parallelism, patchJobs.size()));
+    final Map<SpritemapWithSkin, ContentHash> contentHashes = hashSkins(patchJobs);
+    final ConcurrentMap<PatchPlanKey, PatchPlan> patchPlans = new ConcurrentHashMap<>();
+
+    try {
+      final List<Future<PatchResult>> futures = new ArrayList<>(patchJobs.size());
+      for (final PatchJob patchJob : patchJobs) {
+        futures.add(workers.submit(() -> {
+          final PatchResult patchResult = patchSingle(patchJob, contentHashes, patchPlans);
+          resultConsumer.accept(patchResult);
+          return patchResult;
+        }));
+      }
+
+      final List<PatchResult> results = new ArrayList<>(futures.size());
+      for (final Future<PatchResult> future : futures) {
+        results.add(getPatchResult(future));
+      }
+
+      return List.copyOf(results);
+    } finally {
+      workers.shutdownNow();
+    }
+  }
+
+  /**
+   * Same as {@link #patchAll(List, int, Consumer)}, using one worker per available processor.
+   *
+   * @param patchJobs the ROMs and skins to patch. Each ROM may only appear once.
+   * @return the results, in the same order as {@code patchJobs}.
+   * @throws InterruptedException if interrupted while waiting for the workers.
+   */
+  public List<PatchResult> patchAll(final List<PatchJob> patchJobs) throws InterruptedException {
+    return patchAll(patchJobs, Runtime.getRuntime().availableProcessors(), patchResult -> { });
+  }
+
+  /**
+   * Hashes each distinct skin of the jobs once, instead of once per job.
+   *
+   * @return the hash of each skin, or {@code null} for skins which cannot be hashed.
+   */
+  private static Map<SpritemapWithSkin, ContentHash> hashSkins(final List<PatchJob> patchJobs) {
+    final Map<SpritemapWithSkin, ContentHash> contentHashes = new HashMap<>();
+
+    for (final PatchJob patchJob : patchJobs) {
+      final SpritemapWithSkin skin = patchJob.spritemapWithSkin();
+      if (contentHashes.containsKey(skin)) {
+        continue;
+      }
+
+      try {
+        contentHashes.put(skin, ContentHash.of(skin));
+      } catch (final IOException hashException) {
+        // reported by the jobs using this skin.
+        contentHashes.put(skin, null);
+      }
+    }
+
+    return contentHashes;
+  }
+
+  private PatchResult patchSingle(final PatchJob patchJob,
+                                  final Map<SpritemapWithSkin, ContentHash> contentHashes,
+                                  final ConcurrentMap<PatchPlanKey, PatchPlan> patchPlans) {
+    final long start = System.nanoTime();
+
+    try {
+      final SpritemapWithSkin skin = patchJob.spritemapWithSkin();
+      ContentHash contentHash = contentHashes.get(skin);
+      if (contentHash == null) {
+        // hashing this skin failed before, so this fails the job with the same error.
+        contentHash = ContentHash.of(skin);
+      }
+
+      final byte[] baseSpritemapRegion = readSpritemapRegion(patchJob.romTarget());
+      final PatchPlanKey planKey = new PatchPlanKey(contentHash, SpritemapCache.hash(baseSpritemapRegion));
+      PatchPlan patchPlan = patchPlans.get(planKey);
+      if (patchPlan == null) {
+        patchPlan = createPatchPlanFromRegion(baseSpritemapRegion, skin);
+        patchPlans.putIfAbsent(planKey, patchPlan);
+      }
+
+      if (!patchPlan.tryApplyTo(patchJob.romTarget())) {
+        // base region CRC collision: the plan was built from a different base spritemap.
+        createPatchPlanFromRegion(baseSpritemapRegion, skin).applyTo(patchJob.romTarget());
+      }
+
+      return new PatchResult(patchJob, Duration.ofNanos(System.nanoTime() - start), null);
+    } catch (final IOException | RuntimeException patchException) {
+      return new PatchResult(patchJob, Duration.ofNanos(System.nanoTime() - start), patchException);
+    }
+  }
+
+  private static PatchResult getPatchResult(final Future<PatchResult> future) throws InterruptedException {
+    try {
+      return future.get();
+    } catch (final ExecutionException executionException) {
+      // only the result consumer can throw here.
+      throw new IllegalStateException("Result consumer failed.", executionException.getCause());
+    }
+  }
+
+  /**
+   * Checks whether the given skins fit into the base ROM, without patching anything.
+   *
+   * <p>For every skin, the tiles are extracted and spliced into the spritemap of the base ROM, which is then
+   * recompressed just like {@link #createPatchPlan(byte[], ItemSprite)} would. The skins are verified on a
+   * fork-join pool of {@code parallelism} threads. The spritemap of the base ROM is only decompressed once.</p>
+   *
+   * @param baseRom     the ROM to read the original spritemap from. It is not modified.
+   * @param skins       the skins to verify.
+   * @param parallelism the number of skins to verify at the same time.
+   * @return the results, in the same order as {@code skins}.
+   * @throws IOException if the ROM is too small.
+   * @throws InterruptedException if interrupted while waiting for the workers.
+   * @throws IllegalArgumentException if parallelism is less than one.
+   */
+  public List<VerifyResult> verifyAll(final byte[] baseRom,
+                                      final List<? extends SpritemapWithSkin> skins,
+                                      final int parallelism) throws IOException, InterruptedException {
+    return verifyAllInRegion(extractSpritemapRegion(baseRom), skins, parallelism);
+  }
+
+  /**
+   * Same as {@link #verifyAll(byte[], List, int)}, but only reads the spritemap region from the base ROM file.
+   *
+   * @param baseRomTarget the ROM file to read the original spritemap from. It is not modified.
+   * @param skins         the skins to verify.
+   * @param parallelism   the number of skins to verify at the same time.
+   * @return the results, in the same order as {@code skins}.
+   * @throws IOException if the ROM cannot be read or is too small.
+   * @throws InterruptedException if interrupted while waiting for the workers.
+   */
+  public List<VerifyResult> verifyAll(final String baseRomTarget,
+                                      final List<? extends SpritemapWithSkin> skins,
+                                      final int parallelism) throws IOException, InterruptedException {
+    return verifyAllInRegion(readSpritemapRegion(baseRomTarget), skins, parallelism);
+  }
+
+  private List<VerifyResult> verifyAllInRegion(final byte[] baseSpritemapRegion,
+                                               final List<? extends SpritemapWithSkin> skins,
+                                               final int parallelism) throws InterruptedException {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be at least 1, but was [" + parallelism + "].");
+    }
+
+    if (skins.isEmpty()) {
+      return List.of();
+    }
+
+    final ForkJoinPool workers = new ForkJoinPool(Math.min(parallelism, skins.size()));
+    try {
+      return workers.submit(() -> skins.parallelStream()
+              .map(spritemapWithSkin -> verifySingle(baseSpritemapRegion, spritemapWithSkin))
+              .toList())
+          .get();
+    } catch (final ExecutionException executionException) {
+      // verifySingle catches all expected exceptions.
+      throw new IllegalStateException("Verification failed.", executionException.getCause());
+    } finally {
+      workers.shutdownNow();
+    }
+  }
+
+  private VerifyResult verifySingle(final byte[] baseSpritemapRegion, final SpritemapWithSkin spritemapWithSkin) {
+    final long start = System.nanoTime();
+
+    try {
+      final TileSheet tiles = TileFactory.fromSpritemapWithSkin(spritemapWithSkin);
+      final ItemSprite itemSprite = ItemSpriteFactory.fromSpritemapWithSkin(spritemapWithSkin, tiles);
+      final byte[] compressedNewSpritemap = spliceAndCompress(baseSpritemapRegion, itemSprite.getTileSheet(), itemSprite.getTileOffsets());
+
+      return new VerifyResult(spritemapWithSkin, compressedNewSpritemap.length, Duration.ofNanos(System.nanoTime() - start), null);
+    } catch (final IOException | RuntimeException verifyException) {
+      return new VerifyResult(spritemapWithSkin, -1, Duration.ofNanos(System.nanoTime() - start), verifyException);
+    }
+  }
+
+  @SuppressFBWarnings(
+      value = "PATH_TRAVERSAL_IN",
+      justification = "comparing user supplied ROM paths, nothing is read"
+  )
+  private static void checkUniqueRomTargets(final List<PatchJob> patchJobs) {
+    final Set<Path> romTargets = new HashSet<>();
+
+    for (final PatchJob patchJob : patchJobs) {
+      // e.g. "./a.sfc" and "a.sfc" are the same file, which two workers must not write at the same time.
+      if (!romTargets.add(Paths.get(patchJob.romTarget()).toAbsolutePath().normalize())) {
+        throw new IllegalArgumentException("ROM [" + patchJob.romTarget() + "] must only be patched once per batch.");
+      }
+    }
+  }
+
+  /**
+   * Creates a delta patch for the given skin instead of patching the ROM.
+   *
+   * @param romSource         the ROM to create the patch for. It is not modified.
+   * @param spritemapWithSkin the skin to patch.
+   * @param format            the patch format.
+   * @return the contents of the patch file.
+   * @throws IOException if the ROM cannot be read, or the skin does not fit.
+   */
+  @SuppressFBWarnings(
+      value = "PATH_TRAVERSAL_IN",
+      justification = "patching user supplied ROM file"
+  )
+  public byte[] createDeltaPatch(final String romSource,
+                                 final SpritemapWithSkin spritemapWithSkin,
+                                 final DeltaPatchFormat format) throws IOException {
+    final byte[] originalRom = readRom(romSource);
+    final byte[] patchedRom = Arrays.copyOf(originalRom, originalRom.length);
+
+    writeSkin(patchedRom, spritemapWithSkin);
+
+    return DeltaPatchFactory.create(format, originalRom, patchedRom);
+  }
+
   @SuppressFBWarnings(
       value = "PATH_TRAVERSAL_OUT",
       justification = "patching user supplied ROM file"
@@ -86,6 +388,64 @@ public class AlttpRomPatcher {
     }
   }
 
+  /**
+   * Patches the ROM in place: only the spritemap window of {@link #MAX_SPRITEMAP_SIZE} bytes at {@link #getOffset()}
+   * is mapped into memory. Of that window, only the range which differs after recompression is written back,
+   * followed by the two palette bytes.
+   *
+   * @param romTarget   the ROM file to patch.
+   * @param tiles       the tiles to write into the spritemap.
+   * @param tileOffsets the offsets of the tiles in the decompressed spritemap.
+   * @param itemPalette the palette to write.
+   * @throws IOException if the ROM is too small or cannot be read or written.
+   */
+  @SuppressFBWarnings(
+      value = "PATH_TRAVERSAL_IN",
+      justification = "patching user supplied ROM file"
+  )
+  private void patchMemoryMapped(final String romTarget,
+                                 final TileSheet tiles,
+                                 final int[] tileOffsets,
+                                 final ItemPalette itemPalette) throws IOException {
+    try (final FileChannel romChannel = FileChannel.open(Paths.get(romTarget), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      checkRomSize(romChannel.size());
+
+      final MappedByteBuffer spritemapWindow = romChannel.map(FileChannel.MapMode.READ_WRITE, getOffset(), MAX_SPRITEMAP_SIZE);
+      final byte[] originalWindow = new byte[MAX_SPRITEMAP_SIZE];
+      spritemapWindow.get(0, originalWindow);
+
+      final PatchPlan patchPlan = createPatchPlan(originalWindow, tiles, tileOffsets, itemPalette);
+      final byte[] patchedWindow = patchPlan.getPatchedSpritemapRegion();
+
+      final int firstChanged = Arrays.mismatch(originalWindow, patchedWindow);
+      if (firstChanged != -1) {
+        int lastChanged = patchedWindow.length - 1;
+        while (originalWindow[lastChanged] == patchedWindow[lastChanged]) {
+          lastChanged--;
+        }
+
+        spritemapWindow.put(firstChanged, patchedWindow, firstChanged, lastChanged - firstChanged + 1);
+        spritemapWindow.force();
+      }
+
+      PatchPlan.writeByte(romChannel, getPaletteLocationChest(), itemPalette.getPaletteIdChest());
+      PatchPlan.writeByte(romChannel, getPaletteLocationOverworld(), itemPalette.getPaletteIdOverworld());
+    }
+  }
+
+  private void checkRomSize(final long romSize) throws IOException {
+    final long requiredSize = Math.max(
+        (long) getOffset() + MAX_SPRITEMAP_SIZE,
+        Math.max(getPaletteLocationChest(), getPaletteLocationOverworld()) + 1L);
+
+    if (romSize < requiredSize) {
+      throw new IOException(
+          "ROM too small! "
+              + "Expected at least [" + requiredSize + "] bytes, "
+              + "but the supplied ROM contains [" + romSize + "] bytes.");
+    }
+  }
+
   /**
    * Extracts teh four tiles of the new triforce sprite from the old format ({@link SpritemapWithSkin}) and
    * writes them into the spritemap from the ROM.
@@ -96,7 +456,7 @@ public class AlttpRomPatcher {
    */
   protected void writeSkin(final byte[] romStream, final SpritemapWithSkin spritemapWithSkin) throws IOException {
     // extract only the 4 triforce tiles
-    final Tile[] tiles = TileFactory.fromSpritemapWithSkin(spritemapWithSkin);
+    final TileSheet tiles = TileFactory.fromSpritemapWithSkin(spritemapWithSkin);
     // convert to new format
     final ItemSprite itemSprite = ItemSpriteFactory.fromSpritemapWithSkin(spritemapWithSkin, tiles);
 
@@ -116,16 +476,7 @@ public class AlttpRomPatcher {
    * @throws IOException problem reading or writing the rom Stream.
    */
   protected void writeItemSprite(final byte[] romStream, final ItemSprite itemSprite) throws IOException {
-    final byte[] decompressedSpritemapFromRom = extractDecompressedSpritemapFromRom(romStream);
-
-    doWriteItemSpriteIntoDecompressedSpritemap(itemSprite, decompressedSpritemapFromRom);
-
-    // compress
-    final byte[] compressedNewSpritemap = compressSpritemap(decompressedSpritemapFromRom);
-
-    doWriteCompressedSpritemapIntoRom(romStream, compressedNewSpritemap);
-    romStream[getPaletteLocationChest()] = itemSprite.getPalette().getPaletteIdChest();
-    romStream[getPaletteLocationOverworld()] = itemSprite.getPalette().getPaletteIdOverworld();
+    createPatchPlan(romStream, itemSprite).applyTo(romStream);
   }
 
   /**
@@ -140,20 +491,81 @@ public class AlttpRomPatcher {
    * @throws IOException problem reading or writing the rom Stream.
    */
   protected void writeTiledSprite(final byte[] romStream, final TiledSprite tiledSprite) throws IOException {
-    final byte[] decompressedSpritemapFromRom = extractDecompressedSpritemapFromRom(romStream);
+    final ItemPalette itemPalette = ItemPalette.valueOf(tiledSprite.getPalette().getName());
+    final byte[] baseSpritemapRegion = extractSpritemapRegion(romStream);
 
-    doWriteTiledSpriteIntoDecompressedSpritemap(tiledSprite, decompressedSpritemapFromRom);
+    final TileSheet tiles = TileSheet.fromTiles(tiledSprite.getTiles());
 
-    // compress
-    final byte[] compressedNewSpritemap = compressSpritemap(decompressedSpritemapFromRom);
+    createPatchPlan(baseSpritemapRegion, tiles, TileFactory.getDefaultOffsets(), itemPalette).applyTo(romStream);
+  }
 
-    doWriteCompressedSpritemapIntoRom(romStream, compressedNewSpritemap);
-    final ItemPalette itemPalette = ItemPalette.valueOf(tiledSprite.getPalette().getName());
-    romStream[getPaletteLocationChest()] = itemPalette.getPaletteIdChest();
-    romStream[getPaletteLocationOverworld()] = itemPalette.getPaletteIdOverworld();
+  /**
+   * Builds a {@link PatchPlan} for the given item sprite: the spritemap at {@link #getOffset()} of the base ROM is
+   * decompressed, the tiles are inserted, and the result is recompressed once.
+   *
+   * <p>The plan can then be applied to any ROM which has the same spritemap region as {@code baseRom}.</p>
+   *
+   * @param baseRom    the ROM to read the original spritemap from. It is not modified.
+   * @param itemSprite the item sprite to write.
+   * @return a plan which can be applied to {@code baseRom} and identical copies.
+   * @throws IOException if the ROM is too small or the recompressed spritemap would be too large.
+   */
+  public PatchPlan createPatchPlan(final byte[] baseRom, final ItemSprite itemSprite) throws IOException {
+    final byte[] baseSpritemapRegion = extractSpritemapRegion(baseRom);
+
+    return createPatchPlan(baseSpritemapRegion, itemSprite.getTileSheet(), itemSprite.getTileOffsets(), itemSprite.getPalette());
   }
 
-  private void doWriteCompressedSpritemapIntoRom(final byte[] romStream, final byte[] compressedNewSpritemap) throws IOException {
+  /**
+   * Same as {@link #createPatchPlan(byte[], ItemSprite)}, but only reads the spritemap region from the base ROM file.
+   *
+   * @param baseRomTarget     the ROM file to read the original spritemap from. It is not modified.
+   * @param spritemapWithSkin the skin to write, only the four item sprite tiles will be read from this.
+   * @return a plan which can be applied to {@code baseRomTarget} and identical copies.
+   * @throws IOException if the ROM cannot be read, is too small or the recompressed spritemap would be too large.
+   */
+  @SuppressFBWarnings(
+      value = "PATH_TRAVERSAL_IN",
+      justification = "patching user supplied ROM file"
+  )
+  public PatchPlan createPatchPlan(final String baseRomTarget, final SpritemapWithSkin spritemapWithSkin) throws IOException {
+    return createPatchPlanFromRegion(readSpritemapRegion(baseRomTarget), spritemapWithSkin);
+  }
+
+  private PatchPlan createPatchPlanFromRegion(final byte[] baseSpritemapRegion,
+                                              final SpritemapWithSkin spritemapWithSkin) throws IOException {
+    final TileSheet tiles = TileFactory.fromSpritemapWithSkin(spritemapWithSkin);
+    final ItemSprite itemSprite = ItemSpriteFactory.fromSpritemapWithSkin(spritemapWithSkin, tiles);
+
+    return createPatchPlan(baseSpritemapRegion, itemSprite.getTileSheet(), itemSprite.getTileOffsets(), itemSprite.getPalette());
+  }
+
+  @SuppressFBWarnings(
+      value = "PATH_TRAVERSAL_IN",
+      justification = "patching user supplied ROM file"
+  )
+  private byte[] readSpritemapRegion(final String baseRomTarget) throws IOException {
+    final byte[] baseSpritemapRegion = new byte[MAX_SPRITEMAP_SIZE];
+
+    try (final FileChannel romChannel = FileChannel.open(Paths.get(baseRomTarget), StandardOpenOption.READ)) {
+      checkRomSize(romChannel.size());
+
+      final ByteBuffer regionBuffer = ByteBuffer.wrap(baseSpritemapRegion);
+      while (regionBuffer.hasRemaining()) {
+        if (romChannel.read(regionBuffer, (long) getOffset() + regionBuffer.position()) == -1) {
+          throw new IOException("Unexpected end of input.");
+        }
+      }
+    }
+
+    return baseSpritemapRegion;
+  }
+
+  private PatchPlan createPatchPlan(final byte[] baseSpritemapRegion,
+                                    final TileSheet tiles,
+                                    final int[] tileOffsets,
+                                    final ItemPalette itemPalette) throws IOException {
+    final byte[] compressedNewSpritemap = spliceAndCompress(baseSpritemapRegion, tiles, tileOffsets);
     if (compressedNewSpritemap.length > MAX_SPRITEMAP_SIZE) {
       throw new IOException(
           "Skin too large! "
@@ -161,49 +573,64 @@ public class AlttpRomPatcher {
               + "but supplied skin contains [" + compressedNewSpritemap.length + "] bytes.");
     }
 
-    final int pos = getOffset();
-    // write back
-    System.arraycopy(new byte[MAX_SPRITEMAP_SIZE], 0, romStream, pos, MAX_SPRITEMAP_SIZE);
-    // write graphics
-    System.arraycopy(compressedNewSpritemap, 0, romStream, pos, compressedNewSpritemap.length);
+    return new PatchPlan(
+        getOffset(),
+        baseSpritemapRegion,
+        compressedNewSpritemap,
+        getPaletteLocationChest(),
+        itemPalette.getPaletteIdChest(),
+        getPaletteLocationOverworld(),
+        itemPalette.getPaletteIdOverworld());
   }
 
-  private void doWriteItemSpriteIntoDecompressedSpritemap(final ItemSprite itemSprite, final byte[] decompressedSpritemapFromRom) {
-    final Tile[] tiles = itemSprite.getTiles();
-    final int[] tileOffsets = itemSprite.getTileOffsets();
+  /**
+   * Decompresses the base spritemap, inserts the tiles and recompresses it. The result may be too large for the ROM.
+   */
+  private byte[] spliceAndCompress(final byte[] baseSpritemapRegion,
+                                   final TileSheet tiles,
+                                   final int[] tileOffsets) throws IOException {
+    final byte[] decompressedSpritemapFromRom = this.spritemapCache.getDecompressed(baseSpritemapRegion);
+    final byte[] decompressedNewSpritemap = Arrays.copyOf(decompressedSpritemapFromRom, decompressedSpritemapFromRom.length);
+
+    Objects.requireNonNull(tiles, "tiles may not be null");
+    tiles.copyTo(decompressedNewSpritemap, tileOffsets);
 
-    for (int tileIndex = 0; tileIndex < tiles.length; tileIndex++) {
-      final byte[] tileToWrite = tiles[tileIndex].getBytes();
-      final int tileOffset = tileOffsets[tileIndex];
-      System.arraycopy(tileToWrite, 0, decompressedSpritemapFromRom, tileOffset, tileToWrite.length);
-    }
+    // compress
+    return compressSpritemap(baseSpritemapRegion, decompressedSpritemapFromRom, decompressedNewSpritemap);
   }
 
-  private void doWriteTiledSpriteIntoDecompressedSpritemap(final TiledSprite tiledSprite, final byte[] decompressedSpritemapFromRom) {
-    final Tile[] tiles = tiledSprite.getTiles();
-    final int[] tileOffsets = TileFactory.getDefaultOffsets();
+  private byte[] extractSpritemapRegion(final byte[] romStream) throws IOException {
+    checkRomSize(romStream.length);
 
-    for (int tileIndex = 0; tileIndex < tiles.length; tileIndex++) {
-      final byte[] tileToWrite = tiles[tileIndex].getBytes();
-      final int tileOffset = tileOffsets[tileIndex];
-      System.arraycopy(tileToWrite, 0, decompressedSpritemapFromRom, tileOffset, tileToWrite.length);
-    }
+    return Arrays.copyOfRange(romStream, getOffset(), getOffset() + MAX_SPRITEMAP_SIZE);
   }
 
-  private byte[] compressSpritemap(final byte[] decompressedSpritemapFromRom) throws IOException {
-    try (final SnesCompressor snesCompressor = new SnesCompressor(new ByteArrayInputStream(decompressedSpritemapFromRom))) {
-      return snesCompressor.getCompressed().toByteArray();
+  /**
+   * Keeps the compressed commands of the original spritemap before the first changed byte and only compresses
+   * the rest. Falls back to compressing the whole spritemap if the result would not fit.
+   */
+  private byte[] compressSpritemap(final byte[] baseSpritemapRegion,
+                                   final byte[] decompressedSpritemapFromRom,
+                                   final byte[] decompressedNewSpritemap) throws IOException {
+    final int firstChanged = Arrays.mismatch(decompressedSpritemapFromRom, decompressedNewSpritemap);
+    final int reusableUpTo = firstChanged == -1 ? decompressedNewSpritemap.length : firstChanged;
+
+    final byte[] recompressed = Lz2Compressor.recompress(baseSpritemapRegion, decompressedNewSpritemap, reusableUpTo, this.compressionMode);
+    if (recompressed.length <= MAX_SPRITEMAP_SIZE) {
+      return recompressed;
     }
-  }
 
-  private byte[] extractDecompressedSpritemapFromRom(final byte[] romStream) throws IOException {
-    final int pos = getOffset();
-
-    try (final ByteArrayInputStream romInputStream = new ByteArrayInputStream(romStream, pos, MAX_SPRITEMAP_SIZE)) {
-      final SnesDecompressor snesDecompressor = new SnesDecompressor(romInputStream);
+    return compressSpritemap(decompressedNewSpritemap);
+  }
 
-      return snesDecompressor.getDecompressed();
+  private byte[] compressSpritemap(final byte[] decompressedSpritemapFromRom) {
+    final byte[] compressed = Lz2Compressor.compress(decompressedSpritemapFromRom, this.compressionMode);
+    if (compressed.length > MAX_SPRITEMAP_SIZE && this.compressionMode != CompressionMode.OPTIMAL) {
+      // borderline sprite, try harder before giving up.
+      return Lz2Compressor.compress(decompressedSpritemapFromRom, CompressionMode.OPTIMAL);
     }
+
+    return compressed;
   }
 
   @SuppressFBWarnings(
@@ -265,12 +692,54 @@ public class AlttpRomPatcher {
     this.paletteLocationOverworld = paletteLocationOverworld;
   }
 
+  public PatchMode getPatchMode() {
+    return this.patchMode;
+  }
+
+  public void setPatchMode(final PatchMode patchMode) {
+    this.patchMode = Objects.requireNonNull(patchMode, "patchMode may not be null");
+  }
+
+  @SuppressFBWarnings(
+      value = "EI_EXPOSE_REP",
+      justification = "the cache is shared on purpose"
+  )
+  public SpritemapCache getSpritemapCache() {
+    return this.spritemapCache;
+  }
+
+  @SuppressFBWarnings(
+      value = "EI_EXPOSE_REP2",
+      justification = "the cache is shared on purpose"
+  )
+  public void setSpritemapCache(final SpritemapCache spritemapCache) {
+    this.spritemapCache = Objects.requireNonNull(spritemapCache, "spritemapCache may not be null");
+  }
+
+  public CompressionMode getCompressionMode() {
+    return this.compressionMode;
+  }
+
+  public void setCompressionMode(final CompressionMode compressionMode) {
+    this.compressionMode = Objects.requireNonNull(compressionMode, "compressionMode may not be null");
+  }
+
   @Override
   public String toString() {
     return new StringJoiner(", ", "AlttpRomPatcher{", "}")
         .add("offset=" + this.offset)
         .add("paletteLocationChest=" + this.paletteLocationChest)
         .add("paletteLocationOverworld=" + this.paletteLocationOverworld)
+        .add("patchMode=" + this.patchMode)
+        .add("spritemapCache=" + this.spritemapCache)
+        .add("compressionMode=" + this.compressionMode)
         .toString();
   }
+
+  /**
+   * Identifies a {@link PatchPlan} built by {@link #patchAll(List, int, Consumer)}: the skin content and the
+   * {@link SpritemapCache#hash(byte[]) CRC32C} of the spritemap region of the base ROM it was built from.
+   */
+  private record PatchPlanKey(ContentHash contentHash, long baseRegionCrc) {
+  }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.common.value.TileSheet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Identifies what a skin looks like in the ROM: its four decompressed item tiles plus its palette ids.
+ *
+ * <p>Skins with the same content hash patch a ROM identically, no matter their names, ULIDs or how their
+ * spritemap was compressed. The hash is the first 128 bits of the SHA-256 of the 96 tile bytes, followed by the
+ * chest and overworld palette ids.</p>
+ *
+ * @param mostSignificantBits  the first 64 bits of the hash.
+ * @param leastSignificantBits the second 64 bits of the hash.
+ */
+public record ContentHash(long mostSignificantBits, long leastSignificantBits) {
+
+  private static final int TILE_COUNT = 4;
+
+  private static final int HEX_LENGTH = 32;
+
+  /**
+   * Hashes the item tiles and palette of a skin. Only the beginning of the spritemap is decompressed.
+   *
+   * <p>Library sprites already know their hash from the {@link SpriteLibrary library index}.</p>
+   *
+   * @param spritemapWithSkin the skin to hash.
+   * @return the content hash.
+   * @throws IOException if the spritemap cannot be read or decompressed.
+   */
+  public static ContentHash of(final SpritemapWithSkin spritemapWithSkin) throws IOException {
+    if (spritemapWithSkin instanceof LibrarySpritemapWithSkin librarySprite) {
+      return librarySprite.getContentHash();
+    }
+
+    final TileSheet tiles = TileFactory.fromSpritemapWithSkin(spritemapWithSkin);
+    final byte[] tileData = new byte[TILE_COUNT * TileSheet.BYTES_PER_TILE];
+    tiles.copyTo(tileData, 0);
+
+    return of(tileData, spritemapWithSkin.getItemPalette(), spritemapWithSkin.getPaletteOW());
+  }
+
+  /**
+   * Hashes the given tiles and palette ids.
+   *
+   * @param tileData           the four packed item tiles, 96 bytes.
+   * @param paletteIdChest     the palette id used in chests.
+   * @param paletteIdOverworld the palette id used in the overworld.
+   * @return the content hash.
+   */
+  public static ContentHash of(final byte[] tileData, final byte paletteIdChest, final byte paletteIdOverworld) {
+    if (tileData.length != TILE_COUNT * TileSheet.BYTES_PER_TILE) {
+      throw new IllegalArgumentException(
+          "Expected [" + TILE_COUNT * TileSheet.BYTES_PER_TILE + "] bytes of tile data, but got [" + tileData.length + "].");
+    }
+
+    final MessageDigest sha256 = createDigest();
+    sha256.update(tileData);
+    sha256.update(paletteIdChest);
+    sha256.update(paletteIdOverworld);
+    final ByteBuffer digest = ByteBuffer.wrap(sha256.digest());
+
+    return new ContentHash(digest.getLong(), digest.getLong());
+  }
+
+  /**
+   * Parses the hex string created by {@link #toString()}.
+   *
+   * @param hex 32 hex digits.
+   * @return the content hash.
+   * @throws IllegalArgumentException if the string is not a valid content hash.
+   */
+  public static ContentHash parse(final String hex) {
+    if (hex == null || hex.length() != HEX_LENGTH) {
+      throw new IllegalArgumentException("Expected [" + HEX_LENGTH + "] hex digits, but got [" + hex + "].");
+    }
+
+    return new ContentHash(
+        HexFormat.fromHexDigitsToLong(hex, 0, HEX_LENGTH / 2),
+        HexFormat.fromHexDigitsToLong(hex, HEX_LENGTH / 2, HEX_LENGTH));
+  }
+
+  private static MessageDigest createDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException noSuchAlgorithmException) {
+      // every Java platform must support SHA-256.
+      throw new IllegalStateException(noSuchAlgorithmException);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return HexFormat.of().toHexDigits(this.mostSignificantBits) + HexFormat.of().toHexDigits(this.leastSignificantBits);
+  }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Creates delta patches (IPS or BPS) from an original and a patched ROM.
+ *
+ * <p>Patching a skin only changes the spritemap window and the two palette bytes, so a patch is a few hundred bytes
+ * instead of the whole ROM image.</p>
+ */
+public final class DeltaPatchFactory {
+
+  private static final byte[] IPS_HEADER = "PATCH".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] IPS_FOOTER = "EOF".getBytes(StandardCharsets.US_ASCII);
+  /**
+   * A record at this offset would be read as the footer, {@code "EOF"}.
+   */
+  private static final int IPS_EOF_OFFSET = 0x454F46;
+  private static final int IPS_MAX_OFFSET = 0xFFFFFF;
+  private static final int IPS_MAX_RECORD_SIZE = 0xFFFF;
+  /**
+   * Each IPS record starts with a 3 byte offset and a 2 byte size.
+   */
+  private static final int IPS_RECORD_HEADER_SIZE = 5;
+
+  private static final byte[] BPS_HEADER = "BPS1".getBytes(StandardCharsets.US_ASCII);
+  private static final int BPS_SOURCE_READ = 0;
+  private static final int BPS_TARGET_READ = 1;
+  /**
+   * Splitting a target read costs at least a one byte source read action and a one byte target read action.
+   */
+  private static final int BPS_SPLIT_SIZE = 2;
+
+  private DeltaPatchFactory() {
+    // util
+  }
+
+  public static byte[] create(final DeltaPatchFormat format, final byte[] source, final byte[] target) {
+    Objects.requireNonNull(format, "format must not be null.");
+
+    if (format == DeltaPatchFormat.BPS) {
+      return createBps(source, target);
+    }
+
+    return createIps(source, target);
+  }
+
+  /**
+   * Creates an IPS patch.
+   *
+   * @param source the original ROM.
+   * @param target the patched ROM, of the same size.
+   * @return the IPS file contents.
+   * @throws IllegalArgumentException if the ROMs differ in size or are larger than 16 MiB.
+   */
+  public static byte[] createIps(final byte[] source, final byte[] target) {
+    checkSameSize(source, target);
+    if (target.length > IPS_MAX_OFFSET + 1) {
+      throw new IllegalArgumentException("IPS only supports ROMs up to 16 MiB, but got [" + target.length + "] bytes.");
+    }
+
+    final ByteArrayOutputStream patch = new ByteArrayOutputStream();
+    patch.writeBytes(IPS_HEADER);
+
+    for (final int[] range : findChangedRanges(source, target, IPS_RECORD_HEADER_SIZE)) {
+      // a record must not start at the offset which reads as "EOF", so include the byte before.
+      int recordStart = range[0] == IPS_EOF_OFFSET ? range[0] - 1 : range[0];
+
+      while (recordStart < range[1]) {
+        final int recordSize = Math.min(IPS_MAX_RECORD_SIZE, range[1] - recordStart);
+        writeBigEndian(patch, recordStart, 3);
+        writeBigEndian(patch, recordSize, 2);
+        patch.write(target, recordStart, recordSize);
+        recordStart += recordSize;
+      }
+    }
+
+    patch.writeBytes(IPS_FOOTER);
+
+    return patch.toByteArray();
+  }
+
+  /**
+   * Creates a BPS patch, which reads unchanged ranges from the source and stores changed ranges.
+   *
+   * @param source the original ROM.
+   * @param target the patched ROM, of the same size.
+   * @return the BPS file contents.
+   * @throws IllegalArgumentException if the ROMs differ in size.
+   */
+  public static byte[] createBps(final byte[] source, final byte[] target) {
+    checkSameSize(source, target);
+
+    final ByteArrayOutputStream patch = new ByteArrayOutputStream();
+    patch.writeBytes(BPS_HEADER);
+    writeVarint(patch, source.length);
+    writeVarint(patch, target.length);
+    // no metadata.
+    writeVarint(patch, 0);
+
+    int outputOffset = 0;
+    for (final int[] range : findChangedRanges(source, target, BPS_SPLIT_SIZE)) {
+      if (range[0] > outputOffset) {
+        writeVarint(patch, bpsAction(range[0] - outputOffset, BPS_SOURCE_READ));
+      }
+
+      writeVarint(patch, bpsAction(range[1] - range[0], BPS_TARGET_READ));
+      patch.write(target, range[0], range[1] - range[0]);
+      outputOffset = range[1];
+    }
+
+    if (outputOffset < target.length) {
+      writeVarint(patch, bpsAction(target.length - outputOffset, BPS_SOURCE_READ));
+    }
+
+    writeLittleEndian(patch, crc32(source, source.length));
+    writeLittleEndian(patch, crc32(target, target.length));
+    final byte[] patchWithoutChecksum = patch.toByteArray();
+    writeLittleEndian(patch, crc32(patchWithoutChecksum, patchWithoutChecksum.length));
+
+    return patch.toByteArray();
+  }
+
+  /**
+   * Finds the ranges of differing bytes.
+   *
+   * <p>A recompressed spritemap differs in many places with a few equal bytes in between. Ranges separated by fewer
+   * unchanged bytes than a new record would cost are merged, so the unchanged bytes are stored instead.</p>
+   *
+   * @param splitSize the number of bytes a new record costs.
+   * @return the changed ranges as {@code [start, end)}.
+   */
+  private static List<int[]> findChangedRanges(final byte[] source, final byte[] target, final int splitSize) {
+    final List<int[]> ranges = new ArrayList<>();
+    int offset = 0;
+
+    while (offset < target.length) {
+      final int mismatch = Arrays.mismatch(source, offset, source.length, target, offset, target.length);
+      if (mismatch == -1) {
+        break;
+      }
+
+      final int start = offset + mismatch;
+      int end = start + 1;
+      while (end < target.length && source[end] != target[end]) {
+        end++;
+      }
+
+      final int[] previous = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+      if (previous != null && start - previous[1] < splitSize) {
+        previous[1] = end;
+      } else {
+        ranges.add(new int[] {start, end});
+      }
+      offset = end;
+    }
+
+    return ranges;
+  }
+
+  private static void checkSameSize(final byte[] source, final byte[] target) {
+    if (source.length != target.length) {
+      throw new IllegalArgumentException("Source and target must be of the same size, "
+          + "but got [" + source.length + "] and [" + target.length + "] bytes.");
+    }
+  }
+
+  private static void writeBigEndian(final ByteArrayOutputStream patch, final int value, final int bytes) {
+    for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+      patch.write(value >>> shift);
+    }
+  }
+
+  private static void writeLittleEndian(final ByteArrayOutputStream patch, final long value) {
+    for (int shift = 0; shift < 32; shift += 8) {
+      patch.write((int) (value >>> shift));
+    }
+  }
+
+  /**
+   * Encodes a BPS action: the length minus one in the upper bits, the command in the lower two bits.
+   */
+  private static long bpsAction(final int length, final int command) {
+    return ((long) (length - 1) << 2) + command;
+  }
+
+  /**
+   * Writes a number in the variable length encoding of the beat formats.
+   */
+  private static void writeVarint(final ByteArrayOutputStream patch, final long value) {
+    long remaining = value;
+
+    while (true) {
+      final int lowBits = (int) (remaining & 0x7F);
+      remaining >>>= 7;
+      if (remaining == 0) {
+        patch.write(0x80 | lowBits);
+        return;
+      }
+
+      patch.write(lowBits);
+      remaining--;
+    }
+  }
+
+  private static long crc32(final byte[] data, final int length) {
+    final CRC32 crc32 = new CRC32();
+    crc32.update(data, 0, length);
+
+    return crc32.getValue();
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import java.util.Locale;
+
+/**
+ * File formats for delta patches created by {@link DeltaPatchFactory}.
+ */
+public enum DeltaPatchFormat {
+  /**
+   * The classic IPS format: changed records with 24 bit offsets, so only ROMs up to 16 MiB are supported.
+   */
+  IPS,
+
+  /**
+   * The beat patch format, which also stores CRC32 checksums of the source and target ROM.
+   */
+  BPS;
+
+  /**
+   * Guesses the format from the file name extension.
+   *
+   * @param fileName the name of the patch file.
+   * @return {@link #BPS} for {@code *.bps}, {@link #IPS} otherwise.
+   */
+  public static DeltaPatchFormat fromFileName(final String fileName) {
+    if (fileName.toLowerCase(Locale.ROOT).endsWith(".bps")) {
+      return BPS;
+    }
+
+    return IPS;
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Finds skins which look identical in the ROM, i.e. which have the same {@link ContentHash}.
+ */
+public final class DuplicateSkinFinder {
+
+  private static final Logger LOG = Logger.getLogger(DuplicateSkinFinder.class.getCanonicalName());
+
+  private DuplicateSkinFinder() {
+    // util
+  }
+
+  /**
+   * Hashes all skins in parallel and groups those with identical content. Skins which cannot be hashed are skipped.
+   *
+   * @param skins the skins to check, e.g. shipped skins followed by library sprites.
+   * @return one group per content which appears more than once, in the order of their first skin.
+   */
+  public static List<DuplicateGroup> find(final Collection<? extends SpritemapWithSkin> skins) {
+    final List<HashedSkin> hashedSkins = skins.parallelStream()
+        .map(DuplicateSkinFinder::hash)
+        .flatMap(Optional::stream)
+        .collect(Collectors.toList());
+
+    final Map<ContentHash, List<SpritemapWithSkin>> skinsByContent = new LinkedHashMap<>();
+    for (final HashedSkin hashedSkin : hashedSkins) {
+      skinsByContent.computeIfAbsent(hashedSkin.contentHash(), key -> new ArrayList<>()).add(hashedSkin.skin());
+    }
+
+    return skinsByContent.entrySet().stream()
+        .filter(content -> content.getValue().size() > 1)
+        .map(content -> new DuplicateGroup(content.getKey(), List.copyOf(content.getValue())))
+        .collect(Collectors.toList());
+  }
+
+  private static Optional<HashedSkin> hash(final SpritemapWithSkin skin) {
+    try {
+      return Optional.of(new HashedSkin(skin, ContentHash.of(skin)));
+    } catch (final IOException | RuntimeException hashException) {
+      LOG.log(Level.WARNING, hashException, () -> "Unable to hash skin [" + skin.getSpriteName() + "].");
+
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Skins with identical tiles and palette.
+   *
+   * @param contentHash the content shared by all skins.
+   * @param skins       at least two skins, in the order they were passed to {@link #find(Collection)}.
+   */
+  public record DuplicateGroup(ContentHash contentHash, List<SpritemapWithSkin> skins) {
+  }
+
+  private record HashedSkin(SpritemapWithSkin skin, ContentHash contentHash) {
+  }
+}
@@ -19,6 +19,8 @@ package io.github.alttpj.memeforcehunt.lib;
 import io.github.alttpj.memeforcehunt.common.value.ULID;
 import io.github.alttpj.memeforcehunt.lib.impl.InstantDeserializer;
 import io.github.alttpj.memeforcehunt.lib.impl.InstantSerializer;
+import io.github.alttpj.memeforcehunt.lib.impl.ULIDDeserializer;
+import io.github.alttpj.memeforcehunt.lib.impl.ULIDSerializer;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
@@ -33,6 +35,8 @@ import java.util.Optional;
 import java.util.Set;
 
 public record ImmutableSpriteFileFormat(
+    @JsonSerialize(using = ULIDSerializer.class)
+    @JsonDeserialize(using = ULIDDeserializer.class)
     ULID.Value ulid,
     @JsonSerialize(using = InstantSerializer.class)
     @JsonDeserialize(using = InstantDeserializer.class)
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import io.github.alttpj.memeforcehunt.common.value.AbstractSpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.common.value.ItemPalette;
+import io.github.alttpj.memeforcehunt.common.value.SpritemapDataCache;
+import io.github.alttpj.memeforcehunt.common.value.TileSheet;
+import io.github.alttpj.memeforcehunt.common.value.ULID;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * A skin from a {@code *.zspr.yaml} file in a {@link SpriteLibrary sprite library}.
+ *
+ * <p>Only the metadata is kept in memory. The four tiles are read from the file when the spritemap is first
+ * needed, and turned into a minimal spritemap, see {@link TileFactory#toCompressedSpritemap(TileSheet)}. The
+ * spritemap is kept in the {@link SpritemapContentStore content store} of the library instead of the
+ * {@link SpritemapDataCache}, so sprites with identical content share it.</p>
+ */
+public final class LibrarySpritemapWithSkin extends AbstractSpritemapWithSkin {
+
+  private final Path spriteFile;
+  private final List<String> tags;
+  private final ContentHash contentHash;
+  private final SpritemapContentStore contentStore;
+
+  public LibrarySpritemapWithSkin(final ULID.Value spriteId,
+                                  final String spriteName,
+                                  final String displayName,
+                                  final String description,
+                                  final String author,
+                                  final ItemPalette palette,
+                                  final Path spriteFile,
+                                  final List<String> tags,
+                                  final ContentHash contentHash,
+                                  final SpritemapContentStore contentStore) {
+    super(spriteId, spriteName, displayName, description, author, palette);
+    this.spriteFile = spriteFile;
+    this.tags = List.copyOf(tags);
+    this.contentHash = contentHash;
+    this.contentStore = contentStore;
+  }
+
+  /**
+   * Library sprites have no preview image, so it is always rendered from the tiles.
+   */
+  @Override
+  public BufferedImage getImage() {
+    return renderPreview();
+  }
+
+  @Override
+  public ByteBuffer getDataBuffer() throws IOException {
+    return this.contentStore.get(this.contentHash, this::readSpritemap);
+  }
+
+  private byte[] readSpritemap() throws IOException {
+    final SpriteFileFormat spriteFileFormat = SpriteFileFormatFactory.fromFile(this.spriteFile.toFile());
+
+    return TileFactory.toCompressedSpritemap(TileSheet.of(spriteFileFormat.data()));
+  }
+
+  @Override
+  protected InputStream getSpritemapInputStream() {
+    try {
+      return new ByteArrayInputStream(getData());
+    } catch (final IOException ioException) {
+      throw new UncheckedIOException(ioException);
+    }
+  }
+
+  public Path getSpriteFile() {
+    return this.spriteFile;
+  }
+
+  public ContentHash getContentHash() {
+    return this.contentHash;
+  }
+
+  @Override
+  public List<String> getTags() {
+    return this.tags;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", "LibrarySpritemapWithSkin{", "}")
+        .add("super=" + super.toString())
+        .add("spriteFile=" + this.spriteFile)
+        .add("tags=" + this.tags)
+        .add("contentHash=" + this.contentHash)
+        .toString();
+  }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+
+import java.util.Objects;
+
+/**
+ * A single ROM to patch with a single skin, as used by {@link AlttpRomPatcher#patchAll}.
+ *
+ * @param romTarget         the path of the ROM file to patch.
+ * @param spritemapWithSkin the skin to write into the ROM.
+ */
+public record PatchJob(String romTarget, SpritemapWithSkin spritemapWithSkin) {
+
+  public PatchJob {
+    Objects.requireNonNull(romTarget, "romTarget must not be null.");
+    Objects.requireNonNull(spritemapWithSkin, "spritemapWithSkin must not be null.");
+  }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+/**
+ * How {@link AlttpRomPatcher} reads and writes the ROM file.
+ */
+public enum PatchMode {
+  /**
+   * Reads the whole ROM into memory, patches it and writes the whole file back.
+   */
+  REWRITE,
+
+  /**
+   * Maps only the spritemap window at {@link AlttpRomPatcher#getOffset()} into memory and writes back
+   * the bytes which actually changed, plus the two palette bytes. The file is never truncated.
+   */
+  MEMORY_MAPPED
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+/**
+ * A precompiled patch: the recompressed spritemap and the palette bytes for one item sprite on one base ROM.
+ *
+ * <p>Building a plan decompresses, splices and recompresses the spritemap once. Applying it to further copies
+ * of the same base ROM is a plain copy, guarded by a check that their spritemap region still equals the one
+ * of the base ROM the plan was built from.</p>
+ *
+ * <p>Instances are immutable and can be applied from multiple threads, as long as no two threads patch the same ROM.</p>
+ *
+ * @see AlttpRomPatcher#createPatchPlan(byte[], io.github.alttpj.memeforcehunt.common.value.ItemSprite)
+ */
+public final class PatchPlan {
+
+  private final int offset;
+  private final byte[] baseSpritemapRegion;
+  private final byte[] compressedSpritemap;
+  private final int paletteLocationChest;
+  private final byte paletteIdChest;
+  private final int paletteLocationOverworld;
+  private final byte paletteIdOverworld;
+
+  PatchPlan(final int offset,
+            final byte[] baseSpritemapRegion,
+            final byte[] compressedSpritemap,
+            final int paletteLocationChest,
+            final byte paletteIdChest,
+            final int paletteLocationOverworld,
+            final byte paletteIdOverworld) {
+    if (baseSpritemapRegion.length != AlttpRomPatcher.MAX_SPRITEMAP_SIZE) {
+      throw new IllegalArgumentException("Expected a spritemap region of [" + AlttpRomPatcher.MAX_SPRITEMAP_SIZE + "] bytes, "
+          + "but got [" + baseSpritemapRegion.length + "] bytes.");
+    }
+
+    if (compressedSpritemap.length > AlttpRomPatcher.MAX_SPRITEMAP_SIZE) {
+      throw new IllegalArgumentException(
+          "Skin too large! "
+              + "Max is [" + AlttpRomPatcher.MAX_SPRITEMAP_SIZE + "], "
+              + "but supplied skin contains [" + compressedSpritemap.length + "] bytes.");
+    }
+
+    this.offset = offset;
+    this.baseSpritemapRegion = Arrays.copyOf(baseSpritemapRegion, baseSpritemapRegion.length);
+    this.compressedSpritemap = Arrays.copyOf(compressedSpritemap, compressedSpritemap.length);
+    this.paletteLocationChest = paletteLocationChest;
+    this.paletteIdChest = paletteIdChest;
+    this.paletteLocationOverworld = paletteLocationOverworld;
+    this.paletteIdOverworld = paletteIdOverworld;
+  }
+
+  /**
+   * Checks whether the spritemap region of the given ROM equals the one of the base ROM of this plan.
+   *
+   * @param romStream the ROM to check.
+   * @return {@code true} if this plan can be applied to the ROM.
+   */
+  public boolean matches(final byte[] romStream) {
+    if (romStream.length < getRequiredRomSize()) {
+      return false;
+    }
+
+    return Arrays.equals(
+        romStream, this.offset, this.offset + this.baseSpritemapRegion.length,
+        this.baseSpritemapRegion, 0, this.baseSpritemapRegion.length);
+  }
+
+  /**
+   * Copies the compressed spritemap and the palette bytes into the ROM.
+   *
+   * @param romStream the ROM to patch.
+   * @throws IOException if the spritemap region of the ROM does not match the base ROM of this plan.
+   */
+  public void applyTo(final byte[] romStream) throws IOException {
+    if (!matches(romStream)) {
+      throw new IOException("ROM does not match the base ROM of this patch plan at offset [" + this.offset + "].");
+    }
+
+    System.arraycopy(getPatchedSpritemapRegion(), 0, romStream, this.offset, AlttpRomPatcher.MAX_SPRITEMAP_SIZE);
+    romStream[this.paletteLocationChest] = this.paletteIdChest;
+    romStream[this.paletteLocationOverworld] = this.paletteIdOverworld;
+  }
+
+  /**
+   * Same as {@link #applyTo(byte[])}, but only reads the spritemap region of the ROM file and only writes the changed bytes.
+   *
+   * @param romTarget the ROM file to patch.
+   * @throws IOException if the spritemap region of the ROM does not match the base ROM of this plan,
+   *                     or the ROM cannot be read or written.
+   */
+  public void applyTo(final String romTarget) throws IOException {
+    if (!tryApplyTo(romTarget)) {
+      throw new IOException("ROM [" + romTarget + "] does not match the base ROM of this patch plan at offset [" + this.offset + "].");
+    }
+  }
+
+  /**
+   * Applies this plan to the ROM file if it matches, otherwise leaves the file untouched.
+   *
+   * @param romTarget the ROM file to patch.
+   * @return {@code true} if the ROM matched and was patched.
+   * @throws IOException if the ROM cannot be read or written.
+   */
+  @SuppressFBWarnings(
+      value = "PATH_TRAVERSAL_IN",
+      justification = "patching user supplied ROM file"
+  )
+  public boolean tryApplyTo(final String romTarget) throws IOException {
+    try (final FileChannel romChannel = FileChannel.open(Paths.get(romTarget), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      if (romChannel.size() < getRequiredRomSize()) {
+        return false;
+      }
+
+      final ByteBuffer romRegion = ByteBuffer.allocate(this.baseSpritemapRegion.length);
+      while (romRegion.hasRemaining()) {
+        if (romChannel.read(romRegion, (long) this.offset + romRegion.position()) == -1) {
+          return false;
+        }
+      }
+
+      if (!Arrays.equals(romRegion.array(), this.baseSpritemapRegion)) {
+        return false;
+      }
+
+      writeChangedRange(romChannel);
+      writeByte(romChannel, this.paletteLocationChest, this.paletteIdChest);
+      writeByte(romChannel, this.paletteLocationOverworld, this.paletteIdOverworld);
+
+      return true;
+    }
+  }
+
+  private void writeChangedRange(final FileChannel romChannel) throws IOException {
+    final byte[] patchedRegion = getPatchedSpritemapRegion();
+    final int firstChanged = Arrays.mismatch(this.baseSpritemapRegion, patchedRegion);
+    if (firstChanged == -1) {
+      return;
+    }
+
+    int lastChanged = patchedRegion.length - 1;
+    while (this.baseSpritemapRegion[lastChanged] == patchedRegion[lastChanged]) {
+      lastChanged--;
+    }
+
+    final ByteBuffer changedRange = ByteBuffer.wrap(patchedRegion, firstChanged, lastChanged - firstChanged + 1);
+    while (changedRange.hasRemaining()) {
+      romChannel.write(changedRange, (long) this.offset + changedRange.position());
+    }
+  }
+
+  static void writeByte(final FileChannel romChannel, final long position, final byte value) throws IOException {
+    final ByteBuffer singleByte = ByteBuffer.wrap(new byte[] {value});
+
+    while (singleByte.hasRemaining()) {
+      romChannel.write(singleByte, position);
+    }
+  }
+
+  /**
+   * The spritemap region as it will be written: the compressed spritemap, padded with zeroes.
+   *
+   * @return a new array of {@link AlttpRomPatcher#MAX_SPRITEMAP_SIZE} bytes.
+   */
+  byte[] getPatchedSpritemapRegion() {
+    return Arrays.copyOf(this.compressedSpritemap, AlttpRomPatcher.MAX_SPRITEMAP_SIZE);
+  }
+
+  private long getRequiredRomSize() {
+    return Math.max(
+        (long) this.offset + this.baseSpritemapRegion.length,
+        Math.max(this.paletteLocationChest, this.paletteLocationOverworld) + 1L);
+  }
+
+  public int getOffset() {
+    return this.offset;
+  }
+
+  public byte[] getCompressedSpritemap() {
+    return Arrays.copyOf(this.compressedSpritemap, this.compressedSpritemap.length);
+  }
+
+  public int getPaletteLocationChest() {
+    return this.paletteLocationChest;
+  }
+
+  public byte getPaletteIdChest() {
+    return this.paletteIdChest;
+  }
+
+  public int getPaletteLocationOverworld() {
+    return this.paletteLocationOverworld;
+  }
+
+  public byte getPaletteIdOverworld() {
+    return this.paletteIdOverworld;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", "PatchPlan{", "}")
+        .add("offset=" + this.offset)
+        .add("compressedSpritemap=[" + this.compressedSpritemap.length + " bytes]")
+        .add("paletteLocationChest=" + this.paletteLocationChest)
+        .add("paletteIdChest=" + this.paletteIdChest)
+        .add("paletteLocationOverworld=" + this.paletteLocationOverworld)
+        .add("paletteIdOverworld=" + this.paletteIdOverworld)
+        .toString();
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The outcome of a single {@link PatchJob}.
+ *
+ * @param patchJob the job which was executed.
+ * @param duration the time it took to patch the ROM, successful or not.
+ * @param failure  the exception which made the job fail, or {@code null} if it succeeded.
+ */
+@SuppressFBWarnings(
+    value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"},
+    justification = "the failure is reported as is, copying exceptions is not possible"
+)
+public record PatchResult(PatchJob patchJob, Duration duration, Exception failure) {
+
+  public PatchResult {
+    Objects.requireNonNull(patchJob, "patchJob must not be null.");
+    Objects.requireNonNull(duration, "duration must not be null.");
+  }
+
+  public boolean isSuccessful() {
+    return this.failure == null;
+  }
+
+  public Optional<Exception> getFailure() {
+    return Optional.ofNullable(this.failure);
+  }
+}
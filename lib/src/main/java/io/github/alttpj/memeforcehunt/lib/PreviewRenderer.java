@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.alttpj.memeforcehunt.lib;
+
+import io.github.alttpj.library.image.palette.Palette;
+import io.github.alttpj.library.image.palette.Palette3bpp;
+import io.github.alttpj.memeforcehunt.common.value.ItemPalette;
+import io.github.alttpj.memeforcehunt.common.value.TileSheet;
+
+import java.awt.image.BufferedImage;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Renders the 16x16 preview of an item sprite directly from its four tiles and its {@link ItemPalette}.
+ *
+ * <p>The tiles are laid out top left, top right, bottom left, bottom right, just like the triforce tiles in a
+ * spritemap. Colour 0 of each palette is transparent.</p>
+ */
+public final class PreviewRenderer {
+
+  /**
+   * Width and height of a preview in pixels.
+   */
+  public static final int PREVIEW_SIZE = 2 * Snes3bppTileCodec.TILE_SIZE;
+
+  public static final int TILE_COUNT = 4;
+
+  private static final Map<ItemPalette, int[]> ARGB_PALETTES = createArgbPalettes();
+
+  private PreviewRenderer() {
+    // util
+  }
+
+  private static Map<ItemPalette, int[]> createArgbPalettes() {
+    final Map<ItemPalette, int[]> argbPalettes = new EnumMap<>(ItemPalette.class);
+
+    for (final ItemPalette itemPalette : ItemPalette.values()) {
+      argbPalettes.put(itemPalette, toArgb(getPalette(itemPalette)));
+    }
+
+    return argbPalettes;
+  }
+
+  private static Palette getPalette(final ItemPalette itemPalette) {
+    switch (itemPalette) {
+      case GREEN:
+        return Palette3bpp.GREEN;
+      case BLUE:
+        return Palette3bpp.BLUE;
+      case RED:
+        return Palette3bpp.RED;
+      default:
+        throw new IllegalArgumentException("Unknown palette [" + itemPalette + "].");
+    }
+  }
+
+  private static int[] toArgb(final Palette palette) {
+    final int colorCount = palette.getColors().size();
+    final int[] argb = new int[colorCount];
+
+    // colour 0 stays transparent, just like on the SNES.
+    for (int colorIndex = 1; colorIndex < colorCount; colorIndex++) {
+      final int[] rgba = palette.getColor(colorIndex);
+      final int alpha = rgba[3] == 255 ? 0xFF : 0x00;
+      argb[colorIndex] = alpha << 24 | (rgba[0] & 0xFF) << 16 | (rgba[1] & 0xFF) << 8 | (rgba[2] & 0xFF);
+    }
+
+    return argb;
+  }
+
+  /**
+   * Renders a preview into a new array.
+   *
+   * @param tiles   exactly four tiles.
+   * @param palette the palette of the item.
+   * @return 16x16 pixels in row-major order, as {@code 0xAARRGGBB}.
+   */
+  public static int[] renderArgb(final TileSheet tiles, final ItemPalette palette) {
+    final int[] argb = new int[PREVIEW_SIZE * PREVIEW_SIZE];
+    renderArgb(tiles, palette, argb, 0);
+
+    return argb;
+  }
+
+  /**
+   * Renders a preview into the supplied buffer.
+   *
+   * @param tiles   exactly four tiles.
+   * @param palette the palette of the item.
+   * @param argb    receives 16x16 pixels in row-major order, as {@code 0xAARRGGBB}.
+   * @param offset  the position of the top left pixel within {@code argb}.
+   * @throws IllegalArgumentException  if there are not exactly four tiles.
+   * @throws IndexOutOfBoundsException if {@code argb} is too small.
+   */
+  public static void renderArgb(final TileSheet tiles, final ItemPalette palette, final int[] argb, final int offset) {
+    Objects.requireNonNull(tiles, "tiles");
+    Objects.requireNonNull(palette, "palette");
+    if (tiles.getTileCount() != TILE_COUNT) {
+      throw new IllegalArgumentException("A preview needs exactly four tiles, got [" + tiles.getTileCount() + "].");
+    }
+    Objects.checkFromIndexSize(offset, PREVIEW_SIZE * PREVIEW_SIZE, argb.length);
+
+    final byte[] packed = tiles.toByteArray();
+    final byte[] pixels = new byte[PREVIEW_SIZE * PREVIEW_SIZE];
+    for (int tileIndex = 0; tileIndex < TILE_COUNT; tileIndex++) {
+      Snes3bppTileCodec.decodeTile(packed, tileIndex * TileSheet.BYTES_PER_TILE, pixels, gridOffset(tileIndex), PREVIEW_SIZE);
+    }
+
+    final int[] colors = ARGB_PALETTES.get(palette);
+    for (int pixel = 0; pixel < pixels.length; pixel++) {
+      argb[offset + pixel] = colors[pixels[pixel]];
+    }
+  }
+
+  /**
+   * Renders a preview into a new image.
+   *
+   * @param tiles   exactly four tiles.
+   * @param palette the palette of the item.
+   * @return a 16x16 image of type {@link BufferedImage#TYPE_INT_ARGB}.
+   */
+  public static BufferedImage renderImage(final TileSheet tiles, final ItemPalette palette) {
+    final BufferedImage image = new BufferedImage(PREVIEW_SIZE, PREVIEW_SIZE, BufferedImage.TYPE_INT_ARGB);
+    image.setRGB(0, 0, PREVIEW_SIZE, PREVIEW_SIZE, renderArgb(tiles, palette), 0, PREVIEW_SIZE);
+
+    return image;
+  }
+
+  private static int gridOffset(final int tileIndex) {
+    final int tileRow = tileIndex / 2;
+    final int tileColumn = tileIndex % 2;
+
+    return tileRow * Snes3bppTileCodec.TILE_SIZE * PREVIEW_SIZE + tileColumn * Snes3bppTileCodec.TILE_SIZE;
+  }
+}
@@ -0,0 +1,402 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * An in-memory inverted index over the display name, sprite name, tags, author and description of skins.
+ *
+ * <p>Each query word matches a term of a skin exactly, as a prefix (e.g. {@code pega} for {@code pegasus}), or by
+ * sharing most of its trigrams (e.g. {@code boot} for {@code moonboots} or the typo {@code pegsus}). A skin must
+ * match every query word. Skins are ranked by the weight of the field which matched and by the kind of match.</p>
+ *
+ * <p>Skins can be added and removed at any time, e.g. when a {@link SpriteLibrary} changes, without rebuilding the
+ * whole index. This class is thread-safe.</p>
+ */
+public final class SkinSearchIndex {
+
+  private static final int WEIGHT_DISPLAY_NAME = 8;
+  private static final int WEIGHT_SPRITE_NAME = 6;
+  private static final int WEIGHT_TAG = 4;
+  private static final int WEIGHT_AUTHOR = 3;
+  private static final int WEIGHT_DESCRIPTION = 1;
+
+  private static final double FACTOR_EXACT = 4.0;
+  private static final double FACTOR_PREFIX = 2.0;
+  private static final double FACTOR_TRIGRAM = 1.0;
+
+  private static final int TRIGRAM_LENGTH = 3;
+
+  /**
+   * The share of the trigrams of a query word which must appear in a term.
+   */
+  private static final double MIN_TRIGRAM_SIMILARITY = 0.5;
+
+  /**
+   * Term to the documents containing it, with the highest weight of the fields the term appears in.
+   */
+  private final NavigableMap<String, Postings> postings = new TreeMap<>();
+
+  private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+
+  /**
+   * Documents by id. Ids of removed skins are reused, so score arrays stay as small as the index.
+   */
+  private final List<Document> documents = new ArrayList<>();
+
+  private final Map<SpritemapWithSkin, Integer> documentIds = new HashMap<>();
+
+  private final Deque<Integer> freeDocumentIds = new ArrayDeque<>();
+
+  public SkinSearchIndex() {
+    // empty index.
+  }
+
+  public SkinSearchIndex(final Collection<? extends SpritemapWithSkin> skins) {
+    addAll(skins);
+  }
+
+  /**
+   * Adds a skin, or updates it if it was added before.
+   *
+   * @param skin the skin to add.
+   */
+  public void add(final SpritemapWithSkin skin) {
+    final Map<String, Integer> terms = new HashMap<>();
+    addTerms(terms, skin.getDisplayName(), WEIGHT_DISPLAY_NAME);
+    addTerms(terms, skin.getSpriteName(), WEIGHT_SPRITE_NAME);
+    for (final String tag : skin.getTags()) {
+      addTerms(terms, tag, WEIGHT_TAG);
+    }
+    addTerms(terms, skin.getAuthor(), WEIGHT_AUTHOR);
+    addTerms(terms, skin.getDescription(), WEIGHT_DESCRIPTION);
+    final Document document = new Document(skin, skin.getDisplayName().toLowerCase(Locale.ENGLISH), terms);
+
+    synchronized (this.postings) {
+      removeDocument(skin);
+
+      final int documentId = this.freeDocumentIds.isEmpty() ? this.documents.size() : this.freeDocumentIds.pop();
+      if (documentId == this.documents.size()) {
+        this.documents.add(document);
+      } else {
+        this.documents.set(documentId, document);
+      }
+      this.documentIds.put(skin, documentId);
+
+      for (final Map.Entry<String, Integer> term : terms.entrySet()) {
+        this.postings.computeIfAbsent(term.getKey(), this::addTrigrams).add(documentId, term.getValue());
+      }
+    }
+  }
+
+  public void addAll(final Collection<? extends SpritemapWithSkin> skins) {
+    skins.forEach(this::add);
+  }
+
+  public void remove(final SpritemapWithSkin skin) {
+    synchronized (this.postings) {
+      removeDocument(skin);
+    }
+  }
+
+  public void removeAll(final Collection<? extends SpritemapWithSkin> skins) {
+    synchronized (this.postings) {
+      skins.forEach(this::removeDocument);
+    }
+  }
+
+  /**
+   * Applies a change of a {@link SpriteLibrary}, e.g. from a {@link SpriteLibrary#addListener(java.util.function.Consumer) listener}.
+   *
+   * @param change the removed and added library sprites.
+   */
+  public void apply(final SpriteLibrary.Change change) {
+    removeAll(change.removed());
+    addAll(change.added());
+  }
+
+  /**
+   * Finds the skins matching all words of the query.
+   *
+   * @param query the words to search for, case insensitive.
+   * @param limit the maximum number of results.
+   * @return the matching skins, best match first. Empty if the query contains no words.
+   */
+  public List<SpritemapWithSkin> search(final String query, final int limit) {
+    final Set<String> queryWords = new LinkedHashSet<>(tokenize(query));
+    if (queryWords.isEmpty() || limit < 1) {
+      return List.of();
+    }
+
+    synchronized (this.postings) {
+      final double[] scores = scoreAll(queryWords);
+
+      return topResults(scores, limit);
+    }
+  }
+
+  public List<SpritemapWithSkin> search(final String query) {
+    return search(query, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Sums the scores of all query words. Documents which do not match a word end up with a score of zero.
+   */
+  private double[] scoreAll(final Set<String> queryWords) {
+    double[] scores = null;
+
+    for (final String queryWord : queryWords) {
+      final double[] wordScores = score(queryWord);
+      if (scores == null) {
+        scores = wordScores;
+        continue;
+      }
+
+      for (int documentId = 0; documentId < scores.length; documentId++) {
+        scores[documentId] = scores[documentId] > 0.0 && wordScores[documentId] > 0.0
+            ? scores[documentId] + wordScores[documentId]
+            : 0.0;
+      }
+    }
+
+    return scores;
+  }
+
+  private double[] score(final String queryWord) {
+    final double[] wordScores = new double[this.documents.size()];
+
+    // exact and prefix matches are a contiguous range of the sorted terms.
+    for (final Map.Entry<String, Postings> term
+        : this.postings.subMap(queryWord, true, queryWord + Character.MAX_VALUE, false).entrySet()) {
+      final double factor = term.getKey().equals(queryWord) ? FACTOR_EXACT : FACTOR_PREFIX;
+      term.getValue().addScores(wordScores, factor);
+    }
+
+    if (queryWord.length() < TRIGRAM_LENGTH) {
+      return wordScores;
+    }
+
+    final Set<String> queryTrigrams = trigrams(queryWord);
+    final Map<String, Integer> sharedTrigrams = new HashMap<>();
+    for (final String trigram : queryTrigrams) {
+      for (final String term : this.termsByTrigram.getOrDefault(trigram, Set.of())) {
+        sharedTrigrams.merge(term, 1, Integer::sum);
+      }
+    }
+
+    for (final Map.Entry<String, Integer> candidate : sharedTrigrams.entrySet()) {
+      final double similarity = (double) candidate.getValue() / queryTrigrams.size();
+      if (similarity >= MIN_TRIGRAM_SIMILARITY) {
+        this.postings.get(candidate.getKey()).addScores(wordScores, FACTOR_TRIGRAM * similarity);
+      }
+    }
+
+    return wordScores;
+  }
+
+  /**
+   * Keeps only the best {@code limit} documents in a heap, instead of sorting all matches.
+   */
+  private List<SpritemapWithSkin> topResults(final double[] scores, final int limit) {
+    final Comparator<Integer> ranking = Comparator.<Integer>comparingDouble(documentId -> scores[documentId])
+        .reversed()
+        .thenComparing(documentId -> this.documents.get(documentId).sortKey());
+    final PriorityQueue<Integer> worstFirst = new PriorityQueue<>(ranking.reversed());
+
+    for (int documentId = 0; documentId < scores.length; documentId++) {
+      if (scores[documentId] <= 0.0) {
+        continue;
+      }
+
+      worstFirst.add(documentId);
+      if (worstFirst.size() > limit) {
+        worstFirst.poll();
+      }
+    }
+
+    final List<Integer> best = new ArrayList<>(worstFirst);
+    best.sort(ranking);
+
+    return best.stream()
+        .map(documentId -> this.documents.get(documentId).skin())
+        .collect(Collectors.toList());
+  }
+
+  private void removeDocument(final SpritemapWithSkin skin) {
+    final Integer documentId = this.documentIds.remove(skin);
+    if (documentId == null) {
+      return;
+    }
+
+    for (final String term : this.documents.get(documentId).terms().keySet()) {
+      final Postings termPostings = this.postings.get(term);
+      termPostings.remove(documentId);
+
+      if (termPostings.isEmpty()) {
+        this.postings.remove(term);
+        removeTrigrams(term);
+      }
+    }
+
+    this.documents.set(documentId, null);
+    this.freeDocumentIds.push(documentId);
+  }
+
+  private Postings addTrigrams(final String term) {
+    for (final String trigram : trigrams(term)) {
+      this.termsByTrigram.computeIfAbsent(trigram, key -> new HashSet<>()).add(term);
+    }
+
+    return new Postings();
+  }
+
+  private void removeTrigrams(final String term) {
+    for (final String trigram : trigrams(term)) {
+      final Set<String> terms = this.termsByTrigram.get(trigram);
+      terms.remove(term);
+
+      if (terms.isEmpty()) {
+        this.termsByTrigram.remove(trigram);
+      }
+    }
+  }
+
+  private static void addTerms(final Map<String, Integer> terms, final String text, final int weight) {
+    for (final String term : tokenize(text)) {
+      terms.merge(term, weight, Math::max);
+    }
+  }
+
+  /**
+   * Splits the text into lower case words, at every character which is neither a letter nor a digit.
+   */
+  static List<String> tokenize(final String text) {
+    if (text == null) {
+      return List.of();
+    }
+
+    final List<String> words = new ArrayList<>();
+    final String lowerCase = text.toLowerCase(Locale.ENGLISH);
+    int wordStart = -1;
+
+    for (int pos = 0; pos <= lowerCase.length(); pos++) {
+      final boolean wordCharacter = pos < lowerCase.length() && Character.isLetterOrDigit(lowerCase.charAt(pos));
+      if (wordCharacter && wordStart == -1) {
+        wordStart = pos;
+      } else if (!wordCharacter && wordStart != -1) {
+        words.add(lowerCase.substring(wordStart, pos));
+        wordStart = -1;
+      }
+    }
+
+    return words;
+  }
+
+  private static Set<String> trigrams(final String term) {
+    final Set<String> trigrams = new HashSet<>();
+
+    for (int pos = 0; pos + TRIGRAM_LENGTH <= term.length(); pos++) {
+      trigrams.add(term.substring(pos, pos + TRIGRAM_LENGTH));
+    }
+
+    return trigrams;
+  }
+
+  public int size() {
+    synchronized (this.postings) {
+      return this.documentIds.size();
+    }
+  }
+
+  @Override
+  public String toString() {
+    synchronized (this.postings) {
+      return new StringJoiner(", ", "SkinSearchIndex{", "}")
+          .add("skins=" + this.documentIds.size())
+          .add("terms=" + this.postings.size())
+          .add("trigrams=" + this.termsByTrigram.size())
+          .toString();
+    }
+  }
+
+  private record Document(SpritemapWithSkin skin, String sortKey, Map<String, Integer> terms) {
+  }
+
+  /**
+   * The ids of the documents containing a term, with the weight of the term in each document.
+   */
+  private static final class Postings {
+
+    private int[] documentIds = new int[4];
+    private int[] weights = new int[4];
+    private int size;
+
+    private void add(final int documentId, final int weight) {
+      if (this.size == this.documentIds.length) {
+        this.documentIds = Arrays.copyOf(this.documentIds, this.size * 2);
+        this.weights = Arrays.copyOf(this.weights, this.size * 2);
+      }
+
+      this.documentIds[this.size] = documentId;
+      this.weights[this.size] = weight;
+      this.size++;
+    }
+
+    private void remove(final int documentId) {
+      for (int pos = 0; pos < this.size; pos++) {
+        if (this.documentIds[pos] == documentId) {
+          // order does not matter, so the last entry fills the gap.
+          this.size--;
+          this.documentIds[pos] = this.documentIds[this.size];
+          this.weights[pos] = this.weights[this.size];
+          return;
+        }
+      }
+    }
+
+    private boolean isEmpty() {
+      return this.size == 0;
+    }
+
+    private void addScores(final double[] scores, final double factor) {
+      for (int pos = 0; pos < this.size; pos++) {
+        final int documentId = this.documentIds[pos];
+        scores[documentId] = Math.max(scores[documentId], this.weights[pos] * factor);
+      }
+    }
+  }
+}
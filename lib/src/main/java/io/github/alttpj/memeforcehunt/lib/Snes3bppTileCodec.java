@@ -0,0 +1,210 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import io.github.alttpj.memeforcehunt.common.value.TileSheet;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * Converts between packed (planar) SNES 3bpp tiles and unpacked (chunky) palette indices, one byte per pixel.
+ *
+ * <p>A packed tile is 24 bytes: rows 0-7 of bitplanes 0 and 1 interleaved in the first 16 bytes, followed by
+ * the 8 rows of bitplane 2. The leftmost pixel is the most significant bit. This is the same layout as
+ * {@code SnesTilePacker} and {@code SnesTileUnpacker} of the alttpj library, but all methods write into
+ * caller-provided arrays at arbitrary offsets and never allocate.</p>
+ *
+ * <p>Decoding looks up each bitplane byte in a 256-entry table which spreads its 8 bits into the lowest bit
+ * of 8 bytes, so one row of 8 pixels is three lookups, two shifts and a single 8-byte store.
+ * Encoding gathers one bit of each of the 8 pixels of a row with a single multiplication per plane.</p>
+ */
+public final class Snes3bppTileCodec {
+
+  public static final int BYTES_PER_TILE = TileSheet.BYTES_PER_TILE;
+
+  /**
+   * Width and height of a tile in pixels.
+   */
+  public static final int TILE_SIZE = 8;
+
+  public static final int PIXELS_PER_TILE = TILE_SIZE * TILE_SIZE;
+
+  /**
+   * Offset of bitplane 2 within a packed tile.
+   */
+  private static final int THIRD_PLANE_OFFSET = 16;
+
+  private static final long LOWEST_BIT_PER_BYTE = 0x0101010101010101L;
+
+  private static final long THREE_BITS_PER_BYTE = 0x0707070707070707L;
+
+  /**
+   * Moves the lowest bit of byte n to bit 63 - n, i.e. pixel 0 to the most significant bit of the top byte.
+   */
+  private static final long GATHER_MULTIPLIER = 0x8040201008040201L;
+
+  /**
+   * Little endian, so that pixel 0 is the lowest byte of a row.
+   */
+  private static final VarHandle ROW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+  /**
+   * Bit {@code 7 - n} of the index is moved to the lowest bit of byte {@code n}.
+   */
+  private static final long[] BIT_SPREAD = createBitSpreadTable();
+
+  private Snes3bppTileCodec() {
+    // util
+  }
+
+  /**
+   * Decodes one packed tile into 8 consecutive rows of 8 pixels.
+   *
+   * @param packed       the packed tiles.
+   * @param packedOffset the offset of the tile in {@code packed}.
+   * @param pixels       receives one palette index (0-7) per pixel.
+   * @param pixelOffset  the offset of the top left pixel in {@code pixels}.
+   */
+  public static void decodeTile(final byte[] packed, final int packedOffset, final byte[] pixels, final int pixelOffset) {
+    decodeTile(packed, packedOffset, pixels, pixelOffset, TILE_SIZE);
+  }
+
+  /**
+   * Decodes one packed tile into a larger row-major image.
+   *
+   * @param packed       the packed tiles.
+   * @param packedOffset the offset of the tile in {@code packed}.
+   * @param pixels       receives one palette index (0-7) per pixel.
+   * @param pixelOffset  the offset of the top left pixel in {@code pixels}.
+   * @param stride       the width of a row in {@code pixels}, at least {@link #TILE_SIZE}.
+   */
+  public static void decodeTile(final byte[] packed, final int packedOffset,
+                                final byte[] pixels, final int pixelOffset, final int stride) {
+    checkTile(packed, packedOffset, pixels, pixelOffset, stride);
+
+    for (int row = 0; row < TILE_SIZE; row++) {
+      final long plane0 = BIT_SPREAD[packed[packedOffset + 2 * row] & 0xFF];
+      final long plane1 = BIT_SPREAD[packed[packedOffset + 2 * row + 1] & 0xFF];
+      final long plane2 = BIT_SPREAD[packed[packedOffset + THIRD_PLANE_OFFSET + row] & 0xFF];
+
+      ROW.set(pixels, pixelOffset + row * stride, plane0 | plane1 << 1 | plane2 << 2);
+    }
+  }
+
+  /**
+   * Decodes consecutive packed tiles into consecutive 8x8 pixel tiles.
+   *
+   * @param packed       the packed tiles.
+   * @param packedOffset the offset of the first tile in {@code packed}.
+   * @param pixels       receives {@link #PIXELS_PER_TILE} palette indices per tile.
+   * @param pixelOffset  the offset of the first pixel in {@code pixels}.
+   * @param tileCount    the number of tiles to decode.
+   */
+  public static void decodeTiles(final byte[] packed, final int packedOffset,
+                                 final byte[] pixels, final int pixelOffset, final int tileCount) {
+    for (int tileIndex = 0; tileIndex < tileCount; tileIndex++) {
+      decodeTile(packed, packedOffset + tileIndex * BYTES_PER_TILE, pixels, pixelOffset + tileIndex * PIXELS_PER_TILE);
+    }
+  }
+
+  /**
+   * Encodes 8 consecutive rows of 8 pixels into one packed tile.
+   *
+   * @param pixels       palette indices, one per pixel. Only the lowest 3 bits are used.
+   * @param pixelOffset  the offset of the top left pixel in {@code pixels}.
+   * @param packed       receives the packed tile.
+   * @param packedOffset the offset of the tile in {@code packed}.
+   */
+  public static void encodeTile(final byte[] pixels, final int pixelOffset, final byte[] packed, final int packedOffset) {
+    encodeTile(pixels, pixelOffset, TILE_SIZE, packed, packedOffset);
+  }
+
+  /**
+   * Encodes an 8x8 area of a larger row-major image into one packed tile.
+   *
+   * @param pixels       palette indices, one per pixel. Only the lowest 3 bits are used.
+   * @param pixelOffset  the offset of the top left pixel in {@code pixels}.
+   * @param stride       the width of a row in {@code pixels}, at least {@link #TILE_SIZE}.
+   * @param packed       receives the packed tile.
+   * @param packedOffset the offset of the tile in {@code packed}.
+   */
+  public static void encodeTile(final byte[] pixels, final int pixelOffset, final int stride,
+                                final byte[] packed, final int packedOffset) {
+    checkTile(packed, packedOffset, pixels, pixelOffset, stride);
+
+    for (int row = 0; row < TILE_SIZE; row++) {
+      final long rowPixels = (long) ROW.get(pixels, pixelOffset + row * stride) & THREE_BITS_PER_BYTE;
+
+      packed[packedOffset + 2 * row] = gatherPlane(rowPixels);
+      packed[packedOffset + 2 * row + 1] = gatherPlane(rowPixels >>> 1);
+      packed[packedOffset + THIRD_PLANE_OFFSET + row] = gatherPlane(rowPixels >>> 2);
+    }
+  }
+
+  /**
+   * Encodes consecutive 8x8 pixel tiles into consecutive packed tiles.
+   *
+   * @param pixels       palette indices, {@link #PIXELS_PER_TILE} per tile. Only the lowest 3 bits are used.
+   * @param pixelOffset  the offset of the first pixel in {@code pixels}.
+   * @param packed       receives {@link #BYTES_PER_TILE} bytes per tile.
+   * @param packedOffset the offset of the first tile in {@code packed}.
+   * @param tileCount    the number of tiles to encode.
+   */
+  public static void encodeTiles(final byte[] pixels, final int pixelOffset,
+                                 final byte[] packed, final int packedOffset, final int tileCount) {
+    for (int tileIndex = 0; tileIndex < tileCount; tileIndex++) {
+      encodeTile(pixels, pixelOffset + tileIndex * PIXELS_PER_TILE, packed, packedOffset + tileIndex * BYTES_PER_TILE);
+    }
+  }
+
+  /**
+   * Collects the lowest bit of each of the 8 bytes, byte 0 becoming the most significant bit.
+   */
+  private static byte gatherPlane(final long rowPixels) {
+    return (byte) (((rowPixels & LOWEST_BIT_PER_BYTE) * GATHER_MULTIPLIER) >>> 56);
+  }
+
+  private static void checkTile(final byte[] packed, final int packedOffset,
+                                final byte[] pixels, final int pixelOffset, final int stride) {
+    Objects.requireNonNull(packed, "packed may not be null");
+    Objects.requireNonNull(pixels, "pixels may not be null");
+
+    if (stride < TILE_SIZE) {
+      throw new IllegalArgumentException("stride must be at least [" + TILE_SIZE + "], but was [" + stride + "].");
+    }
+
+    Objects.checkFromIndexSize(packedOffset, BYTES_PER_TILE, packed.length);
+    Objects.checkFromIndexSize(pixelOffset, (TILE_SIZE - 1) * stride + TILE_SIZE, pixels.length);
+  }
+
+  private static long[] createBitSpreadTable() {
+    final long[] table = new long[256];
+
+    for (int index = 0; index < table.length; index++) {
+      long spread = 0L;
+      for (int pixel = 0; pixel < TILE_SIZE; pixel++) {
+        spread |= (long) ((index >>> (7 - pixel)) & 1) << (pixel * 8);
+      }
+      table[index] = spread;
+    }
+
+    return table;
+  }
+}
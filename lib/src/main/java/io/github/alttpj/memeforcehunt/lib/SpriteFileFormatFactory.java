@@ -42,6 +42,11 @@ public final class SpriteFileFormatFactory {
 
   private static final ObjectMapper YAML = YamlProvider.getObjectMapper();
 
+  /**
+   * Shared, so that sprites created in a batch get distinct and ordered ids.
+   */
+  private static final ULID.MonotonicGenerator ULIDS = new ULID.MonotonicGenerator();
+
   private SpriteFileFormatFactory() {
     // util
   }
@@ -74,7 +79,7 @@ public final class SpriteFileFormatFactory {
   }
 
   public static SpriteFileFormat create(final String displayName, final String authorName, final byte[] data, final Palette palette) {
-    return create(new ULID().nextValue(), displayName, authorName, data, palette, null, emptyList());
+    return create(ULIDS.nextValue(), displayName, authorName, data, palette, null, emptyList());
   }
 
   public static SpriteFileFormat create(final ULID.Value ulid,
@@ -0,0 +1,585 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import io.github.alttpj.memeforcehunt.common.value.ItemPalette;
+import io.github.alttpj.memeforcehunt.common.value.PreviewImageCache;
+import io.github.alttpj.memeforcehunt.common.value.ULID;
+import io.github.alttpj.memeforcehunt.lib.impl.YamlProvider;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The user sprites ({@code *.zspr.yaml} files) found in one or more library directories.
+ *
+ * <p>The metadata of all sprites is persisted in an index file. {@link #scan()} walks the directories and checks
+ * the files in parallel, but only parses files whose size or modification time differ from the index. After that,
+ * {@link #watch()} keeps the library current using a {@link WatchService}, again only parsing changed files.</p>
+ *
+ * <p>The index also stores the {@link ContentHash} of every sprite. Sprites with identical content share a single
+ * compressed spritemap in the {@link #getContentStore() content store} of this library.</p>
+ *
+ * <p>This class is thread-safe.</p>
+ */
+public final class SpriteLibrary implements Closeable {
+
+  public static final String SPRITE_FILE_SUFFIX = ".zspr.yaml";
+
+  private static final Logger LOG = Logger.getLogger(SpriteLibrary.class.getCanonicalName());
+
+  private static final ObjectMapper YAML = YamlProvider.getObjectMapper();
+
+  private static final int INDEX_VERSION = 2;
+
+  /**
+   * Editors usually write a file in several steps, so events are collected for a short while before refreshing.
+   */
+  private static final long WATCH_SETTLE_MILLIS = 100L;
+
+  private static final Comparator<LibrarySpritemapWithSkin> DISPLAY_ORDER =
+      Comparator.comparing((LibrarySpritemapWithSkin skin) -> skin.getDisplayName().toLowerCase(Locale.ENGLISH))
+          .thenComparing(LibrarySpritemapWithSkin::getSpriteFile);
+
+  private final List<Path> directories;
+  private final Path indexFile;
+  private final Map<Path, Item> items = new HashMap<>();
+  private final List<Consumer<Change>> listeners = new CopyOnWriteArrayList<>();
+  private final SpritemapContentStore contentStore = new SpritemapContentStore();
+  private volatile List<LibrarySpritemapWithSkin> sprites = List.of();
+  private WatchService watchService;
+
+  /**
+   * Creates an empty library. Call {@link #scan()} to find the sprites.
+   *
+   * @param directories the directories to search for {@code *.zspr.yaml} files, including their subdirectories.
+   * @param indexFile   the file which stores the metadata of all sprites between runs.
+   */
+  public SpriteLibrary(final List<Path> directories, final Path indexFile) {
+    this.directories = List.copyOf(directories);
+    this.indexFile = Objects.requireNonNull(indexFile, "indexFile must not be null.");
+  }
+
+  /**
+   * Finds all sprites in the library directories, replacing the previous contents of this library.
+   *
+   * <p>Missing directories are skipped, as are files which cannot be parsed.</p>
+   *
+   * @return the number of files which had to be parsed, i.e. which were not in the index or have changed.
+   * @throws IOException if a directory cannot be walked.
+   */
+  public int scan() throws IOException {
+    final Map<String, IndexEntry> persisted = readIndex();
+    final LongAdder parsed = new LongAdder();
+
+    final Map<Path, Item> scanned = findSpriteFiles().parallelStream()
+        .map(spriteFile -> load(spriteFile, persisted.get(spriteFile.toString()), parsed))
+        .flatMap(Optional::stream)
+        .collect(Collectors.toMap(Item::spriteFile, Function.identity()));
+
+    final Change change;
+    synchronized (this.items) {
+      final List<LibrarySpritemapWithSkin> removed = new ArrayList<>();
+      for (final Item item : this.items.values()) {
+        if (scanned.get(item.spriteFile()) != item) {
+          removed.add(item.skin());
+        }
+      }
+      final List<LibrarySpritemapWithSkin> added = scanned.values().stream()
+          .filter(item -> this.items.get(item.spriteFile()) != item)
+          .map(Item::skin)
+          .collect(Collectors.toList());
+
+      this.items.clear();
+      this.items.putAll(scanned);
+      change = update(removed, added);
+    }
+
+    fire(change);
+
+    return parsed.intValue();
+  }
+
+  /**
+   * Starts watching the library directories on a daemon thread, until this library is {@link #close() closed}.
+   *
+   * <p>Changed and new files are parsed and deleted files are removed. Listeners are notified after each change.</p>
+   *
+   * @throws IOException if the directories cannot be watched.
+   */
+  public void watch() throws IOException {
+    synchronized (this.items) {
+      if (this.watchService != null) {
+        return;
+      }
+
+      final WatchService newWatchService = FileSystems.getDefault().newWatchService();
+      for (final Path directory : this.directories) {
+        if (Files.isDirectory(directory)) {
+          registerTree(newWatchService, directory);
+        }
+      }
+      this.watchService = newWatchService;
+
+      final Thread watcherThread = new Thread(() -> processEvents(newWatchService), "sprite-library-watcher");
+      watcherThread.setDaemon(true);
+      watcherThread.start();
+    }
+  }
+
+  private void processEvents(final WatchService events) {
+    try {
+      while (true) {
+        final Set<Path> changed = new HashSet<>();
+        boolean overflow = false;
+
+        // block for the first event, then collect the following ones until the directories settle.
+        WatchKey watchKey = events.take();
+        while (watchKey != null) {
+          overflow |= collectChanges(events, watchKey, changed);
+          watchKey.reset();
+          watchKey = events.poll(WATCH_SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        if (overflow) {
+          scan();
+        } else {
+          refresh(changed);
+        }
+      }
+    } catch (final ClosedWatchServiceException | InterruptedException stopped) {
+      LOG.log(Level.FINE, () -> "Stopped watching " + this.directories + ".");
+    } catch (final IOException | RuntimeException watchException) {
+      LOG.log(Level.WARNING, watchException, () -> "Stopped watching " + this.directories + " after an error.");
+    }
+  }
+
+  private boolean collectChanges(final WatchService events, final WatchKey watchKey, final Set<Path> changed) throws IOException {
+    boolean overflow = false;
+    final Path directory = (Path) watchKey.watchable();
+
+    for (final WatchEvent<?> event : watchKey.pollEvents()) {
+      if (event.kind() == OVERFLOW) {
+        overflow = true;
+        continue;
+      }
+
+      final Path child = directory.resolve((Path) event.context());
+      if (event.kind() == ENTRY_CREATE && Files.isDirectory(child)) {
+        // files may have been created before the new directory was registered.
+        registerTree(events, child);
+        changed.addAll(findSpriteFiles(child));
+        continue;
+      }
+
+      changed.add(child);
+    }
+
+    return overflow;
+  }
+
+  /**
+   * Parses the given files again. Paths which no longer exist are removed, for directories all files below them.
+   */
+  private void refresh(final Collection<Path> changedPaths) {
+    final Map<Path, IndexEntry> known = new HashMap<>();
+    synchronized (this.items) {
+      this.items.values().forEach(item -> known.put(item.spriteFile(), item.indexEntry()));
+    }
+
+    final List<Item> loaded = changedPaths.parallelStream()
+        .filter(SpriteLibrary::isSpriteFile)
+        .filter(Files::isRegularFile)
+        .map(spriteFile -> load(spriteFile, known.get(spriteFile), new LongAdder()))
+        .flatMap(Optional::stream)
+        .collect(Collectors.toList());
+
+    final Change change;
+    synchronized (this.items) {
+      final List<LibrarySpritemapWithSkin> removed = new ArrayList<>();
+      final List<LibrarySpritemapWithSkin> added = new ArrayList<>();
+
+      for (final Path changedPath : changedPaths) {
+        if (Files.exists(changedPath)) {
+          continue;
+        }
+
+        this.items.entrySet().removeIf(entry -> {
+          if (!entry.getKey().startsWith(changedPath)) {
+            return false;
+          }
+
+          removed.add(entry.getValue().skin());
+          return true;
+        });
+      }
+
+      for (final Item item : loaded) {
+        final Item replaced = this.items.put(item.spriteFile(), item);
+        if (replaced == item) {
+          continue;
+        }
+
+        if (replaced != null) {
+          removed.add(replaced.skin());
+        }
+        added.add(item.skin());
+      }
+
+      change = update(removed, added);
+    }
+
+    fire(change);
+  }
+
+  /**
+   * Loads a single file, reusing the current or persisted metadata if the file did not change.
+   */
+  private Optional<Item> load(final Path spriteFile, final IndexEntry knownEntry, final LongAdder parsed) {
+    try {
+      final BasicFileAttributes attributes = Files.readAttributes(spriteFile, BasicFileAttributes.class);
+
+      synchronized (this.items) {
+        final Item current = this.items.get(spriteFile);
+        if (current != null && current.indexEntry().matches(attributes)) {
+          return Optional.of(current);
+        }
+      }
+
+      if (knownEntry != null && knownEntry.matches(attributes)) {
+        return Optional.of(new Item(spriteFile, knownEntry, knownEntry.toSkin(spriteFile, this.contentStore)));
+      }
+
+      final SpriteFileFormat spriteFileFormat = SpriteFileFormatFactory.fromFile(spriteFile.toFile());
+      parsed.increment();
+      final IndexEntry indexEntry = IndexEntry.of(spriteFile, attributes, spriteFileFormat);
+
+      return Optional.of(new Item(spriteFile, indexEntry, indexEntry.toSkin(spriteFile, this.contentStore)));
+    } catch (final IOException | RuntimeException loadException) {
+      LOG.log(Level.WARNING, loadException, () -> "Unable to load sprite [" + spriteFile + "].");
+
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Must be called while holding the lock on {@link #items}.
+   */
+  private Change update(final List<LibrarySpritemapWithSkin> removed, final List<LibrarySpritemapWithSkin> added) {
+    for (final LibrarySpritemapWithSkin removedSkin : removed) {
+      PreviewImageCache.getDefault().invalidate(removedSkin.getId());
+    }
+
+    this.sprites = this.items.values().stream()
+        .map(Item::skin)
+        .sorted(DISPLAY_ORDER)
+        .collect(Collectors.toUnmodifiableList());
+    this.contentStore.retainAll(this.sprites.stream().map(LibrarySpritemapWithSkin::getContentHash).collect(Collectors.toSet()));
+
+    if (!removed.isEmpty() || !added.isEmpty()) {
+      writeIndex();
+    }
+
+    return new Change(List.copyOf(removed), List.copyOf(added));
+  }
+
+  private void fire(final Change change) {
+    if (change.isEmpty()) {
+      return;
+    }
+
+    for (final Consumer<Change> listener : this.listeners) {
+      listener.accept(change);
+    }
+  }
+
+  private List<Path> findSpriteFiles() throws IOException {
+    final List<Path> spriteFiles = new ArrayList<>();
+
+    for (final Path directory : this.directories) {
+      if (!Files.isDirectory(directory)) {
+        LOG.log(Level.FINE, () -> "Skipping missing library directory [" + directory + "].");
+        continue;
+      }
+
+      spriteFiles.addAll(findSpriteFiles(directory));
+    }
+
+    return spriteFiles;
+  }
+
+  @SuppressFBWarnings(
+      value = "PATH_TRAVERSAL_IN",
+      justification = "user configured library directory"
+  )
+  private static List<Path> findSpriteFiles(final Path directory) throws IOException {
+    try (final Stream<Path> candidates = Files.walk(directory)) {
+      return candidates
+          .filter(SpriteLibrary::isSpriteFile)
+          .filter(Files::isRegularFile)
+          .map(Path::toAbsolutePath)
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static boolean isSpriteFile(final Path path) {
+    final Path fileName = path.getFileName();
+
+    return fileName != null && fileName.toString().endsWith(SPRITE_FILE_SUFFIX);
+  }
+
+  private static void registerTree(final WatchService events, final Path directory) throws IOException {
+    try (final Stream<Path> subdirectories = Files.walk(directory)) {
+      for (final Path subdirectory : (Iterable<Path>) subdirectories.filter(Files::isDirectory)::iterator) {
+        subdirectory.toAbsolutePath().register(events, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+      }
+    }
+  }
+
+  private Map<String, IndexEntry> readIndex() {
+    if (!Files.isRegularFile(this.indexFile)) {
+      return Map.of();
+    }
+
+    try {
+      final IndexFile index = YAML.readValue(this.indexFile.toFile(), IndexFile.class);
+      if (index == null || index.version() != INDEX_VERSION || index.entries() == null) {
+        return Map.of();
+      }
+
+      return index.entries().stream().collect(Collectors.toMap(IndexEntry::path, Function.identity(), (first, second) -> second));
+    } catch (final IOException ioException) {
+      LOG.log(Level.WARNING, ioException, () -> "Unable to read library index [" + this.indexFile + "], rescanning all files.");
+
+      return Map.of();
+    }
+  }
+
+  /**
+   * Writes the index to a temporary file first, so a crash never leaves a truncated index behind.
+   */
+  private void writeIndex() {
+    final List<IndexEntry> entries = this.items.values().stream()
+        .map(Item::indexEntry)
+        .sorted(Comparator.comparing(IndexEntry::path))
+        .collect(Collectors.toList());
+
+    try {
+      final Path parent = this.indexFile.toAbsolutePath().getParent();
+      Files.createDirectories(parent);
+      final Path temporaryIndex = Files.createTempFile(parent, "library-index", ".tmp");
+
+      try (final OutputStream indexOutput = Files.newOutputStream(temporaryIndex)) {
+        YAML.writeValue(indexOutput, new IndexFile(INDEX_VERSION, entries));
+      }
+
+      try {
+        Files.move(temporaryIndex, this.indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (final AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+        Files.move(temporaryIndex, this.indexFile, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (final IOException ioException) {
+      LOG.log(Level.WARNING, ioException, () -> "Unable to write library index [" + this.indexFile + "].");
+    }
+  }
+
+  /**
+   * Registers a listener which is called after sprites were added, changed or removed.
+   *
+   * <p>Listeners are called from the thread which scanned the library or from the watcher thread.</p>
+   *
+   * @param listener the listener.
+   */
+  public void addListener(final Consumer<Change> listener) {
+    this.listeners.add(Objects.requireNonNull(listener, "listener must not be null."));
+  }
+
+  public void removeListener(final Consumer<Change> listener) {
+    this.listeners.remove(listener);
+  }
+
+  /**
+   * The sprites of this library, sorted by display name.
+   *
+   * @return an immutable snapshot.
+   */
+  @SuppressFBWarnings(
+      value = "EI_EXPOSE_REP",
+      justification = "the snapshot is immutable"
+  )
+  public List<LibrarySpritemapWithSkin> values() {
+    return this.sprites;
+  }
+
+  /**
+   * The store holding the spritemaps of this library, one per distinct {@link ContentHash}.
+   *
+   * @return the content store.
+   */
+  public SpritemapContentStore getContentStore() {
+    return this.contentStore;
+  }
+
+  public List<Path> getDirectories() {
+    return this.directories;
+  }
+
+  public Path getIndexFile() {
+    return this.indexFile;
+  }
+
+  /**
+   * Stops watching the library directories.
+   *
+   * @throws IOException if the watch service cannot be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized (this.items) {
+      if (this.watchService != null) {
+        this.watchService.close();
+        this.watchService = null;
+      }
+    }
+  }
+
+  /**
+   * The sprites which were removed from and added to the library. A changed file appears in both lists.
+   *
+   * @param removed the sprites which are no longer part of the library.
+   * @param added   the new sprites.
+   */
+  public record Change(List<LibrarySpritemapWithSkin> removed, List<LibrarySpritemapWithSkin> added) {
+
+    public boolean isEmpty() {
+      return this.removed.isEmpty() && this.added.isEmpty();
+    }
+  }
+
+  private record Item(Path spriteFile, IndexEntry indexEntry, LibrarySpritemapWithSkin skin) {
+  }
+
+  /**
+   * The persisted index file.
+   */
+  record IndexFile(int version, List<IndexEntry> entries) {
+  }
+
+  /**
+   * The metadata of a single sprite file, as persisted in the index.
+   */
+  record IndexEntry(String path,
+                    long lastModified,
+                    long size,
+                    String ulid,
+                    String displayName,
+                    String author,
+                    String description,
+                    String palette,
+                    List<String> tags,
+                    String contentHash) {
+
+    static IndexEntry of(final Path spriteFile, final BasicFileAttributes attributes, final SpriteFileFormat spriteFileFormat) {
+      return new IndexEntry(
+          spriteFile.toString(),
+          attributes.lastModifiedTime().toMillis(),
+          attributes.size(),
+          spriteFileFormat.ulid().toString(),
+          spriteFileFormat.displayName(),
+          spriteFileFormat.authorName(),
+          spriteFileFormat.description().orElse(null),
+          spriteFileFormat.colorPaletteName(),
+          spriteFileFormat.tags(),
+          hash(spriteFileFormat).toString());
+    }
+
+    private static ContentHash hash(final SpriteFileFormat spriteFileFormat) {
+      final ItemPalette palette = toItemPalette(spriteFileFormat.colorPaletteName());
+
+      return ContentHash.of(spriteFileFormat.data(), palette.getPaletteIdChest(), palette.getPaletteIdOverworld());
+    }
+
+    boolean matches(final BasicFileAttributes attributes) {
+      return this.lastModified == attributes.lastModifiedTime().toMillis() && this.size == attributes.size();
+    }
+
+    LibrarySpritemapWithSkin toSkin(final Path spriteFile, final SpritemapContentStore contentStore) {
+      final String fileName = spriteFile.getFileName().toString();
+      final String spriteName = fileName.substring(0, fileName.length() - SPRITE_FILE_SUFFIX.length());
+
+      return new LibrarySpritemapWithSkin(
+          ULID.parseULID(this.ulid),
+          spriteName,
+          this.displayName,
+          this.description,
+          this.author,
+          toItemPalette(this.palette),
+          spriteFile,
+          this.tags == null ? List.of() : this.tags,
+          ContentHash.parse(this.contentHash),
+          contentStore);
+    }
+
+    private static ItemPalette toItemPalette(final String paletteName) {
+      try {
+        return ItemPalette.valueOf(paletteName);
+      } catch (final IllegalArgumentException | NullPointerException invalidPalette) {
+        // just like SpriteFileFormat#colorPaletteName().
+        return ItemPalette.GREEN;
+      }
+    }
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import io.github.alttpj.memeforcehunt.lib.compress.Lz2Decompressor;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+
+/**
+ * A bounded LRU cache of decompressed spritemaps, keyed by the CRC32C of the compressed spritemap region.
+ *
+ * <p>Most ROMs share only a few base spritemaps, so the result of decompressing a region is cached.
+ * On a hash collision the stored compressed region is compared as well, so a colliding region is never
+ * served the wrong spritemap. Callers always get a fresh copy they are free to modify.</p>
+ *
+ * <p>This class is thread-safe.</p>
+ */
+@SuppressFBWarnings(
+    value = {"MS_EXPOSE_REP", "SING_SINGLETON_HAS_NONPRIVATE_CONSTRUCTOR"},
+    justification = "the default cache is shared on purpose, but callers may still create their own caches"
+)
+public final class SpritemapCache {
+
+  public static final int DEFAULT_CAPACITY = 32;
+
+  private static final SpritemapCache DEFAULT_CACHE = new SpritemapCache(DEFAULT_CAPACITY);
+
+  private final int capacity;
+  private final Map<Long, Entry> entries;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public SpritemapCache(final int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be at least 1, but was [" + capacity + "].");
+    }
+
+    this.capacity = capacity;
+    this.entries = createLruMap(capacity);
+  }
+
+  private static Map<Long, Entry> createLruMap(final int capacity) {
+    return new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Long, Entry> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * The cache shared by all {@link AlttpRomPatcher}s unless configured otherwise.
+   *
+   * @return the default cache.
+   */
+  public static SpritemapCache getDefault() {
+    return DEFAULT_CACHE;
+  }
+
+  /**
+   * Returns the decompressed spritemap for the given compressed region, decompressing it only on a cache miss.
+   *
+   * @param compressedRegion the compressed spritemap, e.g. the {@code 1023} bytes at the spritemap offset of a ROM.
+   * @return a copy of the decompressed spritemap.
+   * @throws IOException if the region cannot be decompressed.
+   */
+  public byte[] getDecompressed(final byte[] compressedRegion) throws IOException {
+    final Long key = hash(compressedRegion);
+
+    synchronized (this.entries) {
+      final Entry cached = this.entries.get(key);
+      if (cached != null && Arrays.equals(cached.compressedRegion(), compressedRegion)) {
+        this.hits.increment();
+        return Arrays.copyOf(cached.decompressed(), cached.decompressed().length);
+      }
+    }
+
+    this.misses.increment();
+    final byte[] decompressed = Lz2Decompressor.decompress(compressedRegion);
+
+    synchronized (this.entries) {
+      this.entries.put(key, new Entry(Arrays.copyOf(compressedRegion, compressedRegion.length), decompressed));
+    }
+
+    return Arrays.copyOf(decompressed, decompressed.length);
+  }
+
+  /**
+   * The key of a compressed spritemap region.
+   *
+   * @param compressedRegion the compressed spritemap region.
+   * @return the CRC32C of the whole region.
+   */
+  static long hash(final byte[] compressedRegion) {
+    final CRC32C crc32c = new CRC32C();
+    crc32c.update(compressedRegion, 0, compressedRegion.length);
+
+    return crc32c.getValue();
+  }
+
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  public long getMisses() {
+    return this.misses.sum();
+  }
+
+  public int size() {
+    synchronized (this.entries) {
+      return this.entries.size();
+    }
+  }
+
+  public int getCapacity() {
+    return this.capacity;
+  }
+
+  /**
+   * Removes all entries and resets the hit and miss counters.
+   */
+  public void clear() {
+    synchronized (this.entries) {
+      this.entries.clear();
+      this.hits.reset();
+      this.misses.reset();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", "SpritemapCache{", "}")
+        .add("capacity=" + this.capacity)
+        .add("size=" + size())
+        .add("hits=" + getHits())
+        .add("misses=" + getMisses())
+        .toString();
+  }
+
+  private record Entry(byte[] compressedRegion, byte[] decompressed) {
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import io.github.alttpj.memeforcehunt.common.value.SpritemapDataCache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A content-addressed store of compressed spritemaps, keyed by the {@link ContentHash} of the skin.
+ *
+ * <p>Skins with identical tiles and palette share one entry, so their spritemap is built, compressed and kept in
+ * memory only once, no matter how many files contain it. Unlike {@link SpritemapDataCache}, entries are not evicted
+ * by size: the owner {@link #retainAll(Collection) retains} the hashes which are still in use.</p>
+ *
+ * <p>This class is thread-safe.</p>
+ */
+public final class SpritemapContentStore {
+
+  private final Map<ContentHash, ByteBuffer> entries = new HashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Returns the spritemap with the given content, loading it only if no skin with the same content was loaded yet.
+   *
+   * @param contentHash the content hash of the skin.
+   * @param loader      builds the compressed spritemap.
+   * @return a read-only view of the shared spritemap, positioned at its first byte.
+   * @throws IOException if the loader fails.
+   */
+  public ByteBuffer get(final ContentHash contentHash, final SpritemapDataCache.Loader loader) throws IOException {
+    Objects.requireNonNull(contentHash, "contentHash");
+
+    synchronized (this.entries) {
+      final ByteBuffer stored = this.entries.get(contentHash);
+      if (stored != null) {
+        this.hits.increment();
+        return stored.duplicate();
+      }
+    }
+
+    this.misses.increment();
+    final ByteBuffer loaded = ByteBuffer.wrap(loader.load()).asReadOnlyBuffer();
+
+    synchronized (this.entries) {
+      // another thread may have stored the same content meanwhile, keep only one copy.
+      return this.entries.computeIfAbsent(contentHash, key -> loaded).duplicate();
+    }
+  }
+
+  /**
+   * Removes all entries whose content is no longer used.
+   *
+   * @param contentHashes the content hashes which are still in use.
+   */
+  public void retainAll(final Collection<ContentHash> contentHashes) {
+    final HashSet<ContentHash> used = new HashSet<>(contentHashes);
+
+    synchronized (this.entries) {
+      this.entries.keySet().retainAll(used);
+    }
+  }
+
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  public long getMisses() {
+    return this.misses.sum();
+  }
+
+  public int size() {
+    synchronized (this.entries) {
+      return this.entries.size();
+    }
+  }
+
+  public long getStoredBytes() {
+    synchronized (this.entries) {
+      return this.entries.values().stream().mapToLong(ByteBuffer::capacity).sum();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", "SpritemapContentStore{", "}")
+        .add("size=" + size())
+        .add("storedBytes=" + getStoredBytes())
+        .add("hits=" + getHits())
+        .add("misses=" + getMisses())
+        .toString();
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import java.util.Objects;
+
+/**
+ * Decodes all packed 3bpp tiles of a decompressed spritemap into one row-major image of palette indices,
+ * one byte per pixel.
+ *
+ * <p>Tiles are laid out left to right, top to bottom, {@code tilesPerRow} tiles per row, just like the
+ * spritemap is shown in a tile editor. The image is {@code tilesPerRow * 8} pixels wide. If the last row
+ * of tiles is incomplete, the remaining pixels are left untouched.</p>
+ *
+ * <p>Each tile is decoded by the lookup tables of {@link Snes3bppTileCodec}.</p>
+ */
+public final class SpritemapPixelDecoder {
+
+  /**
+   * ALttP spritemaps are usually shown 16 tiles (128 pixels) wide.
+   */
+  public static final int DEFAULT_TILES_PER_ROW = 16;
+
+  private SpritemapPixelDecoder() {
+    // util
+  }
+
+  /**
+   * The height of the image for the given number of tiles.
+   *
+   * @param tileCount   the number of tiles.
+   * @param tilesPerRow the number of tiles per row.
+   * @return the height in pixels, a multiple of 8.
+   */
+  public static int getHeight(final int tileCount, final int tilesPerRow) {
+    return (tileCount + tilesPerRow - 1) / tilesPerRow * Snes3bppTileCodec.TILE_SIZE;
+  }
+
+  /**
+   * Decodes a whole decompressed spritemap into a new image, {@link #DEFAULT_TILES_PER_ROW} tiles wide.
+   *
+   * @param decompressedSpritemap the decompressed spritemap. Trailing bytes which do not form a whole tile are ignored.
+   * @return the palette indices, {@code 128} pixels per row.
+   */
+  public static byte[] decode(final byte[] decompressedSpritemap) {
+    final int tileCount = decompressedSpritemap.length / Snes3bppTileCodec.BYTES_PER_TILE;
+    final int width = DEFAULT_TILES_PER_ROW * Snes3bppTileCodec.TILE_SIZE;
+    final byte[] pixels = new byte[width * getHeight(tileCount, DEFAULT_TILES_PER_ROW)];
+
+    decode(decompressedSpritemap, 0, tileCount, DEFAULT_TILES_PER_ROW, pixels);
+
+    return pixels;
+  }
+
+  /**
+   * Decodes consecutive packed tiles into an existing image.
+   *
+   * @param packed       the packed tiles, e.g. a decompressed spritemap.
+   * @param packedOffset the offset of the first tile in {@code packed}.
+   * @param tileCount    the number of tiles to decode.
+   * @param tilesPerRow  the number of tiles per row of the image.
+   * @param pixels       receives the palette indices. Must hold at least
+   *                     {@code tilesPerRow * 8 * getHeight(tileCount, tilesPerRow)} pixels.
+   * @throws IndexOutOfBoundsException if {@code packed} or {@code pixels} are too small.
+   */
+  public static void decode(final byte[] packed, final int packedOffset, final int tileCount, final int tilesPerRow, final byte[] pixels) {
+    Objects.requireNonNull(packed, "packed may not be null");
+    Objects.requireNonNull(pixels, "pixels may not be null");
+
+    if (tilesPerRow < 1) {
+      throw new IllegalArgumentException("tilesPerRow must be at least 1, but was [" + tilesPerRow + "].");
+    }
+
+    final int width = tilesPerRow * Snes3bppTileCodec.TILE_SIZE;
+    Objects.checkFromIndexSize(packedOffset, tileCount * Snes3bppTileCodec.BYTES_PER_TILE, packed.length);
+    Objects.checkFromIndexSize(0, width * getHeight(tileCount, tilesPerRow), pixels.length);
+
+    for (int tileIndex = 0; tileIndex < tileCount; tileIndex++) {
+      final int pixelOffset = tileIndex / tilesPerRow * Snes3bppTileCodec.TILE_SIZE * width
+          + tileIndex % tilesPerRow * Snes3bppTileCodec.TILE_SIZE;
+
+      Snes3bppTileCodec.decodeTile(packed, packedOffset + tileIndex * Snes3bppTileCodec.BYTES_PER_TILE, pixels, pixelOffset, width);
+    }
+  }
+}
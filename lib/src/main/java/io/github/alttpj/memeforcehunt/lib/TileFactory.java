@@ -17,53 +17,70 @@
 package io.github.alttpj.memeforcehunt.lib;
 
 import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.common.value.TileSheet;
+import io.github.alttpj.memeforcehunt.lib.compress.CompressionMode;
+import io.github.alttpj.memeforcehunt.lib.compress.Lz2Compressor;
+import io.github.alttpj.memeforcehunt.lib.compress.Lz2Decompressor;
 
-import io.github.alttpj.library.compress.SnesDecompressor;
-import io.github.alttpj.library.image.Tile;
-
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 public final class TileFactory {
 
   /**
    * 24 bytes per 8 x 8 x 3bpp tile. It is uncompressed, but still packed.
    */
-  protected static final int BYTES_PER_TILE = 24;
+  protected static final int BYTES_PER_TILE = TileSheet.BYTES_PER_TILE;
 
   private static final int[] TRIFORCE_TILE_POSITIONS = {44, 45, 60, 61};
 
+  /**
+   * Decompressing can stop after the last (i.e. highest) triforce tile.
+   */
+  private static final int TRIFORCE_TILES_END = (TRIFORCE_TILE_POSITIONS[TRIFORCE_TILE_POSITIONS.length - 1] + 1) * BYTES_PER_TILE;
+
   private TileFactory() {
     // util
   }
 
-  public static Tile[] fromSpritemapWithSkin(final SpritemapWithSkin spritemapWithSkin) throws IOException {
-    final byte[] spritemap = spritemapWithSkin.getData();
+  public static TileSheet fromSpritemapWithSkin(final SpritemapWithSkin spritemapWithSkin) throws IOException {
+    final ByteBuffer spritemap = spritemapWithSkin.getDataBuffer();
+    final byte[] compressedSpritemap = new byte[spritemap.remaining()];
+    spritemap.get(compressedSpritemap);
 
-    return fromCompressedSpritemap(spritemap);
+    return fromCompressedSpritemap(compressedSpritemap);
   }
 
-  public static Tile[] fromCompressedSpritemap(final byte[] compressedSpritemap) throws IOException {
-    try (final ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(compressedSpritemap)) {
-      final SnesDecompressor snesDecompressor = new SnesDecompressor(byteArrayInputStream);
-      final byte[] decompressedSpriteMap = snesDecompressor.getDecompressed();
+  public static TileSheet fromCompressedSpritemap(final byte[] compressedSpritemap) throws IOException {
+    final byte[] decompressedSpriteMap = new byte[TRIFORCE_TILES_END];
+    final int decompressed = Lz2Decompressor.decompress(
+        compressedSpritemap, 0, compressedSpritemap.length,
+        decompressedSpriteMap, 0, TRIFORCE_TILES_END);
 
-      return fromDecompressedSpritemap(decompressedSpriteMap);
+    if (decompressed < TRIFORCE_TILES_END) {
+      throw new IOException("Spritemap too short! Expected at least [" + TRIFORCE_TILES_END + "] bytes, "
+          + "but it only contains [" + decompressed + "] bytes.");
     }
+
+    return fromDecompressedSpritemap(decompressedSpriteMap);
   }
 
-  protected static Tile[] fromDecompressedSpritemap(final byte[] decompressedSpriteMap) {
-    final Tile[] tiles = new Tile[TRIFORCE_TILE_POSITIONS.length];
+  protected static TileSheet fromDecompressedSpritemap(final byte[] decompressedSpriteMap) {
+    return TileSheet.fromSpritemap(decompressedSpriteMap, TRIFORCE_TILE_POSITIONS);
+  }
 
-    for (int tileIndex = 0; tileIndex < TRIFORCE_TILE_POSITIONS.length; tileIndex++) {
-      final int offset = TRIFORCE_TILE_POSITIONS[tileIndex] * BYTES_PER_TILE;
-      final byte[] tileBytes = new byte[BYTES_PER_TILE];
-      System.arraycopy(decompressedSpriteMap, offset, tileBytes, 0, BYTES_PER_TILE);
-      final Tile tile = () -> tileBytes;
-      tiles[tileIndex] = tile;
-    }
+  /**
+   * Creates the shortest spritemap which contains the given tiles at the {@link #getDefaultOffsets() default offsets},
+   * e.g. for sprites which only consist of their four item tiles. All other tiles are empty.
+   *
+   * @param tiles the four packed item tiles.
+   * @return the compressed spritemap, which {@link #fromCompressedSpritemap(byte[])} accepts.
+   */
+  public static byte[] toCompressedSpritemap(final TileSheet tiles) {
+    final byte[] decompressedSpritemap = new byte[TRIFORCE_TILES_END];
+    tiles.copyTo(decompressedSpritemap, getDefaultOffsets());
 
-    return tiles;
+    return Lz2Compressor.compress(decompressedSpritemap, CompressionMode.FAST);
   }
 
   public static int[] getDefaultOffsets() {
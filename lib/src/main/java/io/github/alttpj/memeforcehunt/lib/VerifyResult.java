@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * The outcome of verifying a single skin against a base ROM, see {@link AlttpRomPatcher#verifyAll(byte[], java.util.List, int)}.
+ *
+ * @param spritemapWithSkin the skin which was verified.
+ * @param compressedSize    the size of the recompressed spritemap, or {@code -1} if the skin could not be verified.
+ * @param duration          the time it took to splice and recompress the skin, successful or not.
+ * @param failure           the exception which made the verification fail, or {@code null} if it succeeded.
+ */
+@SuppressFBWarnings(
+    value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"},
+    justification = "the skin and the failure are reported as is"
+)
+public record VerifyResult(SpritemapWithSkin spritemapWithSkin, int compressedSize, Duration duration, Exception failure) {
+
+  public VerifyResult {
+    Objects.requireNonNull(spritemapWithSkin, "spritemapWithSkin must not be null.");
+    Objects.requireNonNull(duration, "duration must not be null.");
+  }
+
+  public boolean isSuccessful() {
+    return this.failure == null;
+  }
+
+  /**
+   * Whether the recompressed spritemap fits into the ROM.
+   *
+   * @return {@code true} if the skin was verified and does not exceed the maximum spritemap size.
+   */
+  public boolean fits() {
+    return isSuccessful() && this.compressedSize <= AlttpRomPatcher.MAX_SPRITEMAP_SIZE;
+  }
+
+  /**
+   * The number of bytes left until the maximum spritemap size is reached, negative if the skin does not fit.
+   *
+   * @return the headroom in bytes, or empty if the skin could not be verified.
+   */
+  public OptionalInt getHeadroom() {
+    if (!isSuccessful()) {
+      return OptionalInt.empty();
+    }
+
+    return OptionalInt.of(AlttpRomPatcher.MAX_SPRITEMAP_SIZE - this.compressedSize);
+  }
+
+  public Optional<Exception> getFailure() {
+    return Optional.ofNullable(this.failure);
+  }
+}
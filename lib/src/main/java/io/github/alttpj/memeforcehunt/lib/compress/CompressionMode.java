@@ -0,0 +1,33 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib.compress;
+
+/**
+ * Trade-off between compression speed and output size for {@link Lz2Compressor}.
+ */
+public enum CompressionMode {
+  /**
+   * Greedy parse with hash-chain match finding. Meant for bulk patching, where speed matters more than a few bytes.
+   */
+  FAST,
+
+  /**
+   * Dynamic-programming parse which yields the smallest possible output for the supported commands.
+   * Helps borderline sprites to still fit into the spritemap.
+   */
+  OPTIMAL
+}
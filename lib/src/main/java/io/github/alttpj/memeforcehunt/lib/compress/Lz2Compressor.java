@@ -0,0 +1,421 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib.compress;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Compresses data into the LZ2 variant used by A Link to the Past, see {@link Lz2Decompressor} for the format.
+ *
+ * <p>Like the streams shipped with the game, copy commands may overlap their own output to repeat a pattern,
+ * as the game copies byte by byte.</p>
+ */
+public final class Lz2Compressor {
+
+  static final int MAX_LENGTH = 1024;
+
+  /**
+   * Copy offsets are two bytes wide.
+   */
+  private static final int MAX_COPY_FROM = 0xFFFF;
+
+  private static final int HASH_BITS = 12;
+  private static final int MAX_CHAIN_LENGTH = 32;
+  private static final int NO_POSITION = -1;
+
+  private static final int CHOICE_LITERAL = 0;
+  private static final int CHOICE_BYTE_FILL = 1;
+  private static final int CHOICE_WORD_FILL = 2;
+  private static final int CHOICE_INCREASING_FILL = 3;
+  private static final int CHOICE_COPY = 4;
+
+  private Lz2Compressor() {
+    // util
+  }
+
+  /**
+   * Compresses the given data.
+   *
+   * @param data the data to compress.
+   * @param mode whether to favour speed or size.
+   * @return the compressed data, including the end marker.
+   */
+  public static byte[] compress(final byte[] data, final CompressionMode mode) {
+    return compress(data, 0, mode);
+  }
+
+  /**
+   * Compresses {@code data} starting at {@code start}, using the bytes before {@code start} as already decompressed
+   * output. Copy commands may reference these bytes.
+   *
+   * <p>Appending the result to a compressed stream which decompresses to exactly {@code data[0..start)} (without
+   * its end marker) yields a valid stream for the whole {@code data}.</p>
+   *
+   * @param data  the data, of which only the bytes from {@code start} on are encoded.
+   * @param start the first byte to encode.
+   * @param mode  whether to favour speed or size.
+   * @return the compressed bytes for {@code data[start..]}, including the end marker.
+   */
+  public static byte[] compress(final byte[] data, final int start, final CompressionMode mode) {
+    Objects.requireNonNull(data, "data must not be null.");
+    Objects.requireNonNull(mode, "mode must not be null.");
+    Objects.checkIndex(start, data.length + 1);
+
+    final Lz2Output output = new Lz2Output(data.length - start + 8);
+    if (mode == CompressionMode.FAST) {
+      compressGreedy(data, start, output);
+    } else {
+      compressOptimal(data, start, output);
+    }
+    output.writeEndMarker();
+
+    return output.toByteArray();
+  }
+
+  /**
+   * Recompresses data of which only the part from {@code firstChanged} on differs from {@code originalCompressed}.
+   *
+   * <p>The LZ2 stream is sequential, so all commands of the original stream which end before {@code firstChanged}
+   * are kept as they are. Only the remaining data is compressed again, see {@link #compress(byte[], int, CompressionMode)}.</p>
+   *
+   * @param originalCompressed the original compressed stream. Bytes after its end marker are ignored.
+   * @param data               the new decompressed data, identical to the original data before {@code firstChanged}.
+   * @param firstChanged       the first decompressed offset which differs from the original.
+   * @param mode               whether to favour speed or size for the recompressed part.
+   * @return the new compressed stream, including the end marker.
+   * @throws IOException if the original stream is corrupt.
+   */
+  public static byte[] recompress(final byte[] originalCompressed,
+                                  final byte[] data,
+                                  final int firstChanged,
+                                  final CompressionMode mode) throws IOException {
+    final long boundary = Lz2Decompressor.findCommandBoundary(originalCompressed, 0, originalCompressed.length, firstChanged);
+    final int reusedCompressed = (int) (boundary >>> 32);
+    final int reusedDecompressed = (int) boundary;
+
+    final byte[] tail = compress(data, reusedDecompressed, mode);
+    final byte[] recompressed = Arrays.copyOf(originalCompressed, reusedCompressed + tail.length);
+    System.arraycopy(tail, 0, recompressed, reusedCompressed, tail.length);
+
+    return recompressed;
+  }
+
+  // ---------------------------------------------------------------------------------------------------------------
+  // greedy parse
+  // ---------------------------------------------------------------------------------------------------------------
+
+  private static void compressGreedy(final byte[] data, final int start, final Lz2Output output) {
+    final int[] hashHeads = new int[1 << HASH_BITS];
+    Arrays.fill(hashHeads, NO_POSITION);
+    final int[] hashChain = new int[data.length];
+    for (int historyPos = 0; historyPos < start; historyPos++) {
+      insertHash(data, historyPos, hashHeads, hashChain);
+    }
+
+    int pos = start;
+    int literalStart = start;
+
+    while (pos < data.length) {
+      final long choice = chooseGreedy(data, pos, hashHeads, hashChain);
+      final int length = (int) (choice & 0xFFFF);
+
+      if (length == 0) {
+        insertHash(data, pos, hashHeads, hashChain);
+        pos++;
+        if (pos - literalStart == MAX_LENGTH) {
+          output.writeLiteral(data, literalStart, MAX_LENGTH);
+          literalStart = pos;
+        }
+        continue;
+      }
+
+      if (literalStart < pos) {
+        output.writeLiteral(data, literalStart, pos - literalStart);
+      }
+      final int command = (int) ((choice >>> 16) & 0xFFFF);
+      if (command == CHOICE_COPY) {
+        output.writeCopy((int) (choice >>> 32), length);
+      } else {
+        writeChoice(data, pos, command, length, output);
+      }
+      for (int insertPos = pos; insertPos < pos + length; insertPos++) {
+        insertHash(data, insertPos, hashHeads, hashChain);
+      }
+      pos += length;
+      literalStart = pos;
+    }
+
+    if (literalStart < data.length) {
+      output.writeLiteral(data, literalStart, data.length - literalStart);
+    }
+  }
+
+  /**
+   * Picks the command with the largest gain over literal bytes at {@code pos}.
+   *
+   * @return the copy source in bits 32-47, the choice in bits 16-31 and the length in the lower 16 bits,
+   *     or 0 if a literal byte is best.
+   */
+  private static long chooseGreedy(final byte[] data, final int pos, final int[] hashHeads, final int[] hashChain) {
+    final long match = findLongestMatch(data, pos, hashHeads, hashChain);
+    long best = 0L;
+    int bestGain = 0;
+
+    for (int choice = CHOICE_BYTE_FILL; choice <= CHOICE_COPY; choice++) {
+      final int length = choice == CHOICE_COPY ? (int) match : maxLength(data, pos, choice);
+      final int gain = length - commandSize(choice, length);
+      if (gain > bestGain) {
+        bestGain = gain;
+        best = ((match >>> 32) << 32) | ((long) choice << 16) | length;
+      }
+    }
+
+    return best;
+  }
+
+  /**
+   * Finds the longest match for {@code pos} using the hash chains.
+   *
+   * @return the copy source in the upper and the length in the lower 32 bits.
+   */
+  private static long findLongestMatch(final byte[] data, final int pos, final int[] hashHeads, final int[] hashChain) {
+    if (pos + 2 >= data.length) {
+      return 0L;
+    }
+
+    int candidate = hashHeads[hash(data, pos)];
+    int bestLength = 0;
+    int bestFrom = 0;
+
+    for (int chainLength = 0; candidate != NO_POSITION && chainLength < MAX_CHAIN_LENGTH; chainLength++) {
+      if (candidate <= MAX_COPY_FROM) {
+        final int length = matchLength(data, candidate, pos);
+        if (length > bestLength) {
+          bestLength = length;
+          bestFrom = candidate;
+        }
+      }
+      candidate = hashChain[candidate];
+    }
+
+    return ((long) bestFrom << 32) | bestLength;
+  }
+
+  private static void insertHash(final byte[] data, final int pos, final int[] hashHeads, final int[] hashChain) {
+    if (pos + 2 >= data.length) {
+      return;
+    }
+
+    final int hash = hash(data, pos);
+    hashChain[pos] = hashHeads[hash];
+    hashHeads[hash] = pos;
+  }
+
+  private static int hash(final byte[] data, final int pos) {
+    final int threeBytes = ((data[pos] & 0xFF) << 16) | ((data[pos + 1] & 0xFF) << 8) | (data[pos + 2] & 0xFF);
+
+    return (threeBytes * 0x9E3779B1) >>> (32 - HASH_BITS);
+  }
+
+  // ---------------------------------------------------------------------------------------------------------------
+  // optimal parse
+  // ---------------------------------------------------------------------------------------------------------------
+
+  /**
+   * Computes, from the end towards {@code start}, the cheapest encoding of each suffix of the data.
+   * The longest possible copy per position is derived from a rolling table of common prefix lengths.
+   */
+  private static void compressOptimal(final byte[] data, final int start, final Lz2Output output) {
+    final int length = data.length;
+    final int[] cost = new int[length + 1];
+    final int[] choices = new int[length];
+    final int[] choiceLengths = new int[length];
+    final int[] copySources = new int[length];
+
+    int[] prefixLengths = new int[length + 1];
+    int[] nextPrefixLengths = new int[length + 1];
+
+    for (int pos = length - 1; pos >= start; pos--) {
+      // prefixLengths[j] = common prefix of data[j..] and data[pos..], capped at MAX_LENGTH.
+      final int[] swap = nextPrefixLengths;
+      nextPrefixLengths = prefixLengths;
+      prefixLengths = swap;
+      final int copy = updatePrefixLengths(data, pos, prefixLengths, nextPrefixLengths);
+
+      copySources[pos] = copy >>> 16;
+      final int maxCopy = copy & 0xFFFF;
+      choose(data, pos, maxCopy, cost, choices, choiceLengths);
+    }
+
+    int pos = start;
+    while (pos < length) {
+      final int choiceLength = choiceLengths[pos];
+      if (choices[pos] == CHOICE_COPY) {
+        output.writeCopy(copySources[pos], choiceLength);
+      } else {
+        writeChoice(data, pos, choices[pos], choiceLength, output);
+      }
+      pos += choiceLength;
+    }
+  }
+
+  /**
+   * Fills {@code prefixLengths} for {@code pos} from the values of {@code pos + 1}.
+   *
+   * @return the source of the longest copy in the upper 16 bits, its length in the lower 16 bits.
+   */
+  private static int updatePrefixLengths(final byte[] data, final int pos, final int[] prefixLengths, final int[] nextPrefixLengths) {
+    int bestLength = 0;
+    int bestFrom = 0;
+    final int maxFrom = Math.min(pos - 1, MAX_COPY_FROM);
+
+    for (int from = 0; from < pos; from++) {
+      final int prefixLength = data[from] == data[pos] ? Math.min(MAX_LENGTH, 1 + nextPrefixLengths[from + 1]) : 0;
+      prefixLengths[from] = prefixLength;
+
+      if (from <= maxFrom && prefixLength > bestLength) {
+        bestLength = prefixLength;
+        bestFrom = from;
+      }
+    }
+    prefixLengths[pos] = 0;
+
+    return (bestFrom << 16) | bestLength;
+  }
+
+  private static void choose(final byte[] data,
+                             final int pos,
+                             final int maxCopy,
+                             final int[] cost,
+                             final int[] choices,
+                             final int[] choiceLengths) {
+    int bestCost = Integer.MAX_VALUE;
+
+    for (int choice = CHOICE_LITERAL; choice <= CHOICE_COPY; choice++) {
+      final int maxLength = choice == CHOICE_COPY ? maxCopy : maxLength(data, pos, choice);
+      for (int length = 1; length <= maxLength; length++) {
+        final int candidateCost = commandSize(choice, length) + cost[pos + length];
+        if (candidateCost < bestCost) {
+          bestCost = candidateCost;
+          choices[pos] = choice;
+          choiceLengths[pos] = length;
+        }
+      }
+    }
+
+    cost[pos] = bestCost;
+  }
+
+  // ---------------------------------------------------------------------------------------------------------------
+  // shared
+  // ---------------------------------------------------------------------------------------------------------------
+
+  private static int commandSize(final int choice, final int length) {
+    final int header = Lz2Output.headerSize(length);
+
+    switch (choice) {
+      case CHOICE_LITERAL:
+        return header + length;
+      case CHOICE_BYTE_FILL:
+      case CHOICE_INCREASING_FILL:
+        return header + 1;
+      default:
+        // word fill and copy.
+        return header + 2;
+    }
+  }
+
+  private static void writeChoice(final byte[] data, final int pos, final int choice, final int length, final Lz2Output output) {
+    switch (choice) {
+      case CHOICE_LITERAL:
+        output.writeLiteral(data, pos, length);
+        break;
+      case CHOICE_BYTE_FILL:
+        output.writeByteFill(data[pos], length);
+        break;
+      case CHOICE_WORD_FILL:
+        output.writeWordFill(data[pos], data[pos + 1], length);
+        break;
+      case CHOICE_INCREASING_FILL:
+        output.writeIncreasingFill(data[pos], length);
+        break;
+      default:
+        throw new IllegalStateException("Copy needs a source.");
+    }
+  }
+
+  private static int maxLength(final byte[] data, final int pos, final int choice) {
+    switch (choice) {
+      case CHOICE_LITERAL:
+        return Math.min(MAX_LENGTH, data.length - pos);
+      case CHOICE_BYTE_FILL:
+        return byteRun(data, pos);
+      case CHOICE_WORD_FILL:
+        return wordRun(data, pos);
+      case CHOICE_INCREASING_FILL:
+        return increasingRun(data, pos);
+      default:
+        throw new IllegalArgumentException("Copy length depends on the match finder.");
+    }
+  }
+
+  private static int byteRun(final byte[] data, final int pos) {
+    final int max = Math.min(MAX_LENGTH, data.length - pos);
+    int length = 1;
+    while (length < max && data[pos + length] == data[pos]) {
+      length++;
+    }
+
+    return length;
+  }
+
+  private static int wordRun(final byte[] data, final int pos) {
+    final int max = Math.min(MAX_LENGTH, data.length - pos);
+    if (max < 2) {
+      return 0;
+    }
+
+    int length = 2;
+    while (length < max && data[pos + length] == data[pos + (length & 1)]) {
+      length++;
+    }
+
+    return length;
+  }
+
+  private static int increasingRun(final byte[] data, final int pos) {
+    final int max = Math.min(MAX_LENGTH, data.length - pos);
+    int length = 1;
+    while (length < max && data[pos + length] == (byte) (data[pos] + length)) {
+      length++;
+    }
+
+    return length;
+  }
+
+  private static int matchLength(final byte[] data, final int from, final int pos) {
+    final int max = Math.min(MAX_LENGTH, data.length - pos);
+    int length = 0;
+    while (length < max && data[from + length] == data[pos + length]) {
+      length++;
+    }
+
+    return length;
+  }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib.compress;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Decompresses the LZ2 variant used by A Link to the Past for its graphics.
+ *
+ * <p>In contrast to {@code SnesDecompressor}, this decoder works directly on arrays: it writes into a buffer supplied
+ * by the caller and does not allocate anything. It can also stop after a given number of output bytes, which is
+ * all that is needed to extract tiles from the beginning of a spritemap.</p>
+ *
+ * <p>Each command starts with a header byte {@code CCCLLLLL}: a three bit command and a five bit length minus one.
+ * Command {@code 7} is an extended header {@code 111CCCLL LLLLLLLL} with a ten bit length. A header of {@code 0xFF}
+ * ends the stream.</p>
+ */
+public final class Lz2Decompressor {
+
+  /**
+   * Use as {@code maxOutput} to decompress the whole stream.
+   */
+  public static final int NO_LIMIT = -1;
+
+  static final int END_MARKER = 0xFF;
+  static final int COMMAND_LITERAL = 0;
+  static final int COMMAND_BYTE_FILL = 1;
+  static final int COMMAND_WORD_FILL = 2;
+  static final int COMMAND_INCREASING_FILL = 3;
+  static final int COMMAND_COPY = 4;
+  static final int COMMAND_EXTENDED = 7;
+
+  private static final int MASK_BYTE = 0xFF;
+
+  private Lz2Decompressor() {
+    // util
+  }
+
+  /**
+   * Decompresses a whole stream into a new array of the exact size.
+   *
+   * @param source the compressed data, starting with the first header.
+   * @return the decompressed data.
+   * @throws IOException if the data is corrupt.
+   */
+  public static byte[] decompress(final byte[] source) throws IOException {
+    final byte[] target = new byte[decompressedSize(source, 0, source.length)];
+    decompress(source, 0, source.length, target, 0, NO_LIMIT);
+
+    return target;
+  }
+
+  /**
+   * Decompresses into the supplied buffer.
+   *
+   * @param source       the compressed data.
+   * @param sourceOffset the position of the first header within {@code source}.
+   * @param sourceLength the maximum number of bytes to read from {@code source}.
+   * @param target       the buffer to decompress into.
+   * @param targetOffset the position in {@code target} of the first decompressed byte.
+   * @param maxOutput    stop after this many decompressed bytes, or {@link #NO_LIMIT}.
+   * @return the number of bytes written to {@code target}.
+   * @throws IOException if the data is corrupt, or if {@code target} is too small and no limit was given.
+   */
+  public static int decompress(final byte[] source,
+                               final int sourceOffset,
+                               final int sourceLength,
+                               final byte[] target,
+                               final int targetOffset,
+                               final int maxOutput) throws IOException {
+    Objects.checkFromIndexSize(sourceOffset, sourceLength, source.length);
+    final boolean limited = maxOutput != NO_LIMIT;
+    final int capacity = limited ? maxOutput : target.length - targetOffset;
+    Objects.checkFromIndexSize(targetOffset, capacity, target.length);
+
+    final int sourceEnd = sourceOffset + sourceLength;
+    int sourcePos = sourceOffset;
+    int written = 0;
+
+    while (!limited || written < capacity) {
+      final int header = readByte(source, sourcePos++, sourceEnd);
+      if (header == END_MARKER) {
+        return written;
+      }
+
+      final int command = getCommand(header);
+      final int length;
+      if (header >>> 5 == COMMAND_EXTENDED) {
+        length = (((header & 0x03) << 8) | readByte(source, sourcePos++, sourceEnd)) + 1;
+      } else {
+        length = (header & 0x1F) + 1;
+      }
+
+      if (!limited && length > capacity - written) {
+        throw new IOException("Target buffer too small: needs more than [" + capacity + "] bytes.");
+      }
+
+      final int count = Math.min(length, capacity - written);
+      sourcePos += expand(command, source, sourcePos, sourceEnd, length, target, targetOffset, written, count);
+      written += count;
+    }
+
+    return written;
+  }
+
+  /**
+   * Calculates the decompressed size of a stream without decompressing it.
+   *
+   * @param source       the compressed data.
+   * @param sourceOffset the position of the first header within {@code source}.
+   * @param sourceLength the maximum number of bytes to read from {@code source}.
+   * @return the number of bytes {@link #decompress(byte[], int, int, byte[], int, int)} would write without a limit.
+   * @throws IOException if the data is corrupt.
+   */
+  public static int decompressedSize(final byte[] source, final int sourceOffset, final int sourceLength) throws IOException {
+    return (int) findCommandBoundary(source, sourceOffset, sourceLength, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Finds the end of the last command which decompresses to no more than {@code maxOutput} bytes, i.e. the position
+   * up to which a stream can be reused if its decompressed data changes at {@code maxOutput}.
+   *
+   * @param source       the compressed data.
+   * @param sourceOffset the position of the first header within {@code source}.
+   * @param sourceLength the maximum number of bytes to read from {@code source}.
+   * @param maxOutput    the decompressed position which must not be reached by the commands before the boundary.
+   * @return the number of compressed bytes before the boundary in the upper 32 bits,
+   *     the number of decompressed bytes they produce in the lower 32 bits.
+   * @throws IOException if the data is corrupt.
+   */
+  static long findCommandBoundary(final byte[] source,
+                                  final int sourceOffset,
+                                  final int sourceLength,
+                                  final int maxOutput) throws IOException {
+    Objects.checkFromIndexSize(sourceOffset, sourceLength, source.length);
+    final int sourceEnd = sourceOffset + sourceLength;
+    int sourcePos = sourceOffset;
+    int output = 0;
+
+    while (true) {
+      final int header = readByte(source, sourcePos, sourceEnd);
+      if (header == END_MARKER) {
+        break;
+      }
+
+      final int command = getCommand(header);
+      final boolean extended = header >>> 5 == COMMAND_EXTENDED;
+      final int length;
+      if (extended) {
+        length = (((header & 0x03) << 8) | readByte(source, sourcePos + 1, sourceEnd)) + 1;
+      } else {
+        length = (header & 0x1F) + 1;
+      }
+
+      if (length > maxOutput - output) {
+        break;
+      }
+
+      sourcePos += (extended ? 2 : 1) + getOperandLength(command, length, sourcePos);
+      output += length;
+    }
+
+    return ((long) (sourcePos - sourceOffset) << 32) | output;
+  }
+
+  private static int getCommand(final int header) throws IOException {
+    final int command = header >>> 5 == COMMAND_EXTENDED ? (header >>> 2) & 0x07 : header >>> 5;
+    if (command > COMMAND_COPY) {
+      throw new IOException("Unknown command [" + command + "] in header [" + header + "].");
+    }
+
+    return command;
+  }
+
+  private static int getOperandLength(final int command, final int length, final int sourcePos) throws IOException {
+    switch (command) {
+      case COMMAND_LITERAL:
+        return length;
+      case COMMAND_WORD_FILL:
+      case COMMAND_COPY:
+        return 2;
+      case COMMAND_BYTE_FILL:
+      case COMMAND_INCREASING_FILL:
+        return 1;
+      default:
+        throw new IOException("Unknown command [" + command + "] at [" + sourcePos + "].");
+    }
+  }
+
+  /**
+   * Expands a single command.
+   *
+   * @return the number of operand bytes read from {@code source}.
+   */
+  private static int expand(final int command,
+                            final byte[] source,
+                            final int sourcePos,
+                            final int sourceEnd,
+                            final int length,
+                            final byte[] target,
+                            final int targetOffset,
+                            final int written,
+                            final int count) throws IOException {
+    final int operandLength = command == COMMAND_LITERAL ? length : getOperandLength(command, length, sourcePos);
+    if (sourcePos + operandLength > sourceEnd) {
+      throw new IOException("Unexpected end of input at [" + sourcePos + "].");
+    }
+
+    final int targetPos = targetOffset + written;
+
+    switch (command) {
+      case COMMAND_LITERAL:
+        System.arraycopy(source, sourcePos, target, targetPos, count);
+        break;
+      case COMMAND_BYTE_FILL:
+        Arrays.fill(target, targetPos, targetPos + count, source[sourcePos]);
+        break;
+      case COMMAND_WORD_FILL:
+        for (int index = 0; index < count; index++) {
+          target[targetPos + index] = source[sourcePos + (index & 1)];
+        }
+        break;
+      case COMMAND_INCREASING_FILL:
+        for (int index = 0; index < count; index++) {
+          target[targetPos + index] = (byte) (source[sourcePos] + index);
+        }
+        break;
+      default:
+        copy(source, sourcePos, target, targetOffset, written, count);
+        break;
+    }
+
+    return operandLength;
+  }
+
+  private static void copy(final byte[] source,
+                           final int sourcePos,
+                           final byte[] target,
+                           final int targetOffset,
+                           final int written,
+                           final int count) throws IOException {
+    // absolute offset into the output, little endian.
+    final int copyFrom = (source[sourcePos] & MASK_BYTE) | ((source[sourcePos + 1] & MASK_BYTE) << 8);
+    if (copyFrom >= written) {
+      throw new IOException("Copy from [" + copyFrom + "] points behind the output of [" + written + "] bytes.");
+    }
+
+    // byte by byte, as source and target range may overlap to repeat a pattern.
+    final int targetPos = targetOffset + written;
+    for (int index = 0; index < count; index++) {
+      target[targetPos + index] = target[targetOffset + copyFrom + index];
+    }
+  }
+
+  private static int readByte(final byte[] source, final int sourcePos, final int sourceEnd) throws IOException {
+    if (sourcePos >= sourceEnd) {
+      throw new IOException("Unexpected end of input at [" + sourcePos + "], missing end marker.");
+    }
+
+    return source[sourcePos] & MASK_BYTE;
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib.compress;
+
+import java.util.Arrays;
+
+/**
+ * Writes LZ2 commands into a growing buffer, see {@link Lz2Decompressor} for the format.
+ */
+final class Lz2Output {
+
+  private static final int SHORT_HEADER_MAX_LENGTH = 32;
+
+  private byte[] buffer;
+  private int position;
+
+  Lz2Output(final int expectedSize) {
+    this.buffer = new byte[Math.max(16, expectedSize)];
+  }
+
+  /**
+   * The number of header bytes needed for a command of the given length.
+   *
+   * @param length the decompressed length of the command.
+   * @return 1 or 2.
+   */
+  static int headerSize(final int length) {
+    return length <= SHORT_HEADER_MAX_LENGTH ? 1 : 2;
+  }
+
+  void writeRaw(final byte[] source, final int offset, final int length) {
+    ensureCapacity(length);
+    System.arraycopy(source, offset, this.buffer, this.position, length);
+    this.position += length;
+  }
+
+  void writeLiteral(final byte[] data, final int from, final int length) {
+    writeHeader(Lz2Decompressor.COMMAND_LITERAL, length);
+    writeRaw(data, from, length);
+  }
+
+  void writeByteFill(final byte value, final int length) {
+    writeHeader(Lz2Decompressor.COMMAND_BYTE_FILL, length);
+    writeByte(value);
+  }
+
+  void writeWordFill(final byte first, final byte second, final int length) {
+    writeHeader(Lz2Decompressor.COMMAND_WORD_FILL, length);
+    writeByte(first);
+    writeByte(second);
+  }
+
+  void writeIncreasingFill(final byte start, final int length) {
+    writeHeader(Lz2Decompressor.COMMAND_INCREASING_FILL, length);
+    writeByte(start);
+  }
+
+  void writeCopy(final int copyFrom, final int length) {
+    writeHeader(Lz2Decompressor.COMMAND_COPY, length);
+    // little endian absolute offset into the decompressed output.
+    writeByte((byte) copyFrom);
+    writeByte((byte) (copyFrom >>> 8));
+  }
+
+  void writeEndMarker() {
+    writeByte((byte) Lz2Decompressor.END_MARKER);
+  }
+
+  private void writeHeader(final int command, final int length) {
+    if (length <= SHORT_HEADER_MAX_LENGTH) {
+      writeByte((byte) ((command << 5) | (length - 1)));
+      return;
+    }
+
+    writeByte((byte) ((Lz2Decompressor.COMMAND_EXTENDED << 5) | (command << 2) | ((length - 1) >>> 8)));
+    writeByte((byte) (length - 1));
+  }
+
+  private void writeByte(final byte value) {
+    ensureCapacity(1);
+    this.buffer[this.position++] = value;
+  }
+
+  private void ensureCapacity(final int additional) {
+    if (this.position + additional > this.buffer.length) {
+      this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length * 2, this.position + additional));
+    }
+  }
+
+  int size() {
+    return this.position;
+  }
+
+  byte[] toByteArray() {
+    return Arrays.copyOf(this.buffer, this.position);
+  }
+}
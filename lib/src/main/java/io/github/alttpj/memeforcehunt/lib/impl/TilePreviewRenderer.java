@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.alttpj.memeforcehunt.lib.impl;
+
+import io.github.alttpj.memeforcehunt.common.value.ItemSpriteFactory;
+import io.github.alttpj.memeforcehunt.common.value.SkinPreviewRenderer;
+import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.common.value.TileSheet;
+import io.github.alttpj.memeforcehunt.lib.PreviewRenderer;
+import io.github.alttpj.memeforcehunt.lib.TileFactory;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Provides {@link PreviewRenderer} as a {@link SkinPreviewRenderer} service.
+ */
+public final class TilePreviewRenderer implements SkinPreviewRenderer {
+
+  @Override
+  public BufferedImage render(final SpritemapWithSkin spritemapWithSkin) throws IOException {
+    final TileSheet tiles = TileFactory.fromSpritemapWithSkin(spritemapWithSkin);
+
+    return PreviewRenderer.renderImage(tiles, ItemSpriteFactory.fromSpritemapWithSkin(spritemapWithSkin, tiles).getPalette());
+  }
+}
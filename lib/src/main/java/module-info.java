@@ -1,6 +1,7 @@
 module memforcehunt.lib {
   requires memeforcehunt.common.value;
   requires alttpj.library;
+  requires java.logging;
 
   requires static org.immutables.value.annotations;
   requires static com.github.spotbugs.annotations;
@@ -12,4 +13,8 @@ module memforcehunt.lib {
   opens io.github.alttpj.memeforcehunt.lib.impl to com.fasterxml.jackson.databind;
 
   exports io.github.alttpj.memeforcehunt.lib;
+  exports io.github.alttpj.memeforcehunt.lib.compress;
+
+  provides io.github.alttpj.memeforcehunt.common.value.SkinPreviewRenderer
+      with io.github.alttpj.memeforcehunt.lib.impl.TilePreviewRenderer;
 }
@@ -16,22 +16,39 @@
 
 package io.github.alttpj.memeforcehunt.lib;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import io.github.alttpj.memeforcehunt.common.value.AbstractSpritemapWithSkin;
 import io.github.alttpj.memeforcehunt.common.value.ItemPalette;
 import io.github.alttpj.memeforcehunt.common.value.ULID;
 
+import io.github.alttpj.library.compress.SnesCompressor;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class AlttpRomPatcherTest {
 
+  private static final int FAKE_OFFSET = 0x1000;
+  private static final int FAKE_PAL_LOC = 0x10;
+  private static final int FAKE_PAL_OW = 0x11;
+  private static final int SPRITEMAP_SIZE = 1536;
+
   @Test
   @Disabled
   public void shouldRejectLongByteArrays() throws IOException {
@@ -72,4 +89,206 @@ public class AlttpRomPatcherTest {
     assertEquals(defaultOffset, alttpRomPatcher.getOffset());
   }
 
+  @Test
+  public void memoryMappedPatchShouldEqualRewrittenPatch(@TempDir final Path tempDir) throws IOException {
+    // given two identical ROMs with an empty spritemap
+    final byte[] fakeRom = createFakeRom();
+    final Path rewrittenRom = Files.write(tempDir.resolve("rewritten.sfc"), fakeRom);
+    final Path mappedRom = Files.write(tempDir.resolve("mapped.sfc"), fakeRom);
+    final AbstractSpritemapWithSkin spritemap = createSpritemap();
+
+    // when
+    final AlttpRomPatcher rewritingPatcher = createPatcher();
+    rewritingPatcher.patchROM(rewrittenRom.toString(), spritemap);
+    final AlttpRomPatcher mappingPatcher = createPatcher();
+    mappingPatcher.setPatchMode(PatchMode.MEMORY_MAPPED);
+    mappingPatcher.patchROM(mappedRom.toString(), spritemap);
+
+    // then
+    final byte[] mappedBytes = Files.readAllBytes(mappedRom);
+    assertArrayEquals(Files.readAllBytes(rewrittenRom), mappedBytes);
+    assertEquals(ItemPalette.BLUE.getPaletteIdChest(), mappedBytes[FAKE_PAL_LOC]);
+    assertEquals(ItemPalette.BLUE.getPaletteIdOverworld(), mappedBytes[FAKE_PAL_OW]);
+  }
+
+  @Test
+  public void memoryMappedPatchShouldRejectTooSmallRom(@TempDir final Path tempDir) throws IOException {
+    // given a ROM which ends within the spritemap window
+    final Path tooSmallRom = Files.write(tempDir.resolve("small.sfc"), new byte[FAKE_OFFSET + 16]);
+    final AlttpRomPatcher alttpRomPatcher = createPatcher();
+    alttpRomPatcher.setPatchMode(PatchMode.MEMORY_MAPPED);
+
+    // when / then
+    assertThrows(IOException.class, () -> alttpRomPatcher.patchROM(tooSmallRom.toString(), createSpritemap()));
+    assertEquals(FAKE_OFFSET + 16, Files.size(tooSmallRom));
+  }
+
+  @Test
+  public void patchAllShouldContinuePastFailures(@TempDir final Path tempDir) throws IOException, InterruptedException {
+    // given some valid ROMs and one missing ROM
+    final AbstractSpritemapWithSkin spritemap = createSpritemap();
+    final List<PatchJob> patchJobs = new ArrayList<>();
+    for (int romNumber = 0; romNumber < 6; romNumber++) {
+      final Path rom = Files.write(tempDir.resolve("rom" + romNumber + ".sfc"), createFakeRom());
+      patchJobs.add(new PatchJob(rom.toString(), spritemap));
+    }
+    patchJobs.add(2, new PatchJob(tempDir.resolve("missing.sfc").toString(), spritemap));
+    final Path expectedRom = Files.write(tempDir.resolve("expected.sfc"), createFakeRom());
+    createPatcher().patchROM(expectedRom.toString(), spritemap);
+
+    // when
+    final AtomicInteger reported = new AtomicInteger();
+    final List<PatchResult> results = createPatcher().patchAll(patchJobs, 3, patchResult -> reported.incrementAndGet());
+
+    // then
+    assertEquals(patchJobs.size(), results.size());
+    assertEquals(patchJobs.size(), reported.get());
+    for (int resultIndex = 0; resultIndex < results.size(); resultIndex++) {
+      final PatchResult patchResult = results.get(resultIndex);
+      assertEquals(patchJobs.get(resultIndex), patchResult.patchJob());
+
+      if (resultIndex == 2) {
+        assertFalse(patchResult.isSuccessful());
+        continue;
+      }
+
+      assertTrue(patchResult.isSuccessful());
+      assertArrayEquals(Files.readAllBytes(expectedRom), Files.readAllBytes(Path.of(patchResult.patchJob().romTarget())));
+    }
+  }
+
+  @Test
+  public void patchAllShouldBuildOnePlanPerBaseRom(@TempDir final Path tempDir) throws IOException, InterruptedException {
+    // given ROMs alternating between two different base spritemaps
+    final AbstractSpritemapWithSkin spritemap = createSpritemap();
+    final List<PatchJob> patchJobs = new ArrayList<>();
+    final List<byte[]> expectedRoms = new ArrayList<>();
+    for (int romNumber = 0; romNumber < 6; romNumber++) {
+      final byte baseFill = (byte) (romNumber % 2 == 0 ? 0x00 : 0x11);
+      final Path rom = Files.write(tempDir.resolve("rom" + romNumber + ".sfc"), createFakeRom(baseFill));
+      patchJobs.add(new PatchJob(rom.toString(), spritemap));
+
+      final Path expectedRom = Files.write(tempDir.resolve("expected" + romNumber + ".sfc"), createFakeRom(baseFill));
+      createPatcher().patchROM(expectedRom.toString(), spritemap);
+      expectedRoms.add(Files.readAllBytes(expectedRom));
+    }
+    final SpritemapCache spritemapCache = new SpritemapCache(SpritemapCache.DEFAULT_CAPACITY);
+    final AlttpRomPatcher alttpRomPatcher = createPatcher();
+    alttpRomPatcher.setSpritemapCache(spritemapCache);
+
+    // when
+    final List<PatchResult> results = alttpRomPatcher.patchAll(patchJobs, 1, patchResult -> { });
+
+    // then each base spritemap was only decompressed for building a plan once
+    assertEquals(2L, spritemapCache.getHits() + spritemapCache.getMisses());
+    for (int resultIndex = 0; resultIndex < results.size(); resultIndex++) {
+      assertTrue(results.get(resultIndex).isSuccessful());
+      assertArrayEquals(expectedRoms.get(resultIndex), Files.readAllBytes(Path.of(patchJobs.get(resultIndex).romTarget())));
+    }
+  }
+
+  @Test
+  public void patchAllShouldRejectDuplicateRoms() throws IOException {
+    // given
+    final AbstractSpritemapWithSkin spritemap = createSpritemap();
+    final List<PatchJob> patchJobs = List.of(new PatchJob("a.sfc", spritemap), new PatchJob("a.sfc", spritemap));
+
+    // when / then
+    assertThrows(IllegalArgumentException.class, () -> createPatcher().patchAll(patchJobs));
+  }
+
+  @Test
+  public void patchAllShouldRejectDifferentlySpelledDuplicateRoms() throws IOException {
+    // given
+    final AbstractSpritemapWithSkin spritemap = createSpritemap();
+    final List<PatchJob> patchJobs = List.of(
+        new PatchJob("a.sfc", spritemap),
+        new PatchJob("./seeds/../a.sfc", spritemap));
+
+    // when / then
+    assertThrows(IllegalArgumentException.class, () -> createPatcher().patchAll(patchJobs));
+  }
+
+  @Test
+  public void verifyAllShouldReportSizeOfPatchedSpritemap(@TempDir final Path tempDir) throws IOException, InterruptedException {
+    // given
+    final AbstractSpritemapWithSkin spritemap = createSpritemap();
+    final AbstractSpritemapWithSkin brokenSpritemap =
+        new AbstractSpritemapWithSkin(new ULID().nextULID(), "broken", "test", "author", ItemPalette.RED) {
+          @Override
+          public BufferedImage getImage() {
+            return null;
+          }
+
+          @Override
+          protected InputStream getSpritemapInputStream() {
+            return new ByteArrayInputStream(new byte[0]);
+          }
+        };
+    final Path rom = Files.write(tempDir.resolve("rom.sfc"), createFakeRom());
+    final byte[] originalRom = Files.readAllBytes(rom);
+
+    // when
+    final List<VerifyResult> results = createPatcher().verifyAll(rom.toString(), List.of(spritemap, brokenSpritemap, spritemap), 2);
+
+    // then
+    final PatchPlan patchPlan = createPatcher().createPatchPlan(rom.toString(), spritemap);
+    assertEquals(3, results.size());
+    assertTrue(results.get(0).fits());
+    assertEquals(patchPlan.getCompressedSpritemap().length, results.get(0).compressedSize());
+    assertEquals(AlttpRomPatcher.MAX_SPRITEMAP_SIZE - results.get(0).compressedSize(), results.get(0).getHeadroom().orElseThrow());
+    assertFalse(results.get(1).isSuccessful());
+    assertFalse(results.get(1).fits());
+    assertEquals(results.get(0).compressedSize(), results.get(2).compressedSize());
+    assertArrayEquals(originalRom, Files.readAllBytes(rom));
+  }
+
+  private static AlttpRomPatcher createPatcher() {
+    final AlttpRomPatcher alttpRomPatcher = new AlttpRomPatcher();
+    alttpRomPatcher.setOffset(FAKE_OFFSET);
+    alttpRomPatcher.setPaletteLocationChest(FAKE_PAL_LOC);
+    alttpRomPatcher.setPaletteLocationOverworld(FAKE_PAL_OW);
+
+    return alttpRomPatcher;
+  }
+
+  private static byte[] createFakeRom() throws IOException {
+    return createFakeRom((byte) 0x00);
+  }
+
+  private static byte[] createFakeRom(final byte baseFill) throws IOException {
+    final byte[] fakeRom = new byte[FAKE_OFFSET * 2];
+    final byte[] baseSpritemap = new byte[SPRITEMAP_SIZE];
+    Arrays.fill(baseSpritemap, baseFill);
+    final byte[] compressedSpritemap = compress(baseSpritemap);
+    System.arraycopy(compressedSpritemap, 0, fakeRom, FAKE_OFFSET, compressedSpritemap.length);
+
+    return fakeRom;
+  }
+
+  private static AbstractSpritemapWithSkin createSpritemap() throws IOException {
+    final byte[] decompressed = new byte[SPRITEMAP_SIZE];
+    for (int pos = 0; pos < decompressed.length; pos++) {
+      decompressed[pos] = (byte) (pos * 7);
+    }
+    final byte[] compressed = compress(decompressed);
+
+    return new AbstractSpritemapWithSkin(new ULID().nextULID(), "test", "test", "author", ItemPalette.BLUE) {
+      @Override
+      public BufferedImage getImage() {
+        return null;
+      }
+
+      @Override
+      protected InputStream getSpritemapInputStream() {
+        return new ByteArrayInputStream(compressed);
+      }
+    };
+  }
+
+  private static byte[] compress(final byte[] decompressed) throws IOException {
+    try (final SnesCompressor snesCompressor = new SnesCompressor(new ByteArrayInputStream(decompressed))) {
+      return snesCompressor.getCompressed().toByteArray();
+    }
+  }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.alttpj.memeforcehunt.common.value.AbstractSpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.common.value.ItemPalette;
+import io.github.alttpj.memeforcehunt.common.value.TileSheet;
+import io.github.alttpj.memeforcehunt.common.value.ULID;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+public class ContentHashTest {
+
+  @Test
+  public void contentHashShouldDependOnTilesAndPalette() {
+    // given
+    final byte[] tiles = new byte[TileFactory.BYTES_PER_TILE * 4];
+    final byte[] otherTiles = tiles.clone();
+    otherTiles[95] = 1;
+
+    // when
+    final ContentHash contentHash = ContentHash.of(tiles, (byte) 2, (byte) 4);
+
+    // then
+    assertEquals(contentHash, ContentHash.of(tiles.clone(), (byte) 2, (byte) 4));
+    assertNotEquals(contentHash, ContentHash.of(otherTiles, (byte) 2, (byte) 4));
+    assertNotEquals(contentHash, ContentHash.of(tiles, (byte) 2, (byte) 6));
+    assertThrows(IllegalArgumentException.class, () -> ContentHash.of(new byte[95], (byte) 2, (byte) 4));
+  }
+
+  @Test
+  public void skinShouldHashItsDecompressedTiles() throws IOException {
+    // given
+    final byte[] tiles = new byte[TileFactory.BYTES_PER_TILE * 4];
+    for (int pos = 0; pos < tiles.length; pos++) {
+      tiles[pos] = (byte) (pos * 3);
+    }
+    final byte[] spritemap = TileFactory.toCompressedSpritemap(TileSheet.of(tiles));
+    final AbstractSpritemapWithSkin skin =
+        new AbstractSpritemapWithSkin(new ULID().nextULID(), "test", "test", "author", ItemPalette.RED) {
+          @Override
+          public BufferedImage getImage() {
+            return null;
+          }
+
+          @Override
+          protected InputStream getSpritemapInputStream() {
+            return new ByteArrayInputStream(spritemap);
+          }
+        };
+
+    // when
+    final ContentHash contentHash = ContentHash.of(skin);
+
+    // then
+    assertEquals(ContentHash.of(tiles, ItemPalette.RED.getPaletteIdChest(), ItemPalette.RED.getPaletteIdOverworld()), contentHash);
+    assertEquals(contentHash, ContentHash.parse(contentHash.toString()));
+    assertEquals(32, contentHash.toString().length());
+  }
+}
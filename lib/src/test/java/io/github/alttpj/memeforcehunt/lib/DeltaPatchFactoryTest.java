@@ -0,0 +1,196 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+public class DeltaPatchFactoryTest {
+
+  @Test
+  public void ipsPatchShouldRecreateTarget() {
+    // given
+    final byte[] source = new byte[0x460000];
+    final byte[] target = createTarget(source);
+
+    // when
+    final byte[] patch = DeltaPatchFactory.createIps(source, target);
+
+    // then
+    assertEquals("PATCH", new String(patch, 0, 5, StandardCharsets.US_ASCII));
+    assertArrayEquals(target, applyIps(source, patch));
+  }
+
+  @Test
+  public void bpsPatchShouldRecreateTarget() {
+    // given
+    final byte[] source = new byte[0x460000];
+    final byte[] target = createTarget(source);
+
+    // when
+    final byte[] patch = DeltaPatchFactory.createBps(source, target);
+
+    // then
+    assertEquals("BPS1", new String(patch, 0, 4, StandardCharsets.US_ASCII));
+    assertArrayEquals(target, applyBps(source, patch));
+    final CRC32 crc32 = new CRC32();
+    crc32.update(patch, 0, patch.length - 4);
+    assertEquals(crc32.getValue(), ByteBuffer.wrap(patch, patch.length - 4, 4).order(ByteOrder.LITTLE_ENDIAN).getInt() & 0xFFFFFFFFL);
+  }
+
+  @Test
+  public void nearbyChangesShouldShareOneRecord() {
+    // given
+    final byte[] source = new byte[0x460000];
+    final byte[] target = Arrays.copyOf(source, source.length);
+    final int start = AlttpRomPatcher.DEFAULT_SPRITEMAP_OFFSET;
+    // every other byte changed, like a recompressed spritemap.
+    for (int offset = start; offset < start + 100; offset += 2) {
+      target[offset] = 0x42;
+    }
+    // 4 unchanged bytes are cheaper than an IPS record header, but not than a BPS source read.
+    target[start + 98 + 5] = 0x42;
+    // 5 unchanged bytes cost as much as an IPS record header.
+    target[start + 98 + 5 + 6] = 0x42;
+
+    // when
+    final byte[] ipsPatch = DeltaPatchFactory.createIps(source, target);
+    final byte[] bpsPatch = DeltaPatchFactory.createBps(source, target);
+
+    // then
+    assertEquals(2, countIpsRecords(ipsPatch));
+    assertArrayEquals(target, applyIps(source, ipsPatch));
+    assertEquals(3, countBpsTargetReads(bpsPatch));
+    assertArrayEquals(target, applyBps(source, bpsPatch));
+  }
+
+  @Test
+  public void shouldRejectDifferentSizes() {
+    assertThrows(IllegalArgumentException.class, () -> DeltaPatchFactory.createIps(new byte[4], new byte[5]));
+    assertThrows(IllegalArgumentException.class, () -> DeltaPatchFactory.createBps(new byte[4], new byte[5]));
+  }
+
+  @Test
+  public void shouldGuessFormatFromFileName() {
+    assertEquals(DeltaPatchFormat.BPS, DeltaPatchFormat.fromFileName("seed.BPS"));
+    assertEquals(DeltaPatchFormat.IPS, DeltaPatchFormat.fromFileName("seed.ips"));
+  }
+
+  private static byte[] createTarget(final byte[] source) {
+    final byte[] target = Arrays.copyOf(source, source.length);
+    // a spritemap-like window, a single palette byte, a change at the IPS "EOF" offset and one at the very end.
+    Arrays.fill(target, AlttpRomPatcher.DEFAULT_SPRITEMAP_OFFSET, AlttpRomPatcher.DEFAULT_SPRITEMAP_OFFSET + 900, (byte) 0x42);
+    target[AlttpRomPatcher.PAL_LOC] = 0x04;
+    target[0x454F46] = 0x01;
+    target[target.length - 1] = 0x7F;
+
+    return target;
+  }
+
+  private static byte[] applyIps(final byte[] source, final byte[] patch) {
+    final byte[] result = Arrays.copyOf(source, source.length);
+    int pos = 5;
+
+    while (!"EOF".equals(new String(patch, pos, 3, StandardCharsets.US_ASCII))) {
+      final int offset = ((patch[pos] & 0xFF) << 16) | ((patch[pos + 1] & 0xFF) << 8) | (patch[pos + 2] & 0xFF);
+      final int size = ((patch[pos + 3] & 0xFF) << 8) | (patch[pos + 4] & 0xFF);
+      System.arraycopy(patch, pos + 5, result, offset, size);
+      pos += 5 + size;
+    }
+
+    return result;
+  }
+
+  private static int countIpsRecords(final byte[] patch) {
+    int records = 0;
+    int pos = 5;
+
+    while (!"EOF".equals(new String(patch, pos, 3, StandardCharsets.US_ASCII))) {
+      final int size = ((patch[pos + 3] & 0xFF) << 8) | (patch[pos + 4] & 0xFF);
+      pos += 5 + size;
+      records++;
+    }
+
+    return records;
+  }
+
+  private static int countBpsTargetReads(final byte[] patch) {
+    final int[] pos = {4};
+    readVarint(patch, pos);
+    readVarint(patch, pos);
+    readVarint(patch, pos);
+    int targetReads = 0;
+
+    while (pos[0] < patch.length - 12) {
+      final long data = readVarint(patch, pos);
+      if ((data & 3) != 0) {
+        pos[0] += (int) (data >>> 2) + 1;
+        targetReads++;
+      }
+    }
+
+    return targetReads;
+  }
+
+  private static byte[] applyBps(final byte[] source, final byte[] patch) {
+    final int[] pos = {4};
+    final int sourceSize = (int) readVarint(patch, pos);
+    final byte[] result = new byte[(int) readVarint(patch, pos)];
+    assertEquals(source.length, sourceSize);
+    assertEquals(0, readVarint(patch, pos));
+
+    int outputOffset = 0;
+    while (pos[0] < patch.length - 12) {
+      final long data = readVarint(patch, pos);
+      final int length = (int) (data >>> 2) + 1;
+
+      if ((data & 3) == 0) {
+        System.arraycopy(source, outputOffset, result, outputOffset, length);
+      } else {
+        System.arraycopy(patch, pos[0], result, outputOffset, length);
+        pos[0] += length;
+      }
+      outputOffset += length;
+    }
+
+    return result;
+  }
+
+  private static long readVarint(final byte[] patch, final int[] pos) {
+    long data = 0;
+    long shift = 1;
+
+    while (true) {
+      final int current = patch[pos[0]++] & 0xFF;
+      data += (current & 0x7F) * shift;
+      if ((current & 0x80) != 0) {
+        return data;
+      }
+      shift <<= 7;
+      data += shift;
+    }
+  }
+}
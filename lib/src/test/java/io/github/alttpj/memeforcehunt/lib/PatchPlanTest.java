@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.alttpj.memeforcehunt.common.value.ItemPalette;
+import io.github.alttpj.memeforcehunt.common.value.ItemSprite;
+import io.github.alttpj.memeforcehunt.common.value.ItemSpriteFactory;
+import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.common.value.TileSheet;
+import io.github.alttpj.memeforcehunt.common.value.ULID;
+
+import io.github.alttpj.library.compress.SnesCompressor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class PatchPlanTest {
+
+  private static final int FAKE_OFFSET = 0x1000;
+
+  private AlttpRomPatcher alttpRomPatcher;
+  private ItemSprite itemSprite;
+  private byte[] baseRom;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    this.alttpRomPatcher = new AlttpRomPatcher();
+    this.alttpRomPatcher.setOffset(FAKE_OFFSET);
+    this.alttpRomPatcher.setPaletteLocationChest(0x10);
+    this.alttpRomPatcher.setPaletteLocationOverworld(0x11);
+
+    this.baseRom = new byte[FAKE_OFFSET * 2];
+    try (final SnesCompressor snesCompressor = new SnesCompressor(new ByteArrayInputStream(new byte[1536]))) {
+      final byte[] compressed = snesCompressor.getCompressed().toByteArray();
+      System.arraycopy(compressed, 0, this.baseRom, FAKE_OFFSET, compressed.length);
+    }
+
+    final byte[] tileBytes = new byte[TileFactory.BYTES_PER_TILE * 4];
+    for (int tileNumber = 0; tileNumber < 4; tileNumber++) {
+      Arrays.fill(tileBytes, tileNumber * TileFactory.BYTES_PER_TILE, (tileNumber + 1) * TileFactory.BYTES_PER_TILE, (byte) (tileNumber + 1));
+    }
+    final TileSheet tiles = TileSheet.of(tileBytes);
+
+    final SpritemapWithSkin spritemapWithSkin = Mockito.mock(SpritemapWithSkin.class);
+    Mockito.when(spritemapWithSkin.getId()).thenReturn(new ULID().nextValue());
+    Mockito.when(spritemapWithSkin.getSpriteName()).thenReturn("test");
+    Mockito.when(spritemapWithSkin.getItemPalette()).thenReturn(ItemPalette.RED.getPaletteIdChest());
+    Mockito.when(spritemapWithSkin.getPaletteOW()).thenReturn(ItemPalette.RED.getPaletteIdOverworld());
+    this.itemSprite = ItemSpriteFactory.fromSpritemapWithSkin(spritemapWithSkin, tiles);
+  }
+
+  @Test
+  public void planShouldEqualDirectPatch() throws IOException {
+    // given
+    final byte[] directlyPatched = Arrays.copyOf(this.baseRom, this.baseRom.length);
+    this.alttpRomPatcher.writeItemSprite(directlyPatched, this.itemSprite);
+
+    // when
+    final PatchPlan patchPlan = this.alttpRomPatcher.createPatchPlan(this.baseRom, this.itemSprite);
+    final byte[] copy = Arrays.copyOf(this.baseRom, this.baseRom.length);
+    patchPlan.applyTo(copy);
+
+    // then
+    assertArrayEquals(directlyPatched, copy);
+  }
+
+  @Test
+  public void planShouldBeApplicableToFiles(@TempDir final Path tempDir) throws IOException {
+    // given
+    final PatchPlan patchPlan = this.alttpRomPatcher.createPatchPlan(this.baseRom, this.itemSprite);
+    final Path romFile = Files.write(tempDir.resolve("rom.sfc"), this.baseRom);
+    final byte[] expected = Arrays.copyOf(this.baseRom, this.baseRom.length);
+    patchPlan.applyTo(expected);
+
+    // when
+    patchPlan.applyTo(romFile.toString());
+
+    // then
+    assertArrayEquals(expected, Files.readAllBytes(romFile));
+  }
+
+  @Test
+  public void planShouldRejectDifferentBase(@TempDir final Path tempDir) throws IOException {
+    // given a ROM with a different spritemap region
+    final PatchPlan patchPlan = this.alttpRomPatcher.createPatchPlan(this.baseRom, this.itemSprite);
+    final byte[] otherRom = Arrays.copyOf(this.baseRom, this.baseRom.length);
+    otherRom[FAKE_OFFSET + 2] ^= 0x55;
+    final Path otherRomFile = Files.write(tempDir.resolve("other.sfc"), otherRom);
+
+    // when / then
+    assertFalse(patchPlan.matches(otherRom));
+    assertTrue(patchPlan.matches(this.baseRom));
+    assertThrows(IOException.class, () -> patchPlan.applyTo(otherRom));
+    assertFalse(patchPlan.tryApplyTo(otherRomFile.toString()));
+    assertArrayEquals(otherRom, Files.readAllBytes(otherRomFile));
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.alttpj.memeforcehunt.lib;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.alttpj.library.image.palette.Palette3bpp;
+import io.github.alttpj.memeforcehunt.common.value.AbstractSpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.common.value.ItemPalette;
+import io.github.alttpj.memeforcehunt.common.value.TileSheet;
+import io.github.alttpj.memeforcehunt.lib.impl.TilePreviewRenderer;
+import io.github.alttpj.memeforcehunt.lib.impl.YamlProvider;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.imageio.ImageIO;
+
+public class PreviewRendererTest {
+
+  /**
+   * Shipped previews which do not show exactly what the spritemap contains, e.g. hand-edited shading which is not
+   * part of the palette, a few changed pixels, or an older version of the spritemap. For these skins, a rendered
+   * preview differs from the shipped PNG. All other shipped previews match the rendered ones.
+   */
+  private static final Set<String> PREVIEWS_DIFFERING_FROM_SPRITEMAP = Set.of(
+      "banana", "benana", "circlekey", "coin", "cupcake", "diedicedice", "ghost", "gpendant", "klonoastar", "leaf",
+      "lobster", "magicite", "mail", "meat", "nobomb", "parasol", "python", "ring", "sandwich", "scookie",
+      "screwattack", "shine", "snescontroller", "spaghetti", "steamedham", "sundrop", "tile");
+
+  /**
+   * SNES colours have 5 bits per channel. Image editors expand them to 8 bits either as {@code c << 3} or as
+   * {@code c << 3 | c >> 2}, so a channel may differ by up to 7.
+   */
+  private static final int CHANNEL_TOLERANCE = 7;
+
+  public static Stream<Map<String, String>> shippedSkins() throws IOException {
+    try (final InputStream spritesYaml = PreviewRendererTest.class.getResourceAsStream("/sprites/sprites.yaml")) {
+      final List<Map<String, String>> skins = YamlProvider.getObjectMapper().readValue(spritesYaml, new TypeReference<>() { });
+
+      return skins.stream().filter(skin -> !PREVIEWS_DIFFERING_FROM_SPRITEMAP.contains(skin.get("spriteName")));
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("shippedSkins")
+  public void renderedPreviewShouldMatchShippedPng(final Map<String, String> skin) throws IOException {
+    // given
+    final BufferedImage shipped;
+    try (final InputStream previewStream = getClass().getResourceAsStream(skin.get("preview"))) {
+      shipped = ImageIO.read(previewStream);
+    }
+
+    // when
+    final BufferedImage rendered = new TilePreviewRenderer().render(toSpritemapWithSkin(skin));
+
+    // then
+    assertEquals(shipped.getWidth(), rendered.getWidth());
+    assertEquals(shipped.getHeight(), rendered.getHeight());
+    for (int y = 0; y < shipped.getHeight(); y++) {
+      for (int x = 0; x < shipped.getWidth(); x++) {
+        final int expected = shipped.getRGB(x, y);
+        final int actual = rendered.getRGB(x, y);
+        final String pixel = skin.get("spriteName") + " at (" + x + ", " + y + ")";
+
+        assertEquals(expected >>> 24 == 0, actual >>> 24 == 0, "transparency of " + pixel);
+        if (expected >>> 24 != 0) {
+          assertTrue(isSameColor(expected, actual),
+              String.format("colour of %s: expected [%06X] but was [%06X].", pixel, expected & 0xFFFFFF, actual & 0xFFFFFF));
+        }
+      }
+    }
+  }
+
+  private static boolean isSameColor(final int expected, final int actual) {
+    for (int shift = 0; shift < 24; shift += 8) {
+      if (Math.abs((expected >>> shift & 0xFF) - (actual >>> shift & 0xFF)) > CHANNEL_TOLERANCE) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static AbstractSpritemapWithSkin toSpritemapWithSkin(final Map<String, String> skin) {
+    return new AbstractSpritemapWithSkin(skin.get("ulid"), skin.get("spriteName"), "", "", ItemPalette.valueOf(skin.get("palette"))) {
+      @Override
+      public BufferedImage getImage() {
+        return renderPreview();
+      }
+
+      @Override
+      protected InputStream getSpritemapInputStream() {
+        final InputStream spritemapStream = PreviewRendererTest.class.getResourceAsStream(skin.get("uri"));
+        if (spritemapStream == null) {
+          throw new UncheckedIOException(new IOException("Spritemap [" + skin.get("uri") + "] not found."));
+        }
+
+        return spritemapStream;
+      }
+    };
+  }
+
+  @Test
+  public void shouldPlaceTilesInGridAndMapColors() {
+    // given each tile filled with a different palette index
+    final byte[] pixels = new byte[PreviewRenderer.TILE_COUNT * Snes3bppTileCodec.PIXELS_PER_TILE];
+    for (int tileIndex = 0; tileIndex < PreviewRenderer.TILE_COUNT; tileIndex++) {
+      for (int pixel = 0; pixel < Snes3bppTileCodec.PIXELS_PER_TILE; pixel++) {
+        pixels[tileIndex * Snes3bppTileCodec.PIXELS_PER_TILE + pixel] = (byte) (tileIndex + 1);
+      }
+    }
+    final byte[] packed = new byte[PreviewRenderer.TILE_COUNT * TileSheet.BYTES_PER_TILE];
+    Snes3bppTileCodec.encodeTiles(pixels, 0, packed, 0, PreviewRenderer.TILE_COUNT);
+
+    // when
+    final BufferedImage preview = PreviewRenderer.renderImage(TileSheet.of(packed), ItemPalette.RED);
+
+    // then
+    assertAll(
+        () -> assertEquals(PreviewRenderer.PREVIEW_SIZE, preview.getWidth()),
+        () -> assertEquals(argb(Palette3bpp.RED.getColor(1)), preview.getRGB(0, 0)),
+        () -> assertEquals(argb(Palette3bpp.RED.getColor(2)), preview.getRGB(15, 7)),
+        () -> assertEquals(argb(Palette3bpp.RED.getColor(3)), preview.getRGB(0, 8)),
+        () -> assertEquals(argb(Palette3bpp.RED.getColor(4)), preview.getRGB(15, 15))
+    );
+  }
+
+  @Test
+  public void colorZeroShouldBeTransparent() {
+    // given
+    final TileSheet emptyTiles = TileSheet.of(new byte[PreviewRenderer.TILE_COUNT * TileSheet.BYTES_PER_TILE]);
+
+    // when
+    final int[] argb = PreviewRenderer.renderArgb(emptyTiles, ItemPalette.GREEN);
+
+    // then
+    assertEquals(0, argb[0] >>> 24);
+  }
+
+  @Test
+  public void shouldRejectWrongTileCount() {
+    final TileSheet twoTiles = TileSheet.of(new byte[2 * TileSheet.BYTES_PER_TILE]);
+
+    assertThrows(IllegalArgumentException.class, () -> PreviewRenderer.renderArgb(twoTiles, ItemPalette.GREEN));
+  }
+
+  private static int argb(final int[] rgba) {
+    return (rgba[3] == 255 ? 0xFF : 0x00) << 24 | rgba[0] << 16 | rgba[1] << 8 | rgba[2];
+  }
+}
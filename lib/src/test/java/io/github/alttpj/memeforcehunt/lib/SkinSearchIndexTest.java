@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.alttpj.memeforcehunt.common.value.AbstractSpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.common.value.ItemPalette;
+import io.github.alttpj.memeforcehunt.common.value.SpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.common.value.ULID;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.util.List;
+
+public class SkinSearchIndexTest {
+
+  private static final ULID.MonotonicGenerator ULIDS = new ULID.MonotonicGenerator();
+
+  private final SpritemapWithSkin boots = createSkin("Pegasus Boots", "boots", "Gotta go fast.", "Nintendo", List.of("running shoes"));
+  private final SpritemapWithSkin moonboots = createSkin("Moon Boots", "moonboots", "One small step.", "bitsplosion", List.of());
+  private final SpritemapWithSkin cake = createSkin("Cake", "cake", "The cake is a lie.", "Pegasus Fan", List.of("portal"));
+
+  @Test
+  public void shouldRankDisplayNameAboveAuthor() {
+    // given
+    final SkinSearchIndex searchIndex = new SkinSearchIndex(List.of(this.cake, this.moonboots, this.boots));
+
+    // when
+    final List<SpritemapWithSkin> results = searchIndex.search("pegasus");
+
+    // then
+    assertEquals(List.of(this.boots, this.cake), results);
+  }
+
+  @Test
+  public void shouldMatchPrefixesTagsAndTypos() {
+    // given
+    final SkinSearchIndex searchIndex = new SkinSearchIndex(List.of(this.cake, this.moonboots, this.boots));
+
+    // when / then
+    assertEquals(List.of(this.boots, this.cake), searchIndex.search("peg"));
+    assertEquals(List.of(this.boots), searchIndex.search("RUNNING"));
+    assertEquals(List.of(this.boots), searchIndex.search("pegsus boot"));
+    assertEquals(List.of(this.moonboots, this.boots), searchIndex.search("boots"));
+    assertTrue(searchIndex.search("  ").isEmpty());
+    assertTrue(searchIndex.search("cake shoes").isEmpty());
+  }
+
+  @Test
+  public void shouldUpdateIncrementally() {
+    // given
+    final SkinSearchIndex searchIndex = new SkinSearchIndex(List.of(this.cake, this.boots));
+    final SpritemapWithSkin pie = createSkin("Pie", "pie", "Not a lie.", "me", List.of("portal"));
+
+    // when
+    searchIndex.remove(this.cake);
+    searchIndex.add(pie);
+
+    // then
+    assertEquals(List.of(pie), searchIndex.search("portal"));
+    assertTrue(searchIndex.search("cake").isEmpty());
+    assertEquals(2, searchIndex.size());
+  }
+
+  private static SpritemapWithSkin createSkin(final String displayName,
+                                              final String spriteName,
+                                              final String description,
+                                              final String author,
+                                              final List<String> tags) {
+    return new AbstractSpritemapWithSkin(ULIDS.nextValue(), spriteName, displayName, description, author, ItemPalette.GREEN) {
+      @Override
+      public List<String> getTags() {
+        return tags;
+      }
+
+      @Override
+      public BufferedImage getImage() {
+        return null;
+      }
+
+      @Override
+      protected InputStream getSpritemapInputStream() {
+        return InputStream.nullInputStream();
+      }
+    };
+  }
+}
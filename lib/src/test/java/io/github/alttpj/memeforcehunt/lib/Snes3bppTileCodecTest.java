@@ -0,0 +1,166 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.alttpj.library.image.SnesTilePacker;
+import io.github.alttpj.library.image.SnesTileUnpacker;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class Snes3bppTileCodecTest {
+
+  private static final int ITERATIONS = 500;
+
+  @Test
+  public void everyPlaneByteShouldDecodeLikeUnpacker() {
+    final SnesTileUnpacker unpacker = new SnesTileUnpacker();
+    final byte[] packed = new byte[Snes3bppTileCodec.BYTES_PER_TILE];
+    final byte[] pixels = new byte[Snes3bppTileCodec.PIXELS_PER_TILE];
+
+    for (int planeByte = 0; planeByte < Snes3bppTileCodec.BYTES_PER_TILE; planeByte++) {
+      for (int value = 0; value < 256; value++) {
+        Arrays.fill(packed, (byte) 0);
+        packed[planeByte] = (byte) value;
+
+        Snes3bppTileCodec.decodeTile(packed, 0, pixels, 0);
+
+        assertArrayEquals(unpacker.unpack3bppTiles(packed), pixels, "byte " + planeByte + " = " + value);
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 7, 23})
+  public void randomTilesShouldDecodeLikeUnpacker(final int offset) {
+    final SplittableRandom random = new SplittableRandom(offset);
+    final SnesTileUnpacker unpacker = new SnesTileUnpacker();
+    final byte[] packed = new byte[offset + Snes3bppTileCodec.BYTES_PER_TILE * 4];
+    final byte[] pixels = new byte[offset + Snes3bppTileCodec.PIXELS_PER_TILE * 4];
+
+    for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+      random.nextBytes(packed);
+
+      Snes3bppTileCodec.decodeTiles(packed, offset, pixels, offset, 4);
+
+      final byte[] expected = unpacker.unpack3bppTiles(Arrays.copyOfRange(packed, offset, packed.length));
+      assertArrayEquals(expected, Arrays.copyOfRange(pixels, offset, pixels.length));
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 7, 23})
+  public void randomPixelsShouldEncodeLikePacker(final int offset) {
+    final SplittableRandom random = new SplittableRandom(offset);
+    final SnesTilePacker packer = new SnesTilePacker();
+    final byte[] pixels = new byte[offset + Snes3bppTileCodec.PIXELS_PER_TILE * 4];
+    final byte[] packed = new byte[offset + Snes3bppTileCodec.BYTES_PER_TILE * 4];
+
+    for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+      for (int pixel = 0; pixel < pixels.length; pixel++) {
+        pixels[pixel] = (byte) random.nextInt(8);
+      }
+
+      Snes3bppTileCodec.encodeTiles(pixels, offset, packed, offset, 4);
+
+      final byte[] expected = packer.pack3bppTiles(Arrays.copyOfRange(pixels, offset, pixels.length));
+      assertArrayEquals(expected, Arrays.copyOfRange(packed, offset, packed.length));
+    }
+  }
+
+  @Test
+  public void packedTilesShouldRoundTrip() {
+    final SplittableRandom random = new SplittableRandom(0x3B99L);
+    final byte[] packed = new byte[Snes3bppTileCodec.BYTES_PER_TILE * 4];
+    final byte[] pixels = new byte[Snes3bppTileCodec.PIXELS_PER_TILE * 4];
+    final byte[] repacked = new byte[packed.length];
+
+    for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+      random.nextBytes(packed);
+
+      Snes3bppTileCodec.decodeTiles(packed, 0, pixels, 0, 4);
+      Snes3bppTileCodec.encodeTiles(pixels, 0, repacked, 0, 4);
+
+      assertArrayEquals(packed, repacked);
+    }
+  }
+
+  @Test
+  public void strideShouldPlaceTilesInGrid() {
+    // given four tiles of a 16x16 sprite, as in the editor
+    final SplittableRandom random = new SplittableRandom(16L);
+    final byte[] packed = new byte[Snes3bppTileCodec.BYTES_PER_TILE * 4];
+    random.nextBytes(packed);
+    final byte[] tilePixels = new byte[Snes3bppTileCodec.PIXELS_PER_TILE * 4];
+    Snes3bppTileCodec.decodeTiles(packed, 0, tilePixels, 0, 4);
+
+    // when
+    final byte[] grid = new byte[16 * 16];
+    for (int tileIndex = 0; tileIndex < 4; tileIndex++) {
+      Snes3bppTileCodec.decodeTile(packed, tileIndex * Snes3bppTileCodec.BYTES_PER_TILE, grid, gridOffset(tileIndex), 16);
+    }
+    final byte[] repacked = new byte[packed.length];
+    for (int tileIndex = 0; tileIndex < 4; tileIndex++) {
+      Snes3bppTileCodec.encodeTile(grid, gridOffset(tileIndex), 16, repacked, tileIndex * Snes3bppTileCodec.BYTES_PER_TILE);
+    }
+
+    // then
+    assertAll(
+        () -> assertEquals(tilePixels[0], grid[0]),
+        () -> assertEquals(tilePixels[64 + 7], grid[15]),
+        () -> assertEquals(tilePixels[128 + 8], grid[16 * 9]),
+        () -> assertEquals(tilePixels[255], grid[255]),
+        () -> assertArrayEquals(packed, repacked)
+    );
+  }
+
+  @Test
+  public void encodeShouldIgnoreHighBits() {
+    final byte[] pixels = new byte[Snes3bppTileCodec.PIXELS_PER_TILE];
+    Arrays.fill(pixels, (byte) 0xF8);
+    final byte[] packed = new byte[Snes3bppTileCodec.BYTES_PER_TILE];
+
+    Snes3bppTileCodec.encodeTile(pixels, 0, packed, 0);
+
+    assertArrayEquals(new byte[Snes3bppTileCodec.BYTES_PER_TILE], packed);
+  }
+
+  @Test
+  public void shouldRejectOutOfBounds() {
+    final byte[] packed = new byte[Snes3bppTileCodec.BYTES_PER_TILE];
+    final byte[] pixels = new byte[Snes3bppTileCodec.PIXELS_PER_TILE];
+
+    assertAll(
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> Snes3bppTileCodec.decodeTile(packed, 1, pixels, 0)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> Snes3bppTileCodec.decodeTile(packed, 0, pixels, 1)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> Snes3bppTileCodec.encodeTile(pixels, 0, 9, packed, 0)),
+        () -> assertThrows(IllegalArgumentException.class, () -> Snes3bppTileCodec.encodeTile(pixels, 0, 7, packed, 0))
+    );
+  }
+
+  private static int gridOffset(final int tileIndex) {
+    return (tileIndex / 2) * 8 * 16 + (tileIndex % 2) * 8;
+  }
+}
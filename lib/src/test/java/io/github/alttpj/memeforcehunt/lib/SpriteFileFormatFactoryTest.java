@@ -17,6 +17,7 @@
 package io.github.alttpj.memeforcehunt.lib;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -25,6 +26,10 @@ import static org.mockito.Mockito.when;
 
 import io.github.alttpj.library.image.palette.Palette;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
 
 public class SpriteFileFormatFactoryTest {
 
@@ -62,4 +67,26 @@ public class SpriteFileFormatFactoryTest {
         () -> assertEquals(palette.getName(), spriteFileFormat.colorPaletteName())
     );
   }
+
+  @Test
+  public void savedFileShouldBeReadable(@TempDir final File tempDir) throws IOException {
+    // given
+    final byte[] data = new byte[TileFactory.BYTES_PER_TILE * 4];
+    data[5] = 0x42;
+    final Palette palette = mock(Palette.class);
+    when(palette.getName()).thenReturn("RED");
+    final SpriteFileFormat spriteFileFormat = SpriteFileFormatFactory.create("asd", "me", data, palette);
+
+    // when
+    final File spriteFile = new File(tempDir, "sprite.yaml");
+    SpriteFileFormatFactory.saveFile(spriteFileFormat, spriteFile);
+    final SpriteFileFormat read = SpriteFileFormatFactory.fromFile(spriteFile);
+
+    // then
+    assertAll(
+        () -> assertEquals(spriteFileFormat.ulid(), read.ulid()),
+        () -> assertEquals(spriteFileFormat.colorPaletteName(), read.colorPaletteName()),
+        () -> assertArrayEquals(data, read.data())
+    );
+  }
 }
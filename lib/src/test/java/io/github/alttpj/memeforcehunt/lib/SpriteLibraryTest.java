@@ -0,0 +1,166 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.github.alttpj.library.image.palette.Palette;
+import io.github.alttpj.memeforcehunt.common.value.ItemPalette;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class SpriteLibraryTest {
+
+  @Test
+  public void scanShouldOnlyParseChangedFiles(@TempDir final Path tempDir) throws IOException {
+    // given
+    final Path libraryDirectory = Files.createDirectories(tempDir.resolve("library/nested"));
+    final Path indexFile = tempDir.resolve("library-index.yaml");
+    writeSprite(tempDir.resolve("library/boots.zspr.yaml"), "Boots", (byte) 1);
+    writeSprite(tempDir.resolve("library/arrow.zspr.yaml"), "Arrow", (byte) 2);
+    final Path nestedSprite = writeSprite(libraryDirectory.resolve("cake.zspr.yaml"), "Cake", (byte) 3);
+    Files.writeString(tempDir.resolve("library/readme.txt"), "not a sprite");
+
+    // when
+    final int parsedFirst = new SpriteLibrary(List.of(tempDir.resolve("library")), indexFile).scan();
+    final SpriteLibrary secondRun = new SpriteLibrary(List.of(tempDir.resolve("library")), indexFile);
+    final int parsedSecond = secondRun.scan();
+
+    writeSprite(nestedSprite, "Pie", (byte) 3);
+    Files.setLastModifiedTime(nestedSprite, FileTime.fromMillis(Files.getLastModifiedTime(nestedSprite).toMillis() + 2_000L));
+    final SpriteLibrary thirdRun = new SpriteLibrary(List.of(tempDir.resolve("library")), indexFile);
+    final int parsedThird = thirdRun.scan();
+
+    // then
+    assertEquals(3, parsedFirst);
+    assertEquals(0, parsedSecond);
+    assertEquals(List.of("Arrow", "Boots", "Cake"), displayNames(secondRun));
+    assertEquals("boots", secondRun.values().get(1).getSpriteName());
+    assertEquals(1, parsedThird);
+    assertEquals(List.of("Arrow", "Boots", "Pie"), displayNames(thirdRun));
+  }
+
+  @Test
+  public void librarySpriteShouldContainTilesOfFile(@TempDir final Path tempDir) throws IOException {
+    // given
+    writeSprite(tempDir.resolve("boots.zspr.yaml"), "Boots", (byte) 0x42);
+    final SpriteLibrary spriteLibrary = new SpriteLibrary(List.of(tempDir), tempDir.resolve("index/library-index.yaml"));
+    spriteLibrary.scan();
+
+    // when
+    final byte[] tiles = new byte[TileFactory.BYTES_PER_TILE * 4];
+    TileFactory.fromSpritemapWithSkin(spriteLibrary.values().get(0)).copyTo(tiles, 0);
+
+    // then
+    assertArrayEquals(createData((byte) 0x42), tiles);
+  }
+
+  @Test
+  public void identicalSpritesShouldShareOneSpritemap(@TempDir final Path tempDir) throws IOException {
+    // given
+    writeSprite(tempDir.resolve("boots.zspr.yaml"), "Boots", (byte) 7);
+    writeSprite(tempDir.resolve("moonboots.zspr.yaml"), "Moon Boots", (byte) 7);
+    writeSprite(tempDir.resolve("cake.zspr.yaml"), "Cake", (byte) 8);
+    final SpriteLibrary spriteLibrary = new SpriteLibrary(List.of(tempDir), tempDir.resolve("library-index.yaml"));
+    spriteLibrary.scan();
+    final List<LibrarySpritemapWithSkin> sprites = spriteLibrary.values();
+
+    // when
+    for (final LibrarySpritemapWithSkin sprite : sprites) {
+      sprite.getDataBuffer();
+    }
+    final List<DuplicateSkinFinder.DuplicateGroup> duplicates = DuplicateSkinFinder.find(sprites);
+
+    // then
+    assertEquals(ContentHash.of(createData((byte) 7), ItemPalette.BLUE.getPaletteIdChest(), ItemPalette.BLUE.getPaletteIdOverworld()),
+        sprites.get(0).getContentHash());
+    // sorted by display name: Boots, Cake, Moon Boots.
+    assertEquals(sprites.get(0).getContentHash(), sprites.get(2).getContentHash());
+    assertNotEquals(sprites.get(0).getContentHash(), sprites.get(1).getContentHash());
+    assertEquals(2, spriteLibrary.getContentStore().size());
+    assertEquals(1, spriteLibrary.getContentStore().getHits());
+    assertEquals(1, duplicates.size());
+    assertEquals(List.of(sprites.get(0), sprites.get(2)), duplicates.get(0).skins());
+  }
+
+  @Test
+  public void watchShouldAddAndRemoveSprites(@TempDir final Path tempDir) throws IOException, InterruptedException {
+    // given
+    final Path existingSprite = writeSprite(tempDir.resolve("boots.zspr.yaml"), "Boots", (byte) 1);
+    try (final SpriteLibrary spriteLibrary = new SpriteLibrary(List.of(tempDir), tempDir.resolve("library-index.yaml"))) {
+      spriteLibrary.scan();
+      spriteLibrary.watch();
+
+      // when
+      writeSprite(tempDir.resolve("arrow.zspr.yaml"), "Arrow", (byte) 2);
+      Files.delete(existingSprite);
+
+      // then
+      assertTrue(awaitSprites(spriteLibrary, List.of("Arrow")), "library should only contain the new sprite");
+    }
+  }
+
+  private static boolean awaitSprites(final SpriteLibrary spriteLibrary, final List<String> expected) throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10L);
+
+    while (System.nanoTime() < deadline) {
+      if (displayNames(spriteLibrary).equals(expected)) {
+        return true;
+      }
+
+      Thread.sleep(20L);
+    }
+
+    return false;
+  }
+
+  private static List<String> displayNames(final SpriteLibrary spriteLibrary) {
+    return spriteLibrary.values().stream()
+        .map(LibrarySpritemapWithSkin::getDisplayName)
+        .collect(Collectors.toList());
+  }
+
+  private static Path writeSprite(final Path spriteFile, final String displayName, final byte fill) throws IOException {
+    final Palette palette = mock(Palette.class);
+    when(palette.getName()).thenReturn("BLUE");
+    SpriteFileFormatFactory.saveFile(SpriteFileFormatFactory.create(displayName, "me", createData(fill), palette), spriteFile.toFile());
+
+    return spriteFile;
+  }
+
+  private static byte[] createData(final byte fill) {
+    final byte[] data = new byte[TileFactory.BYTES_PER_TILE * 4];
+    for (int pos = 0; pos < data.length; pos++) {
+      data[pos] = (byte) (fill + pos);
+    }
+
+    return data;
+  }
+}
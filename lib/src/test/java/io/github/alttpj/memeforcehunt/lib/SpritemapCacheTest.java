@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.alttpj.library.compress.SnesCompressor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+public class SpritemapCacheTest {
+
+  @Test
+  public void shouldCountHitsAndMisses() throws IOException {
+    // given
+    final SpritemapCache spritemapCache = new SpritemapCache(2);
+    final byte[] decompressed = createSpritemap(1);
+    final byte[] compressedRegion = compress(decompressed);
+
+    // when
+    final byte[] first = spritemapCache.getDecompressed(compressedRegion);
+    final byte[] second = spritemapCache.getDecompressed(compressedRegion);
+
+    // then
+    assertArrayEquals(decompressed, first);
+    assertArrayEquals(decompressed, second);
+    assertEquals(1, spritemapCache.getHits());
+    assertEquals(1, spritemapCache.getMisses());
+  }
+
+  @Test
+  public void shouldReturnDefensiveCopies() throws IOException {
+    // given
+    final SpritemapCache spritemapCache = new SpritemapCache(2);
+    final byte[] decompressed = createSpritemap(2);
+    final byte[] compressedRegion = compress(decompressed);
+
+    // when modifying a returned spritemap
+    final byte[] first = spritemapCache.getDecompressed(compressedRegion);
+    Arrays.fill(first, (byte) 0x7F);
+
+    // then the cached spritemap is unchanged
+    assertArrayEquals(decompressed, spritemapCache.getDecompressed(compressedRegion));
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsed() throws IOException {
+    // given
+    final SpritemapCache spritemapCache = new SpritemapCache(2);
+    final byte[] regionA = compress(createSpritemap(3));
+    final byte[] regionB = compress(createSpritemap(4));
+    final byte[] regionC = compress(createSpritemap(5));
+
+    // when A is used again before C is added
+    spritemapCache.getDecompressed(regionA);
+    spritemapCache.getDecompressed(regionB);
+    spritemapCache.getDecompressed(regionA);
+    spritemapCache.getDecompressed(regionC);
+    spritemapCache.getDecompressed(regionA);
+    spritemapCache.getDecompressed(regionB);
+
+    // then only B was evicted
+    assertEquals(2, spritemapCache.size());
+    assertEquals(2, spritemapCache.getHits());
+    assertEquals(4, spritemapCache.getMisses());
+  }
+
+  private static byte[] createSpritemap(final int seed) {
+    final byte[] spritemap = new byte[1536];
+    for (int pos = 0; pos < spritemap.length; pos += 16) {
+      spritemap[pos] = (byte) (seed + pos);
+    }
+
+    return spritemap;
+  }
+
+  private static byte[] compress(final byte[] decompressed) throws IOException {
+    try (final SnesCompressor snesCompressor = new SnesCompressor(new ByteArrayInputStream(decompressed))) {
+      return snesCompressor.getCompressed().toByteArray();
+    }
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.alttpj.library.image.SnesTileUnpacker;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class SpritemapPixelDecoderTest {
+
+  @ParameterizedTest
+  @CsvSource({
+      "64, 16",
+      "64, 1",
+      "63, 16",
+      "61, 17",
+      "5, 64",
+      "0, 16",
+  })
+  public void shouldPlaceTilesLikeUnpacker(final int tileCount, final int tilesPerRow) {
+    // given
+    final int packedOffset = 5;
+    final byte[] packed = new byte[packedOffset + tileCount * Snes3bppTileCodec.BYTES_PER_TILE];
+    new SplittableRandom(tileCount * 31L + tilesPerRow).nextBytes(packed);
+    final byte[] expected = unpackIntoImage(Arrays.copyOfRange(packed, packedOffset, packed.length), tileCount, tilesPerRow);
+
+    // when
+    final byte[] pixels = new byte[expected.length];
+    SpritemapPixelDecoder.decode(packed, packedOffset, tileCount, tilesPerRow, pixels);
+
+    // then
+    assertArrayEquals(expected, pixels);
+  }
+
+  @Test
+  public void shouldDecodeShippedSpritemap() throws IOException {
+    // given
+    final byte[] spritemap;
+    try (InputStream spritemapStream = getClass().getResourceAsStream("/uncompressed/u_benana.bin")) {
+      spritemap = spritemapStream.readAllBytes();
+    }
+
+    // when
+    final byte[] pixels = SpritemapPixelDecoder.decode(spritemap);
+
+    // then
+    assertAll(
+        () -> assertEquals(128 * 32, pixels.length),
+        () -> assertArrayEquals(unpackIntoImage(spritemap, 64, 16), pixels)
+    );
+  }
+
+  @Test
+  public void shouldRejectSmallBuffers() {
+    final byte[] packed = new byte[Snes3bppTileCodec.BYTES_PER_TILE * 4];
+
+    assertAll(
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> SpritemapPixelDecoder.decode(packed, 1, 4, 4, new byte[256])),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> SpritemapPixelDecoder.decode(packed, 0, 4, 4, new byte[255])),
+        () -> assertThrows(IllegalArgumentException.class, () -> SpritemapPixelDecoder.decode(packed, 0, 4, 0, new byte[256]))
+    );
+  }
+
+  /**
+   * Unpacks with the alttpj library and copies each 8x8 tile into its place in the image.
+   */
+  private static byte[] unpackIntoImage(final byte[] packed, final int tileCount, final int tilesPerRow) {
+    final byte[] tiles = new SnesTileUnpacker().unpack3bppTiles(packed);
+    final int width = tilesPerRow * 8;
+    final byte[] image = new byte[width * SpritemapPixelDecoder.getHeight(tileCount, tilesPerRow)];
+
+    for (int tileIndex = 0; tileIndex < tileCount; tileIndex++) {
+      for (int row = 0; row < 8; row++) {
+        final int imageOffset = (tileIndex / tilesPerRow * 8 + row) * width + tileIndex % tilesPerRow * 8;
+        System.arraycopy(tiles, tileIndex * 64 + row * 8, image, imageOffset, 8);
+      }
+    }
+
+    return image;
+  }
+}
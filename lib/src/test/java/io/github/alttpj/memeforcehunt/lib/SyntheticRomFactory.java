@@ -0,0 +1,203 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import io.github.alttpj.memeforcehunt.common.value.ItemPalette;
+import io.github.alttpj.memeforcehunt.lib.compress.CompressionMode;
+import io.github.alttpj.memeforcehunt.lib.compress.Lz2Compressor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Creates ROM images for tests and benchmarks, as real ROMs cannot be shipped.
+ *
+ * <p>Each image is filled with pseudo random bytes and contains a compressed spritemap built from one of the
+ * shipped {@code /uncompressed/u_*.bin} files, plus the palette bytes of a random {@link ItemPalette}.
+ * The same seed always creates the same image, different seeds create (almost always) different images.</p>
+ *
+ * <p>A 1 MiB image has no room at the default addresses, so all addresses are moved down by 1 MiB.
+ * Use {@link #createPatcher()} to get a patcher which uses the addresses of the images.</p>
+ */
+public final class SyntheticRomFactory {
+
+  public static final int ONE_MEGABYTE = 1024 * 1024;
+  public static final int TWO_MEGABYTES = 2 * ONE_MEGABYTE;
+  public static final int FOUR_MEGABYTES = 4 * ONE_MEGABYTE;
+
+  private static final String UNCOMPRESSED_DIRECTORY = "/uncompressed";
+
+  /**
+   * The shipped spritemaps, compressed once and shared by all factories.
+   */
+  private static final List<SyntheticSpritemap> SPRITEMAPS = loadSpritemaps();
+
+  private final int romSize;
+
+  private final int addressShift;
+
+  public SyntheticRomFactory(final int romSize) {
+    if (romSize != ONE_MEGABYTE && romSize != TWO_MEGABYTES && romSize != FOUR_MEGABYTES) {
+      throw new IllegalArgumentException("ROM size must be 1, 2 or 4 MiB, but was [" + romSize + "] bytes.");
+    }
+
+    this.romSize = romSize;
+    this.addressShift = romSize == ONE_MEGABYTE ? ONE_MEGABYTE : 0;
+  }
+
+  /**
+   * Creates a ROM image.
+   *
+   * @param seed determines the filler bytes, the spritemap and the palette.
+   * @return a new ROM image.
+   */
+  public SyntheticRom create(final long seed) {
+    final SplittableRandom random = new SplittableRandom(seed);
+    final byte[] rom = new byte[this.romSize];
+    random.nextBytes(rom);
+
+    final SyntheticSpritemap spritemap = SPRITEMAPS.get(random.nextInt(SPRITEMAPS.size()));
+    System.arraycopy(spritemap.compressed(), 0, rom, getSpritemapOffset(), spritemap.compressed().length);
+
+    final ItemPalette itemPalette = ItemPalette.values()[random.nextInt(ItemPalette.values().length)];
+    rom[getPaletteLocationChest()] = itemPalette.getPaletteIdChest();
+    rom[getPaletteLocationOverworld()] = itemPalette.getPaletteIdOverworld();
+
+    return new SyntheticRom(rom, spritemap.name(), itemPalette);
+  }
+
+  /**
+   * Creates a ROM image and writes it to {@code rom-<seed>.sfc} in the given directory.
+   *
+   * @param directory the directory to write the file to.
+   * @param seed      see {@link #create(long)}.
+   * @return the path of the new file.
+   * @throws IOException if the file could not be written.
+   */
+  public Path write(final Path directory, final long seed) throws IOException {
+    final Path romFile = directory.resolve(String.format(Locale.ENGLISH, "rom-%d.sfc", seed));
+
+    return Files.write(romFile, create(seed).data());
+  }
+
+  /**
+   * Creates a patcher for the images of this factory.
+   *
+   * @return a new patcher which uses the spritemap offset and palette locations of the images.
+   */
+  public AlttpRomPatcher createPatcher() {
+    final AlttpRomPatcher alttpRomPatcher = new AlttpRomPatcher();
+    alttpRomPatcher.setOffset(getSpritemapOffset());
+    alttpRomPatcher.setPaletteLocationChest(getPaletteLocationChest());
+    alttpRomPatcher.setPaletteLocationOverworld(getPaletteLocationOverworld());
+
+    return alttpRomPatcher;
+  }
+
+  /**
+   * Names of the spritemaps which can be contained in an image, e.g. {@code u_1up.bin}.
+   *
+   * @return the file names of the shipped uncompressed spritemaps.
+   */
+  public static List<String> getSpritemapNames() {
+    return SPRITEMAPS.stream().map(SyntheticSpritemap::name).toList();
+  }
+
+  public int getRomSize() {
+    return this.romSize;
+  }
+
+  public int getSpritemapOffset() {
+    return AlttpRomPatcher.DEFAULT_SPRITEMAP_OFFSET - this.addressShift;
+  }
+
+  public int getPaletteLocationChest() {
+    return AlttpRomPatcher.PAL_LOC - this.addressShift;
+  }
+
+  public int getPaletteLocationOverworld() {
+    return AlttpRomPatcher.PAL_OW - this.addressShift;
+  }
+
+  private static List<SyntheticSpritemap> loadSpritemaps() {
+    try {
+      final URI uncompressedDirectory = SyntheticRomFactory.class.getResource(UNCOMPRESSED_DIRECTORY).toURI();
+
+      if ("jar".equals(uncompressedDirectory.getScheme())) {
+        return loadSpritemapsFromJar(uncompressedDirectory);
+      }
+
+      return loadSpritemaps(Path.of(uncompressedDirectory));
+    } catch (final URISyntaxException | IOException exception) {
+      throw new IllegalStateException("Unable to load the shipped spritemaps from [" + UNCOMPRESSED_DIRECTORY + "].", exception);
+    }
+  }
+
+  private static List<SyntheticSpritemap> loadSpritemapsFromJar(final URI uncompressedDirectory) throws IOException {
+    try (final FileSystem jarFileSystem = FileSystems.newFileSystem(uncompressedDirectory, Map.of())) {
+      return loadSpritemaps(jarFileSystem.getPath(UNCOMPRESSED_DIRECTORY));
+    } catch (final FileSystemAlreadyExistsException alreadyOpen) {
+      return loadSpritemaps(FileSystems.getFileSystem(uncompressedDirectory).getPath(UNCOMPRESSED_DIRECTORY));
+    }
+  }
+
+  private static List<SyntheticSpritemap> loadSpritemaps(final Path uncompressedDirectory) throws IOException {
+    try (final Stream<Path> files = Files.list(uncompressedDirectory)) {
+      return files
+          .filter(file -> file.getFileName().toString().startsWith("u_"))
+          .filter(file -> file.getFileName().toString().endsWith(".bin"))
+          .sorted()
+          .map(SyntheticRomFactory::compress)
+          .toList();
+    }
+  }
+
+  private static SyntheticSpritemap compress(final Path uncompressedFile) {
+    try {
+      final byte[] compressed = Lz2Compressor.compress(Files.readAllBytes(uncompressedFile), CompressionMode.OPTIMAL);
+
+      return new SyntheticSpritemap(uncompressedFile.getFileName().toString(), compressed);
+    } catch (final IOException ioException) {
+      throw new UncheckedIOException(ioException);
+    }
+  }
+
+  /**
+   * A generated ROM image.
+   *
+   * @param data          the image. Not copied, callers may modify it.
+   * @param spritemapName the file name of the contained spritemap, e.g. {@code u_1up.bin}.
+   * @param itemPalette   the palette written to the palette locations.
+   */
+  public record SyntheticRom(byte[] data, String spritemapName, ItemPalette itemPalette) {
+  }
+
+  private record SyntheticSpritemap(String name, byte[] compressed) {
+  }
+}
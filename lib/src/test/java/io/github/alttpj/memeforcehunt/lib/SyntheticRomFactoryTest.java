@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.alttpj.memeforcehunt.common.value.AbstractSpritemapWithSkin;
+import io.github.alttpj.memeforcehunt.common.value.ItemPalette;
+import io.github.alttpj.memeforcehunt.common.value.ULID;
+import io.github.alttpj.memeforcehunt.lib.SyntheticRomFactory.SyntheticRom;
+import io.github.alttpj.memeforcehunt.lib.compress.Lz2Decompressor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class SyntheticRomFactoryTest {
+
+  @ParameterizedTest
+  @ValueSource(ints = {SyntheticRomFactory.ONE_MEGABYTE, SyntheticRomFactory.TWO_MEGABYTES, SyntheticRomFactory.FOUR_MEGABYTES})
+  public void shouldContainShippedSpritemapAndPalette(final int romSize) throws IOException {
+    // given
+    final SyntheticRomFactory syntheticRomFactory = new SyntheticRomFactory(romSize);
+
+    // when
+    final SyntheticRom syntheticRom = syntheticRomFactory.create(42L);
+
+    // then
+    final byte[] rom = syntheticRom.data();
+    assertEquals(romSize, rom.length);
+
+    final byte[] expected = readResource("/uncompressed/" + syntheticRom.spritemapName());
+    final byte[] decompressed = new byte[expected.length];
+    final int offset = syntheticRomFactory.getSpritemapOffset();
+    Lz2Decompressor.decompress(rom, offset, rom.length - offset, decompressed, 0, Lz2Decompressor.NO_LIMIT);
+    assertArrayEquals(expected, decompressed);
+
+    final ItemPalette itemPalette = syntheticRom.itemPalette();
+    assertEquals(itemPalette.getPaletteIdChest(), rom[syntheticRomFactory.getPaletteLocationChest()]);
+    assertEquals(itemPalette.getPaletteIdOverworld(), rom[syntheticRomFactory.getPaletteLocationOverworld()]);
+  }
+
+  @Test
+  public void sameSeedShouldCreateSameRom() {
+    // given
+    final SyntheticRomFactory syntheticRomFactory = new SyntheticRomFactory(SyntheticRomFactory.TWO_MEGABYTES);
+
+    // when
+    final byte[] first = syntheticRomFactory.create(1L).data();
+    final byte[] second = syntheticRomFactory.create(1L).data();
+    final byte[] other = syntheticRomFactory.create(2L).data();
+
+    // then
+    assertArrayEquals(first, second);
+    assertFalse(Arrays.equals(first, other));
+  }
+
+  @Test
+  public void shouldRejectOtherSizes() {
+    assertThrows(IllegalArgumentException.class, () -> new SyntheticRomFactory(3 * SyntheticRomFactory.ONE_MEGABYTE));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {SyntheticRomFactory.ONE_MEGABYTE, SyntheticRomFactory.FOUR_MEGABYTES})
+  public void createdPatcherShouldPatchRom(final int romSize, @TempDir final Path tempDir) throws IOException {
+    // given
+    final SyntheticRomFactory syntheticRomFactory = new SyntheticRomFactory(romSize);
+    final Path romFile = syntheticRomFactory.write(tempDir, 7L);
+    final byte[] spritemap = readResource("/gfx/1up.bin");
+    final AbstractSpritemapWithSkin skin = new AbstractSpritemapWithSkin(new ULID().nextULID(), "1up", "1up", "author", ItemPalette.RED) {
+      @Override
+      public BufferedImage getImage() {
+        return null;
+      }
+
+      @Override
+      protected InputStream getSpritemapInputStream() {
+        return SyntheticRomFactoryTest.class.getResourceAsStream("/gfx/1up.bin");
+      }
+    };
+
+    // when
+    syntheticRomFactory.createPatcher().patchROM(romFile.toString(), skin);
+
+    // then
+    final byte[] patched = Files.readAllBytes(romFile);
+    final int offset = syntheticRomFactory.getSpritemapOffset();
+    final byte[] patchedSpritemap = Arrays.copyOfRange(patched, offset, offset + AlttpRomPatcher.MAX_SPRITEMAP_SIZE);
+    assertEquals(TileFactory.fromCompressedSpritemap(spritemap), TileFactory.fromCompressedSpritemap(patchedSpritemap));
+    assertEquals(ItemPalette.RED.getPaletteIdChest(), patched[syntheticRomFactory.getPaletteLocationChest()]);
+  }
+
+  private static byte[] readResource(final String resource) throws IOException {
+    try (final InputStream inputStream = SyntheticRomFactoryTest.class.getResourceAsStream(resource)) {
+      return inputStream.readAllBytes();
+    }
+  }
+}
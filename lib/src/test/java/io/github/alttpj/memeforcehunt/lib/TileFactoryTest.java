@@ -20,7 +20,8 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
-import io.github.alttpj.library.image.Tile;
+import io.github.alttpj.memeforcehunt.common.value.TileSheet;
+
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 
@@ -34,10 +35,11 @@ public class TileFactoryTest {
     final byte[] spritemapBytes = new byte[2048];
 
     // when
-    final Tile[] tiles = TileFactory.fromDecompressedSpritemap(spritemapBytes);
+    final TileSheet tiles = TileFactory.fromDecompressedSpritemap(spritemapBytes);
 
     assertAll(
-        () -> assertEquals(4, tiles.length)
+        () -> assertEquals(4, tiles.getTileCount()),
+        () -> assertEquals(4 * TileFactory.BYTES_PER_TILE, tiles.size())
     );
   }
 
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib.compress;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.alttpj.library.compress.SnesDecompressor;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+public class Lz2CompressorTest {
+
+  public static Stream<Path> shippedSpritemaps() throws URISyntaxException, IOException {
+    final Path gfxDirectory = Path.of(Lz2CompressorTest.class.getResource("/gfx").toURI());
+
+    return Files.list(gfxDirectory).sorted();
+  }
+
+  public static Stream<Path> shippedUncompressedSpritemaps() throws URISyntaxException, IOException {
+    final Path uncompressedDirectory = Path.of(Lz2CompressorTest.class.getResource("/uncompressed").toURI());
+
+    return Files.list(uncompressedDirectory).sorted();
+  }
+
+  /**
+   * Decompresses with the decoder of alttpj-library, which was not written together with {@link Lz2Compressor}.
+   */
+  private static byte[] referenceDecompress(final byte[] compressed) throws IOException {
+    try (final ByteArrayInputStream compressedInputStream = new ByteArrayInputStream(compressed)) {
+      return new SnesDecompressor(compressedInputStream).getDecompressed();
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("shippedUncompressedSpritemaps")
+  public void referenceDecompressorShouldReadShippedSpritemaps(final Path uncompressedSpritemap) throws IOException {
+    // given
+    final byte[] uncompressed = Files.readAllBytes(uncompressedSpritemap);
+
+    // when
+    final byte[] fast = Lz2Compressor.compress(uncompressed, CompressionMode.FAST);
+    final byte[] optimal = Lz2Compressor.compress(uncompressed, CompressionMode.OPTIMAL);
+
+    // then
+    assertArrayEquals(uncompressed, referenceDecompress(fast));
+    assertArrayEquals(uncompressed, referenceDecompress(optimal));
+  }
+
+  @ParameterizedTest
+  @EnumSource(CompressionMode.class)
+  public void referenceDecompressorShouldReadRandomData(final CompressionMode mode) throws IOException {
+    // given
+    final SplittableRandom random = new SplittableRandom(7L);
+    final byte[] data = new byte[4096];
+    random.nextBytes(data);
+
+    // when
+    final byte[] compressed = Lz2Compressor.compress(data, mode);
+
+    // then
+    assertArrayEquals(data, referenceDecompress(compressed));
+  }
+
+  @ParameterizedTest
+  @EnumSource(CompressionMode.class)
+  public void referenceDecompressorShouldReadRunHeavyData(final CompressionMode mode) throws IOException {
+    // given byte runs, word runs, increasing sequences and repeats, some longer than a single extended command
+    final SplittableRandom random = new SplittableRandom(11L);
+    final byte[] data = new byte[4096];
+    int pos = 0;
+    while (pos < data.length) {
+      final int length = Math.min(data.length - pos, 1 + random.nextInt(random.nextInt(8) == 0 ? 1100 : 40));
+      final int kind = random.nextInt(4);
+      final byte first = (byte) random.nextInt(256);
+      final byte second = (byte) random.nextInt(256);
+      for (int offset = 0; offset < length; offset++) {
+        data[pos + offset] = switch (kind) {
+          case 0 -> first;
+          case 1 -> offset % 2 == 0 ? first : second;
+          case 2 -> (byte) (first + offset);
+          default -> pos >= 64 ? data[pos - 64 + offset] : first;
+        };
+      }
+      pos += length;
+    }
+
+    // when
+    final byte[] compressed = Lz2Compressor.compress(data, mode);
+
+    // then
+    assertArrayEquals(data, referenceDecompress(compressed));
+    assertArrayEquals(data, Lz2Decompressor.decompress(compressed));
+  }
+
+  @ParameterizedTest
+  @MethodSource("shippedSpritemaps")
+  public void shouldRoundTripShippedSpritemaps(final Path spritemap) throws IOException {
+    // given
+    final byte[] decompressed = Lz2Decompressor.decompress(Files.readAllBytes(spritemap));
+
+    // when
+    final byte[] fast = Lz2Compressor.compress(decompressed, CompressionMode.FAST);
+    final byte[] optimal = Lz2Compressor.compress(decompressed, CompressionMode.OPTIMAL);
+
+    // then
+    assertArrayEquals(decompressed, Lz2Decompressor.decompress(fast));
+    assertArrayEquals(decompressed, Lz2Decompressor.decompress(optimal));
+    assertThat(optimal.length, Matchers.lessThanOrEqualTo(fast.length));
+  }
+
+  @ParameterizedTest
+  @MethodSource("shippedSpritemaps")
+  public void shouldReuseUnchangedPrefix(final Path spritemap) throws IOException {
+    // given a shipped spritemap where the first triforce tile (44) changed
+    final byte[] original = Files.readAllBytes(spritemap);
+    final byte[] changed = Lz2Decompressor.decompress(original);
+    final int firstChanged = 44 * 24;
+    Arrays.fill(changed, firstChanged, firstChanged + 24, (byte) 0x5A);
+
+    // when
+    final byte[] recompressed = Lz2Compressor.recompress(original, changed, firstChanged, CompressionMode.FAST);
+
+    // then the output is valid and starts with the original commands before the change.
+    assertArrayEquals(changed, Lz2Decompressor.decompress(recompressed));
+    final long boundary = Lz2Decompressor.findCommandBoundary(original, 0, original.length, firstChanged);
+    final int reused = (int) (boundary >>> 32);
+    assertThat((int) boundary, Matchers.lessThanOrEqualTo(firstChanged));
+    assertEquals(-1, Arrays.mismatch(original, 0, reused, recompressed, 0, reused));
+  }
+
+  @Test
+  public void shouldReuseEverythingIfNothingChanged() throws IOException {
+    // given
+    final byte[] data = new byte[1536];
+    Arrays.fill(data, 512, 1024, (byte) 7);
+    final byte[] original = Lz2Compressor.compress(data, CompressionMode.OPTIMAL);
+
+    // when
+    final byte[] recompressed = Lz2Compressor.recompress(original, data, data.length, CompressionMode.OPTIMAL);
+
+    // then
+    assertArrayEquals(original, recompressed);
+  }
+
+  @ParameterizedTest
+  @EnumSource(CompressionMode.class)
+  public void shouldRoundTripRandomData(final CompressionMode mode) throws IOException {
+    // given mostly random bytes with some runs, larger than a single extended command
+    final SplittableRandom random = new SplittableRandom(42L);
+    final byte[] data = new byte[3000];
+    for (int pos = 0; pos < data.length; pos++) {
+      data[pos] = (byte) (random.nextInt(8) == 0 ? 0 : random.nextInt(256));
+    }
+    Arrays.fill(data, 100, 1500, (byte) 3);
+
+    // when
+    final byte[] compressed = Lz2Compressor.compress(data, mode);
+
+    // then
+    assertArrayEquals(data, Lz2Decompressor.decompress(compressed));
+  }
+
+  @ParameterizedTest
+  @EnumSource(CompressionMode.class)
+  public void shouldCompressSuffixWithHistory(final CompressionMode mode) throws IOException {
+    // given a prefix which is compressed on its own
+    final byte[] data = new byte[1536];
+    for (int pos = 0; pos < data.length; pos++) {
+      data[pos] = (byte) ((pos % 97) * 3);
+    }
+    final byte[] prefix = Lz2Compressor.compress(Arrays.copyOf(data, 700), mode);
+
+    // when
+    final byte[] suffix = Lz2Compressor.compress(data, 700, mode);
+
+    // then the prefix without its end marker plus the suffix is a valid stream.
+    final byte[] combined = Arrays.copyOf(prefix, prefix.length - 1 + suffix.length);
+    System.arraycopy(suffix, 0, combined, prefix.length - 1, suffix.length);
+    assertArrayEquals(data, Lz2Decompressor.decompress(combined));
+  }
+
+  @Test
+  public void shouldCompressEmptyData() throws IOException {
+    final byte[] compressed = Lz2Compressor.compress(new byte[0], CompressionMode.OPTIMAL);
+
+    assertArrayEquals(new byte[] {(byte) 0xFF}, compressed);
+    assertArrayEquals(new byte[0], Lz2Decompressor.decompress(compressed));
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020-2020 the ALttPJ Team @ https://github.com/alttpj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.alttpj.memeforcehunt.lib.compress;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.alttpj.library.compress.SnesDecompressor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+public class Lz2DecompressorTest {
+
+  public static Stream<Path> shippedSpritemaps() throws URISyntaxException, IOException {
+    final Path gfxDirectory = Path.of(Lz2DecompressorTest.class.getResource("/gfx").toURI());
+
+    return Files.list(gfxDirectory).sorted();
+  }
+
+  @ParameterizedTest
+  @MethodSource("shippedSpritemaps")
+  public void shouldDecompressLikeSnesDecompressor(final Path spritemap) throws IOException {
+    // given
+    final byte[] compressed = Files.readAllBytes(spritemap);
+    final byte[] expected;
+    try (final ByteArrayInputStream compressedInputStream = new ByteArrayInputStream(compressed)) {
+      expected = new SnesDecompressor(compressedInputStream).getDecompressed();
+    }
+
+    // when
+    final byte[] decompressed = Lz2Decompressor.decompress(compressed);
+
+    // then
+    assertArrayEquals(expected, decompressed);
+    assertEquals(expected.length, Lz2Decompressor.decompressedSize(compressed, 0, compressed.length));
+  }
+
+  @ParameterizedTest
+  @MethodSource("shippedSpritemaps")
+  public void shouldStopAfterLimit(final Path spritemap) throws IOException {
+    // given
+    final byte[] compressed = Files.readAllBytes(spritemap);
+    final byte[] expected = Lz2Decompressor.decompress(compressed);
+    final int limit = Math.min(1488, expected.length);
+    final byte[] target = new byte[limit + 8];
+
+    // when
+    final int written = Lz2Decompressor.decompress(compressed, 0, compressed.length, target, 8, limit);
+
+    // then
+    assertEquals(limit, written);
+    assertArrayEquals(Arrays.copyOf(expected, limit), Arrays.copyOfRange(target, 8, target.length));
+  }
+
+  @Test
+  public void shouldDecodeAllCommands() throws IOException {
+    // given literal "AB", byte fill 3x C, word fill 4x DE, increasing fill 3x from 1, copy 4 from 0, extended byte fill 40x 0
+    final byte[] compressed = {
+        0x01, 'A', 'B',
+        0x22, 'C',
+        0x43, 'D', 'E',
+        0x62, 0x01,
+        (byte) 0x83, 0x00, 0x00,
+        (byte) 0xE4, 0x27, 0x00,
+        (byte) 0xFF
+    };
+    final byte[] expected = new byte[2 + 3 + 4 + 3 + 4 + 40];
+    System.arraycopy(new byte[] {'A', 'B', 'C', 'C', 'C', 'D', 'E', 'D', 'E', 1, 2, 3, 'A', 'B', 'C', 'C'}, 0, expected, 0, 16);
+
+    // when
+    final byte[] decompressed = Lz2Decompressor.decompress(compressed);
+
+    // then
+    assertArrayEquals(expected, decompressed);
+  }
+
+  @Test
+  public void shouldRejectCorruptData() {
+    final byte[] missingEndMarker = {0x01, 'A', 'B'};
+    final byte[] copyAhead = {0x00, 'A', (byte) 0x80, 0x05, 0x00, (byte) 0xFF};
+    final byte[] unknownCommand = {(byte) 0xA0, 0x00, (byte) 0xFF};
+
+    assertThrows(IOException.class, () -> Lz2Decompressor.decompress(missingEndMarker));
+    assertThrows(IOException.class, () -> Lz2Decompressor.decompress(copyAhead));
+    assertThrows(IOException.class, () -> Lz2Decompressor.decompress(unknownCommand));
+    assertThrows(IOException.class, () -> Lz2Decompressor.decompress(copyAhead, 0, copyAhead.length, new byte[1], 0, Lz2Decompressor.NO_LIMIT));
+  }
+}